@@ -0,0 +1,119 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.bean;
+
+import jodd.bean.fixture.PersonDto;
+import jodd.bean.fixture.PersonEntity;
+import org.apache.commons.beanutils.BeanUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ Benchmark                          Mode  Cnt     Score      Error  Units
+ BeanCopyBenchmark.apacheBeanUtils  avgt    5  6447.012 ± 4812.492  ns/op
+ BeanCopyBenchmark.beanCopy         avgt    5   288.723 ±  179.663  ns/op
+ BeanCopyBenchmark.beanCopyAll      avgt    5   133.989 ±   27.232  ns/op
+ BeanCopyBenchmark.beanCopyVisitor  avgt    5  1244.274 ±  520.124  ns/op
+
+ (single CPU machine)
+ */
+@Fork(3)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class BeanCopyBenchmark {
+
+	private static final int COUNT = 100;
+
+	PersonDto dto;
+	PersonEntity entity;
+	List<PersonDto> dtos;
+
+	@Setup
+	public void setup() {
+		dtos = new ArrayList<>(COUNT);
+		for (int i = 0; i < COUNT; i++) {
+			final PersonDto personDto = new PersonDto();
+			personDto.setId(Long.valueOf(i));
+			personDto.setFirstName("John" + i);
+			personDto.setLastName("Doe");
+			personDto.setEmail("john" + i + "@jodd.org");
+			personDto.setAge(String.valueOf(20 + i % 50));
+			personDto.setActive(i % 2 == 0);
+			personDto.setScore(Double.valueOf(i / 3.0));
+			personDto.setCity("Belgrade");
+			dtos.add(personDto);
+		}
+		dto = dtos.get(7);
+		entity = new PersonEntity();
+	}
+
+	/**
+	 * Reference: http://commons.apache.org/proper/commons-beanutils/
+	 */
+	@Benchmark
+	public Object apacheBeanUtils() throws Exception {
+		BeanUtils.copyProperties(entity, dto);
+		return entity;
+	}
+
+	/**
+	 * Visits the properties by name, as subclasses of <code>BeanCopy</code> do.
+	 */
+	@Benchmark
+	public Object beanCopyVisitor() {
+		new BeanCopy(dto, entity) {}.copy();
+		return entity;
+	}
+
+	@Benchmark
+	public Object beanCopy() {
+		BeanCopy.beans(dto, entity).copy();
+		return entity;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public Object beanCopyAll() {
+		return new BeanCopy().copyAll(dtos, PersonEntity.class);
+	}
+
+}
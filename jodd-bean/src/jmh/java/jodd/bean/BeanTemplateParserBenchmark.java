@@ -0,0 +1,135 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.bean;
+
+import jodd.bean.fixture.JavaBean;
+import jodd.bean.fixture.NestedJavaBean;
+import jodd.template.CompiledTemplate;
+import jodd.template.MapTemplateParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering a notification template with 6 macros, parsed on each call
+ * and compiled once, with a bean and with a map.
+ *
+ (single CPU machine)
+ Benchmark                                             Mode  Cnt     Score     Error  Units
+ BeanTemplateParserBenchmark.bean_compiled             avgt    5   666.069 ± 149.123  ns/op
+ BeanTemplateParserBenchmark.bean_compiled_appendable  avgt    5   721.139 ±  44.053  ns/op
+ BeanTemplateParserBenchmark.bean_parse                avgt    5  1488.902 ± 813.414  ns/op
+ BeanTemplateParserBenchmark.map_compiled              avgt    5   243.669 ±  70.422  ns/op
+ BeanTemplateParserBenchmark.map_compiled_appendable   avgt    5   186.262 ±  56.626  ns/op
+ BeanTemplateParserBenchmark.map_parse                 avgt    5   668.589 ± 532.379  ns/op
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class BeanTemplateParserBenchmark {
+
+	private static final String TEMPLATE =
+		"Hello ${fieldA},\n\n" +
+		"your order ${nestedJavaBean.fieldA} has been shipped to ${nestedJavaBean.nestedJavaBean.fieldA}.\n" +
+		"Track it at https://example.com/track/${fieldA}/${nestedJavaBean.fieldA}\n\n" +
+		"Regards,\n${nestedJavaBean.nestedJavaBean.nestedJavaBean.fieldA}";
+
+	JavaBean javaBean;
+	Map<String, Object> map;
+	BeanTemplateParser beanTemplateParser;
+	CompiledBeanTemplate compiledBeanTemplate;
+	MapTemplateParser mapTemplateParser;
+	CompiledTemplate compiledMapTemplate;
+	StringBuilder out;
+
+	@Setup
+	public void setup() {
+		final NestedJavaBean nestedJavaBean3 = new NestedJavaBean().setFieldA("Jodd Team");
+		final NestedJavaBean nestedJavaBean2 = new NestedJavaBean().setFieldA("Main Street 173").setNestedJavaBean(nestedJavaBean3);
+		final NestedJavaBean nestedJavaBean1 = new NestedJavaBean().setFieldA("#42").setNestedJavaBean(nestedJavaBean2);
+		javaBean = new JavaBean().setFieldA("Jodd").setNestedJavaBean(nestedJavaBean1);
+
+		map = new HashMap<>();
+		map.put("fieldA", "Jodd");
+		map.put("nestedJavaBean.fieldA", "#42");
+		map.put("nestedJavaBean.nestedJavaBean.fieldA", "Main Street 173");
+		map.put("nestedJavaBean.nestedJavaBean.nestedJavaBean.fieldA", "Jodd Team");
+
+		beanTemplateParser = new BeanTemplateParser();
+		compiledBeanTemplate = beanTemplateParser.compile(TEMPLATE);
+		mapTemplateParser = new MapTemplateParser();
+		compiledMapTemplate = mapTemplateParser.compile(TEMPLATE);
+		out = new StringBuilder(256);
+	}
+
+	@Benchmark
+	public String bean_parse() {
+		return beanTemplateParser.parseWithBean(TEMPLATE, javaBean);
+	}
+
+	@Benchmark
+	public String bean_compiled() {
+		return compiledBeanTemplate.renderBean(javaBean);
+	}
+
+	@Benchmark
+	public StringBuilder bean_compiled_appendable() throws IOException {
+		out.setLength(0);
+		return compiledBeanTemplate.renderBean(out, javaBean);
+	}
+
+	@Benchmark
+	public String map_parse() {
+		return mapTemplateParser.parseWithMap(TEMPLATE, map);
+	}
+
+	@Benchmark
+	public String map_compiled() {
+		return compiledMapTemplate.render(map::get);
+	}
+
+	@Benchmark
+	public StringBuilder map_compiled_appendable() throws IOException {
+		out.setLength(0);
+		return compiledMapTemplate.render(out, map::get);
+	}
+}
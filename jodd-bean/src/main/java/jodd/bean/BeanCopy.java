@@ -25,7 +25,14 @@
 
 package jodd.bean;
 
+import jodd.util.ClassUtil;
+import jodd.util.StringUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import static jodd.util.StringPool.LEFT_SQ_BRACKET;
 import static jodd.util.StringPool.RIGHT_SQ_BRACKET;
@@ -33,6 +40,12 @@ import static jodd.util.StringPool.RIGHT_SQ_BRACKET;
 /**
  * Powerful tool for copying properties from one bean into another.
  * <code>BeanCopy</code> works with POJO beans, but also with <code>Map</code>.
+ * <p>
+ * When copying between two POJO beans, a copy plan is created once per
+ * source type, destination type and options, and then reused for
+ * all further copies. Plan holds resolved getters and setters and their
+ * type converters; conversion is skipped for properties of matching types.
+ * Use {@link #copyAll(List, Class)} to copy many beans at once.
  *
  * @see BeanVisitor
  */
@@ -54,6 +67,14 @@ public class BeanCopy extends BeanVisitorImplBase<BeanCopy> {
 		this.destination = destination;
 	}
 
+	/**
+	 * Creates new BeanCopy without source and destination.
+	 * Used for copying lists of beans.
+	 * @see #copyAll(List, Class)
+	 */
+	public BeanCopy() {
+	}
+
 	private BeanCopy(final Object source) {
 		this.source = source;
 	}
@@ -162,6 +183,13 @@ public class BeanCopy extends BeanVisitorImplBase<BeanCopy> {
 	 * Performs the copying.
 	 */
 	public void copy() {
+		final BeanCopyPlan.Entry[] entries = resolvePlan(source, destination);
+
+		if (entries != null) {
+			copy(entries, source, destination);
+			return;
+		}
+
 		beanUtil = new BeanUtilBean()
 						.declared(declared)
 						.forced(forced)
@@ -169,6 +197,178 @@ public class BeanCopy extends BeanVisitorImplBase<BeanCopy> {
 		visit();
 	}
 
+	/**
+	 * Copies all source beans into the new instances of destination type.
+	 * Destination type must have a default constructor. Copy plan is
+	 * resolved once for all beans of the same type. <code>null</code>
+	 * elements are copied as <code>null</code>s.
+	 */
+	public <T> List<T> copyAll(final List<?> sources, final Class<T> destinationType) {
+		final List<T> destinations = new ArrayList<>(sources.size());
+
+		for (final Object source : sources) {
+			if (source == null) {
+				destinations.add(null);
+				continue;
+			}
+			try {
+				destinations.add(ClassUtil.newInstance(destinationType));
+			} catch (Exception ex) {
+				throw new BeanException("Bean creation failed: " + destinationType.getName(), ex);
+			}
+		}
+
+		copyAll(sources, destinations);
+
+		return destinations;
+	}
+
+	/**
+	 * Copies source beans into the destination beans at the same position.
+	 * Both lists must be of the same size. Copy plan is resolved
+	 * once for all beans of the same type; maps are copied as usual.
+	 */
+	public void copyAll(final List<?> sources, final List<?> destinations) {
+		if (sources.size() != destinations.size()) {
+			throw new BeanException("Lists size mismatch: " + sources.size() + " != " + destinations.size());
+		}
+
+		Class sourceType = null;
+		Class destinationType = null;
+		BeanCopyPlan.Entry[] entries = null;
+
+		final int size = sources.size();
+		for (int i = 0; i < size; i++) {
+			final Object source = sources.get(i);
+			final Object destination = destinations.get(i);
+
+			if (source == null || destination == null) {
+				continue;
+			}
+
+			if (source.getClass() != sourceType || destination.getClass() != destinationType) {
+				sourceType = source.getClass();
+				destinationType = destination.getClass();
+				entries = resolvePlan(source, destination);
+			}
+
+			if (entries != null) {
+				copy(entries, source, destination);
+				continue;
+			}
+
+			// no plan, use the visitor
+			this.source = source;
+			this.destination = destination;
+			this.isSourceMap = source instanceof Map;
+			this.isTargetMap = destination instanceof Map;
+			copy();
+		}
+	}
+
+	// ---------------------------------------------------------------- plan
+
+	/**
+	 * Clears cached copy plans. Should be invoked when type converters are
+	 * registered or introspector is changed after some beans have been copied.
+	 */
+	public static void resetPlans() {
+		BeanCopyPlan.reset();
+	}
+
+	private static final BeanCopyPlan.Entry[] NO_ENTRIES = new BeanCopyPlan.Entry[0];
+
+	/**
+	 * Resolves copy plan entries that match the rules. Returns <code>null</code>
+	 * when copy plan can't be used and beans have to be visited instead:
+	 * for maps, suppliers and subclasses that override the visiting.
+	 */
+	private BeanCopyPlan.Entry[] resolvePlan(final Object source, final Object destination) {
+		if (isSourceMap || isTargetMap || getClass() != BeanCopy.class) {
+			return null;
+		}
+		if (source instanceof Map || destination instanceof Map) {
+			return null;
+		}
+
+		final BeanCopyPlan plan = BeanCopyPlan.lookup(
+			source.getClass(), destination.getClass(), declared, includeFields,
+			type -> getAllBeanPropertyNames(type, declared));
+
+		if (!plan.isSupported()) {
+			return null;
+		}
+
+		if (!rules.hasRules()) {
+			return blacklist ? plan.entries : NO_ENTRIES;
+		}
+
+		return plan.matchEntries(rulesKey(), name -> rules.match(name, blacklist));
+	}
+
+	private Object[] rulesKeyValues;
+	private Object rulesKey;
+
+	/**
+	 * Returns the key of current rules: matching mode and all the rules.
+	 * Key is created once and reused while the rules are not changed.
+	 */
+	private Object rulesKey() {
+		final int total = rules.totalRules();
+
+		if (rulesKeyValues != null && matchesRules(rulesKeyValues, total)) {
+			return rulesKey;
+		}
+
+		final Object[] key = new Object[total * 2 + 1];
+
+		key[0] = blacklist;
+		for (int i = 0; i < total; i++) {
+			key[i * 2 + 1] = rules.getRule(i);
+			key[i * 2 + 2] = rules.isIncludeRule(i);
+		}
+		rulesKeyValues = key;
+		rulesKey = Arrays.asList(key);
+		return rulesKey;
+	}
+
+	/**
+	 * Returns <code>true</code> if key values match current rules.
+	 */
+	private boolean matchesRules(final Object[] key, final int total) {
+		if (key.length != total * 2 + 1 || !key[0].equals(blacklist)) {
+			return false;
+		}
+		for (int i = 0; i < total; i++) {
+			if (!Objects.equals(key[i * 2 + 1], rules.getRule(i))) {
+				return false;
+			}
+			if (!key[i * 2 + 2].equals(rules.isIncludeRule(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Copies properties using resolved plan entries.
+	 */
+	private void copy(final BeanCopyPlan.Entry[] entries, final Object source, final Object destination) {
+		for (final BeanCopyPlan.Entry entry : entries) {
+			final Object value = entry.get(source);
+
+			if (value == null && ignoreNullValues) {
+				continue;
+			}
+
+			if (ignoreEmptyString && value instanceof String && StringUtil.isEmpty((String) value)) {
+				continue;
+			}
+
+			entry.set(destination, value);
+		}
+	}
+
 	/**
 	 * Copies single property to the destination.
 	 * Exceptions are ignored, so copying continues if
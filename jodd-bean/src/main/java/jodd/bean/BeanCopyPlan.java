@@ -0,0 +1,246 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.bean;
+
+import jodd.cache.TypeCache;
+import jodd.introspector.ClassDescriptor;
+import jodd.introspector.ClassIntrospector;
+import jodd.introspector.Getter;
+import jodd.introspector.MapperFunction;
+import jodd.introspector.PropertyDescriptor;
+import jodd.introspector.Setter;
+import jodd.typeconverter.TypeConverter;
+import jodd.typeconverter.TypeConverterManager;
+import jodd.util.ClassUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Copy plan between two bean types: pairs of resolved getters and setters,
+ * together with converters needed for each pair. Plans are immutable and
+ * cached per source type, destination type and visiting options, so
+ * properties are not resolved by name on every copy. Entries that match
+ * the include/exclude rules are cached in the plan, per set of rules.
+ * Used only internally by {@link BeanCopy}.
+ */
+class BeanCopyPlan {
+
+	private static final TypeCache<TypeCache<AtomicReferenceArray<BeanCopyPlan>>> plans =
+		TypeCache.<TypeCache<AtomicReferenceArray<BeanCopyPlan>>>create().threadsafe(true).get();
+
+	/**
+	 * Maximum number of different rule sets with cached entries, per plan.
+	 */
+	private static final int MAX_RULE_SETS = 64;
+
+	/**
+	 * Returns cached copy plan, or creates a new one using given
+	 * source property names. Returned plan is not {@link #isSupported() supported}
+	 * when either type is a map or a supplier.
+	 */
+	static BeanCopyPlan lookup(
+			final Class<?> sourceType, final Class<?> destinationType,
+			final boolean declared, final boolean includeFields,
+			final Function<Class, String[]> propertyNames) {
+
+		final AtomicReferenceArray<BeanCopyPlan> options = plans
+			.get(sourceType, type -> TypeCache.<AtomicReferenceArray<BeanCopyPlan>>create().threadsafe(true).get())
+			.get(destinationType, type -> new AtomicReferenceArray<>(4));
+
+		final int index = (declared ? 1 : 0) + (includeFields ? 2 : 0);
+
+		final BeanCopyPlan plan = options.get(index);
+		if (plan != null) {
+			return plan;
+		}
+		options.compareAndSet(index, null, new BeanCopyPlan(sourceType, destinationType, declared, propertyNames));
+		return options.get(index);
+	}
+
+	/**
+	 * Clears all cached plans. Should be invoked when type converters or
+	 * introspector are changed after beans have been already copied.
+	 */
+	static void reset() {
+		plans.clear();
+	}
+
+	// ---------------------------------------------------------------- plan
+
+	final Entry[] entries;
+	private final Map<Object, Entry[]> matchedEntries = new ConcurrentHashMap<>();
+
+	private BeanCopyPlan(
+			final Class sourceType, final Class destinationType,
+			final boolean declared, final Function<Class, String[]> propertyNames) {
+
+		final ClassIntrospector introspector = ClassIntrospector.get();
+		final ClassDescriptor sourceCd = introspector.lookup(sourceType);
+		final ClassDescriptor destinationCd = introspector.lookup(destinationType);
+
+		if (sourceCd.isMap() || sourceCd.isSupplier() || destinationCd.isMap() || destinationCd.isSupplier()) {
+			this.entries = null;
+			return;
+		}
+
+		final TypeConverterManager typeConverterManager = TypeConverterManager.get();
+		final String[] names = propertyNames.apply(sourceType);
+		final ArrayList<Entry> list = new ArrayList<>(names.length);
+
+		for (final String name : names) {
+			final PropertyDescriptor sourcePd = sourceCd.getPropertyDescriptor(name, true);
+			final Getter getter = sourcePd != null ? sourcePd.getGetter(declared) : null;
+
+			if (getter == null) {
+				// property is listed, but not readable the same way; plan can't be used
+				this.entries = null;
+				return;
+			}
+
+			final PropertyDescriptor destinationPd = destinationCd.getPropertyDescriptor(name, true);
+			final Setter setter = destinationPd != null ? destinationPd.getSetter(declared) : null;
+
+			if (setter == null) {
+				// destination property does not exist, it is silently skipped
+				continue;
+			}
+
+			list.add(new Entry(name, getter, setter, typeConverterManager));
+		}
+
+		this.entries = list.toArray(new Entry[0]);
+	}
+
+	/**
+	 * Returns <code>true</code> if plan can be used for copying.
+	 */
+	boolean isSupported() {
+		return entries != null;
+	}
+
+	/**
+	 * Returns entries which names match the rules. Matched entries are
+	 * cached by the given key, that has to identify the set of rules.
+	 */
+	Entry[] matchEntries(final Object rulesKey, final Predicate<String> rules) {
+		Entry[] matched = matchedEntries.get(rulesKey);
+		if (matched != null) {
+			return matched;
+		}
+
+		final ArrayList<Entry> list = new ArrayList<>(entries.length);
+		for (final Entry entry : entries) {
+			if (rules.test(entry.name)) {
+				list.add(entry);
+			}
+		}
+		matched = list.toArray(new Entry[0]);
+
+		if (matchedEntries.size() < MAX_RULE_SETS) {
+			matchedEntries.putIfAbsent(rulesKey, matched);
+		}
+		return matched;
+	}
+
+	/**
+	 * Single property to copy.
+	 */
+	static class Entry {
+		final String name;
+		final Getter getter;
+		final Setter setter;
+		private final MapperFunction mapperFunction;
+		private final Class type;
+		private final Class componentType;
+		private final boolean collection;
+		private final boolean direct;
+		private final TypeConverter converter;
+		private final TypeConverterManager typeConverterManager;
+
+		Entry(final String name, final Getter getter, final Setter setter, final TypeConverterManager typeConverterManager) {
+			this.name = name;
+			this.getter = getter;
+			this.setter = setter;
+			this.mapperFunction = setter.getMapperFunction();
+			final Class<?> setterType = setter.getSetterRawType();
+			this.type = setterType;
+			this.componentType = setter.getSetterRawComponentType();
+			this.collection = ClassUtil.isTypeOf(type, Collection.class);
+			this.typeConverterManager = typeConverterManager;
+
+			// matching types: values are set as they are, without conversion
+			final Class getterType = getter.getGetterRawType();
+			this.direct = mapperFunction == null &&
+				(type == getterType || (!type.isPrimitive() && !getterType.isPrimitive() && ClassUtil.isTypeOf(getterType, type)));
+
+			this.converter = direct || collection || type == Object.class ? null : typeConverterManager.lookup(setterType);
+		}
+
+		/**
+		 * Reads the value from the source bean.
+		 */
+		Object get(final Object source) {
+			try {
+				return getter.invokeGetter(source);
+			} catch (Exception ex) {
+				throw new BeanException("Getter failed: " + getter, ex);
+			}
+		}
+
+		/**
+		 * Converts and sets the value to the destination bean.
+		 * Exceptions are ignored, as in silent {@link BeanUtil}.
+		 */
+		@SuppressWarnings("unchecked")
+		void set(final Object destination, Object value) {
+			try {
+				if (!direct) {
+					if (mapperFunction != null) {
+						value = mapperFunction.apply(value);
+					}
+					if (collection) {
+						value = typeConverterManager.convertToCollection(value, type, componentType);
+					}
+					else if (converter != null) {
+						value = converter.convert(value);
+					}
+					else {
+						value = typeConverterManager.convertType(value, type);
+					}
+				}
+				setter.invokeSetter(destination, value);
+			}
+			catch (Exception ignore) {
+			}
+		}
+	}
+}
@@ -0,0 +1,192 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.bean;
+
+import jodd.introspector.ClassDescriptor;
+import jodd.introspector.ClassIntrospector;
+import jodd.introspector.CtorDescriptor;
+import jodd.introspector.PropertyDescriptor;
+import jodd.introspector.Setter;
+import jodd.typeconverter.TypeConverter;
+import jodd.typeconverter.TypeConverterManager;
+import jodd.util.CsvReader;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Binds rows of {@link CsvReader} to beans. Columns are mapped to bean
+ * properties once, when binder is created: for each column the setter
+ * and the type converter are resolved, so binding a row only converts
+ * and sets the values. Columns without matching writable property are ignored.
+ * Empty fields set <code>null</code>, or are skipped for primitive properties.
+ * <pre>
+ * try (CsvReader csv = new CsvReader(reader)) {
+ *     BeanCsvBinder&lt;User&gt; binder = BeanCsvBinder.of(User.class, csv);
+ *     binder.forEach(csv, user -&gt; ...);
+ * }
+ * </pre>
+ */
+public class BeanCsvBinder<T> {
+
+	/**
+	 * Creates binder for given columns, i.e. property names.
+	 */
+	public static <T> BeanCsvBinder<T> of(final Class<T> type, final String... columns) {
+		return new BeanCsvBinder<>(type, columns);
+	}
+
+	/**
+	 * Creates binder for columns read from the header row of CSV reader.
+	 */
+	public static <T> BeanCsvBinder<T> of(final Class<T> type, final CsvReader csvReader) throws IOException {
+		if (!csvReader.next()) {
+			throw new BeanException("CSV header row not found");
+		}
+		return new BeanCsvBinder<>(type, csvReader.toStringArray());
+	}
+
+	private final CtorDescriptor ctor;
+	private final String[] columns;
+	private final Setter[] setters;
+	private final TypeConverter[] converters;
+	private final boolean[] primitives;
+
+	@SuppressWarnings("unchecked")
+	protected BeanCsvBinder(final Class<T> type, final String[] columns) {
+		final ClassDescriptor cd = ClassIntrospector.get().lookup(type);
+		final TypeConverterManager typeConverterManager = TypeConverterManager.get();
+
+		this.ctor = cd.getDefaultCtorDescriptor(true);
+		this.columns = columns;
+		this.setters = new Setter[columns.length];
+		this.converters = new TypeConverter[columns.length];
+		this.primitives = new boolean[columns.length];
+
+		for (int i = 0; i < columns.length; i++) {
+			final PropertyDescriptor pd = cd.getPropertyDescriptor(columns[i].trim(), false);
+			if (pd == null) {
+				continue;
+			}
+			final Setter setter = pd.getSetter(false);
+			if (setter == null) {
+				continue;
+			}
+			final Class propertyType = setter.getSetterRawType();
+
+			setters[i] = setter;
+			primitives[i] = propertyType.isPrimitive();
+
+			if (propertyType == String.class || propertyType == CharSequence.class || propertyType == Object.class) {
+				continue;
+			}
+			TypeConverter converter = typeConverterManager.lookup(propertyType);
+			if (converter == null) {
+				converter = value -> typeConverterManager.convertType(value, propertyType);
+			}
+			converters[i] = converter;
+		}
+	}
+
+	/**
+	 * Returns column names.
+	 */
+	public String[] columns() {
+		return columns.clone();
+	}
+
+	/**
+	 * Binds current row into a new bean.
+	 */
+	@SuppressWarnings("unchecked")
+	public T bind(final CsvReader csvReader) {
+		if (ctor == null) {
+			throw new BeanException("Default constructor not found");
+		}
+		final T bean;
+		try {
+			bean = (T) ctor.getConstructor().newInstance();
+		}
+		catch (Exception ex) {
+			throw new BeanException("Bean creation failed", ex);
+		}
+		return bind(csvReader, bean);
+	}
+
+	/**
+	 * Binds current row into the given bean.
+	 */
+	public T bind(final CsvReader csvReader, final T bean) {
+		final int count = Math.min(csvReader.size(), setters.length);
+
+		for (int i = 0; i < count; i++) {
+			final Setter setter = setters[i];
+			if (setter == null) {
+				continue;
+			}
+			final CharSequence field = csvReader.field(i);
+
+			Object value = null;
+			if (field.length() != 0) {
+				value = field.toString();
+				if (converters[i] != null) {
+					try {
+						value = converters[i].convert(value);
+					}
+					catch (Exception ex) {
+						throw new BeanException(
+							"Invalid value of column '" + columns[i] + "' in row " + csvReader.rowNumber(), ex);
+					}
+				}
+			}
+			else if (primitives[i]) {
+				continue;
+			}
+
+			try {
+				setter.invokeSetter(bean, value);
+			}
+			catch (Exception ex) {
+				throw new BeanException("Setter failed for column: " + columns[i], ex);
+			}
+		}
+		return bean;
+	}
+
+	/**
+	 * Reads all remaining rows, binds them into new beans and
+	 * passes them to the consumer. Returns number of rows.
+	 */
+	public long forEach(final CsvReader csvReader, final Consumer<? super T> consumer) throws IOException {
+		long count = 0;
+		while (csvReader.next()) {
+			consumer.accept(bind(csvReader));
+			count++;
+		}
+		return count;
+	}
+}
@@ -57,4 +57,13 @@ public class BeanTemplateParser extends StringTemplateParser {
 			return value.toString();
 		});
 	}
+
+	/**
+	 * Compiles bean template for repeated rendering with
+	 * {@link CompiledBeanTemplate#renderBean(Object)}.
+	 */
+	@Override
+	public CompiledBeanTemplate compile(final String template) {
+		return new CompiledBeanTemplate(super.compile(template));
+	}
 }
@@ -0,0 +1,184 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.bean;
+
+import jodd.cache.TypeCache;
+import jodd.exception.UncheckedException;
+import jodd.introspector.ClassDescriptor;
+import jodd.introspector.ClassIntrospector;
+import jodd.introspector.Getter;
+import jodd.introspector.PropertyDescriptor;
+import jodd.template.CompiledTemplate;
+import jodd.util.StringPool;
+import jodd.util.StringUtil;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bean template compiled by {@link BeanTemplateParser#compile(String)}.
+ * Macros with property names are resolved to property getters once per
+ * context class; getters of nested properties are looked up by the type
+ * of the values. Other macros (indexes, maps) are resolved with
+ * {@link BeanUtil#declaredSilent}, as in {@link BeanTemplateParser}.
+ */
+public class CompiledBeanTemplate extends CompiledTemplate {
+
+	private final TypeCache<Function<Object, Object>[]> accessors =
+		TypeCache.<Function<Object, Object>[]>create().threadsafe(true).get();
+
+	protected CompiledBeanTemplate(final CompiledTemplate compiledTemplate) {
+		super(compiledTemplate);
+	}
+
+	/**
+	 * Renders template with values from context bean.
+	 */
+	public String renderBean(final Object context) {
+		try {
+			return renderBean(new StringBuilder(), context).toString();
+		}
+		catch (IOException ioex) {
+			throw new UncheckedException(ioex);
+		}
+	}
+
+	/**
+	 * Renders template with values from context bean into the given output.
+	 */
+	public <A extends Appendable> A renderBean(final A out, final Object context) throws IOException {
+		final Function<Object, Object>[] getters = accessors.get(context.getClass(), this::resolveAccessors);
+
+		return render(out,
+			index -> getters[index].apply(context),
+			name -> BeanUtil.declaredSilent.getProperty(context, name));
+	}
+
+	/**
+	 * Resolves value accessor for each macro of the template.
+	 */
+	@SuppressWarnings("unchecked")
+	protected Function<Object, Object>[] resolveAccessors(final Class type) {
+		final Function<Object, Object>[] getters = new Function[names.length];
+		final boolean isMap = Map.class.isAssignableFrom(type);
+
+		for (int i = 0; i < names.length; i++) {
+			final String name = names[i];
+			final String[] path = StringUtil.split(name, StringPool.DOT);
+
+			Getter getter = null;
+			if (!isMap && isSimplePath(path)) {
+				getter = lookupGetter(type, path[0]);
+			}
+
+			if (getter == null) {
+				getters[i] = bean -> BeanUtil.declaredSilent.getProperty(bean, name);
+			}
+			else if (path.length == 1) {
+				final Getter propertyGetter = getter;
+				getters[i] = bean -> invokeGetter(propertyGetter, bean);
+			}
+			else {
+				getters[i] = nestedAccessor(getter, path);
+			}
+		}
+		return getters;
+	}
+
+	/**
+	 * Creates accessor for nested property. The first getter is known,
+	 * others depend on the runtime type of the values.
+	 */
+	private Function<Object, Object> nestedAccessor(final Getter getter, final String[] path) {
+		final String[] remainingPaths = new String[path.length];
+		for (int k = path.length - 1; k > 0; k--) {
+			remainingPaths[k] = k == path.length - 1 ? path[k] : path[k] + StringPool.DOT + remainingPaths[k + 1];
+		}
+
+		return bean -> {
+			Object value = invokeGetter(getter, bean);
+
+			for (int k = 1; k < path.length; k++) {
+				if (value == null) {
+					return null;
+				}
+				final Getter next = value instanceof Map ? null : lookupGetter(value.getClass(), path[k]);
+				if (next == null) {
+					return BeanUtil.declaredSilent.getProperty(value, remainingPaths[k]);
+				}
+				value = invokeGetter(next, value);
+			}
+			return value;
+		};
+	}
+
+	/**
+	 * Returns getter of a property or <code>null</code> if property
+	 * is not found or class can not be introspected.
+	 */
+	private static Getter lookupGetter(final Class type, final String name) {
+		try {
+			final ClassDescriptor cd = ClassIntrospector.get().lookup(type);
+			final PropertyDescriptor pd = cd.getPropertyDescriptor(name, true);
+			return pd != null ? pd.getGetter(true) : null;
+		}
+		catch (Exception ignore) {
+			return null;
+		}
+	}
+
+	private static Object invokeGetter(final Getter getter, final Object bean) {
+		try {
+			return getter.invokeGetter(bean);
+		}
+		catch (Exception ignore) {
+			return null;
+		}
+	}
+
+	private static boolean isSimplePath(final String[] path) {
+		for (final String name : path) {
+			if (!isSimpleName(name)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isSimpleName(final String name) {
+		if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0))) {
+			return false;
+		}
+		for (int i = 1; i < name.length(); i++) {
+			if (!Character.isJavaIdentifierPart(name.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -30,7 +30,9 @@ import jodd.bean.fixtures.FooBeanString;
 import jodd.util.Wildcard;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -346,6 +348,75 @@ class BeanCopyTest {
 		assertEquals(17, less.number.intValue());
 	}
 
+	@Test
+	void testLessToMoreIgnoreNulls() {
+		Less less = new Less();
+		less.data = "data";
+		More more = new More();
+		more.number = "173";
+
+		BeanCopy.beans(less, more).declared(true).ignoreNulls(true).copy();
+		assertEquals("data", more.data);
+		assertEquals("173", more.number);
+
+		// same plan, different options
+		BeanCopy.beans(less, more).declared(true).exclude("data").copy();
+		assertEquals("data", more.data);
+		assertNull(more.number);
+
+		// same plan, other rules
+		more.data = null;
+		more.number = "173";
+		BeanCopy.beans(less, more).declared(true).exclude("number").copy();
+		assertEquals("data", more.data);
+		assertEquals("173", more.number);
+
+		more.data = null;
+		BeanCopy.beans(less, more).declared(true).excludeAll().include("number").copy();
+		assertNull(more.data);
+		assertNull(more.number);
+
+		more.number = "173";
+		BeanCopy.beans(less, more).declared(true).excludeAll().copy();
+		assertEquals("173", more.number);
+	}
+
+	@Test
+	void testCopyAll() {
+		List<Less> lesses = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			Less less = new Less();
+			less.data = "data" + i;
+			less.number = Integer.valueOf(i);
+			lesses.add(less);
+		}
+		lesses.add(null);
+
+		List<More> mores = new BeanCopy().declared(true).copyAll(lesses, More.class);
+
+		assertEquals(4, mores.size());
+		for (int i = 0; i < 3; i++) {
+			assertEquals("data" + i, mores.get(i).data);
+			assertEquals(String.valueOf(i), mores.get(i).number);
+			assertNull(mores.get(i).boo);
+		}
+		assertNull(mores.get(3));
+
+		mores.get(2).number = "72";
+		mores.set(3, new More());
+		lesses.set(3, new Less());
+
+		new BeanCopy().declared(true).exclude("data").copyAll(mores, lesses);
+
+		assertEquals("data0", lesses.get(0).data);
+		assertEquals(0, lesses.get(0).number.intValue());
+		assertEquals(72, lesses.get(2).number.intValue());
+		assertNull(lesses.get(3).data);
+		assertNull(lesses.get(3).number);
+
+		assertThrows(BeanException.class, () -> new BeanCopy().copyAll(lesses, new ArrayList<>()));
+	}
+
 	@Test
 	void testCopyMap() {
 		Map map = new HashMap();
@@ -654,6 +725,27 @@ class BeanCopyTest {
 		assertEquals(43, beanDest.child.number);
 	}
 
+	@Test
+	void testChangedRulesOnReuse() {
+		FooBean fb = createFooBean();
+		BeanCopy beanCopy = BeanCopy.fromBean(fb).exclude("fooInteger");
+
+		FooBean dest = new FooBean();
+		beanCopy.toBean(dest).copy();
+		assertNull(dest.getFooInteger());
+		assertEquals(203, dest.getFooLong().longValue());
+
+		dest = new FooBean();
+		beanCopy.exclude("fooLong").toBean(dest).copy();
+		assertNull(dest.getFooInteger());
+		assertNull(dest.getFooLong());
+		assertEquals("213", dest.getFooString());
+
+		dest = new FooBean();
+		beanCopy.excludeAll().toBean(dest).copy();
+		assertNull(dest.getFooString());
+	}
+
 	@Test
 	void testIgnoreEmptyString() {
 		FooBean source = new FooBean();
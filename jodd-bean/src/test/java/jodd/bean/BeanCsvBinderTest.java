@@ -0,0 +1,96 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.bean;
+
+import jodd.bean.fixtures.Color;
+import jodd.bean.fixtures.EnumBean;
+import jodd.bean.fixtures.Status;
+import jodd.util.CsvReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BeanCsvBinderTest {
+
+	@Test
+	void testBindWithHeader() throws IOException {
+		final String csv =
+			"id, color,unknown,status\r\n" +
+			"1,RED,x,IDLE\r\n" +
+			"2,,\"y\",TERMINATED\r\n" +
+			",BLUE\r\n";
+
+		final List<EnumBean> beans = new ArrayList<>();
+		try (CsvReader csvReader = new CsvReader(new StringReader(csv))) {
+			final BeanCsvBinder<EnumBean> binder = BeanCsvBinder.of(EnumBean.class, csvReader);
+			assertArrayEquals(new String[] {"id", " color", "unknown", "status"}, binder.columns());
+			assertEquals(3, binder.forEach(csvReader, beans::add));
+		}
+
+		assertEquals(1, beans.get(0).getId());
+		assertEquals(Color.RED, beans.get(0).getColor());
+		assertEquals(Status.IDLE, beans.get(0).getStatus());
+
+		assertEquals(2, beans.get(1).getId());
+		assertNull(beans.get(1).getColor());
+		assertEquals(Status.TERMINATED, beans.get(1).getStatus());
+
+		assertEquals(0, beans.get(2).getId());
+		assertEquals(Color.BLUE, beans.get(2).getColor());
+		assertNull(beans.get(2).getStatus());
+	}
+
+	@Test
+	void testBindInto() throws IOException {
+		final BeanCsvBinder<EnumBean> binder = BeanCsvBinder.of(EnumBean.class, "status", "id");
+
+		try (CsvReader csvReader = new CsvReader(new StringReader("STARTED,7\nSTARTED,seven"))) {
+			assertTrue(csvReader.next());
+
+			final EnumBean bean = new EnumBean();
+			bean.setColor(Color.GREEN);
+			binder.bind(csvReader, bean);
+
+			assertEquals(7, bean.getId());
+			assertEquals(Status.STARTED, bean.getStatus());
+			assertEquals(Color.GREEN, bean.getColor());
+
+			assertTrue(csvReader.next());
+			final BeanException ex = assertThrows(BeanException.class, () -> binder.bind(csvReader));
+			assertTrue(ex.getMessage().contains("'id' in row 2"));
+		}
+	}
+}
@@ -26,10 +26,16 @@
 package jodd.bean;
 
 import jodd.bean.fixtures.Abean;
+import jodd.bean.fixtures.Color;
+import jodd.bean.fixtures.EnumBean;
+import jodd.bean.fixtures.Status;
+import jodd.bean.fixtures.XBean;
+import jodd.bean.fixtures.YBean;
 import jodd.template.ContextTemplateParser;
 import jodd.template.MapTemplateParser;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -155,4 +161,40 @@ class BeanTemplateParserTest {
 		assertEquals("...\\\\\\\\abean_value...", ctp.parse("...\\\\\\\\${fooProp}..."));
 		assertEquals("...\\\\\\\\\\${fooProp}...", ctp.parse("...\\\\\\\\\\${fooProp}..."));
 	}
+
+	@Test
+	void testCompile() throws IOException {
+		BeanTemplateParser btp = new BeanTemplateParser();
+
+		EnumBean enumBean = new EnumBean();
+		enumBean.setId(173);
+		enumBean.setColor(Color.RED);
+		enumBean.setStatus(Status.STARTED);
+
+		String template = "#${id} is ${color}, \\${status}, ${missing}.${color.name}$id";
+		CompiledBeanTemplate compiledTemplate = btp.compile(template);
+
+		assertEquals(btp.parseWithBean(template, enumBean), compiledTemplate.renderBean(enumBean));
+		assertEquals("#173 is RED, ${status}, .173", compiledTemplate.renderBean(enumBean));
+
+		enumBean.setColor(null);
+		StringBuilder out = new StringBuilder("> ");
+		assertEquals("> #173 is , ${status}, .173", compiledTemplate.renderBean(out, enumBean).toString());
+
+		// nested properties
+		XBean xBean = new XBean();
+		CompiledBeanTemplate nestedTemplate = btp.compile("${y.foo}|${y.missing}|${yy[0].foo}");
+		assertEquals("||", nestedTemplate.renderBean(xBean));
+
+		YBean yBean = new YBean();
+		yBean.setFoo("bar");
+		xBean.setY(yBean);
+		xBean.getYy()[0] = yBean;
+		assertEquals(btp.parseWithBean("${y.foo}|${y.missing}|${yy[0].foo}", xBean), nestedTemplate.renderBean(xBean));
+		assertEquals("bar||bar", nestedTemplate.renderBean(xBean));
+
+		// other context class
+		Abean a = new Abean();
+		assertEquals(btp.parseWithBean("...${fooProp}...${id}", a), btp.compile("...${fooProp}...${id}").renderBean(a));
+	}
 }
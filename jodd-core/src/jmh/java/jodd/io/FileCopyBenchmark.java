@@ -0,0 +1,157 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.io;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Directory copy: the former stream-based copy, channel transfer and parallel copy
+ * (4 threads). The <code>large</code> tree has four 32 MB files, the <code>small</code>
+ * tree has 2000 files of 4 KB in 20 directories. Destination is overwritten on each
+ * invocation, so the numbers mostly reflect the page cache, not the disk.
+ * <p>
+ * Run:
+ * <code>
+ * gw :jodd-core:FileCopyBenchmark
+ * </code>
+ * </p>
+ *
+ * Results:
+ * <pre>
+ * Benchmark                   (tree)   Mode  Cnt  Score   Error  Units
+ * FileCopyBenchmark.channel    large  thrpt    5  7.982 ± 1.143  ops/s
+ * FileCopyBenchmark.channel    small  thrpt    5  6.488 ± 1.204  ops/s
+ * FileCopyBenchmark.parallel   large  thrpt    5  9.404 ± 2.078  ops/s
+ * FileCopyBenchmark.parallel   small  thrpt    5  9.383 ± 3.966  ops/s
+ * FileCopyBenchmark.stream     large  thrpt    5  6.328 ± 1.432  ops/s
+ * FileCopyBenchmark.stream     small  thrpt    5  7.430 ± 4.438  ops/s
+ * </pre>
+ * Measured on a single CPU machine; parallel copy gains come from overlapping
+ * the file system calls, so more cores and real disks show larger differences.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class FileCopyBenchmark {
+
+	@Param({"large", "small"})
+	String tree;
+
+	private File root;
+	private File src;
+	private File dest;
+	private ParallelCopy parallelCopy;
+
+	@Setup
+	public void setUp() throws IOException {
+		root = FileUtil.createTempDirectory("jodd", "copy");
+		src = new File(root, "src");
+		dest = new File(root, "dest");
+
+		final Random random = new Random(173);
+
+		if (tree.equals("large")) {
+			FileUtil.mkdirs(src);
+			final byte[] bytes = new byte[32 * 1024 * 1024];
+			for (int i = 0; i < 4; i++) {
+				random.nextBytes(bytes);
+				FileUtil.writeBytes(new File(src, "file" + i + ".bin"), bytes);
+			}
+		} else {
+			final byte[] bytes = new byte[4 * 1024];
+			for (int d = 0; d < 20; d++) {
+				FileUtil.mkdirs(new File(src, "dir" + d));
+				for (int i = 0; i < 100; i++) {
+					random.nextBytes(bytes);
+					FileUtil.writeBytes(new File(src, "dir" + d + "/file" + i + ".bin"), bytes);
+				}
+			}
+		}
+
+		parallelCopy = new ParallelCopy().threads(4);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		FileUtil.deleteDir(root);
+	}
+
+	@Benchmark
+	public File stream() throws IOException {
+		streamCopyDir(src, dest);
+		return dest;
+	}
+
+	@Benchmark
+	public File channel() throws IOException {
+		FileUtil.copyDir(src, dest);
+		return dest;
+	}
+
+	@Benchmark
+	public File parallel() throws IOException {
+		parallelCopy.copyDir(src, dest);
+		return dest;
+	}
+
+	/**
+	 * Former implementation of the directory copy.
+	 */
+	private static void streamCopyDir(final File srcDir, final File destDir) throws IOException {
+		FileUtil.mkdirs(destDir);
+
+		for (final File file : srcDir.listFiles()) {
+			final File destFile = new File(destDir, file.getName());
+			if (file.isDirectory()) {
+				streamCopyDir(file, destFile);
+				continue;
+			}
+			try (
+				FileInputStream input = new FileInputStream(file);
+				FileOutputStream output = new FileOutputStream(destFile, false)
+			) {
+				StreamUtil.copy(input, output);
+			}
+			destFile.setLastModified(file.lastModified());
+		}
+	}
+}
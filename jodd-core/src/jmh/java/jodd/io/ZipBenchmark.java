@@ -0,0 +1,161 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.io;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression of 16 MB of text-like data into gzip, and of 32 entries of 512 KB into zip,
+ * single-threaded (as before) and on given number of threads. MB/s is 16 times the score.
+ * <p>
+ * Run:
+ * <code>
+ * gw :jodd-core:ZipBenchmark
+ * </code>
+ * </p>
+ *
+ * Results:
+ * <pre>
+ * Benchmark                  (level)  (threads)   Mode  Cnt  Score   Error  Units
+ * ZipBenchmark.gzip                1          1  thrpt    5  4.887 ± 0.491  ops/s
+ * ZipBenchmark.gzip                6          1  thrpt    5  1.318 ± 0.265  ops/s
+ * ZipBenchmark.parallelGzip        1          1  thrpt    5  4.290 ± 0.659  ops/s
+ * ZipBenchmark.parallelGzip        1          4  thrpt    5  4.117 ± 0.717  ops/s
+ * ZipBenchmark.parallelGzip        6          1  thrpt    5  1.342 ± 0.359  ops/s
+ * ZipBenchmark.parallelGzip        6          4  thrpt    5  1.443 ± 0.116  ops/s
+ * ZipBenchmark.parallelZip         1          1  thrpt    5  4.285 ± 0.949  ops/s
+ * ZipBenchmark.parallelZip         1          4  thrpt    5  4.148 ± 1.209  ops/s
+ * ZipBenchmark.parallelZip         6          1  thrpt    5  1.255 ± 0.372  ops/s
+ * ZipBenchmark.parallelZip         6          4  thrpt    5  1.213 ± 0.550  ops/s
+ * ZipBenchmark.zip                 1          1  thrpt    5  4.095 ± 1.191  ops/s
+ * ZipBenchmark.zip                 6          1  thrpt    5  1.356 ± 0.104  ops/s
+ * </pre>
+ * Measured on a single CPU machine, so it shows only the overhead of the parallel
+ * compression; the throughput scales with the number of cores.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class ZipBenchmark {
+
+	private static final int SIZE = 16 * 1024 * 1024;
+	private static final int ENTRIES = 32;
+
+	@Param({"1", "4"})
+	int threads;
+
+	@Param({"1", "6"})
+	int level;
+
+	private byte[] data;
+
+	/**
+	 * Output that counts written bytes.
+	 */
+	static class NullOutputStream extends OutputStream {
+		long size;
+
+		@Override
+		public void write(final int b) {
+			size++;
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) {
+			size += len;
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		final String[] words = {"jodd", "the", "compression", "of", "a", "block", "parallel", "gzip", "zip", "stream", "\n"};
+		final Random random = new Random(173);
+		final StringBuilder sb = new StringBuilder(SIZE + 32);
+		while (sb.length() < SIZE) {
+			sb.append(words[random.nextInt(words.length)]).append(' ');
+			if (random.nextInt(10) == 0) {
+				sb.append(random.nextInt());
+			}
+		}
+		data = sb.substring(0, SIZE).getBytes();
+	}
+
+	@Benchmark
+	public long gzip() throws IOException {
+		final NullOutputStream out = new NullOutputStream();
+		try (GZIPOutputStream gzos = new GZIPOutputStream(out, 8192) {
+			{
+				def.setLevel(level);
+			}
+		}) {
+			gzos.write(data);
+		}
+		return out.size;
+	}
+
+	@Benchmark
+	public long parallelGzip() throws IOException {
+		final NullOutputStream out = new NullOutputStream();
+		try (ParallelGzipOutputStream gzos = new ParallelGzipOutputStream(out, level, threads)) {
+			gzos.write(data);
+		}
+		return out.size;
+	}
+
+	@Benchmark
+	public int zip() throws IOException {
+		return zip(ZipBuilder.createZipInMemory().level(level));
+	}
+
+	@Benchmark
+	public int parallelZip() throws IOException {
+		return zip(ZipBuilder.createZipInMemory().level(level).parallel(threads));
+	}
+
+	private int zip(final ZipBuilder zipBuilder) throws IOException {
+		final int entrySize = SIZE / ENTRIES;
+		for (int i = 0; i < ENTRIES; i++) {
+			final byte[] content = new byte[entrySize];
+			System.arraycopy(data, i * entrySize, content, 0, entrySize);
+			zipBuilder.add(content).path("entry" + i).save();
+		}
+		return zipBuilder.toBytes().length;
+	}
+}
@@ -0,0 +1,150 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.io.findfile;
+
+import jodd.inex.InExRuleMatcher;
+import jodd.inex.InExRules;
+import jodd.io.FileUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Walks a generated tree of (by default) one million empty files in 1000 folders,
+ * counting the <code>*.txt</code> files (the half of them) matched on the full path.
+ * Compares the file iterator with string patterns (as before), the file iterator with
+ * compiled patterns, the lazy stream and the parallel stream.
+ * <p>
+ * Run:
+ * <code>
+ * gw :jodd-core:FindFileBenchmark
+ * </code>
+ * </p>
+ *
+ * Results:
+ * <pre>
+ * Benchmark                             (files)   Mode  Cnt  Score   Error  Units
+ * FindFileBenchmark.iterator            1000000  thrpt    5  0.283 ± 0.032  ops/s
+ * FindFileBenchmark.iteratorUncompiled  1000000  thrpt    5  0.265 ± 0.039  ops/s
+ * FindFileBenchmark.parallelStream      1000000  thrpt    5  0.377 ± 0.022  ops/s
+ * FindFileBenchmark.stream              1000000  thrpt    5  0.343 ± 0.089  ops/s
+ * </pre>
+ * Measured on a single CPU machine, where parallel stream gains come only
+ * from overlapping the file system calls.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class FindFileBenchmark {
+
+	@Param("1000000")
+	int files;
+
+	private File root;
+
+	@Setup
+	public void setUp() throws IOException {
+		root = FileUtil.createTempDirectory("jodd", "findfile");
+
+		final int filesPerFolder = files / 1000;
+		for (int i = 0; i < 10; i++) {
+			for (int j = 0; j < 100; j++) {
+				final Path folder = Files.createDirectories(root.toPath().resolve("dir" + i).resolve("sub" + j));
+				for (int k = 0; k < filesPerFolder; k++) {
+					Files.createFile(folder.resolve("file" + k + (k % 2 == 0 ? ".txt" : ".bin")));
+				}
+			}
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		FileUtil.deleteDir(root);
+	}
+
+	private FindFile findFile(final FindFile findFile) {
+		return findFile
+			.include("**/*.txt")
+			.recursive(true)
+			.includeDirs(false)
+			.searchPath(root);
+	}
+
+	@Benchmark
+	public int iteratorUncompiled() {
+		final FindFile ff = findFile(new FindFile() {
+			@Override
+			protected InExRules<String, String, ?> createRulesEngine() {
+				return new InExRules<>(InExRuleMatcher.WILDCARD_PATH_RULE_MATCHER);
+			}
+		});
+
+		int count = 0;
+		while (ff.nextFile() != null) {
+			count++;
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int iterator() {
+		final FindFile ff = findFile(new WildcardFindFile());
+
+		int count = 0;
+		while (ff.nextFile() != null) {
+			count++;
+		}
+		return count;
+	}
+
+	@Benchmark
+	public long stream() {
+		try (Stream<Path> stream = findFile(new WildcardFindFile()).stream()) {
+			return stream.count();
+		}
+	}
+
+	@Benchmark
+	public long parallelStream() {
+		try (Stream<Path> stream = findFile(new WildcardFindFile()).parallelStream()) {
+			return stream.count();
+		}
+	}
+}
@@ -0,0 +1,127 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.io.upload;
+
+import jodd.io.FastByteArrayOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Parsing of multipart request with a single 16 MB file. One operation
+ * parses whole request, so MB/s is 16 times the score.
+ * <p>
+ * Run:
+ * <code>
+ * gw :jodd-core:MultipartStreamParserBenchmark
+ * </code>
+ * </p>
+ *
+ * Results:
+ * <pre>
+ * Benchmark                                    Mode  Cnt    Score    Error  Units
+ * MultipartStreamParserBenchmark.buffered     thrpt    5  298.767 ± 24.446  ops/s   (~4780 MB/s)
+ * MultipartStreamParserBenchmark.byteByByte   thrpt    5    0.735 ±  0.041  ops/s   (~12 MB/s)
+ * MultipartStreamParserBenchmark.parser       thrpt    5  227.109 ± 45.563  ops/s   (~3630 MB/s)
+ * </pre>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class MultipartStreamParserBenchmark {
+
+	private static final String BOUNDARY = "----WebKitFormBoundary7MA4YWxkTrZu0gW";
+	private static final int SIZE = 16 * 1024 * 1024;
+
+	private byte[] request;
+
+	/**
+	 * Output that counts written bytes.
+	 */
+	static class NullOutputStream extends OutputStream {
+		long size;
+
+		@Override
+		public void write(final int b) {
+			size++;
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) {
+			size += len;
+		}
+	}
+
+	@Setup
+	public void setup() throws IOException {
+		final byte[] data = new byte[SIZE];
+		new Random(1).nextBytes(data);
+
+		final FastByteArrayOutputStream out = new FastByteArrayOutputStream();
+		out.write((BOUNDARY + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"data.bin\"\r\n"
+			+ "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+		out.write(data);
+		out.write(("\r\n" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+		request = out.toByteArray();
+	}
+
+	private long parse(final MultipartRequestInputStream input) throws IOException {
+		input.readBoundary();
+		input.readDataHeader(null);
+		final NullOutputStream out = new NullOutputStream();
+		input.copyAll(out);
+		return out.size;
+	}
+
+	@Benchmark
+	public long byteByByte() throws IOException {
+		return parse(new ByteByByteMultipartInputStream(new ByteArrayInputStream(request)));
+	}
+
+	@Benchmark
+	public long buffered() throws IOException {
+		return parse(new MultipartRequestInputStream(new ByteArrayInputStream(request)));
+	}
+
+	@Benchmark
+	public int parser() throws IOException {
+		final MultipartStreamParser parser = new MultipartStreamParser();
+		parser.parseRequestStream(new ByteArrayInputStream(request), null);
+		return parser.getFile("file").getSize();
+	}
+
+}
@@ -24,6 +24,8 @@
 // POSSIBILITY OF SUCH DAMAGE.
 package jodd.util;
 
+import jodd.io.FastByteArrayOutputStream;
+import jodd.io.StreamUtil;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
@@ -32,7 +34,12 @@ import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.Random;
 
 /**
  * Benchmark for encoding and decoding base32 - data.<br/>
@@ -49,6 +56,12 @@ import java.io.UnsupportedEncodingException;
  * </ol>
  *
  * <p>
+ * Streams and large arrays are compared on 1 MB of random data:
+ * Apache Commons Codec streams, {@link jodd.io.Base32OutputStream}
+ * and {@link jodd.io.Base32InputStream}.
+ * </p>
+ *
+ * <p>
  * Run:
  * <code>
  * gw :jodd-core:Base32Benchmark
@@ -63,6 +76,28 @@ import java.io.UnsupportedEncodingException;
  * Base32Benchmark.encode_Apache_Base32                        thrpt   10    216608,267 ±     7159,349  ops/s
  * Base32Benchmark.encode_Jodd_Base32                          thrpt   10    373314,481 ±    19277,663  ops/s
  * </pre>
+ *
+ * Results with streams, on a single CPU machine (5 iterations):
+ * <pre>
+ * Benchmark                                    Mode  Cnt        Score         Error  Units
+ * Base32Benchmark.decode_Apache_Base32        thrpt    5   421002.052 ±  163301.634  ops/s
+ * Base32Benchmark.decode_Apache_Base32Stream  thrpt    5      151.832 ±      16.604  ops/s
+ * Base32Benchmark.decode_Jodd_Base32          thrpt    5  2673021.188 ± 1026145.164  ops/s
+ * Base32Benchmark.decode_Jodd_Base32Stream    thrpt    5      423.913 ±     326.299  ops/s
+ * Base32Benchmark.decode_Jodd_Base32_large    thrpt    5      498.052 ±     101.564  ops/s
+ * Base32Benchmark.encode_Apache_Base32        thrpt    5   475056.108 ±  406445.543  ops/s
+ * Base32Benchmark.encode_Apache_Base32Stream  thrpt    5      117.601 ±      89.710  ops/s
+ * Base32Benchmark.encode_Jodd_Base32          thrpt    5  2222012.246 ± 2342324.774  ops/s
+ * Base32Benchmark.encode_Jodd_Base32Stream    thrpt    5      728.987 ±      81.191  ops/s
+ * Base32Benchmark.encode_Jodd_Base32_large    thrpt    5      423.175 ±     154.188  ops/s
+ *
+ * Before encoding and decoding in groups of 5 bytes:
+ * Benchmark                                  Mode  Cnt        Score        Error  Units
+ * Base32Benchmark.decode_Jodd_Base32        thrpt    5  1558444.649 ± 952947.197  ops/s
+ * Base32Benchmark.decode_Jodd_Base32_large  thrpt    5      400.828 ±    298.472  ops/s
+ * Base32Benchmark.encode_Jodd_Base32        thrpt    5  1034924.692 ± 160858.981  ops/s
+ * Base32Benchmark.encode_Jodd_Base32_large  thrpt    5      189.008 ±     65.253  ops/s
+ * </pre>
  */
 @Fork(1)
 @Warmup(iterations = 2)
@@ -73,10 +108,20 @@ public class Base32Benchmark {
     private byte[] to_be_encoded ;
     private String to_be_decoded ;
 
+	private byte[] large;
+	private byte[] largeEncoded;
+	private String largeEncodedString;
+	private final FastByteArrayOutputStream sink = new FastByteArrayOutputStream(2 << 20);
+
 	@Setup
 	public void prepare() throws UnsupportedEncodingException {
 		to_be_encoded = "Jodd is set of Java microframeworks, tools and utilities, under 1.7 MB. We believe in common sense to make things simple, but not simpler. Get things done! Make your ideas! Kickstart your startup! And enjoy the coding.".getBytes("ISO-8859-1");
 		to_be_decoded = "JJXWIZBANFZSA43FOQQG6ZRAJJQXMYJANVUWG4TPMZZGC3LFO5XXE23TFQQHI33PNRZSAYLOMQQHK5DJNRUXI2LFOMWCA5LOMRSXEIBRFY3SATKCFYQFOZJAMJSWY2LFOZSSA2LOEBRW63LNN5XCA43FNZZWKIDUN4QG2YLLMUQHI2DJNZTXGIDTNFWXA3DFFQQGE5LUEBXG65BAONUW24DMMVZC4ICHMV2CA5DINFXGO4ZAMRXW4ZJBEBGWC23FEB4W65LSEBUWIZLBOMQSAS3JMNVXG5DBOJ2CA6LPOVZCA43UMFZHI5LQEEQEC3TEEBSW42TPPEQHI2DFEBRW6ZDJNZTS4";
+
+		large = new byte[1 << 20];
+		new Random(1).nextBytes(large);
+		largeEncodedString = Base32.encode(large);
+		largeEncoded = largeEncodedString.getBytes("ISO-8859-1");
 	}
 
     // ----------------------------------------------------------------------- Apache Commons Codec - Base32
@@ -103,4 +148,49 @@ public class Base32Benchmark {
 		return Base32.decode(to_be_decoded);
 	}
 
-}
\ No newline at end of file
+
+	// ----------------------------------------------------------------------- 1 MB
+
+	@Benchmark
+	public String encode_Jodd_Base32_large() {
+		return Base32.encode(large);
+	}
+
+	@Benchmark
+	public byte[] decode_Jodd_Base32_large() {
+		return Base32.decode(largeEncodedString);
+	}
+
+	@Benchmark
+	public int encode_Apache_Base32Stream() throws IOException {
+		sink.reset();
+		try (OutputStream out = new org.apache.commons.codec.binary.Base32OutputStream(sink)) {
+			return StreamUtil.copy(new ByteArrayInputStream(large), out);
+		}
+	}
+
+	@Benchmark
+	public int decode_Apache_Base32Stream() throws IOException {
+		sink.reset();
+		try (InputStream in = new org.apache.commons.codec.binary.Base32InputStream(new ByteArrayInputStream(largeEncoded))) {
+			return StreamUtil.copy(in, sink);
+		}
+	}
+
+	@Benchmark
+	public int encode_Jodd_Base32Stream() throws IOException {
+		sink.reset();
+		try (OutputStream out = new jodd.io.Base32OutputStream(sink)) {
+			return StreamUtil.copy(new ByteArrayInputStream(large), out);
+		}
+	}
+
+	@Benchmark
+	public int decode_Jodd_Base32Stream() throws IOException {
+		sink.reset();
+		try (InputStream in = new jodd.io.Base32InputStream(new ByteArrayInputStream(largeEncoded))) {
+			return StreamUtil.copy(in, sink);
+		}
+	}
+
+}
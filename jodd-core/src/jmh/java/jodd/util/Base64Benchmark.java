@@ -24,6 +24,8 @@
 // POSSIBILITY OF SUCH DAMAGE.
 package jodd.util;
 
+import jodd.io.FastByteArrayOutputStream;
+import jodd.io.StreamUtil;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
@@ -32,7 +34,12 @@ import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.Random;
 
 /**
  * Benchmark for encoding and decoding base64 - data.<br/>
@@ -49,6 +56,12 @@ import java.io.UnsupportedEncodingException;
  *     <li>{@link org.apache.commons.codec.binary.Base64#decode(String)}</li>
  *     <li>{@link Base64#decode(String)}</li>
 * </ol>
+ *
+ * <p>
+ * Streams are compared on 1 MB of random data, encoded in MIME lines:
+ * <code>java.util.Base64</code> wrapped streams, Apache Commons Codec streams,
+ * {@link jodd.io.Base64OutputStream} and {@link jodd.io.Base64InputStream}.
+ * </p>
  *
  * <p>
  * Run:
@@ -67,6 +80,23 @@ import java.io.UnsupportedEncodingException;
  * Base64Benchmark.encode_Java_Base64                                            thrpt   10    2317106.258 ±   48035.465  ops/s
  * Base64Benchmark.encode_Jodd_Base64                                            thrpt   10    2308577.816 ±  111663.488  ops/s
  * </pre>
+ *
+ * Results with streams, on a single CPU machine (5 iterations):
+ * <pre>
+ * Benchmark                                    Mode  Cnt         Score          Error  Units
+ * Base64Benchmark.decode_Apache_Base64        thrpt    5    516965.975 ±   422370.495  ops/s
+ * Base64Benchmark.decode_Apache_Base64Stream  thrpt    5       112.135 ±       80.227  ops/s
+ * Base64Benchmark.decode_Java_Base64          thrpt    5  14607878.522 ±  8941528.887  ops/s
+ * Base64Benchmark.decode_Java_Base64Stream    thrpt    5        23.290 ±        4.857  ops/s
+ * Base64Benchmark.decode_Jodd_Base64          thrpt    5   3082102.742 ±  1964810.005  ops/s
+ * Base64Benchmark.decode_Jodd_Base64Stream    thrpt    5       552.049 ±      301.648  ops/s
+ * Base64Benchmark.encode_Apache_Base64        thrpt    5    506520.113 ±   327895.976  ops/s
+ * Base64Benchmark.encode_Apache_Base64Stream  thrpt    5       139.400 ±      105.044  ops/s
+ * Base64Benchmark.encode_Java_Base64          thrpt    5  13130424.073 ± 10941935.753  ops/s
+ * Base64Benchmark.encode_Java_Base64Stream    thrpt    5       620.549 ±      158.839  ops/s
+ * Base64Benchmark.encode_Jodd_Base64          thrpt    5   2038670.500 ±  1226915.405  ops/s
+ * Base64Benchmark.encode_Jodd_Base64Stream    thrpt    5       524.623 ±      334.504  ops/s
+ * </pre>
  */
 @Fork(1)
 @Warmup(iterations = 10)
@@ -77,10 +107,18 @@ public class Base64Benchmark {
     private byte[] to_be_encoded ;
     private String to_be_decoded ;
 
+	private byte[] large;
+	private byte[] largeEncoded;
+	private final FastByteArrayOutputStream sink = new FastByteArrayOutputStream(2 << 20);
+
 	@Setup
 	public void prepare() throws UnsupportedEncodingException {
 		to_be_encoded = "Jodd is set of Java microframeworks, tools and utilities, under 1.7 MB. We believe in common sense to make things simple, but not simpler. Get things done! Make your ideas! Kickstart your startup! And enjoy the coding.".getBytes("UTF-8");
 		to_be_decoded = "Sm9kZCBpcyBzZXQgb2YgSmF2YSBtaWNyb2ZyYW1ld29ya3MsIHRvb2xzIGFuZCB1dGlsaXRpZXMsIHVuZGVyIDEuNyBNQi4gV2UgYmVsaWV2ZSBpbiBjb21tb24gc2Vuc2UgdG8gbWFrZSB0aGluZ3Mgc2ltcGxlLCBidXQgbm90IHNpbXBsZXIuIEdldCB0aGluZ3MgZG9uZSEgTWFrZSB5b3VyIGlkZWFzISBLaWNrc3RhcnQgeW91ciBzdGFydHVwISBBbmQgZW5qb3kgdGhlIGNvZGluZy4=";
+
+		large = new byte[1 << 20];
+		new Random(1).nextBytes(large);
+		largeEncoded = jodd.util.Base64.encodeToByte(large, true);
 	}
 
     // ----------------------------------------------------------------------- Java Base64
@@ -119,4 +157,55 @@ public class Base64Benchmark {
 		return jodd.util.Base64.decode(to_be_decoded);
 	}
 
+
+	// ----------------------------------------------------------------------- Streams - 1 MB, MIME lines
+
+	@Benchmark
+	public int encode_Java_Base64Stream() throws IOException {
+		sink.reset();
+		try (OutputStream out = java.util.Base64.getMimeEncoder().wrap(sink)) {
+			return StreamUtil.copy(new ByteArrayInputStream(large), out);
+		}
+	}
+
+	@Benchmark
+	public int decode_Java_Base64Stream() throws IOException {
+		sink.reset();
+		try (InputStream in = java.util.Base64.getMimeDecoder().wrap(new ByteArrayInputStream(largeEncoded))) {
+			return StreamUtil.copy(in, sink);
+		}
+	}
+
+	@Benchmark
+	public int encode_Apache_Base64Stream() throws IOException {
+		sink.reset();
+		try (OutputStream out = new org.apache.commons.codec.binary.Base64OutputStream(sink)) {
+			return StreamUtil.copy(new ByteArrayInputStream(large), out);
+		}
+	}
+
+	@Benchmark
+	public int decode_Apache_Base64Stream() throws IOException {
+		sink.reset();
+		try (InputStream in = new org.apache.commons.codec.binary.Base64InputStream(new ByteArrayInputStream(largeEncoded))) {
+			return StreamUtil.copy(in, sink);
+		}
+	}
+
+	@Benchmark
+	public int encode_Jodd_Base64Stream() throws IOException {
+		sink.reset();
+		try (OutputStream out = new jodd.io.Base64OutputStream(sink, true)) {
+			return StreamUtil.copy(new ByteArrayInputStream(large), out);
+		}
+	}
+
+	@Benchmark
+	public int decode_Jodd_Base64Stream() throws IOException {
+		sink.reset();
+		try (InputStream in = new jodd.io.Base64InputStream(new ByteArrayInputStream(largeEncoded))) {
+			return StreamUtil.copy(in, sink);
+		}
+	}
+
 }
@@ -0,0 +1,155 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.util;
+
+import jodd.io.FastCharArrayWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Reading and writing 100.000 CSV rows with 8 fields (some quoted), in rows/second:
+ * line by line with {@link CsvUtil}, and streaming with {@link CsvReader} and {@link CsvWriter}.
+ * Reading with <code>CsvUtil</code> works only for rows without line breaks in fields.
+ * <p>
+ * Run:
+ * <code>
+ * gw :jodd-core:CsvBenchmark
+ * </code>
+ * </p>
+ *
+ * Results:
+ * <pre>
+ * (single CPU machine, ops/s are rows/s)
+ * Benchmark                             Mode  Cnt        Score         Error  Units
+ * CsvBenchmark.read_CsvReader_strings  thrpt    5  4214083.346 ±  530474.300  ops/s
+ * CsvBenchmark.read_CsvReader_views    thrpt    5  5107722.591 ± 1355092.783  ops/s
+ * CsvBenchmark.read_CsvUtil            thrpt    5  1026946.386 ±  389695.040  ops/s
+ * CsvBenchmark.write_CsvUtil           thrpt    5  1059830.264 ±  620717.160  ops/s
+ * CsvBenchmark.write_CsvWriter         thrpt    5  1709391.068 ± 1172382.330  ops/s
+ * </pre>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class CsvBenchmark {
+
+	private static final int ROWS = 100_000;
+
+	private char[] csv;
+	private Object[][] rows;
+
+	@Setup
+	public void setUp() throws IOException {
+		final Random random = new Random(1);
+		rows = new Object[ROWS][];
+		final FastCharArrayWriter out = new FastCharArrayWriter();
+		try (CsvWriter csvWriter = new CsvWriter(out)) {
+			for (int i = 0; i < ROWS; i++) {
+				rows[i] = new Object[] {
+					i, "user" + random.nextInt(10000), "Jodd", random.nextDouble(),
+					"Super, luxurious \"truck\"", "", random.nextLong(), "Lorem ipsum dolor sit amet"
+				};
+				csvWriter.writeRow(rows[i]);
+			}
+		}
+		csv = out.toCharArray();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public long read_CsvUtil() throws IOException {
+		long total = 0;
+		try (BufferedReader reader = new BufferedReader(new CharArrayReader(csv))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				total += CsvUtil.toStringArray(line).length;
+			}
+		}
+		return total;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public long read_CsvReader_strings() throws IOException {
+		long total = 0;
+		try (CsvReader csvReader = new CsvReader(new CharArrayReader(csv))) {
+			while (csvReader.next()) {
+				total += csvReader.toStringArray().length;
+			}
+		}
+		return total;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public long read_CsvReader_views() throws IOException {
+		long total = 0;
+		try (CsvReader csvReader = new CsvReader(new CharArrayReader(csv))) {
+			while (csvReader.next()) {
+				for (int i = 0, size = csvReader.size(); i < size; i++) {
+					total += csvReader.field(i).length();
+				}
+			}
+		}
+		return total;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public int write_CsvUtil() throws IOException {
+		final FastCharArrayWriter out = new FastCharArrayWriter(csv.length);
+		for (final Object[] row : rows) {
+			out.write(CsvUtil.toCsvString(row));
+			out.write("\r\n");
+		}
+		return out.size();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public int write_CsvWriter() throws IOException {
+		final FastCharArrayWriter out = new FastCharArrayWriter(csv.length);
+		try (CsvWriter csvWriter = new CsvWriter(out)) {
+			for (final Object[] row : rows) {
+				csvWriter.writeRow(row);
+			}
+		}
+		return out.size();
+	}
+}
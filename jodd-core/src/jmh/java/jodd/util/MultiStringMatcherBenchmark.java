@@ -0,0 +1,136 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+
+/**
+ * Replacing 300 tokens (<code>${token.N}</code>) in a 10 KB text with 100 of them,
+ * using {@link StringUtil#replace(String, String[], String[])} and the compiled
+ * {@link MultiStringMatcher}. Searching for the first token and checking if text
+ * without tokens contains any.
+ * <p>
+ * Run:
+ * <code>
+ * gw :jodd-core:MultiStringMatcherBenchmark
+ * </code>
+ * </p>
+ *
+ * Results:
+ * <pre>
+ * (single CPU machine)
+ * Benchmark                                            Mode  Cnt        Score        Error  Units
+ * MultiStringMatcherBenchmark.compile                 thrpt    5     9660.729 ±   4294.927  ops/s
+ * MultiStringMatcherBenchmark.containsAny_matcher     thrpt    5    34739.174 ±   2950.425  ops/s
+ * MultiStringMatcherBenchmark.containsAny_stringUtil  thrpt    5     2665.165 ±    414.439  ops/s
+ * MultiStringMatcherBenchmark.indexOf_matcher         thrpt    5  3692329.191 ± 273782.583  ops/s
+ * MultiStringMatcherBenchmark.indexOf_stringUtil      thrpt    5     2514.947 ±    962.261  ops/s
+ * MultiStringMatcherBenchmark.replace_matcher         thrpt    5    23774.560 ±    707.526  ops/s
+ * MultiStringMatcherBenchmark.replace_stringUtil      thrpt    5       33.929 ±     22.776  ops/s
+ * </pre>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class MultiStringMatcherBenchmark {
+
+	private static final int TOKENS = 300;
+
+	private String[] tokens;
+	private String[] values;
+	private String text;
+	private String textNoMatch;
+	private MultiStringMatcher matcher;
+
+	@Setup
+	public void setUp() {
+		tokens = new String[TOKENS];
+		values = new String[TOKENS];
+		for (int i = 0; i < TOKENS; i++) {
+			tokens[i] = "${token." + i + "}";
+			values[i] = "value" + i;
+		}
+
+		final Random random = new Random(173);
+		final StringBuilder sb = new StringBuilder();
+		final StringBuilder noMatch = new StringBuilder();
+		while (sb.length() < 10_000) {
+			final String words = "Lorem ipsum dolor sit amet, consectetur adipiscing elit $ { token } ";
+			sb.append(words);
+			noMatch.append(words);
+			sb.append(tokens[random.nextInt(TOKENS)]).append(' ');
+		}
+		text = sb.toString();
+		textNoMatch = noMatch.toString();
+
+		matcher = MultiStringMatcher.of(tokens);
+	}
+
+	@Benchmark
+	public String replace_stringUtil() {
+		return StringUtil.replace(text, tokens, values);
+	}
+
+	@Benchmark
+	public String replace_matcher() {
+		return matcher.replace(text, values);
+	}
+
+	@Benchmark
+	public int[] indexOf_stringUtil() {
+		return StringUtil.indexOf(text, tokens);
+	}
+
+	@Benchmark
+	public int[] indexOf_matcher() {
+		return matcher.indexOf(text);
+	}
+
+	@Benchmark
+	public boolean containsAny_stringUtil() {
+		return StringUtil.indexOf(textNoMatch, tokens) != null;
+	}
+
+	@Benchmark
+	public boolean containsAny_matcher() {
+		return matcher.containsAny(textNoMatch);
+	}
+
+	@Benchmark
+	public MultiStringMatcher compile() {
+		return MultiStringMatcher.of(tokens);
+	}
+}
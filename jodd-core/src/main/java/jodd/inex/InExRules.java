@@ -167,6 +167,13 @@ public class InExRules<V, D, R> implements InExRuleMatcher<V, R> {
 		return rules.get(index).value;
 	}
 
+	/**
+	 * Returns <code>true</code> if rule on given index is an include rule.
+	 */
+	public boolean isIncludeRule(final int index) {
+		return rules.get(index).include;
+	}
+
 	/**
 	 * Resets all the rules in this rule engine.
 	 */
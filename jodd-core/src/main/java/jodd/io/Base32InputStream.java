@@ -0,0 +1,173 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.io;
+
+import jodd.util.Base32;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Input stream that decodes Base32 characters read from the source
+ * input stream or reader. Lower case characters are accepted.
+ * Whitespaces are ignored and decoding stops on the padding, if present.
+ * Invalid characters and non-canonical endings throw an <code>IOException</code>.
+ * @see Base32OutputStream
+ */
+public class Base32InputStream extends DecoderInputStream {
+
+	private static final int WHITESPACE = -2;
+	private static final int PADDING = -3;
+	private static final int[] INV = new int[256];
+
+	static {
+		Arrays.fill(INV, -1);
+		for (int i = 0; i < Base32.CHARS.length; i++) {
+			final char c = Base32.CHARS[i];
+			INV[c] = i;
+			INV[Character.toLowerCase(c)] = i;
+		}
+		INV[' '] = WHITESPACE;
+		INV['\t'] = WHITESPACE;
+		INV['\r'] = WHITESPACE;
+		INV['\n'] = WHITESPACE;
+		INV['='] = PADDING;
+	}
+
+	private long bits;
+	private int count;
+	private boolean finished;
+
+	public Base32InputStream(final InputStream in) {
+		super(in);
+	}
+
+	public Base32InputStream(final Reader reader) {
+		super(reader);
+	}
+
+	@Override
+	protected int decode(final byte[] dest) throws IOException {
+		if (finished) {
+			return -1;
+		}
+		final byte[] src = inBuf;
+		final int max = dest.length - 5;
+		int d = 0;
+
+		while (d <= max) {
+			if (inPos == inLen && !fill()) {
+				d = decodeLast(dest, d);
+				break;
+			}
+
+			if (count == 0) {
+				// bulk loop over complete groups
+				int s = inPos;
+				for (final int end = inLen - 8; s <= end && d <= max; s += 8) {
+					final int c0 = INV[src[s] & 0xFF];
+					final int c1 = INV[src[s + 1] & 0xFF];
+					final int c2 = INV[src[s + 2] & 0xFF];
+					final int c3 = INV[src[s + 3] & 0xFF];
+					final int c4 = INV[src[s + 4] & 0xFF];
+					final int c5 = INV[src[s + 5] & 0xFF];
+					final int c6 = INV[src[s + 6] & 0xFF];
+					final int c7 = INV[src[s + 7] & 0xFF];
+					if ((c0 | c1 | c2 | c3 | c4 | c5 | c6 | c7) < 0) {
+						break;
+					}
+					final long v =
+						(long) c0 << 35 | (long) c1 << 30 | (long) c2 << 25 | (long) c3 << 20 |
+						(long) c4 << 15 | (long) c5 << 10 | (long) c6 << 5 | c7;
+
+					dest[d] = (byte) (v >> 32);
+					dest[d + 1] = (byte) (v >> 24);
+					dest[d + 2] = (byte) (v >> 16);
+					dest[d + 3] = (byte) (v >> 8);
+					dest[d + 4] = (byte) v;
+					d += 5;
+				}
+				inPos = s;
+				if (s == inLen || d > max) {
+					continue;
+				}
+			}
+
+			final int v = INV[src[inPos++] & 0xFF];
+
+			if (v >= 0) {
+				bits = bits << 5 | v;
+				if (++count == 8) {
+					for (int r = 32; r >= 0; r -= 8) {
+						dest[d++] = (byte) (bits >> r);
+					}
+					bits = 0;
+					count = 0;
+				}
+			}
+			else if (v == PADDING) {
+				d = decodeLast(dest, d);
+				break;
+			}
+			else if (v != WHITESPACE) {
+				throw new IOException("Invalid Base32 character: " + (src[inPos - 1] & 0xFF));
+			}
+		}
+		return d == 0 && finished ? -1 : d;
+	}
+
+	/**
+	 * Decodes the last incomplete group.
+	 */
+	private int decodeLast(final byte[] dest, int d) throws IOException {
+		finished = true;
+		switch (count) {
+			case 0:
+				return d;
+			case 2:
+			case 4:
+			case 5:
+			case 7:
+				break;
+			default:
+				throw new IOException("Invalid Base32 input length");
+		}
+
+		final int extra = count * 5 % 8;
+		if ((bits & ((1 << extra) - 1)) != 0) {
+			throw new IOException("Invalid end bits of Base32 input");
+		}
+		final long value = bits >>> extra;
+
+		for (int r = (count * 5 / 8 - 1) * 8; r >= 0; r -= 8) {
+			dest[d++] = (byte) (value >> r);
+		}
+		return d;
+	}
+}
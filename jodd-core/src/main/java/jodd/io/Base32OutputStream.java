@@ -0,0 +1,136 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.io;
+
+import jodd.util.Base32;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Output stream that encodes written bytes into Base32 characters
+ * and writes them to the target output stream or writer. Output is
+ * the same as of {@link Base32#encode(byte[])}, without the padding.
+ * Stream must be closed to write the last group.
+ * @see Base32InputStream
+ */
+public class Base32OutputStream extends EncoderOutputStream {
+
+	private static final byte[] CHARS = new byte[32];
+
+	static {
+		for (int i = 0; i < CHARS.length; i++) {
+			CHARS[i] = (byte) Base32.CHARS[i];
+		}
+	}
+
+	private long tail;
+	private int tailLen;
+
+	public Base32OutputStream(final OutputStream out) {
+		super(out);
+	}
+
+	public Base32OutputStream(final Writer writer) {
+		super(writer);
+	}
+
+	@Override
+	protected void encode(final byte[] bytes, int off, int len) throws IOException {
+		// complete the pending group first
+		while (tailLen > 0 && len > 0) {
+			tail = tail << 8 | (bytes[off++] & 0xFF);
+			len--;
+			if (++tailLen == 5) {
+				encodeGroup(tail, 5);
+				tail = 0;
+				tailLen = 0;
+			}
+		}
+
+		final byte[] buf = this.buf;
+
+		while (len >= 5) {
+			ensure(8);
+
+			final int groups = Math.min(len / 5, (buf.length - pos) >> 3);
+
+			int s = off;
+			int d = pos;
+			for (final int end = off + groups * 5; s < end; s += 5) {
+				final long v =
+					(bytes[s] & 0xFFL) << 32 |
+					(bytes[s + 1] & 0xFFL) << 24 |
+					(bytes[s + 2] & 0xFFL) << 16 |
+					(bytes[s + 3] & 0xFFL) << 8 |
+					(bytes[s + 4] & 0xFFL);
+
+				buf[d] = CHARS[(int) (v >>> 35) & 31];
+				buf[d + 1] = CHARS[(int) (v >>> 30) & 31];
+				buf[d + 2] = CHARS[(int) (v >>> 25) & 31];
+				buf[d + 3] = CHARS[(int) (v >>> 20) & 31];
+				buf[d + 4] = CHARS[(int) (v >>> 15) & 31];
+				buf[d + 5] = CHARS[(int) (v >>> 10) & 31];
+				buf[d + 6] = CHARS[(int) (v >>> 5) & 31];
+				buf[d + 7] = CHARS[(int) v & 31];
+				d += 8;
+			}
+			pos = d;
+			len -= s - off;
+			off = s;
+		}
+
+		while (len > 0) {
+			tail = tail << 8 | (bytes[off++] & 0xFF);
+			tailLen++;
+			len--;
+		}
+	}
+
+	/**
+	 * Encodes single group of 1 - 5 bytes, without padding.
+	 */
+	private void encodeGroup(long group, final int size) throws IOException {
+		ensure(8);
+
+		group <<= (5 - size) << 3;
+
+		for (int i = 0, chars = (size * 8 + 4) / 5; i < chars; i++) {
+			buf[pos++] = CHARS[(int) (group >>> (35 - i * 5)) & 31];
+		}
+	}
+
+	@Override
+	protected void finish() throws IOException {
+		if (tailLen > 0) {
+			encodeGroup(tail, tailLen);
+			tail = 0;
+			tailLen = 0;
+		}
+	}
+}
@@ -0,0 +1,156 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.io;
+
+import jodd.util.Base64;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Input stream that decodes BASE64 characters read from the source
+ * input stream or reader. Line separators and other whitespaces are
+ * ignored, so lines may be of any length. Decoding stops on padding;
+ * missing padding at the end of the source is tolerated.
+ * Invalid characters throw an <code>IOException</code>.
+ * @see Base64OutputStream
+ */
+public class Base64InputStream extends DecoderInputStream {
+
+	private static final int WHITESPACE = -2;
+	private static final int PADDING = -3;
+	private static final int[] INV = new int[256];
+
+	static {
+		Arrays.fill(INV, -1);
+		for (int i = 0; i < Base64.CHARS.length; i++) {
+			INV[Base64.CHARS[i]] = i;
+		}
+		INV[' '] = WHITESPACE;
+		INV['\t'] = WHITESPACE;
+		INV['\r'] = WHITESPACE;
+		INV['\n'] = WHITESPACE;
+		INV['='] = PADDING;
+	}
+
+	private int bits;
+	private int count;
+	private boolean finished;
+
+	public Base64InputStream(final InputStream in) {
+		super(in);
+	}
+
+	public Base64InputStream(final Reader reader) {
+		super(reader);
+	}
+
+	@Override
+	protected int decode(final byte[] dest) throws IOException {
+		if (finished) {
+			return -1;
+		}
+		final byte[] src = inBuf;
+		final int max = dest.length - 3;
+		int d = 0;
+
+		while (d <= max) {
+			if (inPos == inLen && !fill()) {
+				d = decodeLast(dest, d);
+				break;
+			}
+
+			if (count == 0) {
+				// bulk loop over complete groups
+				int s = inPos;
+				for (final int end = inLen - 4; s <= end && d <= max; s += 4) {
+					final int a = INV[src[s] & 0xFF];
+					final int b = INV[src[s + 1] & 0xFF];
+					final int c = INV[src[s + 2] & 0xFF];
+					final int e = INV[src[s + 3] & 0xFF];
+					if ((a | b | c | e) < 0) {
+						break;
+					}
+					final int i = a << 18 | b << 12 | c << 6 | e;
+
+					dest[d] = (byte) (i >> 16);
+					dest[d + 1] = (byte) (i >> 8);
+					dest[d + 2] = (byte) i;
+					d += 3;
+				}
+				inPos = s;
+				if (s == inLen || d > max) {
+					continue;
+				}
+			}
+
+			final int v = INV[src[inPos++] & 0xFF];
+
+			if (v >= 0) {
+				bits = bits << 6 | v;
+				if (++count == 4) {
+					dest[d++] = (byte) (bits >> 16);
+					dest[d++] = (byte) (bits >> 8);
+					dest[d++] = (byte) bits;
+					bits = 0;
+					count = 0;
+				}
+			}
+			else if (v == PADDING) {
+				d = decodeLast(dest, d);
+				break;
+			}
+			else if (v != WHITESPACE) {
+				throw new IOException("Invalid BASE64 character: " + (src[inPos - 1] & 0xFF));
+			}
+		}
+		return d == 0 && finished ? -1 : d;
+	}
+
+	/**
+	 * Decodes the last incomplete group.
+	 */
+	private int decodeLast(final byte[] dest, int d) throws IOException {
+		finished = true;
+		switch (count) {
+			case 0:
+				break;
+			case 2:
+				dest[d++] = (byte) (bits >> 4);
+				break;
+			case 3:
+				dest[d++] = (byte) (bits >> 10);
+				dest[d++] = (byte) (bits >> 2);
+				break;
+			default:
+				throw new IOException("Invalid BASE64 input length");
+		}
+		return d;
+	}
+}
@@ -0,0 +1,171 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.io;
+
+import jodd.util.Base64;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Output stream that encodes written bytes into BASE64 characters
+ * and writes them to the target output stream or writer. Output is
+ * the same as of {@link Base64#encodeToByte(byte[], boolean)}, but
+ * content is never hold in memory.
+ * Stream must be closed to write the last group and the padding.
+ * @see Base64InputStream
+ */
+public class Base64OutputStream extends EncoderOutputStream {
+
+	private static final int LINE_LENGTH = 76;
+	private static final byte[] CHARS = new byte[64];
+
+	static {
+		for (int i = 0; i < CHARS.length; i++) {
+			CHARS[i] = (byte) Base64.CHARS[i];
+		}
+	}
+
+	private final boolean lineSeparator;
+	private int lineLen;
+	private int tail;
+	private int tailLen;
+
+	public Base64OutputStream(final OutputStream out) {
+		this(out, false);
+	}
+
+	/**
+	 * Creates BASE64 encoding stream.
+	 * @param lineSeparator optional CRLF after 76 chars, unless EOF.
+	 */
+	public Base64OutputStream(final OutputStream out, final boolean lineSeparator) {
+		super(out);
+		this.lineSeparator = lineSeparator;
+	}
+
+	public Base64OutputStream(final Writer writer) {
+		this(writer, false);
+	}
+
+	/**
+	 * Creates BASE64 encoding stream that writes characters.
+	 * @param lineSeparator optional CRLF after 76 chars, unless EOF.
+	 */
+	public Base64OutputStream(final Writer writer, final boolean lineSeparator) {
+		super(writer);
+		this.lineSeparator = lineSeparator;
+	}
+
+	@Override
+	protected void encode(final byte[] bytes, int off, int len) throws IOException {
+		// complete the pending group first
+		while (tailLen > 0 && len > 0) {
+			tail = tail << 8 | (bytes[off++] & 0xFF);
+			len--;
+			if (++tailLen == 3) {
+				encodeGroup(tail, 3);
+				tail = 0;
+				tailLen = 0;
+			}
+		}
+
+		final byte[] buf = this.buf;
+
+		while (len >= 3) {
+			encodeGroupStart();
+
+			int groups = Math.min(len / 3, (buf.length - pos) >> 2);
+			if (lineSeparator) {
+				groups = Math.min(groups, (LINE_LENGTH - lineLen) >> 2);
+				lineLen += groups << 2;
+			}
+
+			int s = off;
+			int d = pos;
+			for (final int end = off + groups * 3; s < end; s += 3) {
+				final int i = (bytes[s] & 0xFF) << 16 | (bytes[s + 1] & 0xFF) << 8 | (bytes[s + 2] & 0xFF);
+
+				buf[d] = CHARS[(i >>> 18) & 0x3F];
+				buf[d + 1] = CHARS[(i >>> 12) & 0x3F];
+				buf[d + 2] = CHARS[(i >>> 6) & 0x3F];
+				buf[d + 3] = CHARS[i & 0x3F];
+				d += 4;
+			}
+			pos = d;
+			len -= s - off;
+			off = s;
+		}
+
+		while (len > 0) {
+			tail = tail << 8 | (bytes[off++] & 0xFF);
+			tailLen++;
+			len--;
+		}
+	}
+
+	/**
+	 * Prepares buffer for the next group: flushes it if full and
+	 * adds the line separator when line is complete.
+	 */
+	private void encodeGroupStart() throws IOException {
+		ensure(6);
+		if (lineSeparator && lineLen == LINE_LENGTH) {
+			buf[pos++] = '\r';
+			buf[pos++] = '\n';
+			lineLen = 0;
+		}
+	}
+
+	/**
+	 * Encodes single group of 1 - 3 bytes, adding padding if needed.
+	 */
+	private void encodeGroup(int group, final int size) throws IOException {
+		encodeGroupStart();
+
+		group <<= (3 - size) << 3;
+
+		buf[pos++] = CHARS[(group >>> 18) & 0x3F];
+		buf[pos++] = CHARS[(group >>> 12) & 0x3F];
+		buf[pos++] = size > 1 ? CHARS[(group >>> 6) & 0x3F] : (byte) '=';
+		buf[pos++] = size > 2 ? CHARS[group & 0x3F] : (byte) '=';
+
+		if (lineSeparator) {
+			lineLen += 4;
+		}
+	}
+
+	@Override
+	protected void finish() throws IOException {
+		if (tailLen > 0) {
+			encodeGroup(tail, tailLen);
+			tail = 0;
+			tailLen = 0;
+		}
+	}
+}
@@ -0,0 +1,168 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * Base for streams that decode ASCII characters read from the source
+ * input stream or reader. Characters are read into the reusable input
+ * buffer and decoded in chunks into the output buffer.
+ */
+abstract class DecoderInputStream extends InputStream {
+
+	/**
+	 * Output buffer size, multiple of both 3 and 5.
+	 */
+	private static final int BUFFER_SIZE = 8190;
+
+	private final InputStream in;
+	private final Reader reader;
+	private char[] chars;
+	private final byte[] out = new byte[BUFFER_SIZE];
+	private int outPos;
+	private int outLen;
+	private boolean closed;
+
+	protected final byte[] inBuf = new byte[8192];
+	protected int inPos;
+	protected int inLen;
+
+	protected DecoderInputStream(final InputStream in) {
+		this.in = in;
+		this.reader = null;
+	}
+
+	protected DecoderInputStream(final Reader reader) {
+		this.in = null;
+		this.reader = reader;
+	}
+
+	/**
+	 * Decodes input into the given buffer. Returns number of decoded
+	 * bytes or <code>-1</code> when there is no more data.
+	 */
+	protected abstract int decode(byte[] dest) throws IOException;
+
+	/**
+	 * Reads more input into the {@link #inBuf input buffer}.
+	 * Returns <code>false</code> on the end of the source.
+	 * Characters out of 8-bit range are read as <code>0xFF</code>,
+	 * that is never a valid character.
+	 */
+	protected final boolean fill() throws IOException {
+		int n;
+		if (in != null) {
+			n = in.read(inBuf, 0, inBuf.length);
+		} else {
+			if (chars == null) {
+				chars = new char[inBuf.length];
+			}
+			n = reader.read(chars, 0, chars.length);
+			for (int i = 0; i < n; i++) {
+				final char c = chars[i];
+				inBuf[i] = c > 0xFF ? (byte) 0xFF : (byte) c;
+			}
+		}
+		inPos = 0;
+		inLen = n < 0 ? 0 : n;
+		return n >= 0;
+	}
+
+	private boolean next() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		int n;
+		do {
+			n = decode(out);
+		} while (n == 0);
+
+		if (n < 0) {
+			return false;
+		}
+		outPos = 0;
+		outLen = n;
+		return true;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (outPos == outLen && !next()) {
+			return -1;
+		}
+		return out[outPos++] & 0xFF;
+	}
+
+	@Override
+	public int read(final byte[] b, int off, int len) throws IOException {
+		if ((off | len | (b.length - (len + off)) | (off + len)) < 0) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (len == 0) {
+			return 0;
+		}
+		int total = 0;
+		while (len > 0) {
+			if (outPos == outLen) {
+				if (total > 0 && (in != null ? in.available() == 0 : !reader.ready())) {
+					break;
+				}
+				if (!next()) {
+					break;
+				}
+			}
+			final int n = Math.min(len, outLen - outPos);
+			System.arraycopy(out, outPos, b, off, n);
+			outPos += n;
+			off += n;
+			len -= n;
+			total += n;
+		}
+		return total == 0 ? -1 : total;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return outLen - outPos;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (in != null) {
+			in.close();
+		} else {
+			reader.close();
+		}
+	}
+}
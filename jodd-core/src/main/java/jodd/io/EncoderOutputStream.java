@@ -0,0 +1,155 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Base for streams that encode written bytes into ASCII characters.
+ * Encoded characters are collected in the reusable buffer that is
+ * flushed to the target output stream or writer when full.
+ */
+abstract class EncoderOutputStream extends OutputStream {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final OutputStream out;
+	private final Writer writer;
+	private char[] chars;
+	private boolean closed;
+
+	protected final byte[] buf = new byte[BUFFER_SIZE];
+	protected int pos;
+
+	protected EncoderOutputStream(final OutputStream out) {
+		this.out = out;
+		this.writer = null;
+	}
+
+	protected EncoderOutputStream(final Writer writer) {
+		this.out = null;
+		this.writer = writer;
+	}
+
+	/**
+	 * Encodes bytes into the {@link #buf buffer}. Incomplete group
+	 * is kept until more bytes arrive or the stream is closed.
+	 */
+	protected abstract void encode(byte[] bytes, int off, int len) throws IOException;
+
+	/**
+	 * Encodes the last incomplete group, if any.
+	 */
+	protected abstract void finish() throws IOException;
+
+	/**
+	 * Makes sure that buffer has room for given number of bytes.
+	 */
+	protected final void ensure(final int size) throws IOException {
+		if (pos + size > buf.length) {
+			flushBuffer();
+		}
+	}
+
+	/**
+	 * Writes the content of the buffer to the target.
+	 */
+	protected final void flushBuffer() throws IOException {
+		if (pos == 0) {
+			return;
+		}
+		if (out != null) {
+			out.write(buf, 0, pos);
+		} else {
+			if (chars == null) {
+				chars = new char[BUFFER_SIZE];
+			}
+			for (int i = 0; i < pos; i++) {
+				chars[i] = (char) buf[i];
+			}
+			writer.write(chars, 0, pos);
+		}
+		pos = 0;
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		write(new byte[] {(byte) b}, 0, 1);
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len) throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		if ((off | len | (b.length - (len + off)) | (off + len)) < 0) {
+			throw new IndexOutOfBoundsException();
+		}
+		encode(b, off, len);
+	}
+
+	/**
+	 * Flushes encoded characters. Incomplete group is not flushed
+	 * as it can not be encoded until the stream is closed.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (closed) {
+			return;
+		}
+		flushBuffer();
+		if (out != null) {
+			out.flush();
+		} else {
+			writer.flush();
+		}
+	}
+
+	/**
+	 * Encodes remaining bytes and closes the target.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			finish();
+			flushBuffer();
+		}
+		finally {
+			if (out != null) {
+				out.close();
+			} else {
+				writer.close();
+			}
+		}
+	}
+}
@@ -46,9 +46,11 @@ import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.LongConsumer;
 
 /**
  * File utilities.
@@ -266,6 +268,24 @@ public class FileUtil {
 	 * @throws IOException if cannot copy
 	 */
 	private static void _copyFile(final File srcFile, final File destFile) throws IOException {
+		_copyFile(srcFile, destFile, null);
+	}
+
+	/**
+	 * Maximal number of bytes transferred in a single channel transfer.
+	 * Kernel may transfer less, chunks are here to report the progress.
+	 */
+	static final long TRANSFER_CHUNK_SIZE = 8 * 1024 * 1024;
+
+	/**
+	 * Copies the file content using {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)},
+	 * so the data can be copied by the kernel, without passing through the user space buffers.
+	 * Content is transferred until the end of the source, even if the source grows meanwhile.
+	 * Special files and files that report zero size (i.e. pipes or <code>/proc</code> files)
+	 * are copied using streams, as their size is not known.
+	 * Optional progress consumer receives the number of bytes copied in each chunk.
+	 */
+	static void _copyFile(final File srcFile, final File destFile, final LongConsumer progress) throws IOException {
 		if (destFile.exists()) {
 			if (destFile.isDirectory()) {
 				throw new IOException("Destination '" + destFile + "' is a directory");
@@ -273,20 +293,41 @@ public class FileUtil {
 		}
 
 		// do copy file
-		FileInputStream input = null;
-		FileOutputStream output = null;
-		try {
-			input = new FileInputStream(srcFile);
-			output = new FileOutputStream(destFile, false);
-			StreamUtil.copy(input, output);
-		} finally {
-			StreamUtil.close(output);
-			StreamUtil.close(input);
+		final boolean sizeKnown;
+		try (
+			FileInputStream input = new FileInputStream(srcFile);
+			FileOutputStream output = new FileOutputStream(destFile, false)
+		) {
+			final FileChannel in = input.getChannel();
+			sizeKnown = srcFile.isFile() && in.size() != 0;
+
+			if (!sizeKnown) {
+				final long count = StreamUtil.copy(input, output);
+				if (progress != null && count > 0) {
+					progress.accept(count);
+				}
+			}
+			else {
+				final FileChannel out = output.getChannel();
+
+				long position = 0;
+				while (true) {
+					final long count = in.transferTo(position, TRANSFER_CHUNK_SIZE, out);
+					if (count <= 0) {
+						// end of file
+						break;
+					}
+					position += count;
+					if (progress != null) {
+						progress.accept(count);
+					}
+				}
+			}
 		}
 
 		// done
 
-		if (srcFile.length() != destFile.length()) {
+		if (sizeKnown && srcFile.length() != destFile.length()) {
 			throw new IOException("Copy file failed of '" + srcFile + "' to '" + destFile + "' due to different sizes");
 		}
 		destFile.setLastModified(srcFile.lastModified());
@@ -1582,7 +1623,7 @@ public class FileUtil {
 	 * @param dir Directory
 	 * @throws IOException if {@link File} is not a directory.
 	 */
-	private static void checkIsDirectory(final File dir) throws IOException {
+	static void checkIsDirectory(final File dir) throws IOException {
 		if (!dir.isDirectory()) {
 			throw new IOException(MSG_NOT_A_DIRECTORY + dir);
 		}
@@ -1609,7 +1650,7 @@ public class FileUtil {
 	 * @param dir Directory
 	 * @throws IOException if directory cannot be created.
 	 */
-	private static File checkCreateDirectory(final File dir) throws IOException {
+	static File checkCreateDirectory(final File dir) throws IOException {
 		if (!dir.mkdirs()) {
 			throw new IOException(MSG_CANT_CREATE + dir);
 		}
@@ -1636,7 +1677,7 @@ public class FileUtil {
 	 * @param destDir Destination directory
 	 * @throws IOException if any of the above conditions are not true.
 	 */
-	private static void checkDirCopy(final File srcDir, final File destDir) throws IOException {
+	static void checkDirCopy(final File srcDir, final File destDir) throws IOException {
 		checkExists(srcDir);
 		checkIsDirectory(srcDir);
 		if (equals(srcDir, destDir)) {
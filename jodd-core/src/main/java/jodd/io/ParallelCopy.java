@@ -0,0 +1,304 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.io;
+
+import jodd.core.JoddCore;
+import jodd.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Parallel variant of {@link FileUtil#copyDir(File, File)} and {@link FileUtil#moveDir(File, File)}.
+ * Directory tree is created first, then files are copied by a bounded pool of
+ * worker threads. Files may be optionally verified by comparing the checksums
+ * of source and the copy. Copying progress can be tracked by the {@link Progress} callback.
+ * <p>
+ * Copying of a directory does not stop on a first error: all files are processed
+ * and the last exception is thrown at the end, the same as in {@link FileUtil}.
+ */
+public class ParallelCopy {
+
+	/**
+	 * Copy progress callback.
+	 */
+	@FunctionalInterface
+	public interface Progress {
+		/**
+		 * Invoked each time a chunk of data has been copied. It is
+		 * invoked from worker threads and has to be thread-safe.
+		 *
+		 * @param copiedBytes total number of bytes copied so far
+		 * @param totalBytes total number of bytes to copy
+		 */
+		void onProgress(long copiedBytes, long totalBytes);
+	}
+
+	protected int threads = Runtime.getRuntime().availableProcessors();
+	protected boolean verifyChecksum;
+	protected Progress progress;
+
+	/**
+	 * Sets the number of worker threads. With single thread
+	 * files are copied in the calling thread.
+	 */
+	public ParallelCopy threads(final int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Invalid number of threads: " + threads);
+		}
+		this.threads = threads;
+		return this;
+	}
+
+	/**
+	 * Enables CRC32 verification of copied files. Both source and
+	 * the copy are read again after the copy, so this is not for free.
+	 */
+	public ParallelCopy verifyChecksum(final boolean verifyChecksum) {
+		this.verifyChecksum = verifyChecksum;
+		return this;
+	}
+
+	/**
+	 * Registers the progress callback.
+	 */
+	public ParallelCopy onProgress(final Progress progress) {
+		this.progress = progress;
+		return this;
+	}
+
+	// ---------------------------------------------------------------- copy
+
+	/**
+	 * @see #copyDir(File, File)
+	 */
+	public void copyDir(final String srcDir, final String destDir) throws IOException {
+		copyDir(new File(srcDir), new File(destDir));
+	}
+
+	/**
+	 * Copies directory in parallel.
+	 */
+	public void copyDir(final File srcDir, final File destDir) throws IOException {
+		FileUtil.checkDirCopy(srcDir, destDir);
+		_copyDirectory(srcDir, destDir);
+	}
+
+	// ---------------------------------------------------------------- move
+
+	/**
+	 * @see #moveDir(File, File)
+	 */
+	public File moveDir(final String srcDir, final String destDir) throws IOException {
+		return moveDir(new File(srcDir), new File(destDir));
+	}
+
+	/**
+	 * Moves a directory. Directory is renamed when possible; otherwise it is
+	 * copied in parallel and the source is deleted.
+	 */
+	public File moveDir(final File srcDir, final File destDir) throws IOException {
+		FileUtil.checkDirCopy(srcDir, destDir);
+
+		File targetDir = destDir;
+		if (targetDir.exists()) {
+			FileUtil.checkIsDirectory(targetDir);
+			targetDir = new File(targetDir, targetDir.getName());
+			targetDir.mkdir();
+		}
+
+		final boolean rename = srcDir.renameTo(targetDir);
+		if (!rename) {
+			_copyDirectory(srcDir, targetDir);
+			FileUtil.deleteDir(srcDir);
+		}
+		return destDir;
+	}
+
+	// ---------------------------------------------------------------- internal
+
+	/**
+	 * Collected copy job.
+	 */
+	protected static class CopyJob {
+		protected final List<File> srcFiles = new ArrayList<>();
+		protected final List<File> destFiles = new ArrayList<>();
+		protected final List<File> srcDirs = new ArrayList<>();
+		protected final List<File> destDirs = new ArrayList<>();
+		protected long totalBytes;
+		protected IOException exception;
+	}
+
+	protected void _copyDirectory(final File srcDir, final File destDir) throws IOException {
+		final CopyJob job = new CopyJob();
+
+		collect(job, srcDir, destDir);
+
+		copyFiles(job);
+
+		// directories were modified by copying, so times are set at the end, deepest first
+		for (int i = job.srcDirs.size() - 1; i >= 0; i--) {
+			job.destDirs.get(i).setLastModified(job.srcDirs.get(i).lastModified());
+		}
+
+		if (job.exception != null) {
+			throw job.exception;
+		}
+	}
+
+	/**
+	 * Walks the source tree, creates destination directories and collects files to copy.
+	 */
+	protected void collect(final CopyJob job, final File srcDir, final File destDir) throws IOException {
+		if (destDir.exists()) {
+			FileUtil.checkIsDirectory(destDir);
+		} else {
+			FileUtil.checkCreateDirectory(destDir);
+			job.srcDirs.add(srcDir);
+			job.destDirs.add(destDir);
+		}
+
+		final File[] files = srcDir.listFiles();
+		if (files == null) {
+			throw new IOException("Failed to list contents of: " + srcDir);
+		}
+
+		for (final File file : files) {
+			final File destFile = new File(destDir, file.getName());
+
+			if (file.isDirectory()) {
+				try {
+					collect(job, file, destFile);
+				} catch (IOException ioex) {
+					job.exception = ioex;
+				}
+			} else {
+				job.srcFiles.add(file);
+				job.destFiles.add(destFile);
+				job.totalBytes += file.length();
+			}
+		}
+	}
+
+	/**
+	 * Copies collected files using the worker pool.
+	 */
+	protected void copyFiles(final CopyJob job) throws IOException {
+		final int count = job.srcFiles.size();
+		final AtomicLong copiedBytes = new AtomicLong();
+		final LongConsumer progressConsumer = progress == null ? null :
+			bytes -> progress.onProgress(copiedBytes.addAndGet(bytes), job.totalBytes);
+
+		if (threads == 1 || count <= 1) {
+			for (int i = 0; i < count; i++) {
+				try {
+					copyFile(job.srcFiles.get(i), job.destFiles.get(i), progressConsumer);
+				} catch (IOException ioex) {
+					job.exception = ioex;
+				}
+			}
+			return;
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(
+			Math.min(threads, count),
+			ThreadFactoryBuilder.create().setNameFormat("jodd-copy-%d").setDaemon(true).get());
+
+		try {
+			final List<Future<?>> futures = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				final File srcFile = job.srcFiles.get(i);
+				final File destFile = job.destFiles.get(i);
+				futures.add(executor.submit(() -> {
+					copyFile(srcFile, destFile, progressConsumer);
+					return null;
+				}));
+			}
+
+			for (final Future<?> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException eex) {
+					final Throwable cause = eex.getCause();
+					if (cause instanceof IOException) {
+						job.exception = (IOException) cause;
+					} else if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					} else {
+						throw new IOException(cause);
+					}
+				}
+			}
+		} catch (InterruptedException iex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Copy interrupted");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Copies single file and optionally verifies the copy.
+	 */
+	protected void copyFile(final File srcFile, final File destFile, final LongConsumer progressConsumer) throws IOException {
+		FileUtil._copyFile(srcFile, destFile, progressConsumer);
+
+		if (verifyChecksum) {
+			if (crc32(srcFile) != crc32(destFile)) {
+				throw new IOException("Checksum mismatch of '" + srcFile + "' and '" + destFile + "'");
+			}
+		}
+	}
+
+	/**
+	 * Calculates CRC32 checksum of a file.
+	 */
+	protected static long crc32(final File file) throws IOException {
+		final CRC32 crc = new CRC32();
+		final byte[] buffer = new byte[JoddCore.ioBufferSize];
+
+		try (InputStream input = new FileInputStream(file)) {
+			int n;
+			while ((n = input.read(buffer)) != -1) {
+				crc.update(buffer, 0, n);
+			}
+		}
+		return crc.getValue();
+	}
+}
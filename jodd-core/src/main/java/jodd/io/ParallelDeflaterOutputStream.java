@@ -0,0 +1,383 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.io;
+
+import jodd.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.LinkedList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.Checksum;
+import java.util.zip.Deflater;
+
+/**
+ * Output stream that compresses data into the zlib format using multiple threads.
+ * Input is split into blocks that are compressed concurrently, each block primed
+ * with the last 32 KB of the previous one. Blocks are raw deflate streams ended with
+ * the sync flush, so their concatenation is a single valid deflate stream, readable
+ * by any standard tool (the same way as <code>pigz</code> does it). Compressed size
+ * is slightly larger than of the single-threaded compression.
+ * <p>
+ * Checksum is calculated in the writing thread. Number of blocks in flight is bounded
+ * to twice the number of threads; block buffers and deflaters are reused.
+ *
+ * @see ParallelGzipOutputStream
+ */
+public class ParallelDeflaterOutputStream extends FilterOutputStream {
+
+	/**
+	 * Default block size, 128 KB.
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+	/**
+	 * Size of the deflate window, i.e. the dictionary passed to the next block.
+	 */
+	protected static final int DICTIONARY_SIZE = 32 * 1024;
+
+	protected final int level;
+	protected final int blockSize;
+	protected final int maxPendingBlocks;
+	protected final ExecutorService executor;
+	protected final boolean ownExecutor;
+	protected final Checksum checksum;
+	protected final LinkedList<Future<Block>> pendingBlocks = new LinkedList<>();
+	protected final ArrayDeque<Block> freeBlocks = new ArrayDeque<>();
+	protected final ConcurrentLinkedQueue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+	protected Block block;
+	protected long totalIn;
+	protected boolean closed;
+
+	/**
+	 * Creates zlib stream with given compression level that compresses
+	 * on its own pool of threads, closed together with the stream.
+	 */
+	public ParallelDeflaterOutputStream(final OutputStream out, final int level, final int threads) throws IOException {
+		this(out, new Adler32(), level, DEFAULT_BLOCK_SIZE, createExecutor(threads), threads, true);
+	}
+
+	/**
+	 * Creates zlib stream with given compression level that compresses
+	 * on provided executor, that is not shut down on close.
+	 */
+	public ParallelDeflaterOutputStream(final OutputStream out, final int level, final int blockSize, final ExecutorService executor, final int parallelism) throws IOException {
+		this(out, new Adler32(), level, blockSize, executor, parallelism, false);
+	}
+
+	protected ParallelDeflaterOutputStream(
+			final OutputStream out,
+			final Checksum checksum,
+			final int level,
+			final int blockSize,
+			final ExecutorService executor,
+			final int parallelism,
+			final boolean ownExecutor) throws IOException {
+
+		super(out);
+
+		if (blockSize < DICTIONARY_SIZE) {
+			throw new IllegalArgumentException("Block size must be at least " + DICTIONARY_SIZE);
+		}
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+		}
+		this.checksum = checksum;
+		this.level = level;
+		this.blockSize = blockSize;
+		this.executor = executor;
+		this.ownExecutor = ownExecutor;
+		this.maxPendingBlocks = parallelism * 2;
+		this.block = new Block(blockSize);
+
+		writeHeader();
+	}
+
+	/**
+	 * Creates daemon thread pool with given number of threads.
+	 */
+	protected static ExecutorService createExecutor(final int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Invalid number of threads: " + threads);
+		}
+		return Executors.newFixedThreadPool(threads,
+			ThreadFactoryBuilder.create().setNameFormat("jodd-deflate-%d").setDaemon(true).get());
+	}
+
+	// ---------------------------------------------------------------- format
+
+	/**
+	 * Writes the zlib header.
+	 */
+	protected void writeHeader() throws IOException {
+		final int levelFlag;
+		if (level == Deflater.DEFAULT_COMPRESSION || level == 6) {
+			levelFlag = 2;
+		} else if (level < 2) {
+			levelFlag = 0;
+		} else if (level < 6) {
+			levelFlag = 1;
+		} else {
+			levelFlag = 3;
+		}
+		final int cmf = 0x78;
+		int flg = levelFlag << 6;
+		flg += 31 - ((cmf << 8) + flg) % 31;
+
+		out.write(cmf);
+		out.write(flg);
+	}
+
+	/**
+	 * Writes the zlib trailer: Adler-32 checksum in big-endian order.
+	 */
+	protected void writeTrailer() throws IOException {
+		final long value = checksum.getValue();
+		out.write((int) (value >>> 24) & 0xFF);
+		out.write((int) (value >>> 16) & 0xFF);
+		out.write((int) (value >>> 8) & 0xFF);
+		out.write((int) value & 0xFF);
+	}
+
+	// ---------------------------------------------------------------- write
+
+	@Override
+	public void write(final int b) throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		checksum.update(b);
+		totalIn++;
+
+		block.input[block.length++] = (byte) b;
+		if (block.length == blockSize) {
+			submitBlock(false);
+		}
+	}
+
+	@Override
+	public void write(final byte[] b, int off, int len) throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		checksum.update(b, off, len);
+		totalIn += len;
+
+		while (len > 0) {
+			final int count = Math.min(len, blockSize - block.length);
+			System.arraycopy(b, off, block.input, block.length, count);
+			block.length += count;
+			off += count;
+			len -= count;
+
+			if (block.length == blockSize) {
+				submitBlock(false);
+			}
+		}
+	}
+
+	/**
+	 * Compresses the buffered input and writes all compressed blocks.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (closed) {
+			return;
+		}
+		if (block.length > 0) {
+			submitBlock(false);
+		}
+		while (!pendingBlocks.isEmpty()) {
+			writeBlock();
+		}
+		out.flush();
+	}
+
+	/**
+	 * Finishes the compression, writes the trailer and closes
+	 * the underlying stream.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		try {
+			submitBlock(true);
+			while (!pendingBlocks.isEmpty()) {
+				writeBlock();
+			}
+			writeTrailer();
+			out.flush();
+		}
+		finally {
+			closed = true;
+			for (Future<Block> future : pendingBlocks) {
+				future.cancel(false);
+			}
+			if (ownExecutor) {
+				executor.shutdownNow();
+			}
+			Deflater deflater;
+			while ((deflater = deflaters.poll()) != null) {
+				deflater.end();
+			}
+			out.close();
+		}
+	}
+
+	// ---------------------------------------------------------------- blocks
+
+	/**
+	 * Submits current block for the compression and prepares the next one,
+	 * with the dictionary of the last 32 KB of input.
+	 */
+	protected void submitBlock(final boolean last) throws IOException {
+		final Block submitted = block;
+		submitted.last = last;
+
+		block = freeBlocks.isEmpty() ? new Block(blockSize) : freeBlocks.removeFirst();
+		block.reset();
+
+		if (!last) {
+			// dictionary may span the previous dictionary when the block is short
+			final int fromInput = Math.min(submitted.length, DICTIONARY_SIZE);
+			final int fromDictionary = Math.min(submitted.dictionaryLength, DICTIONARY_SIZE - fromInput);
+			System.arraycopy(submitted.dictionary, submitted.dictionaryLength - fromDictionary, block.dictionary, 0, fromDictionary);
+			System.arraycopy(submitted.input, submitted.length - fromInput, block.dictionary, fromDictionary, fromInput);
+			block.dictionaryLength = fromDictionary + fromInput;
+		}
+
+		pendingBlocks.add(executor.submit(() -> compress(submitted)));
+
+		while (pendingBlocks.size() >= maxPendingBlocks || (!pendingBlocks.isEmpty() && pendingBlocks.getFirst().isDone())) {
+			writeBlock();
+		}
+	}
+
+	/**
+	 * Waits for the first pending block and writes it.
+	 */
+	protected void writeBlock() throws IOException {
+		final Block compressed;
+		try {
+			compressed = pendingBlocks.removeFirst().get();
+		}
+		catch (InterruptedException iex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Compression interrupted");
+		}
+		catch (ExecutionException eex) {
+			throw new IOException(eex.getCause());
+		}
+
+		out.write(compressed.output, 0, compressed.outputLength);
+
+		freeBlocks.add(compressed);
+	}
+
+	/**
+	 * Compresses a block into raw deflate data. Invoked by pool threads.
+	 */
+	protected Block compress(final Block block) {
+		Deflater deflater = deflaters.poll();
+		if (deflater == null) {
+			deflater = new Deflater(level, true);
+		}
+
+		try {
+			if (block.dictionaryLength > 0) {
+				deflater.setDictionary(block.dictionary, 0, block.dictionaryLength);
+			}
+			deflater.setInput(block.input, 0, block.length);
+
+			if (block.last) {
+				deflater.finish();
+				while (!deflater.finished()) {
+					block.ensureOutputCapacity();
+					block.outputLength += deflater.deflate(block.output, block.outputLength, block.output.length - block.outputLength);
+				}
+			}
+			else {
+				int available;
+				int count;
+				do {
+					block.ensureOutputCapacity();
+					available = block.output.length - block.outputLength;
+					count = deflater.deflate(block.output, block.outputLength, available, Deflater.SYNC_FLUSH);
+					block.outputLength += count;
+				} while (count == available);
+			}
+		}
+		finally {
+			deflater.reset();
+			deflaters.add(deflater);
+		}
+		return block;
+	}
+
+	/**
+	 * Block of input and its compressed output, reused.
+	 */
+	protected static class Block {
+		protected final byte[] input;
+		protected final byte[] dictionary = new byte[DICTIONARY_SIZE];
+		protected int length;
+		protected int dictionaryLength;
+		protected byte[] output;
+		protected int outputLength;
+		protected boolean last;
+
+		protected Block(final int blockSize) {
+			this.input = new byte[blockSize];
+			this.output = new byte[blockSize + (blockSize >> 3) + 64];
+		}
+
+		protected void reset() {
+			length = 0;
+			dictionaryLength = 0;
+			outputLength = 0;
+			last = false;
+		}
+
+		protected void ensureOutputCapacity() {
+			if (output.length - outputLength < 64) {
+				final byte[] newOutput = new byte[output.length << 1];
+				System.arraycopy(output, 0, newOutput, 0, outputLength);
+				output = newOutput;
+			}
+		}
+	}
+}
@@ -0,0 +1,88 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.CRC32;
+
+/**
+ * Output stream that compresses data into the gzip format using multiple threads.
+ * Output is a single gzip member, readable by <code>gunzip</code> and
+ * {@link java.util.zip.GZIPInputStream}.
+ *
+ * @see ParallelDeflaterOutputStream
+ */
+public class ParallelGzipOutputStream extends ParallelDeflaterOutputStream {
+
+	private static final byte[] HEADER = {
+		(byte) 0x1f, (byte) 0x8b,	// magic
+		8,							// deflate
+		0,							// flags
+		0, 0, 0, 0,					// time
+		0,							// extra flags
+		0							// OS
+	};
+
+	/**
+	 * Creates gzip stream with given compression level that compresses
+	 * on its own pool of threads, closed together with the stream.
+	 */
+	public ParallelGzipOutputStream(final OutputStream out, final int level, final int threads) throws IOException {
+		super(out, new CRC32(), level, DEFAULT_BLOCK_SIZE, createExecutor(threads), threads, true);
+	}
+
+	/**
+	 * Creates gzip stream with given compression level that compresses
+	 * on provided executor, that is not shut down on close.
+	 */
+	public ParallelGzipOutputStream(final OutputStream out, final int level, final int blockSize, final ExecutorService executor, final int parallelism) throws IOException {
+		super(out, new CRC32(), level, blockSize, executor, parallelism, false);
+	}
+
+	@Override
+	protected void writeHeader() throws IOException {
+		out.write(HEADER);
+	}
+
+	/**
+	 * Writes the gzip trailer: CRC-32 and input size, in little-endian order.
+	 */
+	@Override
+	protected void writeTrailer() throws IOException {
+		writeInt(checksum.getValue());
+		writeInt(totalIn);
+	}
+
+	private void writeInt(final long value) throws IOException {
+		out.write((int) value & 0xFF);
+		out.write((int) (value >>> 8) & 0xFF);
+		out.write((int) (value >>> 16) & 0xFF);
+		out.write((int) (value >>> 24) & 0xFF);
+	}
+}
@@ -0,0 +1,510 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.io;
+
+import jodd.core.JoddCore;
+import jodd.util.StringPool;
+import jodd.util.StringUtil;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedList;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * ZIP writer that compresses entries concurrently, on a pool of threads.
+ * Entries are written in the order they were added; at most twice the number
+ * of threads compressed entries are pending. Compressed data of an entry is
+ * kept in memory up to {@link #DEFAULT_SPILL_THRESHOLD} bytes; larger entries
+ * are spilled to a temporary file. Therefore, memory usage is bounded to
+ * <code>2 * threads * spillThreshold</code> bytes.
+ * ZIP64 is not supported, so archives are limited to 65535 entries and 4 GB.
+ *
+ * @see ZipBuilder#parallel(int)
+ */
+class ParallelZipWriter implements Closeable {
+
+	private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+	private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+	private static final int END_SIGNATURE = 0x06054b50;
+	private static final int UTF8_FLAG = 0x0800;
+	private static final int VERSION = 20;
+	private static final long MAX_SIZE = 0xFFFFFFFFL;
+	private static final int MAX_ENTRIES = 0xFFFF;
+
+	/**
+	 * Default size of compressed entry data held in memory.
+	 */
+	static final int DEFAULT_SPILL_THRESHOLD = 1024 * 1024;
+
+	private final OutputStream out;
+	private final int level;
+	private final int maxPendingEntries;
+	private final int spillThreshold;
+	private final ExecutorService executor;
+	private final ConcurrentLinkedQueue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+	private final LinkedList<Future<Entry>> pendingEntries = new LinkedList<>();
+	private final FastByteArrayOutputStream centralDirectory = new FastByteArrayOutputStream();
+	private final Set<SpillOutputStream> spills = ConcurrentHashMap.newKeySet();
+	private volatile boolean aborted;
+	private long offset;
+	private int entriesCount;
+	private boolean closed;
+
+	ParallelZipWriter(final OutputStream out, final int level, final int threads) {
+		this(out, level, threads, DEFAULT_SPILL_THRESHOLD);
+	}
+
+	ParallelZipWriter(final OutputStream out, final int level, final int threads, final int spillThreshold) {
+		this.out = out;
+		this.level = level;
+		this.maxPendingEntries = threads * 2;
+		this.spillThreshold = spillThreshold;
+		this.executor = ParallelDeflaterOutputStream.createExecutor(threads);
+	}
+
+	/**
+	 * Compressed entry.
+	 */
+	static class Entry {
+		final byte[] name;
+		final byte[] comment;
+		final long time;
+		final boolean directory;
+		SpillOutputStream data;
+		long crc;
+		long size;
+
+		Entry(final String name, final String comment, final long time, final boolean directory) {
+			this.name = name.getBytes(StandardCharsets.UTF_8);
+			this.comment = comment == null ? null : comment.getBytes(StandardCharsets.UTF_8);
+			this.time = time;
+			this.directory = directory;
+		}
+	}
+
+	// ---------------------------------------------------------------- add
+
+	/**
+	 * Adds file or folder, same as {@link ZipUtil#addToZip(java.util.zip.ZipOutputStream, File, String, String, boolean)}.
+	 */
+	void addToZip(final File file, String path, final String comment, final boolean recursive) throws IOException {
+		if (!file.exists()) {
+			throw new FileNotFoundException(file.toString());
+		}
+
+		if (path == null) {
+			path = file.getName();
+		}
+
+		while (path.length() != 0 && path.charAt(0) == '/') {
+			path = path.substring(1);
+		}
+
+		final boolean isDir = file.isDirectory();
+
+		if (isDir) {
+			if (!StringUtil.endsWithChar(path, '/')) {
+				path += '/';
+			}
+			submit(new Entry(path, comment, file.lastModified(), true), null);
+		}
+		else {
+			submit(new Entry(path, comment, file.lastModified(), false), () -> new FileInputStream(file));
+		}
+
+		if (recursive && isDir) {
+			final boolean noRelativePath = StringUtil.isEmpty(path);
+
+			final File[] children = file.listFiles();
+
+			if (children != null) {
+				for (File child : children) {
+					final String childRelativePath = (noRelativePath ? StringPool.EMPTY : path) + child.getName();
+					addToZip(child, childRelativePath, comment, recursive);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds byte content, same as {@link ZipUtil#addToZip(java.util.zip.ZipOutputStream, byte[], String, String)}.
+	 */
+	void addToZip(final byte[] content, String path, final String comment) throws IOException {
+		while (path.length() != 0 && path.charAt(0) == '/') {
+			path = path.substring(1);
+		}
+
+		if (StringUtil.endsWithChar(path, '/')) {
+			path = path.substring(0, path.length() - 1);
+		}
+
+		submit(new Entry(path, comment, System.currentTimeMillis(), false), () -> new ByteArrayInputStream(content));
+	}
+
+	/**
+	 * Adds folder, same as {@link ZipUtil#addFolderToZip(java.util.zip.ZipOutputStream, String, String)}.
+	 */
+	void addFolderToZip(String path, final String comment) throws IOException {
+		while (path.length() != 0 && path.charAt(0) == '/') {
+			path = path.substring(1);
+		}
+
+		if (!StringUtil.endsWithChar(path, '/')) {
+			path += '/';
+		}
+
+		submit(new Entry(path, comment, System.currentTimeMillis(), true), null);
+	}
+
+	// ---------------------------------------------------------------- compress
+
+	@FunctionalInterface
+	interface InputSupplier {
+		InputStream open() throws IOException;
+	}
+
+	private void submit(final Entry entry, final InputSupplier input) throws IOException {
+		if (closed) {
+			throw new IOException("Zip closed");
+		}
+		if (entry.directory) {
+			pendingEntries.add(CompletableFuture.completedFuture(entry));
+		}
+		else {
+			pendingEntries.add(executor.submit(() -> compress(entry, input)));
+		}
+
+		while (pendingEntries.size() >= maxPendingEntries || (!pendingEntries.isEmpty() && pendingEntries.getFirst().isDone())) {
+			writeEntry();
+		}
+	}
+
+	/**
+	 * Compresses entry content into raw deflate data. Invoked by pool threads.
+	 */
+	private Entry compress(final Entry entry, final InputSupplier inputSupplier) throws IOException {
+		Deflater deflater = deflaters.poll();
+		if (deflater == null) {
+			deflater = new Deflater(level, true);
+		}
+
+		final CRC32 crc = new CRC32();
+		final SpillOutputStream data = new SpillOutputStream();
+		final byte[] buffer = new byte[JoddCore.ioBufferSize];
+		long size = 0;
+
+		try (InputStream input = inputSupplier.open()) {
+			final DeflaterOutputStream dos = new DeflaterOutputStream(data, deflater, buffer.length);
+			int n;
+			while ((n = input.read(buffer)) != -1) {
+				crc.update(buffer, 0, n);
+				dos.write(buffer, 0, n);
+				size += n;
+			}
+			dos.finish();
+			data.close();
+		}
+		catch (IOException | RuntimeException ex) {
+			data.delete();
+			throw ex;
+		}
+		finally {
+			deflater.reset();
+			deflaters.add(deflater);
+		}
+
+		if (aborted) {
+			data.delete();
+			throw new IOException("Zip closed");
+		}
+
+		entry.data = data;
+		entry.crc = crc.getValue();
+		entry.size = size;
+		return entry;
+	}
+
+	// ---------------------------------------------------------------- write
+
+	/**
+	 * Waits for the first pending entry and writes its local header and data.
+	 * Central directory record is buffered.
+	 */
+	private void writeEntry() throws IOException {
+		final Entry entry;
+		try {
+			entry = pendingEntries.removeFirst().get();
+		}
+		catch (InterruptedException iex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Compression interrupted");
+		}
+		catch (ExecutionException eex) {
+			final Throwable cause = eex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException(cause);
+		}
+
+		final long compressedSize = entry.directory ? 0 : entry.data.size();
+		if (entry.size > MAX_SIZE || compressedSize > MAX_SIZE || offset > MAX_SIZE || ++entriesCount > MAX_ENTRIES) {
+			throw new IOException("Zip64 is not supported");
+		}
+
+		final int method = entry.directory ? 0 : 8;
+		final int dosTime = dosTime(entry.time);
+
+		final FastByteArrayOutputStream header = new FastByteArrayOutputStream(30 + entry.name.length);
+		writeInt(header, LOCAL_HEADER_SIGNATURE);
+		writeShort(header, VERSION);
+		writeShort(header, UTF8_FLAG);
+		writeShort(header, method);
+		writeInt(header, dosTime);
+		writeInt(header, entry.crc);
+		writeInt(header, compressedSize);
+		writeInt(header, entry.size);
+		writeShort(header, entry.name.length);
+		writeShort(header, 0);
+		header.write(entry.name);
+
+		writeInt(centralDirectory, CENTRAL_HEADER_SIGNATURE);
+		writeShort(centralDirectory, VERSION);
+		writeShort(centralDirectory, VERSION);
+		writeShort(centralDirectory, UTF8_FLAG);
+		writeShort(centralDirectory, method);
+		writeInt(centralDirectory, dosTime);
+		writeInt(centralDirectory, entry.crc);
+		writeInt(centralDirectory, compressedSize);
+		writeInt(centralDirectory, entry.size);
+		writeShort(centralDirectory, entry.name.length);
+		writeShort(centralDirectory, 0);
+		writeShort(centralDirectory, entry.comment == null ? 0 : entry.comment.length);
+		writeShort(centralDirectory, 0);
+		writeShort(centralDirectory, 0);
+		writeInt(centralDirectory, 0);
+		writeInt(centralDirectory, offset);
+		centralDirectory.write(entry.name);
+		if (entry.comment != null) {
+			centralDirectory.write(entry.comment);
+		}
+
+		header.writeTo(out);
+		offset += header.size();
+
+		if (entry.data != null) {
+			try {
+				entry.data.writeTo(out);
+			}
+			finally {
+				entry.data.delete();
+			}
+			offset += compressedSize;
+		}
+	}
+
+	/**
+	 * Writes remaining entries and the central directory and
+	 * closes the output.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		try {
+			while (!pendingEntries.isEmpty()) {
+				writeEntry();
+			}
+
+			final long centralDirectorySize = centralDirectory.size();
+			if (offset > MAX_SIZE) {
+				throw new IOException("Zip64 is not supported");
+			}
+			centralDirectory.writeTo(out);
+
+			final FastByteArrayOutputStream end = new FastByteArrayOutputStream(22);
+			writeInt(end, END_SIGNATURE);
+			writeShort(end, 0);
+			writeShort(end, 0);
+			writeShort(end, entriesCount);
+			writeShort(end, entriesCount);
+			writeInt(end, centralDirectorySize);
+			writeInt(end, offset);
+			writeShort(end, 0);
+			end.writeTo(out);
+			out.flush();
+		}
+		finally {
+			aborted = true;
+			for (Future<Entry> future : pendingEntries) {
+				future.cancel(false);
+			}
+			executor.shutdownNow();
+			for (SpillOutputStream spill : spills) {
+				spill.delete();
+			}
+			Deflater deflater;
+			while ((deflater = deflaters.poll()) != null) {
+				deflater.end();
+			}
+			out.close();
+		}
+	}
+
+	// ---------------------------------------------------------------- spill
+
+	/**
+	 * Output of compressed entry data. Data is buffered in memory
+	 * until spill threshold is reached, then moved to a temporary file.
+	 */
+	class SpillOutputStream extends OutputStream {
+		private FastByteArrayOutputStream buffer = new FastByteArrayOutputStream();
+		private File file;
+		private OutputStream fileOut;
+		private long size;
+
+		@Override
+		public void write(final int b) throws IOException {
+			write(new byte[] {(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) throws IOException {
+			if (fileOut == null && size + len > spillThreshold) {
+				spill();
+			}
+			if (fileOut != null) {
+				fileOut.write(b, off, len);
+			}
+			else {
+				buffer.write(b, off, len);
+			}
+			size += len;
+		}
+
+		private void spill() throws IOException {
+			spills.add(this);
+			file = FileUtil.createTempFile();
+			fileOut = new BufferedOutputStream(new FileOutputStream(file), JoddCore.ioBufferSize);
+			buffer.writeTo(fileOut);
+			buffer = null;
+		}
+
+		long size() {
+			return size;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (fileOut != null) {
+				fileOut.close();
+			}
+		}
+
+		/**
+		 * Writes all the data to given output.
+		 */
+		void writeTo(final OutputStream os) throws IOException {
+			if (file == null) {
+				buffer.writeTo(os);
+				return;
+			}
+			try (InputStream in = new FileInputStream(file)) {
+				StreamUtil.copy(in, os);
+			}
+		}
+
+		/**
+		 * Releases the data and deletes the temporary file, if any.
+		 */
+		void delete() {
+			buffer = null;
+			if (file != null) {
+				StreamUtil.close(fileOut);
+				file.delete();
+				spills.remove(this);
+			}
+		}
+	}
+
+	// ---------------------------------------------------------------- util
+
+	/**
+	 * Converts Java time to the MS-DOS date and time.
+	 */
+	static int dosTime(final long time) {
+		final LocalDateTime ldt = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault());
+		final int year = ldt.getYear();
+		if (year < 1980) {
+			return (1 << 21) | (1 << 16);
+		}
+		return (year - 1980) << 25
+			| ldt.getMonthValue() << 21
+			| ldt.getDayOfMonth() << 16
+			| ldt.getHour() << 11
+			| ldt.getMinute() << 5
+			| ldt.getSecond() >> 1;
+	}
+
+	private static void writeShort(final OutputStream os, final int value) throws IOException {
+		os.write(value & 0xFF);
+		os.write((value >>> 8) & 0xFF);
+	}
+
+	private static void writeInt(final OutputStream os, final long value) throws IOException {
+		os.write((int) value & 0xFF);
+		os.write((int) (value >>> 8) & 0xFF);
+		os.write((int) (value >>> 16) & 0xFF);
+		os.write((int) (value >>> 24) & 0xFF);
+	}
+}
@@ -32,16 +32,23 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
 import java.util.zip.ZipOutputStream;
 
 /**
  * ZIP builder class for building both files or in-memory zips.
+ * Entries may be compressed concurrently, see {@link #parallel(int)}.
  */
 public class ZipBuilder {
 
-	private final ZipOutputStream zos;
+	private final OutputStream out;
 	private final File targetZipFile;
 	private final ByteArrayOutputStream targetBaos;
+	private ZipOutputStream zos;
+	private ParallelZipWriter parallelZip;
+	private int level = Deflater.DEFAULT_COMPRESSION;
+	private int threads;
 
 	public static ZipBuilder createZipFile(final File zipFile) throws IOException {
 		return new ZipBuilder(zipFile);
@@ -60,7 +67,7 @@ public class ZipBuilder {
 		if (!FileUtil.isExistingFile(zipFile)) {
 			FileUtil.touch(zipFile);
 		}
-		zos = new ZipOutputStream(new FileOutputStream(zipFile));
+		out = new FileOutputStream(zipFile);
 		targetZipFile = zipFile;
 		targetBaos = null;
 	}
@@ -68,19 +75,85 @@ public class ZipBuilder {
 	protected ZipBuilder() {
 		targetZipFile = null;
 		targetBaos = new ByteArrayOutputStream();
-		zos = new ZipOutputStream(targetBaos);
+		out = targetBaos;
+	}
+
+	// ---------------------------------------------------------------- config
+
+	/**
+	 * Sets the compression level, from 0 to 9.
+	 */
+	public ZipBuilder level(final int level) {
+		this.level = level;
+		if (zos != null) {
+			zos.setLevel(level);
+		}
+		return this;
+	}
+
+	/**
+	 * Compresses entries concurrently on given number of threads.
+	 * Entries are stored in the order they were added. Must be set before
+	 * any entry is added. ZIP64 is not supported in parallel mode.
+	 */
+	public ZipBuilder parallel(final int threads) {
+		if (zos != null || parallelZip != null) {
+			throw new IllegalStateException("Entries already added");
+		}
+		if (threads < 1) {
+			throw new IllegalArgumentException("Invalid number of threads: " + threads);
+		}
+		this.threads = threads;
+		return this;
+	}
+
+	/**
+	 * Returns ZIP output stream, created on first use.
+	 */
+	protected ZipOutputStream zos() {
+		if (zos == null) {
+			zos = new ZipOutputStream(out);
+			zos.setLevel(level);
+		}
+		return zos;
+	}
+
+	/**
+	 * Returns parallel ZIP writer, created on first use.
+	 * Returns <code>null</code> when parallel mode is not set.
+	 */
+	protected ParallelZipWriter parallelZip() {
+		if (threads == 0) {
+			return null;
+		}
+		if (parallelZip == null) {
+			parallelZip = new ParallelZipWriter(out, level, threads);
+		}
+		return parallelZip;
+	}
+
+	/**
+	 * Closes the ZIP, quietly.
+	 */
+	protected void close() {
+		if (parallelZip != null) {
+			StreamUtil.close(parallelZip);
+		}
+		else {
+			StreamUtil.close(zos());
+		}
 	}
 
 	// ---------------------------------------------------------------- get
 
 	public File toZipFile() {
-		StreamUtil.close(zos);
+		close();
 
 		return targetZipFile;
 	}
 
 	public byte[] toBytes() {
-		StreamUtil.close(zos);
+		close();
 
 		if (targetZipFile != null) {
 			try {
@@ -138,7 +211,13 @@ public class ZipBuilder {
 		 * Stores the content into the ZIP.
 		 */
 		public ZipBuilder save() throws IOException {
-			ZipUtil.addToZip(zos, file, path, comment, recursive);
+			final ParallelZipWriter parallelZip = parallelZip();
+			if (parallelZip != null) {
+				parallelZip.addToZip(file, path, comment, recursive);
+			}
+			else {
+				ZipUtil.addToZip(zos(), file, path, comment, recursive);
+			}
 			return ZipBuilder.this;
 		}
 	}
@@ -182,7 +261,13 @@ public class ZipBuilder {
 		 * Stores the content into the ZIP.
 		 */
 		public ZipBuilder save() throws IOException {
-			ZipUtil.addToZip(zos, bytes, path, comment);
+			final ParallelZipWriter parallelZip = parallelZip();
+			if (parallelZip != null) {
+				parallelZip.addToZip(bytes, path, comment);
+			}
+			else {
+				ZipUtil.addToZip(zos(), bytes, path, comment);
+			}
 			return ZipBuilder.this;
 		}
 	}
@@ -190,7 +275,13 @@ public class ZipBuilder {
 	// ---------------------------------------------------------------- folder
 
 	public ZipBuilder addFolder(final String folderName) throws IOException {
-		ZipUtil.addFolderToZip(zos, folderName, null);
+		final ParallelZipWriter parallelZip = parallelZip();
+		if (parallelZip != null) {
+			parallelZip.addFolderToZip(folderName, null);
+		}
+		else {
+			ZipUtil.addFolderToZip(zos(), folderName, null);
+		}
 		return this;
 	}
 
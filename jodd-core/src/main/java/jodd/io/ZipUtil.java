@@ -97,6 +97,42 @@ public class ZipUtil {
 		return new File(zlibFileName);
 	}
 
+	/**
+	 * Compresses a file into zlib archive with given compression level,
+	 * using given number of threads. When there is just a single thread,
+	 * file is compressed in the calling thread.
+	 * @see ParallelDeflaterOutputStream
+	 */
+	public static File zlib(final File file, final int level, final int threads) throws IOException {
+		if (file.isDirectory()) {
+			throw new IOException("Can't zlib folder");
+		}
+		String zlibFileName = file.getAbsolutePath() + ZLIB_EXT;
+
+		if (threads <= 1) {
+			Deflater deflater = new Deflater(level);
+			try (
+				FileInputStream fis = new FileInputStream(file);
+				OutputStream dos = new DeflaterOutputStream(new FileOutputStream(zlibFileName), deflater)
+			) {
+				StreamUtil.copy(fis, dos);
+			}
+			finally {
+				deflater.end();
+			}
+			return new File(zlibFileName);
+		}
+
+		try (
+			FileInputStream fis = new FileInputStream(file);
+			OutputStream dos = new ParallelDeflaterOutputStream(new FileOutputStream(zlibFileName), level, threads)
+		) {
+			StreamUtil.copy(fis, dos);
+		}
+
+		return new File(zlibFileName);
+	}
+
 	// ---------------------------------------------------------------- gzip
 	
 	/**
@@ -128,6 +164,41 @@ public class ZipUtil {
 		return new File(gzipName);
 	}
 
+	/**
+	 * Compresses a file into gzip archive with given compression level,
+	 * using given number of threads. Output is readable by standard tools.
+	 * When there is just a single thread, file is compressed in the calling
+	 * thread and no thread pool is created.
+	 * @see ParallelGzipOutputStream
+	 */
+	public static File gzip(final File file, final int level, final int threads) throws IOException {
+		if (file.isDirectory()) {
+			throw new IOException("Can't gzip folder");
+		}
+		String gzipName = file.getAbsolutePath() + GZIP_EXT;
+
+		try (
+			FileInputStream fis = new FileInputStream(file);
+			OutputStream gzos = threads <= 1 ?
+				new LevelGZIPOutputStream(new FileOutputStream(gzipName), level) :
+				new ParallelGzipOutputStream(new FileOutputStream(gzipName), level, threads)
+		) {
+			StreamUtil.copy(fis, gzos);
+		}
+
+		return new File(gzipName);
+	}
+
+	/**
+	 * Gzip output stream with given compression level.
+	 */
+	static class LevelGZIPOutputStream extends GZIPOutputStream {
+		LevelGZIPOutputStream(final OutputStream out, final int level) throws IOException {
+			super(out);
+			def.setLevel(level);
+		}
+	}
+
 	/**
 	 * Decompress gzip archive.
 	 */
@@ -176,6 +247,21 @@ public class ZipUtil {
 				.toZipFile();
 	}
 
+	/**
+	 * Zips a file or a folder with given compression level. Entries
+	 * are compressed concurrently, using given number of threads.
+	 * @see ZipBuilder#parallel(int)
+	 */
+	public static File zip(final File file, final int level, final int threads) throws IOException {
+		String zipFile = file.getAbsolutePath() + ZIP_EXT;
+
+		return ZipBuilder.createZipFile(zipFile)
+					.level(level)
+					.parallel(threads)
+					.add(file).recursive().save()
+				.toZipFile();
+	}
+
 	// ---------------------------------------------------------------- unzip
 
 	/**
@@ -33,8 +33,13 @@ import jodd.util.StringUtil;
 import jodd.util.function.Consumers;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -42,7 +47,12 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Generic iterative file finder. Searches all files on specified search path.
@@ -701,6 +711,313 @@ public class FindFile implements Iterable<File> {
 		};
 	}
 
+	// ---------------------------------------------------------------- stream
+
+	/**
+	 * Returns lazily evaluated stream of found paths. Directories are read with
+	 * {@link DirectoryStream}, one entry at a time, so the content of large folders
+	 * is not materialized (unless sorting is set). The search follows the same flags
+	 * and rules as {@link #nextFile()}, but file consumers are not invoked.
+	 * Stream should be closed when not fully consumed, to release open directories.
+	 */
+	public Stream<Path> stream() {
+		return createStream(false);
+	}
+
+	/**
+	 * Returns parallel stream of found paths. Pending folders are split between
+	 * fork-join workers, so large trees are walked concurrently. Folders are
+	 * walked after the files of the current folder, as with {@link #walking(boolean)}
+	 * turned off, and the encounter order is not defined.
+	 * @see #stream()
+	 */
+	public Stream<Path> parallelStream() {
+		return createStream(true);
+	}
+
+	protected Stream<Path> createStream(final boolean parallel) {
+		rules.detectMode();
+
+		final List<File> searchPaths = pathListOriginal != null ? pathListOriginal : pathList;
+		final Set<DirectoryStream<Path>> openStreams = ConcurrentHashMap.newKeySet();
+		final PathSpliterator spliterator = new PathSpliterator(openStreams, parallel || !walking);
+
+		if (searchPaths != null) {
+			for (File searchPath : searchPaths) {
+				final Path path = searchPath.toPath().toAbsolutePath();
+				if (searchPath.isFile()) {
+					spliterator.files.add(path);
+				} else {
+					spliterator.pendingFolders.add(new Folder(path, path));
+				}
+			}
+		}
+
+		return StreamSupport.stream(spliterator, parallel).onClose(() -> {
+			for (DirectoryStream<Path> directoryStream : openStreams) {
+				closeDirectoryStream(directoryStream);
+			}
+			openStreams.clear();
+		});
+	}
+
+	/**
+	 * Determines if path is accepted, based on include and exclude rules.
+	 * Thread-safe variant of {@link #acceptFile(File)} used by streams,
+	 * matched on path {@link #getMatchingPath(Path, Path) resolved} against its root.
+	 */
+	protected boolean acceptPath(final Path root, final Path path) {
+		return rules.match(getMatchingPath(root, path));
+	}
+
+	/**
+	 * Resolves path depending on {@link Match matching type}.
+	 * Returned path is formatted in unix style.
+	 * @see #getMatchingFilePath(File)
+	 */
+	protected String getMatchingPath(final Path root, final Path path) {
+		String matchingPath = null;
+
+		switch (matchType) {
+			case FULL_PATH:
+				matchingPath = path.toString();
+				break;
+			case RELATIVE_PATH:
+				matchingPath = path.toString().substring(root.toString().length());
+				break;
+			case NAME:
+				matchingPath = path.getFileName().toString();
+		}
+
+		return FileNameUtil.separatorsToUnix(matchingPath);
+	}
+
+	private static void closeDirectoryStream(final DirectoryStream<Path> directoryStream) {
+		try {
+			directoryStream.close();
+		}
+		catch (IOException ignore) {
+		}
+	}
+
+	/**
+	 * Folder to walk and the root of the search path it belongs to.
+	 */
+	protected static class Folder {
+		protected final Path root;
+		protected final Path path;
+
+		protected Folder(final Path root, final Path path) {
+			this.root = root;
+			this.path = path;
+		}
+	}
+
+	/**
+	 * Spliterator that walks the folders. In walking mode, sub-folders are
+	 * walked immediately, by stacking their entries iterators. Otherwise,
+	 * sub-folders are queued, and the queue is split between spliterators.
+	 */
+	protected class PathSpliterator implements Spliterator<Path> {
+		protected final Set<DirectoryStream<Path>> openStreams;
+		protected final boolean queueFolders;
+		protected final LinkedList<Path> files = new LinkedList<>();
+		protected final LinkedList<Path> found = new LinkedList<>();
+		protected final LinkedList<Folder> pendingFolders = new LinkedList<>();
+		protected final LinkedList<FolderEntries> entries = new LinkedList<>();
+
+		protected PathSpliterator(final Set<DirectoryStream<Path>> openStreams, final boolean queueFolders) {
+			this.openStreams = openStreams;
+			this.queueFolders = queueFolders;
+		}
+
+		@Override
+		public boolean tryAdvance(final Consumer<? super Path> action) {
+			while (!files.isEmpty()) {
+				final Path file = files.removeFirst();
+				if (includeFiles && acceptPath(file.getParent(), file)) {
+					action.accept(file);
+					return true;
+				}
+			}
+
+			if (!found.isEmpty()) {
+				action.accept(found.removeFirst());
+				return true;
+			}
+
+			while (true) {
+				if (entries.isEmpty()) {
+					if (pendingFolders.isEmpty()) {
+						return false;
+					}
+					final FolderEntries folderEntries = openFolder(pendingFolders.removeFirst());
+					if (folderEntries != null) {
+						entries.add(folderEntries);
+					}
+					continue;
+				}
+
+				final FolderEntries folderEntries = entries.getLast();
+				final Path path = folderEntries.next();
+
+				if (path == null) {
+					entries.removeLast();
+					continue;
+				}
+
+				if (visit(folderEntries.folder.root, path)) {
+					action.accept(path);
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * Visits folder entry: walks or queues the sub-folder and
+		 * returns <code>true</code> if entry is accepted.
+		 */
+		protected boolean visit(final Path root, final Path path) {
+			if (Files.isDirectory(path)) {
+				if (recursive) {
+					final Folder folder = new Folder(root, path);
+					if (queueFolders) {
+						pendingFolders.add(folder);
+					}
+					else {
+						final FolderEntries subEntries = openFolder(folder);
+						if (subEntries != null) {
+							entries.add(subEntries);
+						}
+					}
+				}
+				return includeDirs && acceptPath(root, path);
+			}
+
+			return includeFiles && acceptPath(root, path);
+		}
+
+		/**
+		 * Splits half of the queued folders. When there is just a single
+		 * queued folder, it is read in advance, to find more folders
+		 * to split. Folders being read are never split.
+		 */
+		@Override
+		public Spliterator<Path> trySplit() {
+			if (!queueFolders || !entries.isEmpty()) {
+				return null;
+			}
+
+			while (pendingFolders.size() == 1) {
+				final FolderEntries folderEntries = openFolder(pendingFolders.removeFirst());
+				if (folderEntries == null) {
+					continue;
+				}
+				Path path;
+				while ((path = folderEntries.next()) != null) {
+					if (visit(folderEntries.folder.root, path)) {
+						found.add(path);
+					}
+				}
+			}
+
+			final int size = pendingFolders.size();
+			if (size < 2) {
+				return null;
+			}
+
+			final PathSpliterator split = new PathSpliterator(openStreams, queueFolders);
+			for (int i = size / 2; i > 0; i--) {
+				split.pendingFolders.addFirst(pendingFolders.removeLast());
+			}
+			return split;
+		}
+
+		@Override
+		public long estimateSize() {
+			return Long.MAX_VALUE;
+		}
+
+		@Override
+		public int characteristics() {
+			return queueFolders ? NONNULL | DISTINCT : ORDERED | NONNULL | DISTINCT;
+		}
+
+		/**
+		 * Opens the folder. Unreadable folders are skipped,
+		 * the same way as in {@link FilesIterator}.
+		 */
+		protected FolderEntries openFolder(final Folder folder) {
+			final DirectoryStream<Path> directoryStream;
+			try {
+				directoryStream = Files.newDirectoryStream(folder.path);
+			}
+			catch (IOException ignore) {
+				return null;
+			}
+
+			if (sortComparators == null) {
+				openStreams.add(directoryStream);
+				return new FolderEntries(folder, directoryStream, directoryStream.iterator());
+			}
+
+			// sorting requires all folder entries
+			final List<File> folderFiles = new ArrayList<>();
+			try {
+				for (Path path : directoryStream) {
+					folderFiles.add(path.toFile());
+				}
+			}
+			catch (DirectoryIteratorException ignore) {
+			}
+			finally {
+				closeDirectoryStream(directoryStream);
+			}
+			folderFiles.sort(new MultiComparator<>(sortComparators));
+
+			final List<Path> paths = new ArrayList<>(folderFiles.size());
+			for (File file : folderFiles) {
+				paths.add(file.toPath());
+			}
+			return new FolderEntries(folder, null, paths.iterator());
+		}
+
+		/**
+		 * Entries of the folder being read.
+		 */
+		protected class FolderEntries {
+			protected final Folder folder;
+			protected final DirectoryStream<Path> directoryStream;
+			protected final Iterator<Path> iterator;
+
+			protected FolderEntries(final Folder folder, final DirectoryStream<Path> directoryStream, final Iterator<Path> iterator) {
+				this.folder = folder;
+				this.directoryStream = directoryStream;
+				this.iterator = iterator;
+			}
+
+			/**
+			 * Returns next entry or <code>null</code> when folder is done.
+			 * Directory stream is closed at the end.
+			 */
+			protected Path next() {
+				try {
+					if (iterator.hasNext()) {
+						return iterator.next();
+					}
+				}
+				catch (DirectoryIteratorException ignore) {
+				}
+
+				if (directoryStream != null) {
+					openStreams.remove(directoryStream);
+					closeDirectoryStream(directoryStream);
+				}
+				return null;
+			}
+		}
+	}
+
 	// ---------------------------------------------------------------- sort
 
 	protected List<Comparator<File>> sortComparators;
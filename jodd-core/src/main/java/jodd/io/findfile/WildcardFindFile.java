@@ -25,12 +25,12 @@
 
 package jodd.io.findfile;
 
-import jodd.inex.InExRuleMatcher;
 import jodd.inex.InExRules;
+import jodd.util.Wildcard;
 
 /**
  * {@link FindFile} that matches file names using <code>*</code>, <code>?</code>
- * and <code>**</code> wildcards.
+ * and <code>**</code> wildcards. Patterns are compiled once, when added.
  *
  * @see jodd.io.findfile.RegExpFindFile
  */
@@ -41,8 +41,19 @@ public class WildcardFindFile extends FindFile {
 	}
 
 	@Override
-	protected InExRules<String, String, String> createRulesEngine() {
-		return new InExRules<>(InExRuleMatcher.WILDCARD_PATH_RULE_MATCHER);
+	protected InExRules<String, String, Wildcard.PathPattern> createRulesEngine() {
+		return new InExRules<String, String, Wildcard.PathPattern>() {
+
+			@Override
+			protected Wildcard.PathPattern makeRule(final String rule) {
+				return Wildcard.compilePath(rule);
+			}
+
+			@Override
+			public boolean accept(final String path, final Wildcard.PathPattern pattern, final boolean include) {
+				return pattern.match(path);
+			}
+		};
 	}
 
 }
\ No newline at end of file
@@ -31,11 +31,15 @@ import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Arrays;
 
 /**
  * Extended input stream based on buffered requests input stream.
  * It provides some more functions that might be useful when working
  * with uploaded fies.
+ * <p>
+ * Data is scanned for the boundary directly in the internal buffer,
+ * using Boyer-Moore-Horspool search, and copied in blocks.
  */
 public class MultipartRequestInputStream extends BufferedInputStream {
 
@@ -43,6 +47,10 @@ public class MultipartRequestInputStream extends BufferedInputStream {
 		super(in);
 	}
 
+	public MultipartRequestInputStream(final InputStream in, final int size) {
+		super(in, size);
+	}
+
 	/**
 	 * Reads expected byte. Throws exception on streams end.
 	 */
@@ -58,15 +66,57 @@ public class MultipartRequestInputStream extends BufferedInputStream {
 	 * Skips specified number of bytes.
 	 */
 	public void skipBytes(final int i) throws IOException {
-		long len = super.skip(i);
-		if (len != i) {
-			throw new IOException("Failed to skip data in HTTP request");
+		int remaining = i;
+		while (remaining > 0) {
+			int available = fillBuffer(1);
+			if (available == 0) {
+				throw new IOException("Failed to skip data in HTTP request");
+			}
+			int n = Math.min(available, remaining);
+			pos += n;
+			remaining -= n;
 		}
 	}
 
+	/**
+	 * Fills the buffer so at least given number of bytes is available
+	 * after the current position, unless end of stream is reached.
+	 * Returns number of available bytes in the buffer.
+	 */
+	protected int fillBuffer(final int size) throws IOException {
+		while (count - pos < size) {
+			if (markpos >= 0 && pos - markpos > marklimit) {
+				// mark is no longer valid
+				markpos = -1;
+			}
+			final int keep = markpos >= 0 ? markpos : pos;
+			if (keep > 0) {
+				System.arraycopy(buf, keep, buf, 0, count - keep);
+				count -= keep;
+				pos -= keep;
+				if (markpos >= 0) {
+					markpos -= keep;
+				}
+			}
+			if (count == buf.length) {
+				final byte[] newBuffer = new byte[Math.max(buf.length << 1, size)];
+				System.arraycopy(buf, 0, newBuffer, 0, count);
+				buf = newBuffer;
+			}
+			final int read = in.read(buf, count, buf.length - count);
+			if (read == -1) {
+				break;
+			}
+			count += read;
+		}
+		return count - pos;
+	}
+
 	// ---------------------------------------------------------------- boundary
 
 	protected byte[] boundary;
+	private byte[] shiftBoundary;
+	private int[] shift;
 
 	/**
 	 * Reads boundary from the input stream.
@@ -94,6 +144,51 @@ public class MultipartRequestInputStream extends BufferedInputStream {
 		return boundary;
 	}
 
+	/**
+	 * Returns bad-character shift table of the boundary.
+	 */
+	private int[] shiftTable() {
+		if (shiftBoundary != boundary) {
+			final int last = boundary.length - 1;
+			shift = new int[256];
+			Arrays.fill(shift, boundary.length);
+			for (int i = 0; i < last; i++) {
+				shift[boundary[i] & 0xFF] = last - i;
+			}
+			shiftBoundary = boundary;
+		}
+		return shift;
+	}
+
+	/**
+	 * Finds the first boundary in the buffer, starting from current position.
+	 * Returns boundary index in the buffer or <code>-1</code> if boundary is not found.
+	 */
+	private int indexOfBoundary() {
+		final int[] shift = shiftTable();
+		final byte[] buf = this.buf;
+		final int last = boundary.length - 1;
+		final byte lastByte = boundary[last];
+
+		int i = pos;
+		final int end = count - last;
+
+		while (i < end) {
+			final byte b = buf[i + last];
+			if (b == lastByte) {
+				int j = last - 1;
+				while (j >= 0 && buf[i + j] == boundary[j]) {
+					j--;
+				}
+				if (j < 0) {
+					return i;
+				}
+			}
+			i += shift[b & 0xFF];
+		}
+		return -1;
+	}
+
 	// ---------------------------------------------------------------- data header
 
 	protected FileUploadHeader lastHeader;
@@ -119,28 +214,41 @@ public class MultipartRequestInputStream extends BufferedInputStream {
 
 	protected String readDataHeaderString(final String encoding) throws IOException {
 		FastByteArrayOutputStream data = new FastByteArrayOutputStream();
-		byte b;
 		while (true) {
-			// end marker byte on offset +0 and +2 must be 13
-			if ((b = readByte()) != '\r') {
-				data.write(b);
+			if (fillBuffer(1) == 0) {
+				throw new IOException("End of HTTP request stream reached");
+			}
+
+			// copy everything before the CR
+			int i = pos;
+			while (i < count && buf[i] != '\r') {
+				i++;
+			}
+			data.write(buf, pos, i - pos);
+			pos = i;
+			if (i == count) {
 				continue;
 			}
-			mark(4);
-			skipBytes(1);
-			int i = read();
-			if (i == -1) {
+
+			// end marker byte on offset +0 and +2 must be 13
+			int available = fillBuffer(4);
+			if (available < 2) {
+				throw new IOException("Failed to skip data in HTTP request");
+			}
+			if (available == 2) {
 				// reached end of stream
 				return null;
 			}
-			if (i == '\r') {
-				reset();
+			if (buf[pos + 2] == '\r') {
+				if (available < 4) {
+					throw new IOException("Failed to skip data in HTTP request");
+				}
+				pos += 4;
 				break;
 			}
-			reset();
-			data.write(b);
+			data.write('\r');
+			pos++;
 		}
-		skipBytes(3);
 		if (encoding != null) {
 			return data.toString(encoding);
 		} else {
@@ -157,51 +265,64 @@ public class MultipartRequestInputStream extends BufferedInputStream {
 	 * for any irregular behaviour.
 	 */
 	public int copyAll(final OutputStream out) throws IOException {
-		int count = 0;
-		while (true) {
-			byte b = readByte();
-			if (isBoundary(b)) {
-				break;
-			}
-			out.write(b);
-			count++;
-		}
-		return count;
+		return copyToBoundary(out, Integer.MAX_VALUE);
 	}
 
 	/**
 	 * Copies max or less number of bytes to output stream. Useful for determining
-	 * if uploaded file is larger then expected.
+	 * if uploaded file is larger then expected. When max is not positive,
+	 * all bytes are copied.
 	 */
 	public int copyMax(final OutputStream out, final int maxBytes) throws IOException {
-		int count = 0;
-		while (true) {
-			byte b = readByte();
-			if (isBoundary(b)) {
-				break;
-			}
-			out.write(b);
-			count++;
-			if (count == maxBytes) {
-				return count;
-			}
-		}
-		return count;
+		return copyToBoundary(out, maxBytes > 0 ? maxBytes : Integer.MAX_VALUE);
 	}
 
 	/**
 	 * Skips to the boundary and returns total number of bytes skipped.
 	 */
 	public int skipToBoundary() throws IOException {
-		int count = 0;
+		return copyToBoundary(null, Integer.MAX_VALUE) + 1;
+	}
+
+	/**
+	 * Copies bytes to the output until the boundary or until max number of bytes
+	 * is copied. Boundary is consumed only when found before the limit. Bytes are
+	 * just skipped when output is not specified.
+	 */
+	protected int copyToBoundary(final OutputStream out, final int maxBytes) throws IOException {
+		final int boundaryLen = boundary.length;
+		int total = 0;
+
 		while (true) {
-			byte b = readByte();
-			count++;
-			if (isBoundary(b)) {
-				break;
+			if (fillBuffer(boundaryLen) < boundaryLen) {
+				throw new IOException("End of HTTP request stream reached");
+			}
+
+			final int ndx = indexOfBoundary();
+
+			// data before the boundary, or bytes that can not be the start of the boundary
+			final int size = ndx != -1 ? ndx - pos : count - pos - boundaryLen + 1;
+			final int remaining = maxBytes - total;
+
+			if (size >= remaining) {
+				if (out != null) {
+					out.write(buf, pos, remaining);
+				}
+				pos += remaining;
+				return maxBytes;
+			}
+
+			if (out != null) {
+				out.write(buf, pos, size);
+			}
+			pos += size;
+			total += size;
+
+			if (ndx != -1) {
+				pos += boundaryLen;
+				return total;
 			}
 		}
-		return count;
 	}
 
 	/**
@@ -33,18 +33,43 @@ import jodd.util.function.Consumers;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
+/**
+ * Watches directory for file changes. By default, directory is polled
+ * in given interval and files modification times are compared. When
+ * {@link #useWatchService() watch service} is enabled, changes are
+ * received from the file system instead; polling is then used only when
+ * watch service is not available.
+ * <p>
+ * Changes are collected and sent to listeners after each poll, or, for
+ * watch service, after the {@link #debounce(long) debounce} period. Multiple
+ * changes of the same file are coalesced into a single event.
+ */
 public class DirWatcher {
 
 	protected final File dir;
 	protected HashMap<File, MutableLong> map = new HashMap<>();
 	protected int filesCount;
 	protected Consumers<DirWatcherEvent> listeners = Consumers.empty();
+	protected Consumers<List<DirWatcherEvent>> batchListeners = Consumers.empty();
 	protected String[] patterns;
 
 	/**
@@ -74,6 +99,11 @@ public class DirWatcher {
 	 * from watched folder.
 	 */
 	protected void init() {
+		if (recursive) {
+			scanTree(dir, file -> map.put(file, new MutableLong(file.lastModified())), null);
+			return;
+		}
+
 		File[] filesArray = dir.listFiles();
 
 		filesCount = 0;
@@ -95,6 +125,9 @@ public class DirWatcher {
 
 	protected boolean ignoreDotFiles = true;
 	protected boolean startBlank = false;
+	protected boolean recursive = false;
+	protected boolean useWatchService = false;
+	protected long debounce = 0;
 
 	/**
 	 * Enables or disables if dot files should be watched.
@@ -114,6 +147,34 @@ public class DirWatcher {
 		return this;
 	}
 
+	/**
+	 * Defines if subdirectories should be watched, too. Dot directories
+	 * are skipped when {@link #ignoreDotFiles(boolean) dot files} are ignored.
+	 */
+	public DirWatcher recursive(final boolean recursive) {
+		this.recursive = recursive;
+		return this;
+	}
+
+	/**
+	 * Enables file system watch service instead of polling. Polling is still
+	 * used when the watch file is set or if watch service is not available.
+	 */
+	public DirWatcher useWatchService() {
+		this.useWatchService = true;
+		return this;
+	}
+
+	/**
+	 * Defines the quiet period in milliseconds, after which collected changes
+	 * are sent when watch service is used. Burst of changes is delayed for at
+	 * most ten periods. By default, changes are sent immediately.
+	 */
+	public DirWatcher debounce(final long debounce) {
+		this.debounce = debounce;
+		return this;
+	}
+
 	/**
 	 * Defines patterns to scan.
 	 */
@@ -184,16 +245,21 @@ public class DirWatcher {
 	protected Timer timer;
 
 	/**
-	 * Starts the watcher.
+	 * Starts the watcher. Polling interval is used if watch service
+	 * is not enabled or not available.
 	 */
 	public void start(final long pollingInterval) {
-		if (timer == null) {
-			if (!startBlank) {
-				init();
-			}
-			timer = new Timer(true);
-			timer.schedule(new WatchTask(), 0, pollingInterval);
+		if (timer != null || watchThread != null) {
+			return;
+		}
+		if (!startBlank) {
+			init();
+		}
+		if (useWatchService && watchFile == null && startWatchService()) {
+			return;
 		}
+		timer = new Timer(true);
+		timer.schedule(new WatchTask(), 0, pollingInterval);
 	}
 	/**
 	 * Stops the watcher.
@@ -203,6 +269,29 @@ public class DirWatcher {
 			timer.cancel();
 			timer = null;
 		}
+		if (watchThread != null) {
+			try {
+				watchService.close();
+			}
+			catch (IOException ignore) {
+			}
+			if (Thread.currentThread() != watchThread) {
+				try {
+					watchThread.join();
+				}
+				catch (InterruptedException ignore) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			watchThread = null;
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if watcher runs on the watch service.
+	 */
+	public boolean isWatchServiceUsed() {
+		return watchThread != null;
 	}
 
 	// ---------------------------------------------------------------- timer
@@ -232,6 +321,13 @@ public class DirWatcher {
 
 			// scan!
 
+			if (recursive) {
+				rescan(null);
+				fireEvents();
+				running = false;
+				return;
+			}
+
 			File[] filesArray = dir.listFiles();
 
 			if (filesArray == null) {
@@ -282,16 +378,318 @@ public class DirWatcher {
 				}
 			}
 
+			fireEvents();
+
 			// stop running
 			running = false;
 		}
 	}
 
+	// ---------------------------------------------------------------- watch service
+
+	protected WatchService watchService;
+	protected Thread watchThread;
+	protected Map<WatchKey, File> watchKeys;
+	protected Set<File> watchedDirs;
+
+	/**
+	 * Registers directories in the watch service and starts the thread
+	 * that receives the changes. Returns <code>false</code> if watch
+	 * service is not available.
+	 */
+	protected boolean startWatchService() {
+		try {
+			watchService = dir.toPath().getFileSystem().newWatchService();
+			watchKeys = new HashMap<>();
+			watchedDirs = new HashSet<>();
+
+			scanTree(dir, null, this::registerDir);
+		}
+		catch (IOException | UnsupportedOperationException | DirWatcherException ex) {
+			if (watchService != null) {
+				try {
+					watchService.close();
+				} catch (IOException ignore) {
+				}
+			}
+			watchService = null;
+			return false;
+		}
+
+		watchThread = new Thread(this::watch, "jodd-dir-watcher");
+		watchThread.setDaemon(true);
+		watchThread.start();
+		return true;
+	}
+
+	/**
+	 * Registers single directory in the watch service.
+	 */
+	protected void registerDir(final File dir) {
+		try {
+			final WatchKey key = dir.toPath().register(watchService,
+				StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_DELETE,
+				StandardWatchEventKinds.ENTRY_MODIFY);
+			watchKeys.put(key, dir);
+			watchedDirs.add(dir);
+		}
+		catch (IOException ioex) {
+			throw new DirWatcherException("Unable to watch: " + dir, ioex);
+		}
+	}
+
+	/**
+	 * Registers directory found while watching. Directory that is
+	 * already removed or can not be watched is ignored.
+	 */
+	protected void registerNewDir(final File dir) {
+		try {
+			registerDir(dir);
+		}
+		catch (DirWatcherException ignore) {
+		}
+	}
+
+	/**
+	 * Watch thread loop.
+	 */
+	protected void watch() {
+		if (startBlank) {
+			rescan(null);
+			fireEvents();
+		}
+		try {
+			while (true) {
+				WatchKey key;
+
+				if (pendingEvents.isEmpty()) {
+					key = watchService.take();
+				}
+				else {
+					final long wait = Math.min(lastEventTime + debounce, firstEventTime + 10 * debounce) - System.currentTimeMillis();
+					if (wait <= 0) {
+						fireEvents();
+						continue;
+					}
+					key = watchService.poll(wait, TimeUnit.MILLISECONDS);
+					if (key == null) {
+						fireEvents();
+						continue;
+					}
+				}
+
+				processWatchKey(key);
+
+				if (debounce <= 0) {
+					while ((key = watchService.poll()) != null) {
+						processWatchKey(key);
+					}
+					fireEvents();
+				}
+			}
+		}
+		catch (ClosedWatchServiceException | InterruptedException ignore) {
+			// stopped
+		}
+		fireEvents();
+	}
+
+	/**
+	 * Processes all events of a watch key.
+	 */
+	protected void processWatchKey(final WatchKey key) {
+		final File keyDir = watchKeys.get(key);
+
+		for (WatchEvent<?> event : key.pollEvents()) {
+			final WatchEvent.Kind<?> kind = event.kind();
+
+			if (kind == StandardWatchEventKinds.OVERFLOW || keyDir == null) {
+				// events are lost, compare with the file system
+				rescan(this::registerNewDir);
+				continue;
+			}
+
+			final File file = new File(keyDir, ((Path) event.context()).toString());
+
+			if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+				if (map.remove(file) != null) {
+					onChange(DirWatcherEvent.Type.DELETED, file);
+				}
+				else if (watchedDirs.remove(file)) {
+					removeTree(file);
+				}
+				continue;
+			}
+
+			if (recursive && file.isDirectory()) {
+				if (kind == StandardWatchEventKinds.ENTRY_CREATE && acceptDir(file)) {
+					// files may be created before the directory is registered
+					scanTree(file, this::onFileChange, this::registerNewDir);
+				}
+				continue;
+			}
+
+			if (acceptFile(file)) {
+				onFileChange(file);
+			}
+		}
+
+		if (!key.reset()) {
+			watchedDirs.remove(watchKeys.remove(key));
+		}
+	}
+
+	/**
+	 * Updates the state of created or modified file. Like with polling,
+	 * modification is detected by the change of the modification time.
+	 */
+	protected void onFileChange(final File file) {
+		final long lastModified = file.lastModified();
+		final MutableLong time = map.get(file);
+
+		if (time == null) {
+			map.put(file, new MutableLong(lastModified));
+			onChange(DirWatcherEvent.Type.CREATED, file);
+		}
+		else if (time.longValue() != lastModified) {
+			time.set(lastModified);
+			onChange(DirWatcherEvent.Type.MODIFIED, file);
+		}
+	}
+
+	/**
+	 * Removes all files of deleted directory.
+	 */
+	protected void removeTree(final File deletedDir) {
+		final String prefix = deletedDir.getPath() + File.separatorChar;
+
+		watchedDirs.removeIf(file -> file.getPath().startsWith(prefix));
+
+		final Iterator<File> iterator = map.keySet().iterator();
+
+		while (iterator.hasNext()) {
+			final File file = iterator.next();
+			if (file.getPath().startsWith(prefix)) {
+				iterator.remove();
+				onChange(DirWatcherEvent.Type.DELETED, file);
+			}
+		}
+	}
+
+	// ---------------------------------------------------------------- scan
+
+	/**
+	 * Accepts if a subdirectory is going to be watched.
+	 */
+	protected boolean acceptDir(final File dir) {
+		return !ignoreDotFiles || !dir.getName().startsWith(StringPool.DOT);
+	}
+
+	/**
+	 * Scans the directory, and its subdirectories if watcher is recursive.
+	 * Accepted files are passed to the file consumer and all directories
+	 * to directory consumer, if set.
+	 */
+	protected void scanTree(final File root, final Consumer<File> fileConsumer, final Consumer<File> dirConsumer) {
+		if (dirConsumer != null) {
+			dirConsumer.accept(root);
+		}
+		final File[] files = root.listFiles();
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			if (file.isDirectory()) {
+				if (recursive && acceptDir(file)) {
+					scanTree(file, fileConsumer, dirConsumer);
+				}
+			}
+			else if (fileConsumer != null && acceptFile(file)) {
+				fileConsumer.accept(file);
+			}
+		}
+	}
+
+	/**
+	 * Compares the whole tree with the known state and
+	 * triggers changes. Directories are passed to the consumer.
+	 */
+	protected void rescan(final Consumer<File> dirConsumer) {
+		final Set<File> deletedFiles = new HashSet<>(map.keySet());
+
+		scanTree(dir, file -> {
+			deletedFiles.remove(file);
+			onFileChange(file);
+		}, dirConsumer);
+
+		for (File deletedFile : deletedFiles) {
+			map.remove(deletedFile);
+			onChange(DirWatcherEvent.Type.DELETED, deletedFile);
+		}
+		filesCount = map.size();
+	}
+
+	// ---------------------------------------------------------------- events
+
+	protected final LinkedHashMap<File, DirWatcherEvent> pendingEvents = new LinkedHashMap<>();
+	protected long firstEventTime;
+	protected long lastEventTime;
+
 	/**
-	 * Triggers listeners on file change.
+	 * Collects the file change. Changes of the same file are
+	 * coalesced until events are {@link #fireEvents() fired}.
 	 */
 	protected void onChange(final DirWatcherEvent.Type type, final File file) {
-		listeners.accept(new DirWatcherEvent(type, file));
+		lastEventTime = System.currentTimeMillis();
+		if (pendingEvents.isEmpty()) {
+			firstEventTime = lastEventTime;
+		}
+
+		final DirWatcherEvent previous = pendingEvents.get(file);
+		if (previous == null) {
+			pendingEvents.put(file, new DirWatcherEvent(type, file));
+			return;
+		}
+
+		final DirWatcherEvent.Type coalesced = coalesce(previous.type(), type);
+		if (coalesced == null) {
+			pendingEvents.remove(file);
+		}
+		else if (coalesced != previous.type()) {
+			pendingEvents.put(file, new DirWatcherEvent(coalesced, file));
+		}
+	}
+
+	/**
+	 * Coalesces two consecutive changes of the same file. Returns
+	 * <code>null</code> if there is no change at all.
+	 */
+	protected DirWatcherEvent.Type coalesce(final DirWatcherEvent.Type first, final DirWatcherEvent.Type next) {
+		switch (first) {
+			case CREATED:
+				return next == DirWatcherEvent.Type.DELETED ? null : first;
+			case DELETED:
+				return next == DirWatcherEvent.Type.CREATED ? DirWatcherEvent.Type.MODIFIED : next;
+			default:
+				return next;
+		}
+	}
+
+	/**
+	 * Triggers listeners with collected changes.
+	 */
+	protected void fireEvents() {
+		if (pendingEvents.isEmpty()) {
+			return;
+		}
+		final List<DirWatcherEvent> events = new ArrayList<>(pendingEvents.values());
+		pendingEvents.clear();
+
+		for (DirWatcherEvent event : events) {
+			listeners.accept(event);
+		}
+		batchListeners.accept(events);
 	}
 
 	// ---------------------------------------------------------------- listeners
@@ -303,6 +701,13 @@ public class DirWatcher {
 		listeners.add(dirWatcherListener);
 	}
 
+	/**
+	 * Registers consumer of all changes collected at once.
+	 */
+	public void registerBatch(final Consumer<List<DirWatcherEvent>> dirWatcherBatchListener) {
+		batchListeners.add(dirWatcherBatchListener);
+	}
+
 	/**
 	 * Removes registered {@link jodd.io.watch.DirWatcherEvent consumer}.
 	 */
@@ -315,6 +720,7 @@ public class DirWatcher {
 	 */
 	public void clear() {
 		listeners.clear();
+		batchListeners.clear();
 	}
 
 }
\ No newline at end of file
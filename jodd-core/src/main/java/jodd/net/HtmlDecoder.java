@@ -45,6 +45,7 @@ public class HtmlDecoder {
 
 	private static final Map<String, char[]> ENTITY_MAP;
 	private static final char[][] ENTITY_NAMES;
+	private static final int ENTITY_NAME_MAX_LENGTH;
 
 	static {
 		final Properties entityReferences = new Properties();
@@ -97,6 +98,12 @@ public class HtmlDecoder {
 		}
 
 		Arrays.sort(ENTITY_NAMES, Comparator.comparing(String::new));
+
+		int maxLength = 0;
+		for (final char[] name : ENTITY_NAMES) {
+			maxLength = Math.max(maxLength, name.length);
+		}
+		ENTITY_NAME_MAX_LENGTH = maxLength;
 	}
 
 	/**
@@ -170,12 +177,20 @@ mainloop:
 	 * Detects the longest character reference name on given position in char array.
 	 * Returns {@code null} if name not found.
 	 */
-	public static String detectName(final char[] input, int ndx) {
+	public static String detectName(final char[] input, final int ndx) {
+		return detectName(input, ndx, input.length);
+	}
+
+	/**
+	 * Detects the longest character reference name on given position in
+	 * the range of char array that ends before given index.
+	 * Returns {@code null} if name not found.
+	 */
+	public static String detectName(final char[] input, int ndx, final int len) {
 		final Ptr ptr = new Ptr();
 
 		int firstIndex = 0;
 		int lastIndex = ENTITY_NAMES.length - 1;
-		final int len = input.length;
 		char[] lastName = null;
 
 		final BinarySearchBase binarySearch = new BinarySearchBase() {
@@ -215,7 +230,7 @@ mainloop:
 			if (firstIndex == lastIndex) {
 				// only one element found, check the rest
 				for (int i = ptr.offset; i < element.length; i++) {
-					if (ndx == input.length || element[i] != input[ndx]) {
+					if (ndx == len || element[i] != input[ndx]) {
 						return lastName != null ? new String(lastName) : null;
 					}
 					ndx++;
@@ -232,6 +247,13 @@ mainloop:
 		}
 	}
 
+	/**
+	 * Returns the length of the longest character reference name.
+	 */
+	public static int maxNameLength() {
+		return ENTITY_NAME_MAX_LENGTH;
+	}
+
 	/**
 	 * Returns replacement chars for given character reference.
 	 */
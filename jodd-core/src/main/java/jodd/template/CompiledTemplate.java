@@ -0,0 +1,188 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.template;
+
+import jodd.exception.UncheckedException;
+import jodd.util.StringPool;
+
+import java.io.IOException;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Template compiled by {@link StringTemplateParser#compile(String)}.
+ * Template is split once into literal and macro segments, so rendering
+ * just appends literals and resolved macro values to the output.
+ * Compiled template is immutable and may be rendered many times,
+ * concurrently. Parser settings are copied on compilation.
+ * <p>
+ * Macros with inner macros (e.g. <code>${key${index}}</code>) have
+ * compiled names: the name is rendered first, then the value is resolved.
+ * Only values that contain macros are parsed on rendering, when
+ * {@link StringTemplateParser#setParseValues(boolean) enabled}.
+ */
+public class CompiledTemplate {
+
+	protected final StringTemplateParser settings;
+	protected final String[] literals;
+	protected final String[] names;
+	protected final String[] macros;
+	protected final CompiledTemplate[] innerNames;
+
+	/**
+	 * Creates compiled template from segments: there is always
+	 * one literal more than macros.
+	 */
+	CompiledTemplate(
+			final StringTemplateParser settings,
+			final String[] literals,
+			final String[] names,
+			final String[] macros,
+			final CompiledTemplate[] innerNames) {
+		this.settings = settings;
+		this.literals = literals;
+		this.names = names;
+		this.macros = macros;
+		this.innerNames = innerNames;
+	}
+
+	/**
+	 * Creates a copy of compiled template, used by subclasses.
+	 */
+	protected CompiledTemplate(final CompiledTemplate compiledTemplate) {
+		this.settings = compiledTemplate.settings;
+		this.literals = compiledTemplate.literals;
+		this.names = compiledTemplate.names;
+		this.macros = compiledTemplate.macros;
+		this.innerNames = compiledTemplate.innerNames;
+	}
+
+	/**
+	 * Returns number of macros in the template.
+	 */
+	public int macroCount() {
+		return names.length;
+	}
+
+	/**
+	 * Returns name of the macro at given index.
+	 */
+	public String macroName(final int index) {
+		return names[index];
+	}
+
+	// ---------------------------------------------------------------- render
+
+	/**
+	 * Renders template into a string.
+	 * @see #render(Appendable, Function)
+	 */
+	public String render(final Function<String, ?> macroResolver) {
+		try {
+			return render(new StringBuilder(), macroResolver).toString();
+		}
+		catch (IOException ioex) {
+			throw new UncheckedException(ioex);
+		}
+	}
+
+	/**
+	 * Renders template into the given output. Macro values are resolved
+	 * by name; values that are <code>CharSequence</code> are appended
+	 * directly, other values are converted to strings.
+	 */
+	public <A extends Appendable> A render(final A out, final Function<String, ?> macroResolver) throws IOException {
+		return render(out, index -> macroResolver.apply(names[index]), macroResolver);
+	}
+
+	/**
+	 * Renders template with macro values resolved by macro index.
+	 * Name resolver is still used for inner macros and for parsing
+	 * values when {@link StringTemplateParser#setParseValues(boolean) enabled}.
+	 */
+	protected <A extends Appendable> A render(
+			final A out,
+			final IntFunction<?> macroValues,
+			final Function<String, ?> macroResolver) throws IOException {
+
+		out.append(literals[0]);
+
+		for (int i = 0; i < names.length; i++) {
+			Object value = resolveValue(i, macroValues, macroResolver);
+
+			if (settings.parseValues) {
+				final String stringValue = value.toString();
+				if (stringValue.contains(settings.macroStart)) {
+					value = settings.parse(stringValue, name -> {
+						final Object v = macroResolver.apply(name);
+						return v == null ? null : v.toString();
+					});
+				}
+			}
+
+			if (value instanceof CharSequence) {
+				out.append((CharSequence) value);
+			} else {
+				out.append(value.toString());
+			}
+			out.append(literals[i + 1]);
+		}
+		return out;
+	}
+
+	/**
+	 * Resolves value of the macro at given index. Inner macros are
+	 * resolved by the name rendered from the compiled name.
+	 */
+	private Object resolveValue(final int index, final IntFunction<?> macroValues, final Function<String, ?> macroResolver) throws IOException {
+		final CompiledTemplate innerName = innerNames[index];
+		final String name = innerName == null ? null : innerName.render(new StringBuilder(), macroResolver).toString();
+
+		Object value;
+		if (settings.missingKeyReplacement != null || !settings.replaceMissingKey) {
+			try {
+				value = name == null ? macroValues.apply(index) : macroResolver.apply(name);
+			} catch (Exception ignore) {
+				value = null;
+			}
+
+			if (value == null) {
+				if (settings.replaceMissingKey) {
+					value = settings.missingKeyReplacement;
+				} else {
+					value = name == null ? macros[index] : settings.macroStart + name + settings.macroEnd;
+				}
+			}
+		} else {
+			value = name == null ? macroValues.apply(index) : macroResolver.apply(name);
+			if (value == null) {
+				value = StringPool.EMPTY;
+			}
+		}
+		return value;
+	}
+}
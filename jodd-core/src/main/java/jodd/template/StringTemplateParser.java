@@ -29,6 +29,8 @@ import jodd.util.CharUtil;
 import jodd.util.StringPool;
 import jodd.util.StringUtil;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Function;
 
 /**
@@ -138,176 +140,319 @@ public class StringTemplateParser {
 	/**
 	 * Parses string template and replaces macros with resolved values.
 	 */
-	public String parse(String template, final Function<String, String> macroResolver) {
-		StringBuilder result = new StringBuilder(template.length());
+	public String parse(final String template, final Function<String, String> macroResolver) {
+		final StringBuilder result = new StringBuilder(template.length());
+		final MacroScanner scanner = new MacroScanner(template);
 
-		int i = 0;
-		int len = template.length();
+		while (scanner.next(result)) {
+			final String name = scanner.name();
 
-		// strict flag means that start and end tag are not necessary
-		boolean strict;
-
-		if (macroPrefix == null) {
-			// when prefix is not specified, make it equals to macro start
-			// so we can use the same code
-			macroPrefix = macroStart;
-
-			strict = true;
-		}
-		else {
-			strict = false;
-		}
-
-		final int prefixLen = macroPrefix.length();
-		final int startLen = macroStart.length();
-		final int endLen = macroEnd.length();
-
-		while (i < len) {
-			int ndx = template.indexOf(macroPrefix, i);
-			if (ndx == -1) {
-				result.append(i == 0 ? template : template.substring(i));
-				break;
-			}
+			// find value and append
 
-			// check escaped
-			int j = ndx - 1;
-			boolean escape = false;
-			int count = 0;
+			Object value;
+			if (missingKeyReplacement != null || !replaceMissingKey) {
+				try {
+					value = macroResolver.apply(name);
+				} catch (Exception ignore) {
+					value = null;
+				}
 
-			while ((j >= 0) && (template.charAt(j) == escapeChar)) {
-				escape = !escape;
-				if (escape) {
-					count++;
+				if (value == null) {
+					if (replaceMissingKey) {
+						value = missingKeyReplacement;
+					} else {
+						value = scanner.macro();
+					}
 				}
-				j--;
-			}
-			if (resolveEscapes) {
-				result.append(template.substring(i, ndx - count));
 			} else {
-				result.append(template.substring(i, ndx));
+				value = macroResolver.apply(name);
+				if (value == null) {
+					value = StringPool.EMPTY;
+				}
 			}
-			if (escape) {
-				result.append(macroPrefix);
 
-				i = ndx + prefixLen;
+			if (!scanner.inner()) {
+				String stringValue = value.toString();
+				if (parseValues) {
+					if (stringValue.contains(macroStart)) {
+						stringValue = parse(stringValue, macroResolver);
+					}
+				}
+				result.append(stringValue);
 
-				continue;
+				scanner.skipMacro();
+			} else {
+				// inner macro
+				scanner.replaceMacro(value.toString());
 			}
+		}
+		return result.toString();
+	}
 
-			// macro started, detect strict format
+	// ---------------------------------------------------------------- compile
 
-			boolean detectedStrictFormat = strict;
+	/**
+	 * Compiles string template for repeated rendering. Template is
+	 * scanned only once, using the same rules as in {@link #parse(String, Function)}.
+	 * Names of macros with inner macros are compiled, too.
+	 * Current parser settings are copied into the compiled template,
+	 * so later changes of this parser do not affect it.
+	 */
+	public CompiledTemplate compile(final String template) {
+		final StringTemplateParser settings = copySettings();
+
+		final List<String> literals = new ArrayList<>();
+		final List<String> names = new ArrayList<>();
+		final List<String> macros = new ArrayList<>();
+		final List<CompiledTemplate> innerNames = new ArrayList<>();
+
+		final MacroScanner scanner = new MacroScanner(template);
+		final StringBuilder literal = new StringBuilder();
+
+		while (scanner.next(literal)) {
+			if (scanner.inner()) {
+				// inner macros are resolved on rendering, name is compiled in strict format
+				final String macro = scanner.skipOuterMacro();
+				final String name = macro.substring(macroStart.length(), macro.length() - macroEnd.length());
+
+				macros.add(macro);
+				names.add(name);
+				innerNames.add(settings.copySettings().setStrictFormat().compile(name));
+			} else {
+				macros.add(scanner.macro());
+				names.add(scanner.name());
+				innerNames.add(null);
 
-			if (!detectedStrictFormat) {
-				if (StringUtil.isSubstringAt(template, macroStart, ndx)) {
-					detectedStrictFormat = true;
-				}
+				scanner.skipMacro();
 			}
 
-			int ndx1;
-			int ndx2;
+			literals.add(literal.toString());
+			literal.setLength(0);
+		}
+		literals.add(literal.toString());
+
+		return new CompiledTemplate(
+			settings,
+			literals.toArray(new String[0]),
+			names.toArray(new String[0]),
+			macros.toArray(new String[0]),
+			innerNames.toArray(new CompiledTemplate[0]));
+	}
 
-			if (!detectedStrictFormat) {
-				// not strict format: $foo
+	// ---------------------------------------------------------------- scanner
 
-				ndx += prefixLen;
-				ndx1 = ndx;
-				ndx2 = ndx;
+	/**
+	 * Template scanner, shared by parsing and compiling. Finds macros one
+	 * by one and appends text between them. After the macro is found,
+	 * scanner has to be moved after it.
+	 */
+	private class MacroScanner {
+		// strict flag means that start and end tag are not necessary
+		private final boolean strict;
+		private final String prefix;
+		private final int prefixLen;
+		private final int startLen;
+		private final int endLen;
+
+		private String template;
+		private int len;
+		private int i;
+
+		// current macro
+		private int ndx;
+		private int ndx1;
+		private int ndx2;
+		private boolean detectedStrictFormat;
+
+		private MacroScanner(final String template) {
+			// when prefix is not specified, use macro start
+			// so we can use the same code
+			this.strict = macroPrefix == null;
+			this.prefix = strict ? macroStart : macroPrefix;
+			this.prefixLen = prefix.length();
+			this.startLen = macroStart.length();
+			this.endLen = macroEnd.length();
+			this.template = template;
+			this.len = template.length();
+		}
 
-				while ((ndx2 < len) && CharUtil.isPropertyNameChar(template.charAt(ndx2))) {
-					ndx2++;
+		/**
+		 * Appends the text up to the next macro and returns <code>true</code>
+		 * if macro is found. Returns <code>false</code> when the rest of
+		 * the template is appended.
+		 */
+		private boolean next(final StringBuilder out) {
+			while (i < len) {
+				ndx = template.indexOf(prefix, i);
+				if (ndx == -1) {
+					out.append(template, i, len);
+					i = len;
+					return false;
 				}
 
-				if (ndx2 == len) {
-					ndx2--;
+				// check escaped
+				int j = ndx - 1;
+				boolean escape = false;
+				int count = 0;
+
+				while ((j >= 0) && (template.charAt(j) == escapeChar)) {
+					escape = !escape;
+					if (escape) {
+						count++;
+					}
+					j--;
 				}
+				out.append(template, i, resolveEscapes ? ndx - count : ndx);
 
-				while ((ndx2 > ndx) && !CharUtil.isAlphaOrDigit(template.charAt(ndx2))) {
-					ndx2--;
+				if (escape) {
+					out.append(prefix);
+					i = ndx + prefixLen;
+					continue;
 				}
 
-				ndx2++;
+				// macro started, detect strict format
 
-				if (ndx2 == ndx1 + 1) {
-					// no value, hence no macro
-					result.append(macroPrefix);
+				detectedStrictFormat = strict || StringUtil.isSubstringAt(template, macroStart, ndx);
 
-					i = ndx1;
-					continue;
-				}
-			}
-			else {
-				// strict format: ${foo}
+				if (!detectedStrictFormat) {
+					// not strict format: $foo
 
-				// find macros end
-				ndx += startLen;
-				ndx2 = template.indexOf(macroEnd, ndx);
-				if (ndx2 == -1) {
-					throw new IllegalArgumentException("Invalid template, unclosed macro at: " + (ndx - startLen));
-				}
+					ndx += prefixLen;
+					ndx1 = ndx;
+					ndx2 = ndx;
 
-				// detect inner macros, there is no escaping
-				ndx1 = ndx;
-				while (ndx1 < ndx2) {
-					int n = StringUtil.indexOf(template, macroStart, ndx1, ndx2);
-					if (n == -1) {
-						break;
+					while ((ndx2 < len) && CharUtil.isPropertyNameChar(template.charAt(ndx2))) {
+						ndx2++;
 					}
-					ndx1 = n + startLen;
-				}
-			}
 
-			final String name = template.substring(ndx1, ndx2);
+					if (ndx2 == len) {
+						ndx2--;
+					}
 
-			// find value and append
+					while ((ndx2 > ndx) && !CharUtil.isAlphaOrDigit(template.charAt(ndx2))) {
+						ndx2--;
+					}
 
-			Object value;
-			if (missingKeyReplacement != null || !replaceMissingKey) {
-				try {
-					value = macroResolver.apply(name);
-				} catch (Exception ignore) {
-					value = null;
+					ndx2++;
+
+					if (ndx2 == ndx1 + 1) {
+						// no value, hence no macro
+						out.append(prefix);
+
+						i = ndx1;
+						continue;
+					}
 				}
+				else {
+					// strict format: ${foo}
+
+					// find macros end
+					ndx += startLen;
+					ndx2 = template.indexOf(macroEnd, ndx);
+					if (ndx2 == -1) {
+						throw new IllegalArgumentException("Invalid template, unclosed macro at: " + (ndx - startLen));
+					}
 
-				if (value == null) {
-					if (replaceMissingKey) {
-						value = missingKeyReplacement;
-					} else {
-						if (detectedStrictFormat) {
-							value = template.substring(ndx1 - startLen, ndx2 + endLen);
-						} else {
-							value = template.substring(ndx1 - 1, ndx2);
+					// detect inner macros, there is no escaping
+					ndx1 = ndx;
+					while (ndx1 < ndx2) {
+						int n = StringUtil.indexOf(template, macroStart, ndx1, ndx2);
+						if (n == -1) {
+							break;
 						}
+						ndx1 = n + startLen;
 					}
 				}
-			} else {
-				value = macroResolver.apply(name);
-				if (value == null) {
-					value = StringPool.EMPTY;
-				}
+				return true;
 			}
+			return false;
+		}
 
-			if (ndx == ndx1) {
-				String stringValue = value.toString();
-				if (parseValues) {
-					if (stringValue.contains(macroStart)) {
-						stringValue = parse(stringValue, macroResolver);
-					}
-				}
-				result.append(stringValue);
+		/**
+		 * Returns <code>true</code> if current macro is the innermost
+		 * macro of some outer macro.
+		 */
+		private boolean inner() {
+			return ndx != ndx1;
+		}
+
+		/**
+		 * Returns name of the current macro.
+		 */
+		private String name() {
+			return template.substring(ndx1, ndx2);
+		}
+
+		/**
+		 * Returns the current macro, as written in the template.
+		 */
+		private String macro() {
+			if (detectedStrictFormat) {
+				return template.substring(ndx1 - startLen, ndx2 + endLen);
+			}
+			return template.substring(ndx1 - 1, ndx2);
+		}
 
-				i = ndx2;
-				if (detectedStrictFormat) {
-					i += endLen;
+		/**
+		 * Moves after the current macro.
+		 */
+		private void skipMacro() {
+			i = ndx2;
+			if (detectedStrictFormat) {
+				i += endLen;
+			}
+		}
+
+		/**
+		 * Replaces the current inner macro with its value and
+		 * moves to the start of the outer macro, so it is scanned again.
+		 */
+		private void replaceMacro(final String value) {
+			template = template.substring(0, ndx1 - startLen) + value + template.substring(ndx2 + endLen);
+			len = template.length();
+			i = ndx - startLen;
+		}
+
+		/**
+		 * Moves after the outer macro of the current inner macro
+		 * and returns the outer macro.
+		 */
+		private String skipOuterMacro() {
+			int depth = 1;
+			int k = ndx;
+			while (depth > 0) {
+				final int nextEnd = template.indexOf(macroEnd, k);
+				if (nextEnd == -1) {
+					throw new IllegalArgumentException("Invalid template, unclosed macro at: " + (ndx - startLen));
+				}
+				final int nextStart = StringUtil.indexOf(template, macroStart, k, nextEnd);
+				if (nextStart != -1) {
+					depth++;
+					k = nextStart + startLen;
+				} else {
+					depth--;
+					k = nextEnd + endLen;
 				}
-			} else {
-				// inner macro
-				template = template.substring(0, ndx1 - startLen) + value.toString() + template.substring(ndx2 + endLen);
-				len = template.length();
-				i = ndx - startLen;
 			}
+			i = k;
+			return template.substring(ndx - startLen, k);
 		}
-		return result.toString();
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Creates new parser with the same settings.
+	 */
+	protected StringTemplateParser copySettings() {
+		final StringTemplateParser stp = new StringTemplateParser();
+		stp.replaceMissingKey = replaceMissingKey;
+		stp.missingKeyReplacement = missingKeyReplacement;
+		stp.resolveEscapes = resolveEscapes;
+		stp.macroPrefix = macroPrefix;
+		stp.macroStart = macroStart;
+		stp.macroEnd = macroEnd;
+		stp.escapeChar = escapeChar;
+		stp.parseValues = parseValues;
+		return stp;
+	}
+
+}
@@ -25,6 +25,8 @@
 
 package jodd.util;
 
+import java.util.Arrays;
+
 /**
  * Base32 encoding. Quite fast.
  */
@@ -34,7 +36,7 @@ public class Base32 {
 	private static final String ERR_CANONICAL_END = "Invalid end bits of Base32 string";
 	private static final String ERR_INVALID_CHARS = "Invalid character in Base32 string";
 
-	private static final char[] CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567".toCharArray();
+	public static final char[] CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567".toCharArray();
 
 	private static final byte[] LOOKUP = {
 			26, 27, 28, 29, 30, 31, -1, -1, -1, -1, -1, -1, -1, -1,			// 0123456789:;<=>?
@@ -44,60 +46,60 @@ public class Base32 {
 			15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25						// pqrstuvwxyz
 	};
 
+	/**
+	 * Lookup by ASCII character, used for decoding complete groups.
+	 */
+	private static final byte[] INV = new byte[128];
+
+	static {
+		Arrays.fill(INV, (byte) -1);
+		for (int i = 0; i < LOOKUP.length; i++) {
+			INV[i + '2'] = LOOKUP[i];
+		}
+	}
+
 
 	/**
 	 * Encode an array of binary bytes into a Base32 string.
 	 */
 	public static String encode(final byte[] bytes) {
-		StringBuilder base32 = new StringBuilder((bytes.length * 8 + 4) / 5);
+		final int len = bytes.length;
+		final char[] base32 = new char[(len * 8 + 4) / 5];
 
-		int currByte, digit, i = 0;
-		while (i < bytes.length) {
+		int i = 0, d = 0;
 
-			// STEP 0; insert new 5 bits, leave 3 bits
-			currByte = bytes[i++] & 255;
-			base32.append(CHARS[currByte >> 3]);
-			digit = (currByte & 7) << 2;
-			if (i >= bytes.length) {
-				base32.append(CHARS[digit]);
-				break;
-			}
+		// complete groups of 5 bytes
+		for (final int evenLen = len - len % 5; i < evenLen; i += 5) {
+			final long v =
+				(bytes[i] & 0xFFL) << 32 |
+				(bytes[i + 1] & 0xFFL) << 24 |
+				(bytes[i + 2] & 0xFFL) << 16 |
+				(bytes[i + 3] & 0xFFL) << 8 |
+				(bytes[i + 4] & 0xFFL);
 
-			// STEP 3: insert 2 new bits, then 5 bits, leave 1 bit
-			currByte = bytes[i++] & 255;
-			base32.append(CHARS[digit | (currByte >> 6)]);
-			base32.append(CHARS[(currByte >> 1) & 31]);
-			digit = (currByte & 1) << 4;
-			if (i >= bytes.length) {
-				base32.append(CHARS[digit]);
-				break;
-			}
+			base32[d++] = CHARS[(int) (v >>> 35) & 31];
+			base32[d++] = CHARS[(int) (v >>> 30) & 31];
+			base32[d++] = CHARS[(int) (v >>> 25) & 31];
+			base32[d++] = CHARS[(int) (v >>> 20) & 31];
+			base32[d++] = CHARS[(int) (v >>> 15) & 31];
+			base32[d++] = CHARS[(int) (v >>> 10) & 31];
+			base32[d++] = CHARS[(int) (v >>> 5) & 31];
+			base32[d++] = CHARS[(int) v & 31];
+		}
 
-			// STEP 1: insert 4 new bits, leave 4 bit
-			currByte = bytes[i++] & 255;
-			base32.append(CHARS[digit | (currByte >> 4)]);
-			digit = (currByte & 15) << 1;
-			if (i >= bytes.length) {
-				base32.append(CHARS[digit]);
-				break;
+		// last 1 - 4 bytes
+		if (i < len) {
+			long v = 0;
+			for (int j = i; j < len; j++) {
+				v = v << 8 | (bytes[j] & 0xFF);
 			}
+			v <<= (5 - (len - i)) << 3;
 
-			// STEP 4: insert 1 new bit, then 5 bits, leave 2 bits
-			currByte = bytes[i++] & 255;
-			base32.append(CHARS[digit | (currByte >> 7)]);
-			base32.append(CHARS[(currByte >> 2) & 31]);
-			digit = (currByte & 3) << 3;
-			if (i >= bytes.length) {
-				base32.append(CHARS[digit]);
-				break;
+			for (int shift = 35; d < base32.length; shift -= 5) {
+				base32[d++] = CHARS[(int) (v >>> shift) & 31];
 			}
-
-			// STEP 2: insert 3 new bits, then 5 bits, leave 0 bit
-			currByte = bytes[i++] & 255;
-			base32.append(CHARS[digit | (currByte >> 5)]);
-			base32.append(CHARS[currByte & 31]);
 		}
-		return base32.toString();
+		return new String(base32);
 	}
 
 	/**
@@ -115,6 +117,37 @@ public class Base32 {
 		int offset = 0, i = 0, lookup;
 		byte nextByte, digit;
 
+		// complete groups of 8 chars
+		for (final int evenLen = base32.length() & ~7; i < evenLen; i += 8) {
+			final char c0 = base32.charAt(i);
+			final char c1 = base32.charAt(i + 1);
+			final char c2 = base32.charAt(i + 2);
+			final char c3 = base32.charAt(i + 3);
+			final char c4 = base32.charAt(i + 4);
+			final char c5 = base32.charAt(i + 5);
+			final char c6 = base32.charAt(i + 6);
+			final char c7 = base32.charAt(i + 7);
+			if ((c0 | c1 | c2 | c3 | c4 | c5 | c6 | c7) >= INV.length) {
+				throw new IllegalArgumentException(ERR_INVALID_CHARS);
+			}
+			final int d0 = INV[c0], d1 = INV[c1], d2 = INV[c2], d3 = INV[c3];
+			final int d4 = INV[c4], d5 = INV[c5], d6 = INV[c6], d7 = INV[c7];
+			if ((d0 | d1 | d2 | d3 | d4 | d5 | d6 | d7) < 0) {
+				throw new IllegalArgumentException(ERR_INVALID_CHARS);
+			}
+			final long v =
+				(long) d0 << 35 | (long) d1 << 30 | (long) d2 << 25 | (long) d3 << 20 |
+				(long) d4 << 15 | (long) d5 << 10 | (long) d6 << 5 | d7;
+
+			bytes[offset++] = (byte) (v >> 32);
+			bytes[offset++] = (byte) (v >> 24);
+			bytes[offset++] = (byte) (v >> 16);
+			bytes[offset++] = (byte) (v >> 8);
+			bytes[offset++] = (byte) v;
+		}
+
+		// last incomplete group
+
 		while (i < base32.length()) {
 			lookup = base32.charAt(i++) - '2';
 			if (lookup < 0 || lookup >= LOOKUP.length) {
@@ -0,0 +1,355 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.util;
+
+import jodd.core.JoddCore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+
+/**
+ * Streaming CSV reader, as defined in RFC 4180. Reads one row at a time
+ * from a <code>Reader</code>; quoted fields may contain separators,
+ * escaped (doubled) quotes and line breaks. Lines may end with CRLF, LF or CR.
+ * Empty lines are skipped. Parsing is lenient in the same way as
+ * {@link CsvUtil#toStringArray(String)}: quote starts a quoted field only
+ * at the beginning of the field. In {@link #strict(boolean) strict mode}
+ * quoted field that is not closed before the end of input is reported.
+ * <p>
+ * Fields are exposed as {@link #field(int) CharSequence views} over the
+ * internal row buffer. Views and the buffer are reused, so no objects are
+ * created per field; views are valid only until the {@link #next() next row}.
+ * Use {@link #get(int)} or {@link #toStringArray()} to keep the values.
+ * <pre>
+ * try (CsvReader csv = new CsvReader(reader)) {
+ *     while (csv.next()) {
+ *         CharSequence name = csv.field(0);
+ *         ...
+ *     }
+ * }
+ * </pre>
+ * @see CsvWriter
+ */
+public class CsvReader implements Closeable {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final Reader reader;
+	private final char[] buf = new char[BUFFER_SIZE];
+	private int pos;
+	private int len;
+
+	private char separator = CsvUtil.FIELD_SEPARATOR;
+	private char quote = CsvUtil.FIELD_QUOTE;
+	private boolean strict;
+
+	// current row: all fields in one buffer, ends[i] is the end of i-th field
+	private char[] data = new char[1024];
+	private int dataLen;
+	private int[] ends = new int[16];
+	private Field[] fields = new Field[16];
+	private int size;
+	private long rowNumber;
+
+	public CsvReader(final Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Creates CSV reader over input stream, using {@link JoddCore#encoding default encoding}.
+	 */
+	public CsvReader(final InputStream in) {
+		this(in, JoddCore.encoding);
+	}
+
+	public CsvReader(final InputStream in, final String encoding) {
+		this(new InputStreamReader(in, Charset.forName(encoding)));
+	}
+
+	/**
+	 * Sets field separator, comma by default.
+	 */
+	public CsvReader separator(final char separator) {
+		this.separator = separator;
+		return this;
+	}
+
+	/**
+	 * Sets field quote, double quote by default.
+	 */
+	public CsvReader quote(final char quote) {
+		this.quote = quote;
+		return this;
+	}
+
+	/**
+	 * Enables strict mode, in which a quoted field without the closing
+	 * quote throws an exception. Disabled by default.
+	 */
+	public CsvReader strict(final boolean strict) {
+		this.strict = strict;
+		return this;
+	}
+
+	// ---------------------------------------------------------------- row
+
+	/**
+	 * Reads the next row. Returns <code>false</code> when there are no more rows.
+	 */
+	public boolean next() throws IOException {
+		size = 0;
+		dataLen = 0;
+
+		// skip empty lines
+		while (true) {
+			if (pos == len && !fill()) {
+				return false;
+			}
+			final char c = buf[pos];
+			if (c != '\n' && c != '\r') {
+				break;
+			}
+			pos++;
+		}
+
+		while (!readField()) {
+			addField();
+		}
+		addField();
+
+		rowNumber++;
+		return true;
+	}
+
+	/**
+	 * Returns number of fields in the current row.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of the current row, starting from 1,
+	 * not counting empty lines.
+	 */
+	public long rowNumber() {
+		return rowNumber;
+	}
+
+	/**
+	 * Returns a view of a field in the current row. The view is reused
+	 * and its content changes when next row is read.
+	 */
+	public CharSequence field(final int index) {
+		checkIndex(index);
+		Field field = fields[index];
+		if (field == null) {
+			field = new Field(index);
+			fields[index] = field;
+		}
+		return field;
+	}
+
+	/**
+	 * Returns a field of current row as a new string.
+	 */
+	public String get(final int index) {
+		checkIndex(index);
+		final int start = start(index);
+		return new String(data, start, ends[index] - start);
+	}
+
+	/**
+	 * Returns current row as a string array.
+	 */
+	public String[] toStringArray() {
+		final String[] row = new String[size];
+		for (int i = 0; i < size; i++) {
+			row[i] = get(i);
+		}
+		return row;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	// ---------------------------------------------------------------- parse
+
+	private boolean fill() throws IOException {
+		final int n = reader.read(buf, 0, buf.length);
+		pos = 0;
+		len = Math.max(n, 0);
+		return n > 0;
+	}
+
+	/**
+	 * Reads a field into the row buffer. Returns <code>true</code>
+	 * if the row is ended, either by line break or the end of input.
+	 */
+	private boolean readField() throws IOException {
+		if (pos == len && !fill()) {
+			return true;
+		}
+
+		if (buf[pos] == quote) {
+			pos++;
+			while (true) {
+				if (pos == len && !fill()) {
+					if (strict) {
+						throw new IOException("Unclosed quoted field in row: " + (rowNumber + 1));
+					}
+					return true;
+				}
+				int i = pos;
+				while (i < len && buf[i] != quote) {
+					i++;
+				}
+				append(pos, i);
+				pos = i;
+				if (i == len) {
+					continue;
+				}
+
+				// closing or escaped quote
+				pos++;
+				if (pos == len && !fill()) {
+					return true;
+				}
+				if (buf[pos] != quote) {
+					break;
+				}
+				append(pos, pos + 1);
+				pos++;
+			}
+		}
+
+		// unquoted field, or the rest after the closing quote
+		while (true) {
+			if (pos == len && !fill()) {
+				return true;
+			}
+			int i = pos;
+			char c = 0;
+			while (i < len) {
+				c = buf[i];
+				if (c == separator || c == '\n' || c == '\r') {
+					break;
+				}
+				i++;
+			}
+			append(pos, i);
+			pos = i;
+			if (i == len) {
+				continue;
+			}
+
+			pos++;
+			if (c == separator) {
+				return false;
+			}
+			if (c == '\r' && (pos < len || fill()) && buf[pos] == '\n') {
+				pos++;
+			}
+			return true;
+		}
+	}
+
+	private void append(final int from, final int to) {
+		final int count = to - from;
+		if (count == 0) {
+			return;
+		}
+		if (dataLen + count > data.length) {
+			data = ArraysUtil.resize(data, Math.max(data.length << 1, dataLen + count));
+		}
+		System.arraycopy(buf, from, data, dataLen, count);
+		dataLen += count;
+	}
+
+	private void addField() {
+		if (size == ends.length) {
+			ends = ArraysUtil.resize(ends, size << 1);
+			fields = ArraysUtil.resize(fields, size << 1);
+		}
+		ends[size++] = dataLen;
+	}
+
+	private int start(final int index) {
+		return index == 0 ? 0 : ends[index - 1];
+	}
+
+	private void checkIndex(final int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Field index: " + index + ", size: " + size);
+		}
+	}
+
+	/**
+	 * Reusable view of a field in the current row.
+	 */
+	private class Field implements CharSequence {
+		private final int index;
+
+		private Field(final int index) {
+			this.index = index;
+		}
+
+		@Override
+		public int length() {
+			return ends[index] - start(index);
+		}
+
+		@Override
+		public char charAt(final int i) {
+			final int length = length();
+			if (i < 0 || i >= length) {
+				throw new IndexOutOfBoundsException("Index: " + i + ", length: " + length);
+			}
+			return data[start(index) + i];
+		}
+
+		@Override
+		public CharSequence subSequence(final int from, final int to) {
+			final int length = length();
+			if (from < 0 || from > to || to > length) {
+				throw new IndexOutOfBoundsException("From: " + from + ", to: " + to + ", length: " + length);
+			}
+			return new String(data, start(index) + from, to - from);
+		}
+
+		@Override
+		public String toString() {
+			return get(index);
+		}
+	}
+}
@@ -31,6 +31,8 @@ import java.util.List;
 /**
  * Helps with CSV strings.
  * See: http://en.wikipedia.org/wiki/Comma-separated_values
+ * For reading and writing large CSV content use
+ * streaming {@link CsvReader} and {@link CsvWriter}.
  */
 public class CsvUtil {
 
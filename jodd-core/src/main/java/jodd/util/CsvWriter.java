@@ -0,0 +1,216 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.util;
+
+import jodd.core.JoddCore;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * Buffered CSV writer, as defined in RFC 4180. Fields are quoted
+ * using the same rules as in {@link CsvUtil#toCsvString(Object...)}:
+ * when field contains a separator, a quote, a line break or starts
+ * or ends with a space. <code>null</code> values are written as empty fields.
+ * Rows end with CRLF by default.
+ * @see CsvReader
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final Writer writer;
+	private final char[] buf = new char[BUFFER_SIZE];
+	private int pos;
+
+	private char separator = CsvUtil.FIELD_SEPARATOR;
+	private char quote = CsvUtil.FIELD_QUOTE;
+	private String lineSeparator = "\r\n";
+	private boolean firstField = true;
+
+	public CsvWriter(final Writer writer) {
+		this.writer = writer;
+	}
+
+	/**
+	 * Creates CSV writer over output stream, using {@link JoddCore#encoding default encoding}.
+	 */
+	public CsvWriter(final OutputStream out) {
+		this(out, JoddCore.encoding);
+	}
+
+	public CsvWriter(final OutputStream out, final String encoding) {
+		this(new OutputStreamWriter(out, Charset.forName(encoding)));
+	}
+
+	/**
+	 * Sets field separator, comma by default.
+	 */
+	public CsvWriter separator(final char separator) {
+		this.separator = separator;
+		return this;
+	}
+
+	/**
+	 * Sets field quote, double quote by default.
+	 */
+	public CsvWriter quote(final char quote) {
+		this.quote = quote;
+		return this;
+	}
+
+	/**
+	 * Sets line separator, CRLF by default.
+	 */
+	public CsvWriter lineSeparator(final String lineSeparator) {
+		this.lineSeparator = lineSeparator;
+		return this;
+	}
+
+	// ---------------------------------------------------------------- write
+
+	/**
+	 * Writes a field of the current row.
+	 */
+	public CsvWriter writeField(final CharSequence value) throws IOException {
+		if (!firstField) {
+			write(separator);
+		}
+		firstField = false;
+
+		if (value == null) {
+			return this;
+		}
+		final int length = value.length();
+
+		if (!needsQuotes(value, length)) {
+			write(value, 0, length);
+			return this;
+		}
+
+		write(quote);
+		int from = 0;
+		for (int i = 0; i < length; i++) {
+			if (value.charAt(i) == quote) {
+				// write up to and including the quote, it is doubled with the next run
+				write(value, from, i + 1);
+				from = i;
+			}
+		}
+		write(value, from, length);
+		write(quote);
+		return this;
+	}
+
+	/**
+	 * Writes all values as fields of a new row and ends the row.
+	 * Values are converted to strings.
+	 */
+	public CsvWriter writeRow(final Object... values) throws IOException {
+		for (final Object value : values) {
+			writeField(value == null ? null : value.toString());
+		}
+		return endRow();
+	}
+
+	/**
+	 * Ends the current row.
+	 */
+	public CsvWriter endRow() throws IOException {
+		write(lineSeparator, 0, lineSeparator.length());
+		firstField = true;
+		return this;
+	}
+
+	private boolean needsQuotes(final CharSequence value, final int length) {
+		if (length == 0) {
+			return false;
+		}
+		if (value.charAt(0) == ' ' || value.charAt(length - 1) == ' ') {
+			return true;
+		}
+		for (int i = 0; i < length; i++) {
+			final char c = value.charAt(i);
+			if (c == separator || c == quote || c == '\n' || c == '\r') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void write(final char c) throws IOException {
+		if (pos == buf.length) {
+			flushBuffer();
+		}
+		buf[pos++] = c;
+	}
+
+	private void write(final CharSequence value, int from, final int to) throws IOException {
+		while (from < to) {
+			if (pos == buf.length) {
+				flushBuffer();
+			}
+			final int count = Math.min(to - from, buf.length - pos);
+			if (value instanceof String) {
+				((String) value).getChars(from, from + count, buf, pos);
+				pos += count;
+				from += count;
+			}
+			else {
+				for (final int end = from + count; from < end; from++) {
+					buf[pos++] = value.charAt(from);
+				}
+			}
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		writer.write(buf, 0, pos);
+		pos = 0;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		flushBuffer();
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flushBuffer();
+		}
+		finally {
+			writer.close();
+		}
+	}
+}
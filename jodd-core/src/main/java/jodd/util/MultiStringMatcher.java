@@ -0,0 +1,379 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compiled matcher of many strings at once, based on Aho-Corasick automaton.
+ * Text is scanned once, regardless of the number of patterns, so it is much
+ * faster than {@link StringUtil#indexOf(String, String[], int)} and
+ * {@link StringUtil#replace(String, String[], String[])} for larger sets of patterns.
+ * Matcher is immutable and thread-safe, so it should be created once and reused.
+ * <p>
+ * Search and replace use the same rules as the mentioned <code>StringUtil</code>
+ * methods: the leftmost occurrence wins, and when more patterns start at the same
+ * position, the one that comes first in the patterns array wins.
+ * <p>
+ * Automaton is a full transition table over the characters used in patterns,
+ * so its size is the total length of patterns times the number of distinct characters.
+ */
+public class MultiStringMatcher {
+
+	/**
+	 * Creates case-sensitive matcher of given patterns.
+	 */
+	public static MultiStringMatcher of(final String... patterns) {
+		return new MultiStringMatcher(patterns, false);
+	}
+
+	/**
+	 * Creates case-insensitive matcher of given patterns.
+	 */
+	public static MultiStringMatcher ofIgnoreCase(final String... patterns) {
+		return new MultiStringMatcher(patterns, true);
+	}
+
+	/**
+	 * Consumer of found matches.
+	 */
+	@FunctionalInterface
+	public interface MatchConsumer {
+		/**
+		 * Invoked for each match.
+		 *
+		 * @param pattern index of the matched pattern
+		 * @param start start index of the match in the text, inclusive
+		 * @param end end index of the match in the text, exclusive
+		 */
+		void onMatch(int pattern, int start, int end);
+	}
+
+	private final String[] patterns;
+	private final boolean ignoreCase;
+
+	// alphabet
+	private final int[] asciiClasses = new int[128];
+	private final char[] otherChars;
+	private final int[] otherClasses;
+	private final int classCount;
+
+	// automaton
+	private final int[] delta;		// state * classCount + class -> state
+	private final int[] depth;		// length of state string
+	private final int[] own;		// pattern equal to the state string, or -1
+	private final int[] best;		// longest pattern that is a suffix of the state string, or -1
+	private final int[] outLink;	// next suffix state with own pattern, or -1
+
+	protected MultiStringMatcher(final String[] patterns, final boolean ignoreCase) {
+		this.patterns = patterns.clone();
+		this.ignoreCase = ignoreCase;
+
+		// alphabet classes; class 0 is any character not used in patterns
+
+		final StringBuilder chars = new StringBuilder();
+		int totalLength = 0;
+		for (String pattern : patterns) {
+			if (pattern.isEmpty()) {
+				throw new IllegalArgumentException("Empty pattern");
+			}
+			totalLength += pattern.length();
+			for (int i = 0; i < pattern.length(); i++) {
+				chars.append(fold(pattern.charAt(i)));
+			}
+		}
+
+		final char[] sorted = chars.toString().toCharArray();
+		Arrays.sort(sorted);
+
+		int classes = 1;
+		int others = 0;
+		final char[] otherCharsTemp = new char[sorted.length];
+		for (int i = 0; i < sorted.length; i++) {
+			final char c = sorted[i];
+			if (i > 0 && sorted[i - 1] == c) {
+				continue;
+			}
+			if (c < 128) {
+				asciiClasses[c] = classes++;
+			}
+			else {
+				otherCharsTemp[others++] = c;
+			}
+		}
+		this.otherChars = Arrays.copyOf(otherCharsTemp, others);
+		this.otherClasses = new int[others];
+		for (int i = 0; i < others; i++) {
+			otherClasses[i] = classes++;
+		}
+		this.classCount = classes;
+
+		// trie
+
+		final int maxStates = totalLength + 1;
+		final int[] trie = new int[maxStates * classCount];
+		Arrays.fill(trie, -1);
+		this.depth = new int[maxStates];
+		this.own = new int[maxStates];
+		Arrays.fill(own, -1);
+
+		int states = 1;
+		for (int p = 0; p < patterns.length; p++) {
+			final String pattern = patterns[p];
+			int state = 0;
+			for (int i = 0; i < pattern.length(); i++) {
+				final int index = state * classCount + classOf(fold(pattern.charAt(i)));
+				if (trie[index] == -1) {
+					depth[states] = depth[state] + 1;
+					trie[index] = states++;
+				}
+				state = trie[index];
+			}
+			if (own[state] == -1) {
+				own[state] = p;
+			}
+		}
+
+		// failure links resolved into the transition table, breadth first
+
+		this.delta = Arrays.copyOf(trie, states * classCount);
+		this.best = new int[states];
+		this.outLink = new int[states];
+		final int[] fail = new int[states];
+		final int[] queue = new int[states];
+		int head = 0;
+		int tail = 0;
+
+		best[0] = -1;
+		outLink[0] = -1;
+		for (int c = 0; c < classCount; c++) {
+			final int next = delta[c];
+			if (next == -1) {
+				delta[c] = 0;
+			}
+			else {
+				fail[next] = 0;
+				queue[tail++] = next;
+			}
+		}
+
+		while (head < tail) {
+			final int state = queue[head++];
+			final int failState = fail[state];
+
+			outLink[state] = own[failState] != -1 ? failState : outLink[failState];
+			best[state] = own[state] != -1 ? own[state] : best[failState];
+
+			final int row = state * classCount;
+			final int failRow = failState * classCount;
+			for (int c = 0; c < classCount; c++) {
+				final int next = delta[row + c];
+				if (next == -1) {
+					delta[row + c] = delta[failRow + c];
+				}
+				else {
+					fail[next] = delta[failRow + c];
+					queue[tail++] = next;
+				}
+			}
+		}
+	}
+
+	private char fold(final char c) {
+		return ignoreCase ? Character.toLowerCase(c) : c;
+	}
+
+	private int classOf(final char c) {
+		if (c < 128) {
+			return asciiClasses[c];
+		}
+		final int index = Arrays.binarySearch(otherChars, c);
+		return index < 0 ? 0 : otherClasses[index];
+	}
+
+	/**
+	 * Returns the next state for given character.
+	 */
+	private int next(final int state, final char c) {
+		return delta[state * classCount + classOf(fold(c))];
+	}
+
+	// ---------------------------------------------------------------- search
+
+	/**
+	 * Returns the number of patterns.
+	 */
+	public int size() {
+		return patterns.length;
+	}
+
+	/**
+	 * Returns pattern with given index.
+	 */
+	public String pattern(final int index) {
+		return patterns[index];
+	}
+
+	/**
+	 * Finds the leftmost match starting from given offset. Returns the match
+	 * encoded as <code>start &lt;&lt; 32 | pattern</code>, or <code>-1</code>.
+	 */
+	protected long leftmost(final CharSequence s, final int offset) {
+		final int length = s.length();
+		int state = 0;
+		int matchStart = -1;
+		int matchPattern = -1;
+
+		for (int i = Math.max(offset, 0); i < length; i++) {
+			state = next(state, s.charAt(i));
+
+			if (matchStart != -1 && i + 1 - depth[state] > matchStart) {
+				// no further match may start before the found one
+				break;
+			}
+
+			final int pattern = best[state];
+			if (pattern == -1) {
+				continue;
+			}
+
+			final int start = i + 1 - patterns[pattern].length();
+			if (matchStart == -1 || start < matchStart || (start == matchStart && pattern < matchPattern)) {
+				matchStart = start;
+				matchPattern = pattern;
+			}
+		}
+
+		if (matchStart == -1) {
+			return -1;
+		}
+		return ((long) matchStart << 32) | matchPattern;
+	}
+
+	/**
+	 * Finds the very first occurrence of any pattern. Returns an int[2], where
+	 * int[0] is the pattern index and int[1] is the position where pattern was found,
+	 * the same as {@link StringUtil#indexOf(String, String[], int)}.
+	 * Returns <code>null</code> if nothing is found.
+	 */
+	public int[] indexOf(final CharSequence s, final int offset) {
+		final long match = leftmost(s, offset);
+		if (match == -1) {
+			return null;
+		}
+		return new int[] {(int) match, (int) (match >>> 32)};
+	}
+
+	/**
+	 * @see #indexOf(CharSequence, int)
+	 */
+	public int[] indexOf(final CharSequence s) {
+		return indexOf(s, 0);
+	}
+
+	/**
+	 * Returns <code>true</code> if text contains at least one of the patterns.
+	 */
+	public boolean containsAny(final CharSequence s) {
+		final int length = s.length();
+		int state = 0;
+		for (int i = 0; i < length; i++) {
+			state = next(state, s.charAt(i));
+			if (best[state] != -1) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Finds all occurrences of all patterns, including the overlapping ones,
+	 * ordered by their end position. Returns the number of found occurrences.
+	 * When the same pattern is given more than once, only the first one is reported.
+	 */
+	public int findAll(final CharSequence s, final MatchConsumer consumer) {
+		final int length = s.length();
+		int state = 0;
+		int count = 0;
+		for (int i = 0; i < length; i++) {
+			state = next(state, s.charAt(i));
+
+			int match = own[state] != -1 ? state : outLink[state];
+			while (match != -1) {
+				count++;
+				consumer.onMatch(own[match], i + 1 - depth[match], i + 1);
+				match = outLink[match];
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Finds all occurrences of all patterns, including the overlapping ones.
+	 * Each occurrence is an int[3] of pattern index, start and end position.
+	 * @see #findAll(CharSequence, MatchConsumer)
+	 */
+	public List<int[]> findAll(final CharSequence s) {
+		final List<int[]> matches = new ArrayList<>();
+		findAll(s, (pattern, start, end) -> matches.add(new int[] {pattern, start, end}));
+		return matches;
+	}
+
+	// ---------------------------------------------------------------- replace
+
+	/**
+	 * Replaces all patterns with the replacements on the same index. Returns
+	 * the same string when nothing is replaced.
+	 * @see StringUtil#replace(String, String[], String[])
+	 */
+	public String replace(final String s, final String... with) {
+		if (with.length != patterns.length) {
+			throw new IllegalArgumentException("Invalid number of replacements: " + with.length);
+		}
+
+		long match = leftmost(s, 0);
+		if (match == -1) {
+			return s;
+		}
+
+		final StringBuilder sb = new StringBuilder(s.length() + (s.length() >> 3));
+		int start = 0;
+		do {
+			final int pattern = (int) match;
+			final int matchStart = (int) (match >>> 32);
+			sb.append(s, start, matchStart).append(with[pattern]);
+			start = matchStart + patterns[pattern].length();
+			match = leftmost(s, start);
+		} while (match != -1);
+
+		sb.append(s, start, s.length());
+		return sb.toString();
+	}
+
+}
@@ -1433,6 +1433,7 @@ public class StringUtil {
 	 * @param s      source string
 	 * @param arr    string array
 	 * @param offset  starting position
+	 * @see MultiStringMatcher
 	 */
 	public static int[] indexOf(final String s, final String[] arr, final int offset) {
 		int arrLen = arr.length;
@@ -1614,6 +1615,7 @@ public class StringUtil {
 	 * @param with   replace with array
 	 *
 	 * @return string with all occurrences of substrings replaced
+	 * @see MultiStringMatcher
 	 */
 	public static String replace(final String s, final String[] sub, final String[] with) {
 		if ((sub.length != with.length) || (sub.length == 0)) {
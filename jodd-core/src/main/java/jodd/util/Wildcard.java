@@ -179,6 +179,82 @@ public class Wildcard {
 		return matchTokens(pathElements, patternElements);
 	}
 
+	/**
+	 * Compiles path pattern, so it can be matched against many paths
+	 * without tokenizing the pattern each time.
+	 * @see #matchPath(String, String)
+	 */
+	public static PathPattern compilePath(final String pattern) {
+		return new PathPattern(pattern);
+	}
+
+	/**
+	 * Precompiled path pattern. Besides keeping the pattern tokens, it detects
+	 * common patterns like <code>**&#47;*.txt</code> that depend only on the last
+	 * path element, so the path does not have to be tokenized at all.
+	 */
+	public static class PathPattern {
+		private final String pattern;
+		private final String[] tokens;
+		private final String lastTokenOnly;
+
+		protected PathPattern(final String pattern) {
+			this.pattern = pattern;
+			this.tokens = StringUtil.splitc(pattern, PATH_SEPARATORS);
+
+			String lastToken = null;
+			if (tokens.length > 1 && !tokens[tokens.length - 1].equals(PATH_MATCH)) {
+				lastToken = tokens[tokens.length - 1];
+				for (int i = 0; i < tokens.length - 1; i++) {
+					if (!tokens[i].equals(PATH_MATCH)) {
+						lastToken = null;
+						break;
+					}
+				}
+			}
+			this.lastTokenOnly = lastToken;
+		}
+
+		/**
+		 * Matches path against this pattern.
+		 * @see Wildcard#matchPath(String, String)
+		 */
+		public boolean match(final String path) {
+			if (lastTokenOnly != null) {
+				final int lastNdx = path.length() - 1;
+				if (lastNdx == -1 || PATH_SEPARATORS.indexOf(path.charAt(lastNdx)) == -1) {
+					int ndx = lastNdx;
+					while (ndx >= 0 && PATH_SEPARATORS.indexOf(path.charAt(ndx)) == -1) {
+						ndx--;
+					}
+					return Wildcard.match(path.substring(ndx + 1), lastTokenOnly);
+				}
+			}
+			return matchTokens(StringUtil.splitc(path, PATH_SEPARATORS), tokens);
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			return pattern.equals(((PathPattern) o).pattern);
+		}
+
+		@Override
+		public int hashCode() {
+			return pattern.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return pattern;
+		}
+	}
+
 	/**
 	 * Match tokenized string and pattern.
 	 */
@@ -0,0 +1,107 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.io;
+
+import jodd.util.Base32;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.util.Random;
+
+import static jodd.io.Base64StreamTest.readInChunks;
+import static jodd.io.Base64StreamTest.writeInChunks;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class Base32StreamTest {
+
+	@Test
+	void testEncodeSameAsBase32() throws IOException {
+		final Random random = new Random(1);
+		for (final int size : new int[] {0, 1, 2, 3, 4, 5, 6, 9, 10, 8191, 20000, 100003}) {
+			final byte[] bytes = new byte[size];
+			random.nextBytes(bytes);
+
+			final FastByteArrayOutputStream out = new FastByteArrayOutputStream();
+			try (OutputStream base32 = new Base32OutputStream(out)) {
+				writeInChunks(base32, bytes, random);
+			}
+			assertEquals(Base32.encode(bytes), new String(out.toByteArray(), "ISO-8859-1"));
+
+			final CharArrayWriter writer = new CharArrayWriter();
+			try (OutputStream base32 = new Base32OutputStream(writer)) {
+				writeInChunks(base32, bytes, random);
+			}
+			assertEquals(Base32.encode(bytes), writer.toString());
+		}
+	}
+
+	@Test
+	void testDecodeSameAsBase32() throws IOException {
+		final Random random = new Random(2);
+		for (final int size : new int[] {0, 1, 2, 3, 4, 5, 6, 9, 10, 8191, 20000, 100003}) {
+			final byte[] bytes = new byte[size];
+			random.nextBytes(bytes);
+			final String encoded = Base32.encode(bytes);
+
+			assertArrayEquals(bytes, Base32.decode(encoded));
+			assertArrayEquals(bytes, Base32.decode(encoded.toLowerCase()));
+
+			try (InputStream in = new Base32InputStream(new ByteArrayInputStream(encoded.getBytes("ISO-8859-1")))) {
+				assertArrayEquals(bytes, readInChunks(in, random));
+			}
+			try (InputStream in = new Base32InputStream(new StringReader(encoded.toLowerCase()))) {
+				assertArrayEquals(bytes, StreamUtil.readBytes(in));
+			}
+		}
+	}
+
+	@Test
+	void testDecodeInvalid() throws IOException {
+		assertEquals("foobar", decode("MZXW6YTBOI======"));
+		assertEquals("foobar", decode("MZXW 6YTB\r\nOI"));
+
+		assertThrows(IOException.class, () -> decode("MZXW6YTBO"));
+		assertThrows(IOException.class, () -> decode("MZ"));
+		assertThrows(IOException.class, () -> decode("MZXW6Y1B"));
+
+		assertThrows(IllegalArgumentException.class, () -> Base32.decode("MZXW6Y1BOI"));
+		assertThrows(IllegalArgumentException.class, () -> Base32.decode("MZXW6YŁBOI"));
+	}
+
+	private static String decode(final String base32) throws IOException {
+		try (InputStream in = new Base32InputStream(new StringReader(base32))) {
+			return new String(StreamUtil.readBytes(in), "ISO-8859-1");
+		}
+	}
+}
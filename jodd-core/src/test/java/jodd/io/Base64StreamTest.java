@@ -0,0 +1,148 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.io;
+
+import jodd.util.Base64;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class Base64StreamTest {
+
+	@Test
+	void testEncodeSameAsBase64() throws IOException {
+		final Random random = new Random(1);
+		for (final int size : new int[] {0, 1, 2, 3, 56, 57, 58, 114, 8191, 20000, 100001}) {
+			final byte[] bytes = new byte[size];
+			random.nextBytes(bytes);
+
+			for (final boolean lineSeparator : new boolean[] {false, true}) {
+				final FastByteArrayOutputStream out = new FastByteArrayOutputStream();
+				try (OutputStream base64 = new Base64OutputStream(out, lineSeparator)) {
+					writeInChunks(base64, bytes, random);
+				}
+				assertArrayEquals(Base64.encodeToByte(bytes, lineSeparator), out.toByteArray());
+
+				final CharArrayWriter writer = new CharArrayWriter();
+				try (OutputStream base64 = new Base64OutputStream(writer, lineSeparator)) {
+					writeInChunks(base64, bytes, random);
+				}
+				assertArrayEquals(Base64.encodeToChar(bytes, lineSeparator), writer.toCharArray());
+			}
+		}
+	}
+
+	@Test
+	void testDecodeSameAsBase64() throws IOException {
+		final Random random = new Random(2);
+		for (final int size : new int[] {0, 1, 2, 3, 56, 57, 58, 114, 8191, 20000, 100001}) {
+			final byte[] bytes = new byte[size];
+			random.nextBytes(bytes);
+
+			for (final boolean lineSeparator : new boolean[] {false, true}) {
+				final byte[] encoded = Base64.encodeToByte(bytes, lineSeparator);
+
+				try (InputStream in = new Base64InputStream(new ByteArrayInputStream(encoded))) {
+					assertArrayEquals(bytes, readInChunks(in, random));
+				}
+				try (InputStream in = new Base64InputStream(new StringReader(Base64.encodeToString(bytes, lineSeparator)))) {
+					assertArrayEquals(bytes, StreamUtil.readBytes(in));
+				}
+			}
+		}
+	}
+
+	@Test
+	void testDecodeLenient() throws IOException {
+		assertEquals("Jodd", decode("Sm9k\nZA=="));
+		assertEquals("Jodd", decode("Sm9kZA"));
+		assertEquals("Jod", decode(" S m 9 k \r\n"));
+		assertEquals("Jo", decode("Sm8=trailing"));
+
+		assertThrows(IOException.class, () -> decode("Sm9k!A=="));
+		assertThrows(IOException.class, () -> decode("Sm9kZ"));
+	}
+
+	@Test
+	void testClosed() throws IOException {
+		final OutputStream out = new Base64OutputStream(new FastByteArrayOutputStream());
+		out.write(1);
+		out.close();
+		out.close();
+		assertThrows(IOException.class, () -> out.write(2));
+	}
+
+	private static String decode(final String base64) throws IOException {
+		try (InputStream in = new Base64InputStream(new StringReader(base64))) {
+			return new String(StreamUtil.readBytes(in), "ISO-8859-1");
+		}
+	}
+
+	static void writeInChunks(final OutputStream out, final byte[] bytes, final Random random) throws IOException {
+		int off = 0;
+		while (off < bytes.length) {
+			if (random.nextInt(10) == 0) {
+				out.write(bytes[off++]);
+				continue;
+			}
+			final int len = Math.min(bytes.length - off, random.nextInt(5000));
+			out.write(bytes, off, len);
+			off += len;
+		}
+	}
+
+	static byte[] readInChunks(final InputStream in, final Random random) throws IOException {
+		final FastByteArrayOutputStream out = new FastByteArrayOutputStream();
+		final byte[] buffer = new byte[5000];
+		while (true) {
+			if (random.nextInt(10) == 0) {
+				final int b = in.read();
+				if (b == -1) {
+					break;
+				}
+				out.write(b);
+				continue;
+			}
+			final int n = in.read(buffer, 0, 1 + random.nextInt(buffer.length - 1));
+			if (n == -1) {
+				break;
+			}
+			out.write(buffer, 0, n);
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,173 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.io;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelCopyTest {
+
+	private File root;
+	private File src;
+	private long totalBytes;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		root = FileUtil.createTempDirectory("jodd", "copy");
+		src = new File(root, "src");
+
+		final Random random = new Random(173);
+		for (int d = 0; d < 5; d++) {
+			final File dir = new File(src, "dir" + d + "/sub");
+			FileUtil.mkdirs(dir);
+			for (int f = 0; f < 20; f++) {
+				final byte[] bytes = new byte[random.nextInt(10_000)];
+				random.nextBytes(bytes);
+				FileUtil.writeBytes(new File(f % 2 == 0 ? dir : dir.getParentFile(), "file" + f), bytes);
+				totalBytes += bytes.length;
+			}
+		}
+
+		// spans several transfer chunks
+		final byte[] large = new byte[(int) (FileUtil.TRANSFER_CHUNK_SIZE * 2 + 123)];
+		random.nextBytes(large);
+		FileUtil.writeBytes(new File(src, "large.bin"), large);
+		totalBytes += large.length;
+
+		FileUtil.mkdirs(new File(src, "empty"));
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		FileUtil.deleteDir(root);
+	}
+
+	private static void assertSameTree(final File expected, final File actual) throws IOException {
+		final File[] files = expected.listFiles();
+		assertEquals(files.length, actual.listFiles().length);
+
+		for (final File file : files) {
+			final File other = new File(actual, file.getName());
+			assertTrue(other.exists());
+			if (file.isDirectory()) {
+				assertTrue(other.isDirectory());
+				assertSameTree(file, other);
+			} else {
+				assertTrue(FileUtil.compare(file, other));
+				assertEquals(file.lastModified(), other.lastModified());
+			}
+		}
+	}
+
+	@Test
+	void testCopyFile() throws IOException {
+		final File large = new File(src, "large.bin");
+		final File copy = new File(root, "large.copy");
+
+		FileUtil.copyFile(large, copy);
+
+		assertTrue(FileUtil.compare(large, copy));
+		assertEquals(large.lastModified(), copy.lastModified());
+	}
+
+	@Test
+	@EnabledOnOs(OS.LINUX)
+	void testCopyFileOfUnknownSize() throws IOException {
+		final File status = new File("/proc/self/status");
+		final File copy = new File(root, "status.copy");
+
+		assertEquals(0, status.length());
+
+		FileUtil.copyFile(status, copy);
+
+		assertTrue(FileUtil.readString(copy).startsWith("Name:"));
+	}
+
+	@Test
+	void testCopyDir() throws IOException {
+		final File dest = new File(root, "dest");
+		final AtomicLong progress = new AtomicLong();
+
+		new ParallelCopy()
+			.threads(4)
+			.verifyChecksum(true)
+			.onProgress((copied, total) -> {
+				assertEquals(totalBytes, total);
+				progress.accumulateAndGet(copied, Math::max);
+			})
+			.copyDir(src, dest);
+
+		assertSameTree(src, dest);
+		assertEquals(totalBytes, progress.get());
+		assertEquals(new File(src, "dir1").lastModified(), new File(dest, "dir1").lastModified());
+
+		// copy over the existing tree
+		new ParallelCopy().threads(1).copyDir(src, dest);
+
+		assertSameTree(src, dest);
+	}
+
+	@Test
+	void testMoveDir() throws IOException {
+		final File copy = new File(root, "copy");
+		final File dest = new File(root, "dest");
+		FileUtil.copyDir(src, copy);
+
+		assertEquals(dest, new ParallelCopy().threads(3).moveDir(copy, dest));
+
+		assertFalse(copy.exists());
+		assertSameTree(src, dest);
+	}
+
+	@Test
+	void testCopyDirFailure() throws IOException {
+		final File dest = new File(root, "dest");
+		FileUtil.mkdirs(new File(dest, "dir0/file1"));
+
+		assertThrows(IOException.class, () -> new ParallelCopy().threads(2).copyDir(src, dest));
+
+		// other files are still copied
+		assertTrue(FileUtil.compare(new File(src, "dir0/file3"), new File(dest, "dir0/file3")));
+		assertTrue(FileUtil.compare(new File(src, "large.bin"), new File(dest, "large.bin")));
+
+		assertThrows(IOException.class, () -> new ParallelCopy().copyDir(src, src));
+		assertThrows(IllegalArgumentException.class, () -> new ParallelCopy().threads(0));
+	}
+}
@@ -28,15 +28,27 @@ package jodd.io;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -215,4 +227,152 @@ class ZipUtilTest {
 		FileUtil.delete(zipFile);
 	}
 
+	private static byte[] sampleData(final int size) {
+		final Random random = new Random(173);
+		final byte[] bytes = new byte[size];
+		for (int i = 0; i < size; i++) {
+			// compressible, with random runs
+			bytes[i] = (byte) ((i / 7) % 2 == 0 ? 'a' + random.nextInt(4) : 'a' + (i % 26));
+		}
+		return bytes;
+	}
+
+	@Test
+	void testParallelGzip() throws IOException {
+		final byte[] data = sampleData(ParallelDeflaterOutputStream.DEFAULT_BLOCK_SIZE * 5 + 1234);
+
+		final FastByteArrayOutputStream out = new FastByteArrayOutputStream();
+		try (ParallelGzipOutputStream gzos = new ParallelGzipOutputStream(out, 6, 3)) {
+			gzos.write(data[0]);
+			gzos.write(data, 1, 100);
+			gzos.flush();
+			gzos.write(data, 101, data.length - 101);
+		}
+
+		final byte[] gzipped = out.toByteArray();
+		assertTrue(gzipped.length < data.length / 2);
+
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+			assertArrayEquals(data, StreamUtil.readBytes(in));
+		}
+
+		// empty
+		final FastByteArrayOutputStream empty = new FastByteArrayOutputStream();
+		new ParallelGzipOutputStream(empty, Deflater.BEST_SPEED, 2).close();
+
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(empty.toByteArray()))) {
+			assertEquals(0, StreamUtil.readBytes(in).length);
+		}
+	}
+
+	@Test
+	void testParallelGzipFile() throws IOException {
+		final File file = new File(dataRoot, "sb.data");
+
+		for (final int threads : new int[] {1, 2}) {
+			final File gzipFile = ZipUtil.gzip(file, Deflater.BEST_COMPRESSION, threads);
+
+			try (GZIPInputStream in = new GZIPInputStream(new FileInputStream(gzipFile))) {
+				assertArrayEquals(FileUtil.readBytes(file), StreamUtil.readBytes(in));
+			}
+
+			// cleanup
+			FileUtil.delete(gzipFile);
+		}
+	}
+
+	@Test
+	void testParallelZipSpill() throws IOException {
+		final byte[] large = sampleData(300_000);
+		final byte[] small = sampleData(100);
+
+		final FastByteArrayOutputStream out = new FastByteArrayOutputStream();
+		try (ParallelZipWriter zip = new ParallelZipWriter(out, Deflater.BEST_SPEED, 2, 1000)) {
+			for (int i = 0; i < 5; i++) {
+				zip.addToZip(large, "large" + i, null);
+				zip.addToZip(small, "small" + i, null);
+			}
+		}
+
+		int count = 0;
+		try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			ZipEntry entry;
+			while ((entry = zis.getNextEntry()) != null) {
+				final byte[] expected = entry.getName().startsWith("large") ? large : small;
+				assertArrayEquals(expected, StreamUtil.readBytes(zis));
+				count++;
+			}
+		}
+		assertEquals(10, count);
+	}
+
+	@Test
+	void testParallelZlib() throws IOException {
+		for (final int level : new int[] {Deflater.DEFAULT_COMPRESSION, 0, 1, 4, 9}) {
+			final byte[] data = sampleData(ParallelDeflaterOutputStream.DEFAULT_BLOCK_SIZE * 3 + 17);
+
+			final FastByteArrayOutputStream out = new FastByteArrayOutputStream();
+			try (ParallelDeflaterOutputStream dos = new ParallelDeflaterOutputStream(out, level, 2)) {
+				dos.write(data);
+			}
+
+			try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+				assertArrayEquals(data, StreamUtil.readBytes(in));
+			}
+		}
+	}
+
+	@Test
+	void testParallelZipBuilder() throws IOException {
+		final byte[] large = sampleData(1_000_000);
+
+		final byte[] bytes = ZipBuilder.createZipInMemory()
+			.level(Deflater.BEST_SPEED)
+			.parallel(3)
+			.add(new File(dataRoot, "sb.data"))
+				.path("sbdata").comment("This is sb data file").save()
+			.add(new File(dataRoot, "file"))
+				.path("folder").save()
+			.add(large)
+				.path("/large.bin").save()
+			.addFolder("folder2")
+			.add("txét")
+				.path("folder2/txt2").save()
+			.toBytes();
+
+		final Map<String, byte[]> entries = new LinkedHashMap<>();
+		try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(bytes))) {
+			ZipEntry entry;
+			while ((entry = zis.getNextEntry()) != null) {
+				entries.put(entry.getName(), StreamUtil.readBytes(zis));
+			}
+		}
+
+		// order of added entries is kept
+		final List<String> names = new ArrayList<>(entries.keySet());
+		assertEquals(Arrays.asList("sbdata", "folder/"), names.subList(0, 2));
+		assertEquals(Arrays.asList("large.bin", "folder2/", "folder2/txt2"), names.subList(4, 7));
+		assertEquals(7, entries.size());
+		assertArrayEquals(FileUtil.readBytes(new File(dataRoot, "sb.data")), entries.get("sbdata"));
+		assertArrayEquals(FileUtil.readBytes(new File(dataRoot, "file/a.png")), entries.get("folder/a.png"));
+		assertArrayEquals(large, entries.get("large.bin"));
+		assertEquals("txét", new String(entries.get("folder2/txt2"), StandardCharsets.UTF_8));
+
+		// central directory
+		final File zipFile = new File(dataRoot, "test.zip");
+		FileUtil.writeBytes(zipFile, bytes);
+
+		try (ZipFile zip = new ZipFile(zipFile)) {
+			assertEquals(7, zip.size());
+			assertEquals("This is sb data file", zip.getEntry("sbdata").getComment());
+			assertEquals(large.length, zip.getEntry("large.bin").getSize());
+			assertTrue(zip.getEntry("folder2/").isDirectory());
+			assertEquals(
+				new File(dataRoot, "sb.data").lastModified() / 2000,
+				zip.getEntry("sbdata").getTime() / 2000);
+		}
+
+		// cleanup
+		FileUtil.delete(zipFile);
+	}
 }
@@ -31,6 +31,14 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.net.URL;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -329,5 +337,78 @@ class FindFile2Test {
 		assertEquals("beta | sumo | ", str.toString());
 	}
 
+	private static List<String> names(final FindFile ff) {
+		return ff.findAll().stream().map(File::getName).collect(Collectors.toList());
+	}
+
+	private static List<String> names(final Stream<Path> stream) {
+		try (Stream<Path> paths = stream) {
+			return paths.map(path -> path.getFileName().toString()).collect(Collectors.toList());
+		}
+	}
+
+	@Test
+	void testStream() {
+		final Supplier<FindFile> ff = () -> new FindFile()
+			.includeDirs(true)
+			.includeFiles(true)
+			.recursive(true)
+			.sortByName()
+			.searchPath(dataRoot);
+
+		final List<String> expected = names(ff.get());
+		assertEquals(11, expected.size());
+		assertEquals(expected, names(ff.get().stream()));
+
+		final List<String> parallel = names(ff.get().parallelStream());
+		assertEquals(new TreeSet<>(expected), new TreeSet<>(parallel));
+		assertEquals(expected.size(), parallel.size());
+	}
+
+	@Test
+	void testStreamMatching() {
+		final Supplier<FindFile> ff = () -> new WildcardFindFile()
+			.include("**/*a*.txt")
+			.exclude("/beta/**")
+			.excludeAll()
+			.matchRelativePath()
+			.includeDirs(true)
+			.recursive(true)
+			.walking(false)
+			.searchPath(dataRoot);
+
+		final Set<String> expected = new TreeSet<>(names(ff.get()));
+		assertEquals(new TreeSet<>(Arrays.asList("aaa.txt", "alpha.txt")), expected);
+
+		assertEquals(expected, new TreeSet<>(names(ff.get().stream())));
+		assertEquals(expected, new TreeSet<>(names(ff.get().parallelStream())));
+
+		// file as a search path
+		final FindFile file = new WildcardFindFile()
+			.include("**/*a*.txt")
+			.matchRelativePath()
+			.searchPath(new File(dataRoot, "alpha.txt"))
+			.searchPath(new File(dataRoot, "jodd1.txt"));
+
+		assertEquals(Arrays.asList("alpha.txt"), names(file.stream()));
+
+		// non-recursive, names only
+		final FindFile nonRecursive = new WildcardFindFile()
+			.include("jodd*")
+			.matchOnlyFileName()
+			.searchPath(dataRoot);
+
+		assertEquals(new TreeSet<>(Arrays.asList("jodd1.txt", "jodd10.txt")), new TreeSet<>(names(nonRecursive.stream())));
+	}
 
+	@Test
+	void testStreamShortCircuit() {
+		final Stream<Path> stream = new FindFile()
+			.recursive(true)
+			.searchPath(dataRoot)
+			.stream();
+
+		assertTrue(stream.findFirst().isPresent());
+		stream.close();
+	}
 }
@@ -0,0 +1,129 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.io.upload;
+
+import jodd.io.FastByteArrayOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Multipart stream that reads headers and scans for the boundary byte by byte,
+ * as it was done before the buffered scanning. Used as a reference in tests
+ * and benchmarks.
+ */
+public class ByteByByteMultipartInputStream extends MultipartRequestInputStream {
+
+	public ByteByByteMultipartInputStream(final InputStream in) {
+		super(in);
+	}
+
+	@Override
+	public void skipBytes(final int i) throws IOException {
+		long len = super.skip(i);
+		if (len != i) {
+			throw new IOException("Failed to skip data in HTTP request");
+		}
+	}
+
+	@Override
+	protected String readDataHeaderString(final String encoding) throws IOException {
+		FastByteArrayOutputStream data = new FastByteArrayOutputStream();
+		byte b;
+		while (true) {
+			// end marker byte on offset +0 and +2 must be 13
+			if ((b = readByte()) != '\r') {
+				data.write(b);
+				continue;
+			}
+			mark(4);
+			skipBytes(1);
+			int i = read();
+			if (i == -1) {
+				// reached end of stream
+				return null;
+			}
+			if (i == '\r') {
+				reset();
+				break;
+			}
+			reset();
+			data.write(b);
+		}
+		skipBytes(3);
+		if (encoding != null) {
+			return data.toString(encoding);
+		} else {
+			return data.toString();
+		}
+	}
+
+	@Override
+	public int copyAll(final OutputStream out) throws IOException {
+		int count = 0;
+		while (true) {
+			byte b = readByte();
+			if (isBoundary(b)) {
+				break;
+			}
+			out.write(b);
+			count++;
+		}
+		return count;
+	}
+
+	@Override
+	public int copyMax(final OutputStream out, final int maxBytes) throws IOException {
+		int count = 0;
+		while (true) {
+			byte b = readByte();
+			if (isBoundary(b)) {
+				break;
+			}
+			out.write(b);
+			count++;
+			if (count == maxBytes) {
+				return count;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public int skipToBoundary() throws IOException {
+		int count = 0;
+		while (true) {
+			byte b = readByte();
+			count++;
+			if (isBoundary(b)) {
+				break;
+			}
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,212 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.io.upload;
+
+import jodd.io.FastByteArrayOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MultipartRequestInputStreamTest {
+
+	private static final String BOUNDARY = "--ab-a";
+	private static final byte[] ALPHABET = {'\r', '\n', '-', 'a', 'b', 'x'};
+	private static final int[] BUFFER_SIZES = {3, 7, 16, 8192};
+
+	/**
+	 * Returns at most 3 bytes on each read.
+	 */
+	static class TrickleInputStream extends FilterInputStream {
+		TrickleInputStream(final InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read(final byte[] b, final int off, final int len) throws IOException {
+			return super.read(b, off, Math.min(len, 3));
+		}
+	}
+
+	private static byte[] randomData(final Random random, final int size) {
+		while (true) {
+			final byte[] data = new byte[size];
+			for (int i = 0; i < size; i++) {
+				data[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+			}
+			if (!new String(data, StandardCharsets.ISO_8859_1).contains("\r\n" + BOUNDARY)) {
+				return data;
+			}
+		}
+	}
+
+	private static byte[] request(final byte[]... parts) throws IOException {
+		final FastByteArrayOutputStream out = new FastByteArrayOutputStream();
+		out.write((BOUNDARY + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+		for (int i = 0; i < parts.length; i++) {
+			if (i > 0) {
+				out.write("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+			}
+			out.write(("Content-Disposition: form-data; name=\"p" + i + "\"; filename=\"p" + i + ".bin\"\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+			out.write(parts[i]);
+			out.write(("\r\n" + BOUNDARY).getBytes(StandardCharsets.ISO_8859_1));
+		}
+		out.write("--\r\n".getBytes(StandardCharsets.ISO_8859_1));
+		return out.toByteArray();
+	}
+
+	@Test
+	void testCopyAll() throws IOException {
+		final Random random = new Random(1);
+
+		for (int trial = 0; trial < 200; trial++) {
+			final byte[] data = randomData(random, random.nextInt(100));
+			final byte[] request = request(data);
+
+			for (final int bufferSize : BUFFER_SIZES) {
+				final MultipartRequestInputStream input = new MultipartRequestInputStream(new TrickleInputStream(new ByteArrayInputStream(request)), bufferSize);
+				input.readBoundary();
+				assertEquals("p0", input.readDataHeader(null).getFormFieldName());
+
+				final FastByteArrayOutputStream out = new FastByteArrayOutputStream();
+				assertEquals(data.length, input.copyAll(out));
+				assertArrayEquals(data, out.toByteArray());
+				assertEquals('-', input.read());
+			}
+		}
+	}
+
+	@Test
+	void testCopyMaxAndSkip() throws IOException {
+		final Random random = new Random(2);
+
+		for (int trial = 0; trial < 200; trial++) {
+			final byte[] data = randomData(random, random.nextInt(60));
+			final byte[] request = request(data, data);
+			final int max = 1 + random.nextInt(70);
+
+			for (final int bufferSize : BUFFER_SIZES) {
+				final MultipartRequestInputStream reference = new ByteByByteMultipartInputStream(new ByteArrayInputStream(request));
+				final MultipartRequestInputStream input = new MultipartRequestInputStream(new TrickleInputStream(new ByteArrayInputStream(request)), bufferSize);
+
+				reference.readBoundary();
+				input.readBoundary();
+
+				// copy max, then skip the rest
+				assertEquals(reference.readDataHeader(null).getFileName(), input.readDataHeader(null).getFileName());
+				final FastByteArrayOutputStream referenceOut = new FastByteArrayOutputStream();
+				final FastByteArrayOutputStream out = new FastByteArrayOutputStream();
+				final int referenceCount = reference.copyMax(referenceOut, max);
+				assertEquals(referenceCount, input.copyMax(out, max));
+				assertArrayEquals(referenceOut.toByteArray(), out.toByteArray());
+				if (referenceCount == max) {
+					assertEquals(reference.skipToBoundary(), input.skipToBoundary());
+				}
+				reference.skipBytes(1);
+				input.skipBytes(1);
+
+				// skip whole part
+				assertEquals(reference.readDataHeader(null).getFileName(), input.readDataHeader(null).getFileName());
+				assertEquals(reference.skipToBoundary(), input.skipToBoundary());
+				assertEquals(reference.read(), input.read());
+			}
+		}
+	}
+
+	@Test
+	void testHeaderAndCopyMaxWithoutLimit() throws IOException {
+		final byte[] data = randomData(new Random(4), 500);
+
+		final FastByteArrayOutputStream out = new FastByteArrayOutputStream();
+		out.write((BOUNDARY + "\r\nContent-Disposition: form-data; name=\"p0\"; filename=\"a\rb.bin\"\r\n"
+			+ "Content-Type: text/plain\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+		out.write(data);
+		out.write(("\r\n" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+		final byte[] request = out.toByteArray();
+
+		for (final int bufferSize : BUFFER_SIZES) {
+			final MultipartRequestInputStream reference = new ByteByByteMultipartInputStream(new ByteArrayInputStream(request));
+			final MultipartRequestInputStream input = new MultipartRequestInputStream(new TrickleInputStream(new ByteArrayInputStream(request)), bufferSize);
+
+			reference.readBoundary();
+			input.readBoundary();
+
+			final FileUploadHeader referenceHeader = reference.readDataHeader(null);
+			final FileUploadHeader header = input.readDataHeader(null);
+			assertEquals(referenceHeader.getFileName(), header.getFileName());
+			assertEquals(referenceHeader.getContentType(), header.getContentType());
+			assertEquals("text/plain", header.getContentType());
+
+			final FastByteArrayOutputStream referenceOut = new FastByteArrayOutputStream();
+			final FastByteArrayOutputStream inputOut = new FastByteArrayOutputStream();
+			assertEquals(data.length, reference.copyMax(referenceOut, 0));
+			assertEquals(data.length, input.copyMax(inputOut, 0));
+			assertArrayEquals(referenceOut.toByteArray(), inputOut.toByteArray());
+
+			assertNull(reference.readDataHeader(null));
+			assertNull(input.readDataHeader(null));
+		}
+	}
+
+	@Test
+	void testParser() throws IOException {
+		final Random random = new Random(3);
+		final byte[] file1 = randomData(random, 50_000);
+		final byte[] file2 = randomData(random, 1000);
+		final byte[] request = request(file1, new byte[0], file2);
+
+		final MultipartStreamParser parser = new MultipartStreamParser();
+		parser.parseRequestStream(new TrickleInputStream(new ByteArrayInputStream(request)), "ISO-8859-1");
+
+		assertArrayEquals(file1, parser.getFile("p0").getFileContent());
+		assertEquals(0, parser.getFile("p1").getSize());
+		assertArrayEquals(file2, parser.getFile("p2").getFileContent());
+	}
+
+	@Test
+	void testTruncated() throws IOException {
+		final byte[] request = request("hello".getBytes(StandardCharsets.ISO_8859_1));
+
+		final MultipartRequestInputStream input = new MultipartRequestInputStream(new ByteArrayInputStream(request, 0, request.length - 8));
+		input.readBoundary();
+		assertNotNull(input.readDataHeader(null));
+		assertThrows(IOException.class, () -> input.copyAll(new FastByteArrayOutputStream()));
+
+		final MultipartRequestInputStream header = new MultipartRequestInputStream(new ByteArrayInputStream((BOUNDARY + "\r\nname\r\n").getBytes(StandardCharsets.ISO_8859_1)));
+		header.readBoundary();
+		assertNull(header.readDataHeader(null));
+	}
+}
@@ -0,0 +1,203 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.io.watch;
+
+import jodd.io.FileUtil;
+import jodd.util.ThreadUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DirWatchServiceTest {
+
+	private static final int DIRS = 10;
+	private static final int FILES = 300;
+
+	private File root;
+	private DirWatcher dirWatcher;
+
+	/**
+	 * Last event type per file.
+	 */
+	private final Map<String, DirWatcherEvent.Type> state = new ConcurrentHashMap<>();
+	private final List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+
+	@BeforeEach
+	void setUp() throws IOException {
+		root = FileUtil.createTempDirectory("jodd", "watch");
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		if (dirWatcher != null) {
+			dirWatcher.stop();
+		}
+		FileUtil.deleteDir(root);
+	}
+
+	private void startWatcher(final DirWatcher dirWatcher) {
+		this.dirWatcher = dirWatcher;
+		dirWatcher.register(event -> state.put(relative(event.target()), event.type()));
+		dirWatcher.registerBatch(events -> batches.add(events.size()));
+		dirWatcher.start(50);
+	}
+
+	private String relative(final File file) {
+		return file.getPath().substring(root.getPath().length() + 1).replace(File.separatorChar, '/');
+	}
+
+	private long count(final DirWatcherEvent.Type type) {
+		return state.values().stream().filter(t -> t == type).count();
+	}
+
+	private void await(final BooleanSupplier condition) {
+		long end = System.currentTimeMillis() + 20_000;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.currentTimeMillis() < end, "timeout");
+			ThreadUtil.sleep(20);
+		}
+	}
+
+	/**
+	 * Creates, modifies and deletes thousands of files in subdirectories.
+	 */
+	private void runHarness() throws IOException {
+		final int total = DIRS * FILES;
+
+		// create
+		for (int d = 0; d < DIRS; d++) {
+			File dir = new File(root, "dir" + d);
+			FileUtil.mkdir(dir);
+			for (int f = 0; f < FILES; f++) {
+				FileUtil.writeString(new File(dir, "file" + f + ".txt"), "created");
+			}
+		}
+		// file may be reported as modified, if it is written after the creation is noticed
+		await(() -> state.size() == total);
+		assertEquals(0, count(DirWatcherEvent.Type.DELETED));
+
+		// modify
+		for (int d = 0; d < DIRS; d++) {
+			for (int f = 0; f < FILES; f++) {
+				File file = new File(root, "dir" + d + "/file" + f + ".txt");
+				FileUtil.writeString(file, "modified");
+				file.setLastModified(file.lastModified() + 2000);
+			}
+		}
+		await(() -> count(DirWatcherEvent.Type.MODIFIED) == total);
+
+		// delete
+		for (int d = 0; d < DIRS; d++) {
+			for (int f = 0; f < FILES / 2; f++) {
+				FileUtil.delete(new File(root, "dir" + d + "/file" + f + ".txt"));
+			}
+		}
+		for (int d = 0; d < DIRS / 2; d++) {
+			FileUtil.deleteDir(new File(root, "dir" + d));
+		}
+		await(() -> count(DirWatcherEvent.Type.DELETED) == total / 2 + total / 4);
+
+		assertEquals(total / 4, count(DirWatcherEvent.Type.MODIFIED));
+		assertEquals(total, state.size());
+	}
+
+	@Test
+	void testWatchService() throws IOException {
+		startWatcher(new DirWatcher(root.getPath())
+			.monitor("*.txt")
+			.recursive(true)
+			.useWatchService()
+			.debounce(50));
+
+		assertTrue(dirWatcher.isWatchServiceUsed());
+
+		runHarness();
+
+		// bursts are coalesced
+		int events = batches.stream().mapToInt(Integer::intValue).sum();
+		assertTrue(batches.size() < events / 10, batches.size() + " batches for " + events + " events");
+	}
+
+	@Test
+	void testPolling() throws IOException {
+		startWatcher(new DirWatcher(root.getPath())
+			.monitor("*.txt")
+			.recursive(true));
+
+		assertTrue(!dirWatcher.isWatchServiceUsed());
+
+		runHarness();
+	}
+
+	@Test
+	void testCoalesce() throws IOException {
+		startWatcher(new DirWatcher(root.getPath())
+			.useWatchService()
+			.debounce(300));
+
+		File file = new File(root, "a.txt");
+		File temp = new File(root, "temp.txt");
+
+		FileUtil.writeString(file, "1");
+		FileUtil.writeString(file, "2");
+		FileUtil.writeString(temp, "1");
+		FileUtil.delete(temp);
+		FileUtil.mkdir(new File(root, "sub"));
+		FileUtil.writeString(new File(root, "sub/b.txt"), "1");
+
+		await(() -> !batches.isEmpty());
+		ThreadUtil.sleep(500);
+
+		assertEquals(1, batches.size());
+		assertEquals(1, state.size());
+		assertEquals(DirWatcherEvent.Type.CREATED, state.get("a.txt"));
+	}
+
+	@Test
+	void testStartBlank() throws IOException {
+		FileUtil.writeString(new File(root, "a.txt"), "1");
+		FileUtil.writeString(new File(root, ".hidden"), "1");
+
+		startWatcher(new DirWatcher(root.getPath())
+			.useWatchService()
+			.startBlank(true));
+
+		await(() -> state.size() == 1);
+		assertEquals(DirWatcherEvent.Type.CREATED, state.get("a.txt"));
+	}
+}
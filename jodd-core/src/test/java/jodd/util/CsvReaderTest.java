@@ -0,0 +1,181 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvReaderTest {
+
+	@Test
+	void testRead() throws IOException {
+		final List<String[]> rows = read(
+			"1997,Ford,E350,\"Super, luxurious truck\"\r\n" +
+			"1999,Chevy,\"Venture \"\"Extended Edition\"\"\",\"\"\n" +
+			"\n" +
+			"1996,Jeep,Grand Cherokee,\"MUST SELL!\nair, moon roof, loaded\"\r" +
+			"a,,b,\n" +
+			" x , \"y\" ");
+
+		assertEquals(5, rows.size());
+		assertArrayEquals(new String[] {"1997", "Ford", "E350", "Super, luxurious truck"}, rows.get(0));
+		assertArrayEquals(new String[] {"1999", "Chevy", "Venture \"Extended Edition\"", ""}, rows.get(1));
+		assertArrayEquals(new String[] {"1996", "Jeep", "Grand Cherokee", "MUST SELL!\nair, moon roof, loaded"}, rows.get(2));
+		assertArrayEquals(new String[] {"a", "", "b", ""}, rows.get(3));
+		assertArrayEquals(new String[] {" x ", " \"y\" "}, rows.get(4));
+	}
+
+	@Test
+	void testSameAsCsvUtil() throws IOException {
+		final String[] lines = {
+			"a", "a,b", "a, b ", "a,\" b \"", "a,b,", "a,b,\"jo,e\"", "a,b,\"\"\"some\"\"r\"",
+			"1997,Ford,E350,\"Super \"\"luxurious\"\" truck\"", "\"a\nb\"", "a,,b"
+		};
+		for (final String line : lines) {
+			assertArrayEquals(CsvUtil.toStringArray(line), read(line).get(0), line);
+		}
+	}
+
+	@Test
+	void testFieldViews() throws IOException {
+		try (CsvReader csv = new CsvReader(new ByteArrayInputStream("name,42\r\nother,7".getBytes("UTF-8")))) {
+			assertTrue(csv.next());
+			final CharSequence name = csv.field(0);
+			assertEquals(2, csv.size());
+			assertEquals(4, name.length());
+			assertEquals('n', name.charAt(0));
+			assertThrows(IndexOutOfBoundsException.class, () -> name.charAt(4));
+			assertThrows(IndexOutOfBoundsException.class, () -> name.charAt(-1));
+			assertEquals("am", name.subSequence(1, 3).toString());
+			assertEquals("", name.subSequence(4, 4).toString());
+			assertThrows(IndexOutOfBoundsException.class, () -> name.subSequence(-1, 2));
+			assertThrows(IndexOutOfBoundsException.class, () -> name.subSequence(3, 2));
+			assertThrows(IndexOutOfBoundsException.class, () -> name.subSequence(2, 5));
+			assertEquals(42, Integer.parseInt(csv.field(1).toString()));
+			assertEquals(1, csv.rowNumber());
+
+			assertTrue(csv.next());
+			assertEquals("other", name.toString());
+			assertEquals(2, csv.rowNumber());
+			assertThrows(IndexOutOfBoundsException.class, () -> csv.field(2));
+
+			assertFalse(csv.next());
+			assertEquals(0, csv.size());
+		}
+	}
+
+	@Test
+	void testSeparator() throws IOException {
+		try (CsvReader csv = new CsvReader(new StringReader("a;'b;''c'\n")).separator(';').quote('\'')) {
+			assertTrue(csv.next());
+			assertArrayEquals(new String[] {"a", "b;'c"}, csv.toStringArray());
+			assertFalse(csv.next());
+		}
+	}
+
+	@Test
+	void testUnclosedQuote() throws IOException {
+		assertArrayEquals(new String[] {"a", "b,c\n"}, read("a,\"b,c\n").get(0));
+
+		try (CsvReader csv = new CsvReader(new StringReader("x\na,\"b,c\n")).strict(true)) {
+			assertTrue(csv.next());
+			final IOException ioex = assertThrows(IOException.class, csv::next);
+			assertEquals("Unclosed quoted field in row: 2", ioex.getMessage());
+		}
+
+		try (CsvReader csv = new CsvReader(new StringReader("a,\"b\"\"\"\n")).strict(true)) {
+			assertTrue(csv.next());
+			assertArrayEquals(new String[] {"a", "b\""}, csv.toStringArray());
+			assertFalse(csv.next());
+		}
+	}
+
+	@Test
+	void testRoundTrip() throws IOException {
+		final Random random = new Random(11);
+		final String chars = "ab ,\"\r\nčx";
+		final List<String[]> rows = new ArrayList<>();
+
+		final StringWriter out = new StringWriter();
+		try (CsvWriter csv = new CsvWriter(out)) {
+			for (int r = 0; r < 5000; r++) {
+				final String[] row = new String[1 + random.nextInt(6)];
+				for (int i = 0; i < row.length; i++) {
+					final StringBuilder sb = new StringBuilder();
+					for (int j = random.nextInt(random.nextInt(10) == 0 ? 200 : 10); j >= 0; j--) {
+						sb.append(chars.charAt(random.nextInt(chars.length())));
+					}
+					row[i] = sb.toString();
+				}
+				rows.add(row);
+				csv.writeRow((Object[]) row);
+			}
+		}
+
+		// small reads cross buffer boundaries everywhere
+		final Reader reader = new StringReader(out.toString()) {
+			@Override
+			public int read(final char[] cbuf, final int off, final int len) throws IOException {
+				return super.read(cbuf, off, Math.min(len, 1 + random.nextInt(7)));
+			}
+		};
+		final List<String[]> result = read(reader);
+
+		assertEquals(rows.size(), result.size());
+		for (int i = 0; i < rows.size(); i++) {
+			assertArrayEquals(rows.get(i), result.get(i));
+		}
+	}
+
+	private static List<String[]> read(final String csv) throws IOException {
+		return read(new StringReader(csv));
+	}
+
+	private static List<String[]> read(final Reader reader) throws IOException {
+		final List<String[]> rows = new ArrayList<>();
+		try (CsvReader csv = new CsvReader(reader)) {
+			while (csv.next()) {
+				rows.add(csv.toStringArray());
+			}
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,63 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.util;
+
+import jodd.io.FastByteArrayOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvWriterTest {
+
+	@Test
+	void testSameAsCsvUtil() throws IOException {
+		final Object[][] rows = {
+			{"a"}, {"a", "b"}, {"a", "b", ""}, {"a", " b "}, {"a", "b", "jo,e"}, {"a", "b", "\"some\"r"},
+			{"1997", "Ford", "E350", "Super \"luxurious\" truck"}, {1, null, 2}, {"a\nb"}
+		};
+		for (final Object[] row : rows) {
+			final StringWriter out = new StringWriter();
+			try (CsvWriter csv = new CsvWriter(out).lineSeparator("")) {
+				csv.writeRow(row);
+			}
+			assertEquals(CsvUtil.toCsvString(row), out.toString());
+		}
+	}
+
+	@Test
+	void testWrite() throws IOException {
+		final FastByteArrayOutputStream out = new FastByteArrayOutputStream();
+		try (CsvWriter csv = new CsvWriter(out, "UTF-8").separator(';')) {
+			csv.writeField("name").writeField(new StringBuilder("a;b")).endRow();
+			csv.writeRow("č", "x,y");
+		}
+		assertEquals("name;\"a;b\"\r\nč;x,y\r\n", new String(out.toByteArray(), "UTF-8"));
+	}
+}
@@ -0,0 +1,144 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultiStringMatcherTest {
+
+	@Test
+	void testReplace() {
+		final MultiStringMatcher matcher = MultiStringMatcher.of("he", "she", "his", "hers", "š");
+
+		assertEquals("[2] said [1]rs [3]", matcher.replace("she said hers his", "[1]", "[2]", "[3]", "[4]", "[5]"));
+		assertEquals(
+			StringUtil.replace("ushers and his šhe", new String[] {"he", "she", "his", "hers", "š"}, new String[] {"1", "2", "3", "4", "5"}),
+			matcher.replace("ushers and his šhe", "1", "2", "3", "4", "5"));
+
+		final String text = "nothing to replace";
+		assertSame(text, matcher.replace(text, "1", "2", "3", "4", "5"));
+
+		assertThrows(IllegalArgumentException.class, () -> matcher.replace(text, "1"));
+		assertThrows(IllegalArgumentException.class, () -> MultiStringMatcher.of("a", ""));
+	}
+
+	@Test
+	void testPriority() {
+		// same start, first pattern wins, even when shorter
+		assertEquals("Xcd", MultiStringMatcher.of("ab", "abcd").replace("abcd", "X", "Y"));
+		assertEquals("Y", MultiStringMatcher.of("abcd", "ab").replace("abcd", "Y", "X"));
+
+		// leftmost wins
+		assertEquals("Yd", MultiStringMatcher.of("bc", "abc", "bcd").replace("abcd", "X", "Y", "Z"));
+		assertArrayEquals(new int[] {1, 0}, MultiStringMatcher.of("bcd", "abc").indexOf("abcd"));
+	}
+
+	@Test
+	void testRandomAgainstStringUtil() {
+		final Random random = new Random(173);
+
+		for (int round = 0; round < 500; round++) {
+			final String[] patterns = new String[1 + random.nextInt(8)];
+			final String[] with = new String[patterns.length];
+			for (int i = 0; i < patterns.length; i++) {
+				patterns[i] = randomString(random, 1 + random.nextInt(4));
+				with[i] = "<" + i + ">";
+			}
+			final String text = randomString(random, random.nextInt(60));
+
+			final MultiStringMatcher matcher = MultiStringMatcher.of(patterns);
+
+			assertEquals(StringUtil.replace(text, patterns, with), matcher.replace(text, with), text);
+
+			for (int offset = 0; offset < text.length(); offset += 7) {
+				assertArrayEquals(StringUtil.indexOf(text, patterns, offset), matcher.indexOf(text, offset));
+			}
+
+			assertEquals(StringUtil.indexOf(text, patterns) != null, matcher.containsAny(text));
+
+			// all occurrences
+			final List<String> expected = new ArrayList<>();
+			for (int end = 1; end <= text.length(); end++) {
+				for (int p = 0; p < patterns.length; p++) {
+					final int start = end - patterns[p].length();
+					if (start >= 0 && text.startsWith(patterns[p], start) && StringUtil.equalsOne(patterns[p], patterns) == p) {
+						expected.add(p + ":" + start);
+					}
+				}
+			}
+			final List<String> found = new ArrayList<>();
+			final int count = matcher.findAll(text, (pattern, start, end) -> {
+				assertEquals(patterns[pattern], text.substring(start, end));
+				found.add(pattern + ":" + start);
+			});
+			assertEquals(expected.size(), count);
+			assertEquals(new TreeSet<>(expected), new TreeSet<>(found));
+		}
+	}
+
+	private static String randomString(final Random random, final int length) {
+		final char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = "abcč".charAt(random.nextInt(4));
+		}
+		return new String(chars);
+	}
+
+	@Test
+	void testIgnoreCase() {
+		final MultiStringMatcher matcher = MultiStringMatcher.ofIgnoreCase("JODD", "čaj");
+
+		assertTrue(matcher.containsAny("I like Jodd"));
+		assertTrue(matcher.containsAny("ČAJ"));
+		assertFalse(matcher.containsAny("jod d"));
+		assertEquals("I like X and Y.", matcher.replace("I like jOdD and Čaj.", "X", "Y"));
+		assertNull(MultiStringMatcher.of("JODD").indexOf("jodd"));
+	}
+
+	@Test
+	void testFindAll() {
+		final List<int[]> matches = MultiStringMatcher.of("he", "she", "his", "hers").findAll("ushers");
+
+		assertEquals(3, matches.size());
+		assertArrayEquals(new int[] {1, 1, 4}, matches.get(0));
+		assertArrayEquals(new int[] {0, 2, 4}, matches.get(1));
+		assertArrayEquals(new int[] {3, 2, 6}, matches.get(2));
+	}
+}
@@ -25,13 +25,16 @@
 
 package jodd.util;
 
+import jodd.template.CompiledTemplate;
 import jodd.template.MapTemplateParser;
 import jodd.template.StringTemplateParser;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class StringTemplateParserTest {
 
@@ -208,4 +211,68 @@ class StringTemplateParserTest {
 		assertEquals("bar$foo baz", stp.parse("bar$foo baz", (s) -> {throw new RuntimeException();}));
 	}
 
+	@Test
+	void testCompile() {
+		HashMap<String, Object> map = new HashMap<>();
+		map.put("key0", "1");
+		map.put("key1", 2);
+		map.put("key2", "value");
+		map.put("foo", new StringBuilder("bar"));
+		map.put("boo.foo", "*${foo}*");
+		map.put("inner.man", "jo");
+
+		String[] templates = {
+			"", "plain", "---${key0}---", "${key1}${key2}", "${missing}.", "---${key${key1}}---", "-${key${key${key0}}}-",
+			"-${boo.${foo}}-", "...\\${foo}...", "...\\\\${foo}...", "...\\\\\\${foo}...", "$foo", "xx $foo xx", "$inner.man.",
+			"$inner.man ${foo}", "$ foo $", "${foo}$"
+		};
+
+		MapTemplateParser stp = new MapTemplateParser();
+		assertCompiled(stp, map, templates);
+
+		stp.setMissingKeyReplacement("<>");
+		assertCompiled(stp, map, templates);
+
+		stp.setReplaceMissingKey(false);
+		assertCompiled(stp, map, templates);
+
+		stp.setReplaceMissingKey(true);
+		stp.setParseValues(true);
+		stp.setResolveEscapes(false);
+		assertCompiled(stp, map, templates);
+
+		stp.setStrictFormat();
+		assertCompiled(stp, map, templates);
+
+		MapTemplateParser custom = new MapTemplateParser();
+		custom.setMacroStart("<%=").setMacroEnd("%>").setMacroPrefix(null);
+		assertCompiled(custom, map, "...${foo}...<%=foo%>...", "z\\<%=foo%>z", "x<%=<%=key0%>%>x");
+
+		// settings are copied
+		CompiledTemplate compiledTemplate = stp.compile("${foo}-${key0}");
+		stp.setMacroStart("[").setMacroEnd("]");
+		assertEquals("bar-1", compiledTemplate.render(map::get));
+		assertEquals(2, compiledTemplate.macroCount());
+		assertEquals("key0", compiledTemplate.macroName(1));
+
+		// inner macros
+		compiledTemplate = new MapTemplateParser().compile("-${key${key${key0}}}-");
+		assertEquals(1, compiledTemplate.macroCount());
+		assertEquals("key${key${key0}}", compiledTemplate.macroName(0));
+		map.put("key2", "${foo}");
+		assertEquals("-${foo}-", compiledTemplate.render(map::get));
+
+		assertThrows(IllegalArgumentException.class, () -> new StringTemplateParser().compile("${foo"));
+	}
+
+	private void assertCompiled(StringTemplateParser stp, Map<String, Object> map, String... templates) {
+		for (String template : templates) {
+			String expected = stp.parse(template, name -> {
+				Object value = map.get(name);
+				return value == null ? null : value.toString();
+			});
+			assertEquals(expected, stp.compile(template).render(map::get), template);
+		}
+	}
+
 }
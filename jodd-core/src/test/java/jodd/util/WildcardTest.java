@@ -27,6 +27,7 @@ package jodd.util;
 
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -195,4 +196,21 @@ class WildcardTest {
 		assertTrue(Wildcard.matchPath("/a/b/c", "**/b/**"));
 		assertTrue(Wildcard.matchPath("/a/b/c/d", "**/c/**"));
 	}
+
+	@Test
+	void testCompiledPath() {
+		final String[] paths = {
+			"", "/", "foo", "/foo", "/foo/", "/foo/boo", "/foo/one/two/three/boo",
+			"sys/java/bin", "c:\\Users\\najgor", "/prj/uphea-app.jar", "/a/b/c/d.txt", "d.txt"};
+		final String[] patterns = {
+			"**", "/**", "**/", "/**/", "/fo*", "**/bo*", "/**/**/bo*", "**/two/**",
+			"sys/**/bin", "?:\\**\\najgor", "**/uphea*", "*/uphea*", "**/*.txt", "**/**/*.txt", "*.txt"};
+
+		for (final String pattern : patterns) {
+			final Wildcard.PathPattern pathPattern = Wildcard.compilePath(pattern);
+			for (final String path : paths) {
+				assertEquals(Wildcard.matchPath(path, pattern), pathPattern.match(path), path + " ~ " + pattern);
+			}
+		}
+	}
 }
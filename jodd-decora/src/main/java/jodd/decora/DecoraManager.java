@@ -25,14 +25,15 @@
 
 package jodd.decora;
 
+import jodd.decora.parser.DecoraTag;
 import jodd.io.FileUtil;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Decora manager defines if some request should be decorated and resolves decorators paths.
@@ -70,22 +71,47 @@ public class DecoraManager {
 
 	protected Map<String, char[]> contentMap;
 	protected Map<String, File> filesMap;
+	protected final Map<String, DecoraTag[]> layoutMap = new ConcurrentHashMap<>();
 
 	public DecoraManager registerDecorator(final String path, final char[] content) {
 		if (contentMap == null) {
-			contentMap = new HashMap<>();
+			contentMap = new ConcurrentHashMap<>();
 		}
 		contentMap.put(path, content);
+		layoutMap.remove(path);
 		return this;
 	}
 	public DecoraManager registerDecorator(final String path, final File decorator) {
 		if (filesMap == null) {
-			filesMap = new HashMap<>();
+			filesMap = new ConcurrentHashMap<>();
 		}
 		filesMap.put(path, decorator);
 		return this;
 	}
 
+	/**
+	 * Registers parsed layout of the decorator content. Layout is cached only
+	 * when the content is the one registered for the path, so decorators
+	 * that are read on every request are parsed every time.
+	 */
+	public DecoraManager registerDecoratorLayout(final String path, final char[] content, final DecoraTag[] decoraTags) {
+		if (contentMap != null && contentMap.get(path) == content) {
+			layoutMap.put(path, decoraTags);
+		}
+		return this;
+	}
+
+	/**
+	 * Lookups cached layout of the decorator content.
+	 * Returns {@code null} if layout of given content is not cached.
+	 */
+	public DecoraTag[] lookupDecoratorLayout(final String path, final char[] content) {
+		if (contentMap == null || contentMap.get(path) != content) {
+			return null;
+		}
+		return layoutMap.get(path);
+	}
+
 	/**
 	 * Lookups the decorator for given decorator path.
 	 * Returns {@code null} if decorator is not registered, indicating that content should be
@@ -97,6 +123,8 @@ public class DecoraManager {
 			if (data != null) {
 				return data;
 			}
+		}
+		if (filesMap != null) {
 			final File file = filesMap.get(path);
 			if (file != null) {
 				try {
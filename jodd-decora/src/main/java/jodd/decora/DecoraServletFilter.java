@@ -26,6 +26,7 @@
 package jodd.decora;
 
 import jodd.decora.parser.DecoraParser;
+import jodd.decora.parser.DecoraTag;
 import jodd.log.Logger;
 import jodd.log.LoggerFactory;
 import jodd.servlet.DispatcherUtil;
@@ -197,9 +198,17 @@ public class DecoraServletFilter implements Filter {
 				}
 			}
 
+			DecoraTag[] decoraLayout = decoraManager.lookupDecoratorLayout(decoratorPath, decoraContent);
+
+			if (decoraLayout == null) {
+				decoraLayout = decoraParser.parseDecoratorLayout(decoraContent);
+
+				decoraManager.registerDecoratorLayout(decoratorPath, decoraContent, decoraLayout);
+			}
+
 			final Writer writer = servletResponse.getWriter();
 
-			decoraParser.decorate(writer, pageContent, decoraContent);
+			decoraParser.decorate(writer, pageContent, decoraContent, decoraLayout);
 
 			writer.flush();
 
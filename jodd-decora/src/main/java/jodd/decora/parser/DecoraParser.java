@@ -48,6 +48,31 @@ public class DecoraParser {
 		writeDecoratedPage(writer, decoraContent, pageContent, decoraTags);
 	}
 
+	/**
+	 * Decorates page content with decorator template, using already parsed
+	 * {@link #parseDecoratorLayout(char[]) decorator layout}. Layout is not
+	 * modified, so it can be cached and shared; only the page is parsed.
+	 */
+	public void decorate(final Writer writer, final char[] pageContent, final char[] decoraContent, final DecoraTag[] decoraLayout) throws IOException {
+		DecoraTag[] decoraTags = new DecoraTag[decoraLayout.length];
+		for (int i = 0; i < decoraLayout.length; i++) {
+			decoraTags[i] = decoraLayout[i].duplicate();
+		}
+
+		parsePage(pageContent, decoraTags);
+
+		writeDecoratedPage(writer, decoraContent, pageContent, decoraTags);
+	}
+
+	/**
+	 * Parses decorator layout, i.e. the {@link jodd.decora.parser.DecoraTag Decora tags}
+	 * of the decorator template. Layout depends only on the decorator content,
+	 * so it may be cached together with it.
+	 */
+	public DecoraTag[] parseDecoratorLayout(final char[] decoraContent) {
+		return parseDecorator(decoraContent);
+	}
+
 	/**
 	 * Parses decorator file and collects {@link jodd.decora.parser.DecoraTag Decora tags}
 	 * used in template. Returned Decora tags have start and end index set,
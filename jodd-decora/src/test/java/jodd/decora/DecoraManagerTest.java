@@ -25,6 +25,8 @@
 
 package jodd.decora;
 
+import jodd.decora.parser.DecoraParser;
+import jodd.decora.parser.DecoraTag;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -33,6 +35,7 @@ import javax.servlet.http.HttpServletRequest;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -137,4 +140,26 @@ class DecoraManagerTest {
 		assertEquals(DecoraManager.DEFAULT_DECORATOR, result);
 	}
 
+	@Test
+	void testDecoratorLayout() {
+		char[] content = "<html><decora:body/></html>".toCharArray();
+		DecoraTag[] layout = new DecoraParser().parseDecoratorLayout(content);
+
+		// not registered content
+		decoraManager.registerDecoratorLayout("/main.jsp", content, layout);
+		assertNull(decoraManager.lookupDecoratorLayout("/main.jsp", content));
+
+		// registered content
+		decoraManager.registerDecorator("/main.jsp", content);
+		decoraManager.registerDecoratorLayout("/main.jsp", content, layout);
+		assertSame(layout, decoraManager.lookupDecoratorLayout("/main.jsp", content));
+		assertNull(decoraManager.lookupDecoratorLayout("/main.jsp", content.clone()));
+		assertNull(decoraManager.lookupDecoratorContent("/other.jsp"));
+
+		// new content drops the layout
+		char[] newContent = content.clone();
+		decoraManager.registerDecorator("/main.jsp", newContent);
+		assertNull(decoraManager.lookupDecoratorLayout("/main.jsp", newContent));
+	}
+
 }
@@ -40,6 +40,7 @@ import java.io.IOException;
 import java.net.URL;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class DecoraParserTest {
 
@@ -83,6 +84,40 @@ class DecoraParserTest {
 		}
 	}
 
+	@Test
+	void testDecoraParserWithLayout() throws IOException {
+		DecoraParser decoraParser = new DecoraParser();
+
+		FindFile ff = new WildcardFindFile().include("*.*ml");
+		ff.matchType(FindFile.Match.NAME);
+		ff.searchPath(testDataRoot);
+
+		File file;
+		while ((file = ff.nextFile()) != null) {
+			char[] page = FileUtil.readString(file).toCharArray();
+
+			String decoratorFileName = StringUtil.replace(file.getAbsolutePath(), ".html", "-decora.htm");
+			char[] decorator = FileUtil.readString(decoratorFileName).toCharArray();
+
+			String outFileName = StringUtil.replace(file.getAbsolutePath(), ".html", "-out.htm");
+			String outExpected = trimLines(FileUtil.readString(outFileName));
+
+			DecoraTag[] layout = decoraParser.parseDecoratorLayout(decorator);
+
+			// layout is reusable
+			for (int i = 0; i < 2; i++) {
+				FastCharArrayWriter writer = new FastCharArrayWriter();
+				decoraParser.decorate(writer, page, decorator, layout);
+
+				assertEquals(outExpected, trimLines(writer.toString()), file.getName());
+			}
+
+			for (DecoraTag decoraTag : layout) {
+				assertTrue(decoraTag.isRegionUndefined());
+			}
+		}
+	}
+
 
 	private String trimLines(String string) throws IOException {
 		BufferedReader in = new BufferedReader(new CharArrayReader(string.toCharArray()));
@@ -49,6 +49,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.Deflater;
 
 /**
  * HTML resources bundles manager.
@@ -75,6 +76,8 @@ public class HtmlStaplerBundlesManager {
 	protected boolean sortResources;
 	protected boolean notFoundExceptionEnabled = true;
 	protected int randomDigestChars = 0;
+	protected int gzipLevel = Deflater.DEFAULT_COMPRESSION;
+	protected int gzipThreads = 1;
 
 	private static String uniqueDigestKey;
 
@@ -249,6 +252,29 @@ public class HtmlStaplerBundlesManager {
 		this.notFoundExceptionEnabled = notFoundExceptionEnabled;
 	}
 
+	public int getGzipLevel() {
+		return gzipLevel;
+	}
+
+	/**
+	 * Sets the compression level of gzipped bundles. Bundles are
+	 * compressed only once, so the best compression may be used.
+	 */
+	public void setGzipLevel(final int gzipLevel) {
+		this.gzipLevel = gzipLevel;
+	}
+
+	public int getGzipThreads() {
+		return gzipThreads;
+	}
+
+	/**
+	 * Sets the number of threads used for gzipping large bundles.
+	 */
+	public void setGzipThreads(final int gzipThreads) {
+		this.gzipThreads = gzipThreads;
+	}
+
 	/**
 	 * Returns the number of random digest chars.
 	 */
@@ -320,7 +346,7 @@ public class HtmlStaplerBundlesManager {
 			if (log.isDebugEnabled()) {
 				log.debug("gzip bundle to " + path);
 			}
-			ZipUtil.gzip(file);
+			ZipUtil.gzip(file, gzipLevel, gzipThreads);
 		}
 
 		return gzipFile;
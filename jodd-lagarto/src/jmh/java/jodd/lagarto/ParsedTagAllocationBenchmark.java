@@ -0,0 +1,120 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.lagarto;
+
+import jodd.util.ResourcesUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures allocation of the parser while emitting tags. Each operation
+ * parses one megabyte of HTML, so the {@code gc.alloc.rate.norm} metric
+ * of the GC profiler is the number of bytes allocated per MB of HTML.
+ * <p>
+ * Run:
+ * <code>
+ * gw :jodd-lagarto:ParsedTagAllocationBenchmark
+ * </code>
+ * with the JMH GC profiler enabled ({@code -prof gc}).
+ * </p>
+ *
+ * Results ({@code gc.alloc.rate.norm}, bytes per MB of HTML):
+ * <pre>
+ * Benchmark           Strings    Views
+ * emptyVisitor        2927237  1394807
+ * attributeVisitor    2961668  1394777
+ * tagWriter          10547850  9015278
+ * </pre>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ParsedTagAllocationBenchmark {
+
+	private static final int MB = 1024 * 1024;
+
+	/**
+	 * Visitor that reads a single attribute of each tag.
+	 */
+	private static final TagVisitor ATTRIBUTE_VISITOR = new EmptyTagVisitor() {
+		@Override
+		public void tag(final Tag tag) {
+			tag.getAttributeValue("href");
+		}
+	};
+
+	@Benchmark
+	public LagartoParser emptyVisitor() {
+		final LagartoParser lagartoParser = new LagartoParser(HTML);
+		lagartoParser.parse(new EmptyTagVisitor());
+		return lagartoParser;
+	}
+
+	@Benchmark
+	public LagartoParser attributeVisitor() {
+		final LagartoParser lagartoParser = new LagartoParser(HTML);
+		lagartoParser.parse(ATTRIBUTE_VISITOR);
+		return lagartoParser;
+	}
+
+	@Benchmark
+	public StringBuilder tagWriter() {
+		final StringBuilder out = new StringBuilder(HTML.length);
+		final LagartoParser lagartoParser = new LagartoParser(HTML);
+		lagartoParser.parse(new TagWriter(out));
+		return out;
+	}
+
+	static {
+		try {
+			final String html = ResourcesUtil.getResourceAsString("jodd/lagarto/file1.html");
+			final StringBuilder sb = new StringBuilder(MB + html.length());
+			while (sb.length() < MB) {
+				sb.append(html);
+			}
+			sb.setLength(MB);
+			HTML = sb.toString().toCharArray();
+		}
+		catch (final IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public static char[] HTML;
+
+}
@@ -121,6 +121,14 @@ public class Jerry implements Iterable<Jerry> {
 			return new Jerry(domBuilder, doc);
 		}
 
+		/**
+		 * Invokes parsing of the first <code>length</code> characters on {@link DOMBuilder}.
+		 */
+		public Jerry parse(final char[] content, final int length) {
+			final Document doc = domBuilder.parse(content, length);
+			return new Jerry(domBuilder, doc);
+		}
+
 		/**
 		 * Invokes parsing on {@link DOMBuilder}.
 		 */
@@ -0,0 +1,403 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.jerry;
+
+import jodd.lagarto.HtmlCharsetSniffer;
+import jodd.lagarto.LagartoException;
+import jodd.lagarto.dom.DOMBuilder;
+import jodd.lagarto.dom.LagartoDOMBuilder;
+import jodd.util.StringPool;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Parallel batch processor of many HTML documents. Each document is loaded,
+ * parsed into a DOM and handed to the extractor function as {@link Jerry};
+ * documents are processed on a {@link ForkJoinPool}. Results are either
+ * collected into a list, in the encounter order of the input stream, or
+ * passed to a consumer as soon as they are extracted, so they don't have
+ * to be held in memory.
+ * <p>
+ * Each batch keeps a pool of workers, one for every thread that works
+ * concurrently. A worker owns a {@link DOMBuilder}, {@link Jerry.JerryParser}
+ * and content buffer that is parsed directly, so nothing is configured or
+ * allocated per document except the document itself. Workers are released
+ * when the batch is finished. Per-stage timings are collected in
+ * {@link #stats() statistics}.
+ * <p>
+ * Extractor must not keep references to {@link Jerry} it receives if the
+ * results are large; return only the extracted values.
+ */
+public class JerryBatch<R> {
+
+	protected final Function<Jerry, R> extractor;
+	protected Supplier<DOMBuilder> domBuilderSupplier = LagartoDOMBuilder::new;
+	protected ForkJoinPool pool = ForkJoinPool.commonPool();
+	protected String encoding = StringPool.UTF_8;
+	protected final Stats stats = new Stats();
+
+	public JerryBatch(final Function<Jerry, R> extractor) {
+		this.extractor = Objects.requireNonNull(extractor);
+	}
+
+	/**
+	 * Defines supplier of {@link DOMBuilder}s. Supplier is invoked once
+	 * per worker of a batch, so it is the right place for builder configuration.
+	 */
+	public JerryBatch<R> domBuilder(final Supplier<DOMBuilder> domBuilderSupplier) {
+		this.domBuilderSupplier = Objects.requireNonNull(domBuilderSupplier);
+		return this;
+	}
+
+	/**
+	 * Defines the pool that runs the batch. By default, common pool is used.
+	 */
+	public JerryBatch<R> pool(final ForkJoinPool pool) {
+		this.pool = Objects.requireNonNull(pool);
+		return this;
+	}
+
+	/**
+	 * Defines default encoding of binary content, used when encoding
+	 * can not be sniffed from BOM or meta tags.
+	 */
+	public JerryBatch<R> encoding(final String encoding) {
+		this.encoding = Objects.requireNonNull(encoding);
+		return this;
+	}
+
+	/**
+	 * Returns accumulated statistics of all processed batches.
+	 */
+	public Stats stats() {
+		return stats;
+	}
+
+	// ---------------------------------------------------------------- process
+
+	/**
+	 * Processes HTML files.
+	 */
+	public List<R> processFiles(final Stream<File> files) {
+		return process(files, this::loadFile, JerryBatch::collect);
+	}
+
+	/**
+	 * Processes HTML files and passes results to the consumer as they are
+	 * extracted, in no particular order. Consumer must be thread-safe.
+	 */
+	public void processFiles(final Stream<File> files, final Consumer<? super R> consumer) {
+		process(files, this::loadFile, results -> forEach(results, consumer));
+	}
+
+	/**
+	 * Processes binary HTML content.
+	 */
+	public List<R> processBytes(final Stream<byte[]> contents) {
+		return process(contents, this::loadBytes, JerryBatch::collect);
+	}
+
+	/**
+	 * Processes binary HTML content and passes results to the consumer as they
+	 * are extracted, in no particular order. Consumer must be thread-safe.
+	 */
+	public void processBytes(final Stream<byte[]> contents, final Consumer<? super R> consumer) {
+		process(contents, this::loadBytes, results -> forEach(results, consumer));
+	}
+
+	/**
+	 * Processes HTML content from readers. Readers are closed after reading.
+	 */
+	public List<R> processReaders(final Stream<? extends Reader> readers) {
+		return process(readers, JerryBatch::loadReader, JerryBatch::collect);
+	}
+
+	/**
+	 * Processes HTML content from readers and passes results to the consumer as
+	 * they are extracted, in no particular order. Consumer must be thread-safe.
+	 * Readers are closed after reading.
+	 */
+	public void processReaders(final Stream<? extends Reader> readers, final Consumer<? super R> consumer) {
+		process(readers, JerryBatch::loadReader, results -> forEach(results, consumer));
+	}
+
+	private static <R> List<R> collect(final Stream<R> results) {
+		return results.collect(Collectors.toList());
+	}
+
+	private static <R> Void forEach(final Stream<R> results, final Consumer<? super R> consumer) {
+		results.forEach(consumer);
+		return null;
+	}
+
+	private int loadFile(final Worker worker, final File file) throws IOException {
+		try (InputStream in = new FileInputStream(file)) {
+			return worker.load(HtmlCharsetSniffer.createReader(in, encoding));
+		}
+	}
+
+	private int loadBytes(final Worker worker, final byte[] bytes) throws IOException {
+		return worker.load(HtmlCharsetSniffer.createReader(new ByteArrayInputStream(bytes), encoding));
+	}
+
+	private static int loadReader(final Worker worker, final Reader reader) throws IOException {
+		try (Reader r = reader) {
+			return worker.load(r);
+		}
+	}
+
+	/**
+	 * Processes documents in the pool. Stream is made parallel, and the
+	 * terminal operation runs inside the pool so all the work stays there.
+	 * Workers are created on demand and released when the batch is done.
+	 */
+	protected <T, A> A process(final Stream<T> documents, final ContentLoader<? super T> loader, final Function<Stream<R>, A> terminal) {
+		final long start = System.nanoTime();
+		final Queue<Worker> workers = new ConcurrentLinkedQueue<>();
+		try {
+			return pool.submit(() ->
+				terminal.apply(documents
+					.parallel()
+					.map(document -> processDocument(workers, document, loader)))
+			).join();
+		}
+		finally {
+			workers.clear();
+			stats.elapsed.add(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Takes an idle worker, or creates a new one, and processes single document.
+	 */
+	protected <T> R processDocument(final Queue<Worker> workers, final T document, final ContentLoader<? super T> loader) {
+		Worker worker = workers.poll();
+		if (worker == null) {
+			worker = new Worker(domBuilderSupplier.get());
+		}
+		try {
+			return processDocument(worker, document, loader);
+		}
+		finally {
+			workers.offer(worker);
+		}
+	}
+
+	/**
+	 * Runs all three stages of a single document on the given worker.
+	 */
+	protected <T> R processDocument(final Worker worker, final T document, final ContentLoader<? super T> loader) {
+		long time = System.nanoTime();
+
+		final int length;
+		try {
+			length = loader.load(worker, document);
+		}
+		catch (IOException ioex) {
+			throw new LagartoException(ioex);
+		}
+		long now = System.nanoTime();
+		stats.load.add(now - time);
+		time = now;
+
+		final Jerry jerry = worker.jerryParser.parse(worker.buffer, length);
+		now = System.nanoTime();
+		stats.parse.add(now - time);
+		time = now;
+
+		final R result = extractor.apply(jerry);
+		stats.extract.add(System.nanoTime() - time);
+
+		stats.documents.increment();
+		stats.chars.add(length);
+		return result;
+	}
+
+	/**
+	 * Loads a document into the worker's buffer and returns the number of loaded characters.
+	 */
+	@FunctionalInterface
+	protected interface ContentLoader<T> {
+		int load(Worker worker, T document) throws IOException;
+	}
+
+	/**
+	 * Worker state, used by one thread at a time.
+	 */
+	protected static class Worker {
+		protected final Jerry.JerryParser jerryParser;
+		protected char[] buffer = new char[64 * 1024];
+
+		protected Worker(final DOMBuilder domBuilder) {
+			this.jerryParser = new Jerry.JerryParser(domBuilder);
+		}
+
+		/**
+		 * Reads all the content into the reused buffer, growing it when needed.
+		 * Returns number of read characters. Buffer is parsed directly,
+		 * as the DOM does not keep references to it.
+		 */
+		protected int load(final Reader reader) throws IOException {
+			int length = 0;
+			while (true) {
+				if (length == buffer.length) {
+					buffer = Arrays.copyOf(buffer, buffer.length << 1);
+				}
+				final int read = reader.read(buffer, length, buffer.length - length);
+				if (read == -1) {
+					return length;
+				}
+				length += read;
+			}
+		}
+	}
+
+	// ---------------------------------------------------------------- stats
+
+	/**
+	 * Batch statistics. Stage times are summed across all worker threads,
+	 * so stage throughput is per single worker, while total throughput
+	 * is measured against the elapsed wall time.
+	 */
+	public static class Stats {
+		protected final LongAdder documents = new LongAdder();
+		protected final LongAdder chars = new LongAdder();
+		protected final LongAdder load = new LongAdder();
+		protected final LongAdder parse = new LongAdder();
+		protected final LongAdder extract = new LongAdder();
+		protected final LongAdder elapsed = new LongAdder();
+
+		/**
+		 * Returns number of processed documents.
+		 */
+		public long getDocuments() {
+			return documents.sum();
+		}
+
+		/**
+		 * Returns total number of processed characters.
+		 */
+		public long getChars() {
+			return chars.sum();
+		}
+
+		/**
+		 * Returns total time of loading stage in nanoseconds.
+		 */
+		public long getLoadTime() {
+			return load.sum();
+		}
+
+		/**
+		 * Returns total time of parsing stage in nanoseconds.
+		 */
+		public long getParseTime() {
+			return parse.sum();
+		}
+
+		/**
+		 * Returns total time of extraction stage in nanoseconds.
+		 */
+		public long getExtractTime() {
+			return extract.sum();
+		}
+
+		/**
+		 * Returns elapsed wall time of all batches in nanoseconds.
+		 */
+		public long getElapsedTime() {
+			return elapsed.sum();
+		}
+
+		/**
+		 * Returns overall throughput in documents per second.
+		 */
+		public double getThroughput() {
+			return perSecond(getDocuments(), getElapsedTime());
+		}
+
+		/**
+		 * Returns overall throughput in characters per second.
+		 */
+		public double getCharThroughput() {
+			return perSecond(getChars(), getElapsedTime());
+		}
+
+		/**
+		 * Returns throughput of loading stage, in documents per second of a single worker.
+		 */
+		public double getLoadThroughput() {
+			return perSecond(getDocuments(), getLoadTime());
+		}
+
+		/**
+		 * Returns throughput of parsing stage, in documents per second of a single worker.
+		 */
+		public double getParseThroughput() {
+			return perSecond(getDocuments(), getParseTime());
+		}
+
+		/**
+		 * Returns throughput of extraction stage, in documents per second of a single worker.
+		 */
+		public double getExtractThroughput() {
+			return perSecond(getDocuments(), getExtractTime());
+		}
+
+		private static double perSecond(final long count, final long nanos) {
+			if (nanos == 0) {
+				return 0;
+			}
+			return count * 1_000_000_000d / nanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+				"documents: %d, chars: %d, docs/s: %.1f (load: %.1f, parse: %.1f, extract: %.1f)",
+				getDocuments(), getChars(), getThroughput(),
+				getLoadThroughput(), getParseThroughput(), getExtractThroughput());
+		}
+	}
+}
@@ -0,0 +1,166 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.lagarto;
+
+import jodd.io.UnicodeInputStream;
+import jodd.util.StringPool;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Detects the encoding of HTML content before it is decoded. Follows the
+ * HTML5 prescan: BOM is checked first, then the first {@link #PRESCAN_SIZE}
+ * bytes are scanned for the {@code meta charset}, {@code meta http-equiv}
+ * or the XML declaration encoding.
+ */
+public class HtmlCharsetSniffer {
+
+	/**
+	 * Number of bytes that are examined for the encoding declaration.
+	 */
+	public static final int PRESCAN_SIZE = 1024;
+
+	private static final Pattern META_CHARSET = Pattern.compile(
+		"<meta[^>]*?charset\\s*=\\s*[\"']?\\s*([a-z0-9_.:\\-]+)");
+	private static final Pattern XML_ENCODING = Pattern.compile(
+		"^\\s*<\\?xml[^>]*?encoding\\s*=\\s*[\"']([a-z0-9_.:\\-]+)");
+
+	/**
+	 * Creates a reader over the stream, using the sniffed encoding or
+	 * the default one, if encoding is not declared.
+	 */
+	public static Reader createReader(final InputStream inputStream, final String defaultEncoding) {
+		final BufferedInputStream in = new BufferedInputStream(inputStream);
+
+		try {
+			final String encoding = sniff(in, defaultEncoding);
+			return new InputStreamReader(in, encoding);
+		} catch (UnsupportedEncodingException ueex) {
+			throw new LagartoException(ueex);
+		}
+	}
+
+	/**
+	 * Sniffs the encoding of the stream. Stream is reset to the beginning
+	 * of the content, only the BOM bytes are skipped. Returns
+	 * the default encoding if nothing is detected.
+	 */
+	public static String sniff(final BufferedInputStream in, final String defaultEncoding) {
+		final byte[] prescan = new byte[PRESCAN_SIZE];
+		int size = 0;
+
+		try {
+			in.mark(PRESCAN_SIZE);
+
+			while (size < PRESCAN_SIZE) {
+				final int read = in.read(prescan, size, PRESCAN_SIZE - size);
+				if (read == -1) {
+					break;
+				}
+				size += read;
+			}
+
+			in.reset();
+
+			if (startsWith(prescan, size, UnicodeInputStream.BOM_UTF8)) {
+				skip(in, UnicodeInputStream.BOM_UTF8.length);
+				return StringPool.UTF_8;
+			}
+			if (startsWith(prescan, size, UnicodeInputStream.BOM_UTF16_BE)) {
+				skip(in, UnicodeInputStream.BOM_UTF16_BE.length);
+				return "UTF-16BE";
+			}
+			if (startsWith(prescan, size, UnicodeInputStream.BOM_UTF16_LE)) {
+				skip(in, UnicodeInputStream.BOM_UTF16_LE.length);
+				return "UTF-16LE";
+			}
+		} catch (IOException ioex) {
+			throw new LagartoException(ioex);
+		}
+
+		final String encoding = sniff(new String(prescan, 0, size, StandardCharsets.ISO_8859_1));
+
+		return encoding != null ? encoding : defaultEncoding;
+	}
+
+	/**
+	 * Sniffs the encoding declaration from the beginning of the content.
+	 * Returns {@code null} if no supported encoding is declared.
+	 */
+	public static String sniff(final String prescan) {
+		final String content = prescan.toLowerCase(Locale.ENGLISH);
+
+		Matcher matcher = XML_ENCODING.matcher(content);
+		if (!matcher.find()) {
+			matcher = META_CHARSET.matcher(content);
+			if (!matcher.find()) {
+				return null;
+			}
+		}
+
+		final String encoding = matcher.group(1);
+
+		if (encoding.startsWith("utf-16")) {
+			// content that is readable as ASCII can't be in UTF-16
+			return StringPool.UTF_8;
+		}
+
+		try {
+			if (Charset.isSupported(encoding)) {
+				return encoding;
+			}
+		} catch (IllegalArgumentException ignore) {
+		}
+		return null;
+	}
+
+	private static boolean startsWith(final byte[] bytes, final int size, final byte[] bom) {
+		if (size < bom.length) {
+			return false;
+		}
+		for (int i = 0; i < bom.length; i++) {
+			if (bytes[i] != bom[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void skip(final InputStream in, final int count) throws IOException {
+		for (int i = 0; i < count; i++) {
+			in.read();
+		}
+	}
+}
@@ -0,0 +1,151 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.lagarto;
+
+/**
+ * Table of pre-interned common HTML tag and attribute names.
+ * Parser uses it to emit shared {@code String} instances for
+ * well-known names instead of allocating a new sequence for each
+ * occurrence. Lookup is case-sensitive and does not allocate.
+ */
+public class HtmlNameTable {
+
+	private static final String[] NAMES = new String[] {
+		// tags
+		"a", "abbr", "address", "area", "article", "aside", "audio",
+		"b", "base", "blockquote", "body", "br", "button",
+		"canvas", "caption", "cite", "code", "col", "colgroup",
+		"dd", "del", "details", "div", "dl", "dt",
+		"em", "embed", "fieldset", "figcaption", "figure", "footer", "form",
+		"h1", "h2", "h3", "h4", "h5", "h6", "head", "header", "hr", "html",
+		"i", "iframe", "img", "input", "ins",
+		"label", "legend", "li", "link",
+		"main", "meta", "nav", "noscript",
+		"object", "ol", "optgroup", "option",
+		"p", "param", "path", "picture", "pre",
+		"q", "s", "script", "section", "select", "small", "source", "span", "strong", "style", "sub", "summary", "sup", "svg",
+		"table", "tbody", "td", "template", "textarea", "tfoot", "th", "thead", "time", "title", "tr",
+		"u", "ul", "video", "wbr",
+		// attributes
+		"accept", "action", "align", "alt", "aria-hidden", "aria-label", "async", "autocomplete",
+		"border", "cellpadding", "cellspacing", "charset", "checked", "class", "cols", "colspan", "content", "crossorigin",
+		"data", "datetime", "defer", "dir", "disabled", "enctype",
+		"for", "height", "hidden", "href", "hreflang", "http-equiv",
+		"id", "integrity", "itemprop", "lang", "loading",
+		"max", "maxlength", "media", "method", "min", "multiple",
+		"name", "onclick", "onload", "placeholder", "property",
+		"readonly", "rel", "required", "role", "rows", "rowspan",
+		"selected", "size", "sizes", "src", "srcset", "tabindex", "target", "type",
+		"valign", "value", "width", "xmlns",
+	};
+
+	private static final int MASK = 511;
+	private static final String[] TABLE = new String[MASK + 1];
+
+	static {
+		for (final String name : NAMES) {
+			int index = hash(name) & MASK;
+			while (TABLE[index] != null) {
+				if (TABLE[index].equals(name)) {
+					break;
+				}
+				index = (index + 1) & MASK;
+			}
+			TABLE[index] = name;
+		}
+	}
+
+	private static int hash(final CharSequence name) {
+		int h = 0;
+		for (int i = 0; i < name.length(); i++) {
+			h = 31 * h + name.charAt(i);
+		}
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Returns interned name that matches the content of given
+	 * char array range or {@code null} if the name is not common.
+	 */
+	public static String lookup(final char[] input, final int from, final int to) {
+		final int len = to - from;
+		if (len == 0) {
+			return null;
+		}
+
+		int h = 0;
+		for (int i = from; i < to; i++) {
+			h = 31 * h + input[i];
+		}
+
+		int index = (h ^ (h >>> 16)) & MASK;
+
+		while (true) {
+			final String name = TABLE[index];
+			if (name == null) {
+				return null;
+			}
+			if (matches(name, input, from, len)) {
+				return name;
+			}
+			index = (index + 1) & MASK;
+		}
+	}
+
+	/**
+	 * Returns interned name equal to given char sequence or
+	 * the sequence converted to a string, if the name is not common.
+	 */
+	public static String intern(final CharSequence charSequence) {
+		if (charSequence instanceof String) {
+			return (String) charSequence;
+		}
+
+		int index = hash(charSequence) & MASK;
+
+		while (true) {
+			final String name = TABLE[index];
+			if (name == null) {
+				return charSequence.toString();
+			}
+			if (name.contentEquals(charSequence)) {
+				return name;
+			}
+			index = (index + 1) & MASK;
+		}
+	}
+
+	private static boolean matches(final String name, final char[] input, final int from, final int len) {
+		if (name.length() != len) {
+			return false;
+		}
+		for (int i = 0; i < len; i++) {
+			if (name.charAt(i) != input[from + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
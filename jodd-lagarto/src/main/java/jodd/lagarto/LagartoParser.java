@@ -32,6 +32,9 @@ import jodd.util.CharUtil;
 import jodd.util.StringPool;
 import jodd.util.UnsafeUtil;
 
+import java.io.InputStream;
+import java.io.Reader;
+
 import static jodd.util.CharUtil.equalsOne;
 import static jodd.util.CharUtil.isAlpha;
 import static jodd.util.CharUtil.isDigit;
@@ -60,6 +63,13 @@ import static jodd.util.CharUtil.isDigit;
  * gives excellent performances. However, if you need more <code>Strings</code>
  * than enable it, and all text will be strings. This is faster
  * then first converting to char buffer and then to strings.
+ *
+ * <p>
+ * Parser may also consume a {@link Reader} (or an {@link InputStream}) through
+ * the sliding window buffer. Content is read as parsing goes and callbacks
+ * are emitted incrementally, so visitor-only pipelines run in bounded memory.
+ * In that mode, all char sequences passed to the visitor are valid only
+ * during the callback, and tag positions are offsets in the whole stream.
  */
 public class LagartoParser extends Scanner {
 
@@ -68,6 +78,11 @@ public class LagartoParser extends Scanner {
 	protected ParsedDoctype doctype;
 	protected long parsingTime;
 
+	/**
+	 * Default size of the streaming window.
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 64 * 1024;
+
 	/**
 	 * Creates parser on char array.
 	 */
@@ -75,6 +90,18 @@ public class LagartoParser extends Scanner {
 		initialize(charArray);
 	}
 
+	/**
+	 * Creates parser on the first <code>length</code> characters of the char array.
+	 * Array is not copied, so it may be a reused buffer.
+	 */
+	public LagartoParser(final char[] charArray, final int length) {
+		if (length < 0 || length > charArray.length) {
+			throw new IndexOutOfBoundsException("Invalid length: " + length);
+		}
+		initialize(charArray);
+		this.total = length;
+	}
+
 	/**
 	 * Creates parser on a String.
 	 */
@@ -82,6 +109,32 @@ public class LagartoParser extends Scanner {
 		initialize(UnsafeUtil.getChars(string));
 	}
 
+	/**
+	 * Creates streaming parser over a reader, using the default window size.
+	 * Reader is not closed by the parser.
+	 */
+	public LagartoParser(final Reader reader) {
+		this(reader, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Creates streaming parser over a reader, using the window of given size.
+	 * Reader is not closed by the parser.
+	 */
+	public LagartoParser(final Reader reader, final int windowSize) {
+		initialize(reader, windowSize);
+	}
+
+	/**
+	 * Creates streaming parser over an input stream. Encoding is
+	 * {@link HtmlCharsetSniffer sniffed} from the BOM or the meta tags;
+	 * when not found, the default encoding is used.
+	 * Stream is not closed by the parser.
+	 */
+	public LagartoParser(final InputStream inputStream, final String defaultEncoding) {
+		this(HtmlCharsetSniffer.createReader(inputStream, defaultEncoding));
+	}
+
 	/**
 	 * Initializes parser.
 	 */
@@ -170,6 +223,9 @@ public class LagartoParser extends Scanner {
 
 				if (c == '<') {
 					emitText();
+					if (ndx > input.length >> 1) {
+						compact(ndx, config.calculatePosition);
+					}
 					state = TAG_OPEN;
 					return;
 				}
@@ -225,7 +281,9 @@ public class LagartoParser extends Scanner {
 		if (c == '#') {
 			_consumeNumber(unconsumeNdx);
 		} else {
-			final String name = HtmlDecoder.detectName(input, ndx);
+			available(ndx + HtmlDecoder.maxNameLength());
+
+			final String name = HtmlDecoder.detectName(input, ndx, total);
 
 			if (name == null) {
 				// this error is not quite as by the spec. The spec says that
@@ -266,7 +324,9 @@ public class LagartoParser extends Scanner {
 		if (c == '#') {
 			_consumeNumber(unconsumeNdx);
 		} else {
-			final String name = HtmlDecoder.detectName(input, ndx);
+			available(ndx + HtmlDecoder.maxNameLength());
+
+			final String name = HtmlDecoder.detectName(input, ndx, total);
 
 			if (name == null) {
 				// this error is not quite as by the spec. The spec says that
@@ -435,7 +495,7 @@ public class LagartoParser extends Scanner {
 	protected State TAG_OPEN = new State() {
 		@Override
 		public void parse() {
-			tag.start(ndx);
+			tag.start(windowOffset + ndx);
 
 			ndx++;
 
@@ -526,19 +586,19 @@ public class LagartoParser extends Scanner {
 
 				if (equalsOne(c, TAG_WHITESPACES)) {
 					state = BEFORE_ATTRIBUTE_NAME;
-					tag.setName(charSequence(nameNdx, ndx));
+					tag.setName(nameSequence(nameNdx, ndx));
 					break;
 				}
 
 				if (c == '/') {
 					state = SELF_CLOSING_START_TAG;
-					tag.setName(charSequence(nameNdx, ndx));
+					tag.setName(nameSequence(nameNdx, ndx));
 					break;
 				}
 
 				if (c == '>') {
 					state = DATA_STATE;
-					tag.setName(charSequence(nameNdx, ndx));
+					tag.setName(nameSequence(nameNdx, ndx));
 					emitTag();
 					break;
 				}
@@ -729,6 +789,7 @@ public class LagartoParser extends Scanner {
 		@Override
 		public void parse() {
 			textStart();
+			attrValueStartNdx = ndx;
 			textEmitChar(input[ndx]);
 
 			while (true) {
@@ -773,6 +834,7 @@ public class LagartoParser extends Scanner {
 		@Override
 		public void parse() {
 			textStart();
+			attrValueStartNdx = ndx + 1;
 
 			while (true) {
 				ndx++;
@@ -804,6 +866,7 @@ public class LagartoParser extends Scanner {
 		@Override
 		public void parse() {
 			textStart();
+			attrValueStartNdx = ndx + 1;
 			while (true) {
 				ndx++;
 
@@ -1086,8 +1149,8 @@ public class LagartoParser extends Scanner {
 						emitText();
 
 						state = BEFORE_ATTRIBUTE_NAME;
-						tag.start(rawTextEnd);
-						tag.setName(charSequence(rawtextEndTagNameStartNdx, ndx));
+						tag.start(windowOffset + rawTextEnd);
+						tag.setName(nameSequence(rawtextEndTagNameStartNdx, ndx));
 						tag.setType(TagType.END);
 					} else {
 						state = RAWTEXT;
@@ -1101,8 +1164,8 @@ public class LagartoParser extends Scanner {
 						emitText();
 
 						state = SELF_CLOSING_START_TAG;
-						tag.start(rawTextEnd);
-						tag.setName(charSequence(rawtextEndTagNameStartNdx, ndx));
+						tag.start(windowOffset + rawTextEnd);
+						tag.setName(nameSequence(rawtextEndTagNameStartNdx, ndx));
 						tag.setType(TagType.SELF_CLOSING);
 					} else {
 						state = RAWTEXT;
@@ -1116,10 +1179,10 @@ public class LagartoParser extends Scanner {
 						emitText();
 
 						state = DATA_STATE;
-						tag.start(rawTextEnd);
-						tag.setName(charSequence(rawtextEndTagNameStartNdx, ndx));
+						tag.start(windowOffset + rawTextEnd);
+						tag.setName(nameSequence(rawtextEndTagNameStartNdx, ndx));
 						tag.setType(TagType.END);
-						tag.end(ndx);
+						tag.end(windowOffset + ndx);
 						emitTag();
 					} else {
 						state = RAWTEXT;
@@ -1237,8 +1300,8 @@ public class LagartoParser extends Scanner {
 						emitText();
 
 						state = BEFORE_ATTRIBUTE_NAME;
-						tag.start(rcdataTagStart);
-						tag.setName(charSequence(rcdataEndTagNameStartNdx, ndx));
+						tag.start(windowOffset + rcdataTagStart);
+						tag.setName(nameSequence(rcdataEndTagNameStartNdx, ndx));
 						tag.setType(TagType.END);
 					} else {
 						state = RCDATA;
@@ -1251,8 +1314,8 @@ public class LagartoParser extends Scanner {
 						emitText();
 
 						state = SELF_CLOSING_START_TAG;
-						tag.start(rcdataTagStart);
-						tag.setName(charSequence(rcdataEndTagNameStartNdx, ndx));
+						tag.start(windowOffset + rcdataTagStart);
+						tag.setName(nameSequence(rcdataEndTagNameStartNdx, ndx));
 						tag.setType(TagType.SELF_CLOSING);
 					} else {
 						state = RCDATA;
@@ -1265,10 +1328,10 @@ public class LagartoParser extends Scanner {
 						emitText();
 
 						state = DATA_STATE;
-						tag.start(rcdataTagStart);
-						tag.setName(charSequence(rcdataEndTagNameStartNdx, ndx));
+						tag.start(windowOffset + rcdataTagStart);
+						tag.setName(nameSequence(rcdataEndTagNameStartNdx, ndx));
 						tag.setType(TagType.END);
-						tag.end(ndx);
+						tag.end(windowOffset + ndx);
 						emitTag();
 					} else {
 						state = RCDATA;
@@ -2894,12 +2957,27 @@ public class LagartoParser extends Scanner {
 	protected int attrStartNdx = -1;
 	protected int attrEndNdx = -1;
 
+	protected int attrValueStartNdx = -1;
+
 	private void _addAttribute() {
-		_addAttribute(charSequence(attrStartNdx, attrEndNdx), null);
+		_addAttribute(nameSequence(attrStartNdx, attrEndNdx), null);
 	}
 
+	/**
+	 * Adds attribute with the value. Decoded character reference always
+	 * shortens the value, so when the length of the text matches the
+	 * length of the input range, the value is passed as a view into the input.
+	 */
 	private void _addAttributeWithValue() {
-		_addAttribute(charSequence(attrStartNdx, attrEndNdx), textWrap().toString());
+		final CharSequence value;
+
+		if (textLen == ndx - attrValueStartNdx) {
+			value = charSequence(attrValueStartNdx, ndx);
+		} else {
+			value = textWrap();
+		}
+
+		_addAttribute(nameSequence(attrStartNdx, attrEndNdx), value);
 	}
 
 	private void _addAttribute(final CharSequence attrName, final CharSequence attrValue) {
@@ -2919,10 +2997,10 @@ public class LagartoParser extends Scanner {
 	}
 
 	protected void emitTag() {
-		tag.end(ndx + 1);
+		tag.end(windowOffset + ndx + 1);
 
 		if (config.calculatePosition) {
-			tag.setPosition(position(tag.getTagPosition()));
+			tag.setPosition(position(tag.getTagPosition() - windowOffset));
 		}
 
 		if (tag.getType().isStartingTag()) {
@@ -3089,7 +3167,7 @@ public class LagartoParser extends Scanner {
 		} else {
 			message = message
 					.concat(" [@")
-					.concat(Integer.toString(ndx))
+					.concat(Integer.toString(windowOffset + ndx))
 					.concat(StringPool.RIGHT_SQ_BRACKET);
 		}
 
@@ -33,6 +33,10 @@ import java.io.IOException;
 
 /**
  * Reusable, parsed {@link Tag tag} implementation.
+ * Tag name, attribute names and attribute values without character
+ * references are not copied: they are either {@link HtmlNameTable shared}
+ * strings or views into the parser input. Strings are materialized only
+ * when visitor calls {@code toString()}.
  */
 class ParsedTag implements Tag {
 
@@ -167,7 +171,7 @@ class ParsedTag implements Tag {
 	public CharSequence getAttributeValue(final CharSequence name) {
 		for (int i = 0; i < attributesCount; i++) {
 			final CharSequence current = attrNames[i];
-			if (caseSensitive ? current.equals(name) : CharSequenceUtil.equalsIgnoreCase(current, name)) {
+			if (caseSensitive ? CharSequenceUtil.equals(current, name) : CharSequenceUtil.equalsIgnoreCase(current, name)) {
 				return attrValues[i];
 			}
 		}
@@ -178,7 +182,7 @@ class ParsedTag implements Tag {
 	public int getAttributeIndex(final CharSequence name) {
 		for (int i = 0; i < attributesCount; i++) {
 			final CharSequence current = attrNames[i];
-			if (caseSensitive ? current.equals(name) : CharSequenceUtil.equalsIgnoreCase(current, name)) {
+			if (caseSensitive ? CharSequenceUtil.equals(current, name) : CharSequenceUtil.equalsIgnoreCase(current, name)) {
 				return i;
 			}
 		}
@@ -28,8 +28,15 @@ package jodd.lagarto;
 import jodd.util.CharArraySequence;
 import jodd.util.CharUtil;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
 /**
- * Utility scanner over a char buffer.
+ * Utility scanner over a char buffer. The buffer may hold the whole input
+ * or just a sliding window over the {@link Reader}. In the later case
+ * the window is refilled when scanner reaches its end, and the content
+ * that is not needed anymore is {@link #compact(int, boolean) discarded}.
  */
 class Scanner {
 
@@ -37,6 +44,16 @@ class Scanner {
 	protected int ndx = 0;
 	protected int total;
 
+	/**
+	 * Streaming source, {@code null} when the whole input is in the buffer
+	 * or when the reader is exhausted.
+	 */
+	protected Reader reader;
+	/**
+	 * Number of characters discarded from the beginning of the input.
+	 */
+	protected int windowOffset;
+
 	Scanner() { }
 
 	/**
@@ -48,36 +65,122 @@ class Scanner {
 		this.total = input.length;
 	}
 
+	/**
+	 * Initializes streaming scanner over the reader, using the buffer
+	 * of given initial size. Buffer grows only when a single token
+	 * does not fit into it.
+	 */
+	protected void initialize(final Reader reader, final int bufferSize) {
+		initialize(new char[bufferSize]);
+		this.total = 0;
+		this.reader = reader;
+		this.windowOffset = 0;
+	}
+
+	// ---------------------------------------------------------------- window
+
+	/**
+	 * Reads more characters from the reader into the buffer. Buffer is enlarged
+	 * if there is no more space left. Returns {@code false} if there is no
+	 * more input.
+	 */
+	protected final boolean fill() {
+		if (reader == null) {
+			return false;
+		}
+		if (total == input.length) {
+			input = Arrays.copyOf(input, input.length << 1);
+		}
+
+		final int read;
+		try {
+			read = reader.read(input, total, input.length - total);
+		} catch (IOException ioex) {
+			throw new LagartoException(ioex);
+		}
+
+		if (read == -1) {
+			reader = null;
+			return false;
+		}
+
+		total += read;
+		return true;
+	}
+
+	/**
+	 * Returns {@code true} if the character at given index is available,
+	 * reading more content if needed.
+	 */
+	protected final boolean available(final int index) {
+		while (index >= total) {
+			if (!fill()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Discards the content before given index. All indexes are shifted, so
+	 * caller must not hold any index into the buffer. Does nothing when
+	 * the whole input is in the buffer.
+	 */
+	protected final void compact(final int from, final boolean trackPosition) {
+		if (reader == null || from <= 0) {
+			return;
+		}
+		if (trackPosition) {
+			position(from);
+		}
+
+		System.arraycopy(input, from, input, 0, total - from);
+
+		total -= from;
+		ndx -= from;
+		windowOffset += from;
+		lastOffset -= from;
+		lastLastNewLineOffset -= from;
+	}
+
 	// ---------------------------------------------------------------- find
 
 	/**
 	 * Finds a character in some range and returns its index.
 	 * Returns <code>-1</code> if character is not found.
 	 */
-	protected final int find(final char target, int from, final int end) {
-		while (from < end) {
-			if (input[from] == target) {
-				break;
+	protected final int find(final char target, int from, int end) {
+		while (true) {
+			while (from < end) {
+				if (input[from] == target) {
+					return from;
+				}
+				from++;
 			}
-			from++;
+			if (end != total || !fill()) {
+				return -1;
+			}
+			end = total;
 		}
-
-		return (from == end) ? -1 : from;
 	}
 
 	/**
 	 * Finds character buffer in some range and returns its index.
 	 * Returns <code>-1</code> if character is not found.
 	 */
-	protected final int find(final char[] target, int from, final int end) {
-		while (from < end) {
-			if (match(target, from)) {
-				break;
+	protected final int find(final char[] target, int from, int end) {
+		while (true) {
+			while (from < end) {
+				if (match(target, from)) {
+					return from;
+				}
+				from++;
+			}
+			if (end != total || !fill()) {
+				return -1;
 			}
-			from++;
+			end = total;
 		}
-
-		return (from == end) ? -1 : from;
 	}
 
 	// ---------------------------------------------------------------- match
@@ -86,7 +189,7 @@ class Scanner {
 	 * Matches char buffer with content on given location.
 	 */
 	protected final boolean match(final char[] target, final int ndx) {
-		if (ndx + target.length >= total) {
+		if (!available(ndx + target.length)) {
 			return false;
 		}
 
@@ -113,7 +216,7 @@ class Scanner {
 	 * be converted to upper case to make case-insensitive matching.
 	 */
 	public final boolean matchUpperCase(final char[] uppercaseTarget) {
-		if (ndx + uppercaseTarget.length > total) {
+		if (!available(ndx + uppercaseTarget.length - 1)) {
 			return false;
 		}
 
@@ -142,17 +245,31 @@ class Scanner {
 		return CharArraySequence.of(input, from, to - from);
 	}
 
+	/**
+	 * Creates char sequence of a tag or attribute name. Common names
+	 * are returned as {@link HtmlNameTable shared strings}, others
+	 * are returned as views into the input.
+	 */
+	protected final CharSequence nameSequence(final int from, final int to) {
+		final String name = HtmlNameTable.lookup(input, from, to);
+		if (name != null) {
+			return name;
+		}
+		return charSequence(from, to);
+	}
+
 	// ---------------------------------------------------------------- position
 
-	private int lastOffset = -1;
-	private int lastLine;
+	private int lastOffset = 0;
+	private int lastLine = 1;
 	private int lastLastNewLineOffset;
 
 	/**
-	 * Returns <code>true</code> if EOF.
+	 * Returns <code>true</code> if EOF. In streaming mode, more
+	 * content is read when the end of buffer is reached.
 	 */
 	protected final boolean isEOF() {
-		return ndx >= total;
+		return ndx >= total && !available(ndx);
 	}
 
 	/**
@@ -163,7 +280,7 @@ class Scanner {
 		int offset;
 		int lastNewLineOffset;
 
-		if (position > lastOffset) {
+		if (position < lastOffset) {
 			line = 1;
 			offset = 0;
 			lastNewLineOffset = 0;
@@ -188,7 +305,7 @@ class Scanner {
 		lastLine = line;
 		lastLastNewLineOffset = lastNewLineOffset;
 
-		return new Position(position, line, position - lastNewLineOffset + 1);
+		return new Position(windowOffset + position, line, position - lastNewLineOffset + 1);
 	}
 
 	/**
@@ -36,6 +36,7 @@ public class Attribute implements Cloneable {
 	protected final String name;
 	protected String value;
 	protected String[] splits;
+	Node owner;
 
 	public Attribute(final String rawName, final String name, final String value) {
 		this.rawName = rawName;
@@ -70,10 +71,15 @@ public class Attribute implements Cloneable {
 	}
 
 	/**
-	 * Sets attribute value.
+	 * Sets attribute value. Element index of the owner document
+	 * is dropped when indexed attribute is changed.
 	 */
 	public void setValue(final String value) {
 		this.value = value;
+		this.splits = null;
+		if (owner != null) {
+			owner.resetDocumentIndex(name);
+		}
 	}
 
 	// ---------------------------------------------------------------- splits
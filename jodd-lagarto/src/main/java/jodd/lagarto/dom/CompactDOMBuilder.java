@@ -0,0 +1,83 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.lagarto.dom;
+
+import jodd.lagarto.LagartoParser;
+
+/**
+ * DOM builder that keeps parsed content in a {@link CompactDocument}.
+ * Returned {@link Document documents} are read-only
+ * {@link CompactDocument#view() views}, suitable for scraping:
+ * the whole tree is a handful of arrays, and node objects are
+ * created only when queries reach them. Configuration and modes
+ * are the same as for {@link LagartoDOMBuilder}.
+ * <p>
+ * Foster rules (<i>html-plus</i> mode) move nodes around the tree, so
+ * in that mode the regular DOM tree is built first and then compacted.
+ */
+public class CompactDOMBuilder extends LagartoDOMBuilder {
+
+	/**
+	 * Creates {@link CompactDocument} from provided content.
+	 */
+	public CompactDocument parseCompact(final char[] content) {
+		return doParseCompact(new LagartoParser(content));
+	}
+
+	/**
+	 * Creates {@link CompactDocument} from provided content.
+	 */
+	public CompactDocument parseCompact(final String content) {
+		return doParseCompact(new LagartoParser(content));
+	}
+
+	/**
+	 * Parses the content into the compact document.
+	 */
+	protected CompactDocument doParseCompact(final LagartoParser lagartoParser) {
+		if (config.isUseFosterRules()) {
+			return CompactDocument.of(super.doParse(lagartoParser));
+		}
+
+		lagartoParser.setConfig(config);
+
+		CompactDOMBuilderTagVisitor domBuilderTagVisitor =
+				new CompactDOMBuilderTagVisitor(this);
+
+		lagartoParser.parse(domBuilderTagVisitor);
+
+		return domBuilderTagVisitor.getDocument();
+	}
+
+	/**
+	 * Returns read-only view of the compact document.
+	 */
+	@Override
+	protected Document doParse(final LagartoParser lagartoParser) {
+		return doParseCompact(lagartoParser).view();
+	}
+}
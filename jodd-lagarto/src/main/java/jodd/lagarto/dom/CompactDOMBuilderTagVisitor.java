@@ -0,0 +1,177 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.lagarto.dom;
+
+import jodd.lagarto.Doctype;
+import jodd.lagarto.Tag;
+import jodd.log.Logger;
+import jodd.log.LoggerFactory;
+import jodd.util.Util;
+
+/**
+ * Lagarto tag visitor that builds {@link CompactDocument}. Follows the
+ * same tree building rules as {@link LagartoDOMBuilderTagVisitor}, except
+ * the foster rules, which are not supported. Nodes are addressed by
+ * their index in the compact document.
+ */
+public class CompactDOMBuilderTagVisitor extends DOMBuilderTagVisitorBase<Integer> {
+
+	private static final Logger log = LoggerFactory.getLogger(CompactDOMBuilderTagVisitor.class);
+
+	protected CompactDocument document;
+
+	public CompactDOMBuilderTagVisitor(final LagartoDOMBuilder domBuilder) {
+		super(domBuilder, log);
+	}
+
+	/**
+	 * Returns built {@link CompactDocument}.
+	 */
+	public CompactDocument getDocument() {
+		return document;
+	}
+
+	// ---------------------------------------------------------------- start/end
+
+	@Override
+	protected Integer startDocument() {
+		if (document == null) {
+			document = new CompactDocument(domBuilder.config);
+		}
+		return 0;
+	}
+
+	@Override
+	protected void endDocument() {
+		document.end();
+
+		if (log.isDebugEnabled()) {
+			log.debug("Compact LagartoDom tree created in " + document.getElapsedTime() + " ms");
+		}
+	}
+
+	// ---------------------------------------------------------------- nodes
+
+	@Override
+	protected Integer createElement(final Tag tag, final boolean isVoid, final boolean selfClosed) {
+		final int node = document.createElement(Util.toString(tag.getName()), isVoid, selfClosed, tag.isRawTag());
+
+		final int attrCount = tag.getAttributeCount();
+		for (int i = 0; i < attrCount; i++) {
+			document.addAttribute(node, Util.toString(tag.getAttributeName(i)), tag.getAttributeValue(i));
+		}
+		return node;
+	}
+
+	@Override
+	protected Integer createText(final CharSequence text) {
+		return document.createValueNode(Node.NodeType.TEXT, text);
+	}
+
+	@Override
+	protected Integer createComment(final CharSequence comment) {
+		return document.createValueNode(Node.NodeType.COMMENT, comment);
+	}
+
+	@Override
+	protected Integer createCData(final CharSequence cdata) {
+		return document.createValueNode(Node.NodeType.CDATA, cdata);
+	}
+
+	@Override
+	protected Integer createXmlDeclaration(final CharSequence version, final CharSequence encoding, final CharSequence standalone) {
+		return document.createXmlDeclaration(
+				Util.toString(version), Util.toString(encoding), Util.toString(standalone));
+	}
+
+	@Override
+	protected Integer createDocumentType(final Doctype doctype) {
+		return document.createDocumentType(
+				Util.toString(doctype.getName()),
+				Util.toString(doctype.getPublicIdentifier()),
+				Util.toString(doctype.getSystemIdentifier()));
+	}
+
+	// ---------------------------------------------------------------- tree
+
+	@Override
+	protected boolean isSameNode(final Integer node1, final Integer node2) {
+		if (node1 == null || node2 == null) {
+			return node1 == node2;
+		}
+		return node1.intValue() == node2.intValue();
+	}
+
+	@Override
+	protected String getNodeName(final Integer node) {
+		return document.getNodeName(node);
+	}
+
+	@Override
+	protected Integer getParentNode(final Integer node) {
+		final int parent = document.getParentNode(node);
+		return parent == -1 ? null : parent;
+	}
+
+	@Override
+	protected Integer getLastChild(final Integer parent) {
+		final int lastChild = document.getLastChild(parent);
+		return lastChild == -1 ? null : lastChild;
+	}
+
+	@Override
+	protected Integer getFirstChild(final Integer parent) {
+		final int firstChild = document.getFirstChild(parent);
+		return firstChild == -1 ? null : firstChild;
+	}
+
+	@Override
+	protected boolean isVoidElement(final Integer node) {
+		return (document.nodeFlags[node] & CompactDocument.FLAG_VOID) != 0;
+	}
+
+	@Override
+	protected boolean isBlankText(final Integer node) {
+		return document.getNodeType(node) == Node.NodeType.TEXT && document.isBlank(node);
+	}
+
+	@Override
+	protected void appendChild(final Integer parent, final Integer child) {
+		document.appendChild(parent, child);
+	}
+
+	@Override
+	protected void detachFromParent(final Integer node) {
+		document.detach(node);
+	}
+
+	@Override
+	protected void addError(final String message) {
+		document.addError(message);
+	}
+
+}
@@ -0,0 +1,970 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.lagarto.dom;
+
+import jodd.buffer.FastIntBuffer;
+import jodd.util.CharUtil;
+import jodd.util.StringUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Compact, array-backed document for read-only workloads. Nodes are
+ * <code>int</code> indexes into parallel arrays, while text, comment
+ * and attribute values are stored as offsets into a single buffer,
+ * one byte per character while the content is latin1. Node names are
+ * shared between nodes. The document node has
+ * index <code>0</code>; missing nodes are addressed with <code>-1</code>.
+ * <p>
+ * Document may be queried directly, using node indexes, or through the
+ * {@link #view() view}: a read-only {@link Document} whose nodes are
+ * created lazily, when reached, so {@link NodeSelector} and Jerry work
+ * as with any other DOM tree.
+ */
+public class CompactDocument {
+
+	static final byte FLAG_VOID = 1;
+	static final byte FLAG_SELF_CLOSED = 2;
+	static final byte FLAG_RAW = 4;
+
+	private static final Node.NodeType[] NODE_TYPES = Node.NodeType.values();
+
+	protected final LagartoDomBuilderConfig config;
+	protected final Map<String, String> names = new HashMap<>();
+	protected List<String> errors;
+	protected long elapsedTime;
+
+	// nodes
+
+	protected int nodesCount;
+	protected byte[] nodeTypes;
+	protected byte[] nodeFlags;
+	protected String[] nodeRawNames;
+	protected String[] nodeNames;
+	protected int[] parents;
+	protected int[] firstChilds;
+	protected int[] lastChilds;
+	protected int[] nextSiblings;
+	protected int[] prevSiblings;
+	protected int[] valueStarts;		// chars offset; attributes offset of elements; extras index of others
+	protected int[] valueEnds;
+
+	// attributes
+
+	protected int attributesCount;
+	protected String[] attrRawNames;
+	protected String[] attrNames;
+	protected int[] attrValueStarts;
+	protected int[] attrValueEnds;
+
+	// values
+
+	protected byte[] latin1;		// used until the first non-latin1 character
+	protected char[] chars;
+	protected int charsCount;
+	protected List<String[]> extras;
+
+	public CompactDocument(final LagartoDomBuilderConfig config) {
+		this.config = config;
+		this.elapsedTime = System.currentTimeMillis();
+
+		nodeTypes = new byte[64];
+		nodeFlags = new byte[64];
+		nodeRawNames = new String[64];
+		nodeNames = new String[64];
+		parents = new int[64];
+		firstChilds = new int[64];
+		lastChilds = new int[64];
+		nextSiblings = new int[64];
+		prevSiblings = new int[64];
+		valueStarts = new int[64];
+		valueEnds = new int[64];
+
+		attrRawNames = new String[64];
+		attrNames = new String[64];
+		attrValueStarts = new int[64];
+		attrValueEnds = new int[64];
+
+		latin1 = new byte[1024];
+
+		createNode(Node.NodeType.DOCUMENT, null);
+	}
+
+	/**
+	 * Creates compact copy of the existing DOM tree.
+	 */
+	public static CompactDocument of(final Document document) {
+		final CompactDocument compact = new CompactDocument(document.getConfig());
+
+		final ArrayDeque<Node> nodes = new ArrayDeque<>();
+		final ArrayDeque<Integer> parents = new ArrayDeque<>();
+		for (int i = document.getChildNodesCount() - 1; i >= 0; i--) {
+			nodes.push(document.getChild(i));
+			parents.push(0);
+		}
+
+		while (!nodes.isEmpty()) {
+			final Node node = nodes.pop();
+			final int parent = parents.pop();
+
+			final int id;
+			switch (node.getNodeType()) {
+				case ELEMENT:
+					final Element element = (Element) node;
+					id = compact.createElement(element.getNodeRawName(),
+						element.isVoidElement(), element.isSelfClosed(), element.isRawTag());
+					for (int i = 0; i < element.getAttributesCount(); i++) {
+						final Attribute attribute = element.getAttribute(i);
+						compact.addAttribute(id, attribute.getRawName(), attribute.getValue());
+					}
+					break;
+				case DOCUMENT_TYPE:
+					final DocumentType documentType = (DocumentType) node;
+					id = compact.createDocumentType(documentType.getRootName(),
+						documentType.getPublicIdentifier(), documentType.getSystemIdentifier());
+					break;
+				case XML_DECLARATION:
+					final XmlDeclaration xml = (XmlDeclaration) node;
+					id = compact.createXmlDeclaration(xml.getVersion(), xml.getEncoding(), xml.getStandalone());
+					break;
+				default:
+					id = compact.createValueNode(node.getNodeType(), node.getNodeValue());
+			}
+			compact.appendChild(parent, id);
+
+			for (int i = node.getChildNodesCount() - 1; i >= 0; i--) {
+				nodes.push(node.getChild(i));
+				parents.push(id);
+			}
+		}
+
+		compact.errors = document.getErrors();
+		compact.elapsedTime = document.getElapsedTime();
+		compact.trim();
+		return compact;
+	}
+
+	// ---------------------------------------------------------------- build
+
+	/**
+	 * Creates new detached node.
+	 */
+	protected int createNode(final Node.NodeType nodeType, final String rawName) {
+		final int id = nodesCount;
+
+		if (id == nodeTypes.length) {
+			final int newLength = id << 1;
+			nodeTypes = Arrays.copyOf(nodeTypes, newLength);
+			nodeFlags = Arrays.copyOf(nodeFlags, newLength);
+			nodeRawNames = Arrays.copyOf(nodeRawNames, newLength);
+			nodeNames = Arrays.copyOf(nodeNames, newLength);
+			parents = Arrays.copyOf(parents, newLength);
+			firstChilds = Arrays.copyOf(firstChilds, newLength);
+			lastChilds = Arrays.copyOf(lastChilds, newLength);
+			nextSiblings = Arrays.copyOf(nextSiblings, newLength);
+			prevSiblings = Arrays.copyOf(prevSiblings, newLength);
+			valueStarts = Arrays.copyOf(valueStarts, newLength);
+			valueEnds = Arrays.copyOf(valueEnds, newLength);
+		}
+
+		nodeTypes[id] = (byte) nodeType.ordinal();
+		nodeFlags[id] = 0;
+		if (rawName != null) {
+			nodeRawNames[id] = name(rawName);
+			nodeNames[id] = config.isCaseSensitive() ? nodeRawNames[id] : name(rawName.toLowerCase());
+		}
+		parents[id] = -1;
+		firstChilds[id] = -1;
+		lastChilds[id] = -1;
+		nextSiblings[id] = -1;
+		prevSiblings[id] = -1;
+		valueStarts[id] = -1;
+		valueEnds[id] = -1;
+
+		nodesCount++;
+		return id;
+	}
+
+	/**
+	 * Returns shared instance of a name.
+	 */
+	protected String name(final String name) {
+		final String existing = names.putIfAbsent(name, name);
+		return existing != null ? existing : name;
+	}
+
+	/**
+	 * Creates new detached element. Attributes must be added
+	 * before any other node is created.
+	 */
+	protected int createElement(final String rawName, final boolean voidElement, final boolean selfClosed, final boolean rawTag) {
+		final int id = createNode(Node.NodeType.ELEMENT, rawName);
+
+		byte flags = 0;
+		if (voidElement) {
+			flags |= FLAG_VOID;
+		}
+		if (selfClosed) {
+			flags |= FLAG_SELF_CLOSED;
+		}
+		if (rawTag) {
+			flags |= FLAG_RAW;
+		}
+		nodeFlags[id] = flags;
+		valueStarts[id] = attributesCount;
+		valueEnds[id] = attributesCount;
+		return id;
+	}
+
+	/**
+	 * Adds attribute to the last created element. Existing
+	 * attribute with the same name gets the new value.
+	 */
+	protected void addAttribute(final int element, final String rawName, final CharSequence value) {
+		final String name = config.isCaseSensitive() ? rawName : rawName.toLowerCase();
+
+		for (int i = valueStarts[element]; i < valueEnds[element]; i++) {
+			if (attrNames[i].equals(name)) {
+				setAttributeValue(i, value);
+				return;
+			}
+		}
+
+		final int index = attributesCount;
+		if (index == attrNames.length) {
+			final int newLength = index << 1;
+			attrRawNames = Arrays.copyOf(attrRawNames, newLength);
+			attrNames = Arrays.copyOf(attrNames, newLength);
+			attrValueStarts = Arrays.copyOf(attrValueStarts, newLength);
+			attrValueEnds = Arrays.copyOf(attrValueEnds, newLength);
+		}
+		attrRawNames[index] = name(rawName);
+		attrNames[index] = name(name);
+		setAttributeValue(index, value);
+
+		attributesCount++;
+		valueEnds[element] = attributesCount;
+	}
+
+	private void setAttributeValue(final int index, final CharSequence value) {
+		if (value == null) {
+			attrValueStarts[index] = -1;
+			attrValueEnds[index] = -1;
+			return;
+		}
+		attrValueStarts[index] = charsCount;
+		appendChars(value);
+		attrValueEnds[index] = charsCount;
+	}
+
+	/**
+	 * Creates new detached text, comment or CDATA node.
+	 */
+	protected int createValueNode(final Node.NodeType nodeType, final CharSequence value) {
+		final int id = createNode(nodeType, null);
+		valueStarts[id] = charsCount;
+		appendChars(value);
+		valueEnds[id] = charsCount;
+		return id;
+	}
+
+	/**
+	 * Creates new detached document type node.
+	 */
+	protected int createDocumentType(final String value, final String publicId, final String systemId) {
+		final int id = createNode(Node.NodeType.DOCUMENT_TYPE, null);
+		valueStarts[id] = addExtra(value, publicId, systemId);
+		return id;
+	}
+
+	/**
+	 * Creates new detached XML declaration node.
+	 */
+	protected int createXmlDeclaration(final String version, final String encoding, final String standalone) {
+		final int id = createNode(Node.NodeType.XML_DECLARATION, "xml");
+		valueStarts[id] = addExtra(version, encoding, standalone);
+		return id;
+	}
+
+	private int addExtra(final String... values) {
+		if (extras == null) {
+			extras = new ArrayList<>();
+		}
+		extras.add(values);
+		return extras.size() - 1;
+	}
+
+	private void appendChars(final CharSequence value) {
+		final int length = value.length();
+		int i = 0;
+
+		if (latin1 != null) {
+			if (charsCount + length > latin1.length) {
+				latin1 = Arrays.copyOf(latin1, Math.max(latin1.length << 1, charsCount + length));
+			}
+			for (; i < length; i++) {
+				final char c = value.charAt(i);
+				if (c > 0xFF) {
+					inflate();
+					break;
+				}
+				latin1[charsCount++] = (byte) c;
+			}
+			if (i == length) {
+				return;
+			}
+		}
+
+		if (charsCount + length - i > chars.length) {
+			chars = Arrays.copyOf(chars, Math.max(chars.length << 1, charsCount + length - i));
+		}
+		for (; i < length; i++) {
+			chars[charsCount++] = value.charAt(i);
+		}
+	}
+
+	/**
+	 * Switches values storage from latin1 bytes to characters.
+	 */
+	private void inflate() {
+		chars = new char[latin1.length];
+		for (int i = 0; i < charsCount; i++) {
+			chars[i] = (char) (latin1[i] & 0xFF);
+		}
+		latin1 = null;
+	}
+
+	/**
+	 * Returns stored value character.
+	 */
+	protected char charAt(final int index) {
+		if (latin1 != null) {
+			return (char) (latin1[index] & 0xFF);
+		}
+		return chars[index];
+	}
+
+	/**
+	 * Returns stored value as a string.
+	 */
+	protected String valueOf(final int start, final int end) {
+		if (latin1 != null) {
+			return new String(latin1, start, end - start, StandardCharsets.ISO_8859_1);
+		}
+		return new String(chars, start, end - start);
+	}
+
+	/**
+	 * Appends detached node as the last child of the parent.
+	 */
+	protected void appendChild(final int parent, final int node) {
+		final int last = lastChilds[parent];
+		if (last == -1) {
+			firstChilds[parent] = node;
+		} else {
+			nextSiblings[last] = node;
+		}
+		prevSiblings[node] = last;
+		nextSiblings[node] = -1;
+		lastChilds[parent] = node;
+		parents[node] = parent;
+	}
+
+	/**
+	 * Detaches node from its parent. When the detached node is the
+	 * last created leaf, its storage is released.
+	 */
+	protected void detach(final int node) {
+		final int parent = parents[node];
+		if (parent == -1) {
+			return;
+		}
+		final int prev = prevSiblings[node];
+		final int next = nextSiblings[node];
+
+		if (prev == -1) {
+			firstChilds[parent] = next;
+		} else {
+			nextSiblings[prev] = next;
+		}
+		if (next == -1) {
+			lastChilds[parent] = prev;
+		} else {
+			prevSiblings[next] = prev;
+		}
+		parents[node] = -1;
+		prevSiblings[node] = -1;
+		nextSiblings[node] = -1;
+
+		if (node == nodesCount - 1 && firstChilds[node] == -1) {
+			final Node.NodeType nodeType = NODE_TYPES[nodeTypes[node]];
+			if (nodeType == Node.NodeType.TEXT || nodeType == Node.NodeType.COMMENT || nodeType == Node.NodeType.CDATA) {
+				if (valueEnds[node] == charsCount) {
+					charsCount = valueStarts[node];
+				}
+				nodesCount--;
+			}
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if text node contains just whitespaces.
+	 */
+	protected boolean isBlank(final int node) {
+		for (int i = valueStarts[node]; i < valueEnds[node]; i++) {
+			if (!CharUtil.isWhitespace(charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Adds new error message, if errors are collected.
+	 */
+	protected void addError(final String message) {
+		if (config.collectErrors) {
+			if (errors == null) {
+				errors = new ArrayList<>();
+			}
+			errors.add(message);
+		}
+	}
+
+	/**
+	 * Notifies document that building is done. Releases
+	 * unused storage.
+	 */
+	protected void end() {
+		elapsedTime = System.currentTimeMillis() - elapsedTime;
+		trim();
+	}
+
+	protected void trim() {
+		nodeTypes = Arrays.copyOf(nodeTypes, nodesCount);
+		nodeFlags = Arrays.copyOf(nodeFlags, nodesCount);
+		nodeRawNames = Arrays.copyOf(nodeRawNames, nodesCount);
+		nodeNames = Arrays.copyOf(nodeNames, nodesCount);
+		parents = Arrays.copyOf(parents, nodesCount);
+		firstChilds = Arrays.copyOf(firstChilds, nodesCount);
+		lastChilds = Arrays.copyOf(lastChilds, nodesCount);
+		nextSiblings = Arrays.copyOf(nextSiblings, nodesCount);
+		prevSiblings = Arrays.copyOf(prevSiblings, nodesCount);
+		valueStarts = Arrays.copyOf(valueStarts, nodesCount);
+		valueEnds = Arrays.copyOf(valueEnds, nodesCount);
+
+		attrRawNames = Arrays.copyOf(attrRawNames, attributesCount);
+		attrNames = Arrays.copyOf(attrNames, attributesCount);
+		attrValueStarts = Arrays.copyOf(attrValueStarts, attributesCount);
+		attrValueEnds = Arrays.copyOf(attrValueEnds, attributesCount);
+
+		if (latin1 != null) {
+			latin1 = Arrays.copyOf(latin1, charsCount);
+		} else {
+			chars = Arrays.copyOf(chars, charsCount);
+		}
+	}
+
+	// ---------------------------------------------------------------- document
+
+	/**
+	 * Returns used {@link LagartoDomBuilderConfig}.
+	 */
+	public LagartoDomBuilderConfig getConfig() {
+		return config;
+	}
+
+	/**
+	 * Returns list of warnings and errors occurred during parsing.
+	 * Returns <code>null</code> if parsing was successful; or if
+	 * errors are not collected.
+	 */
+	public List<String> getErrors() {
+		return errors;
+	}
+
+	/**
+	 * Returns DOM building elapsed time.
+	 */
+	public long getElapsedTime() {
+		return elapsedTime;
+	}
+
+	/**
+	 * Returns total number of nodes, including the document node.
+	 */
+	public int getNodesCount() {
+		return nodesCount;
+	}
+
+	// ---------------------------------------------------------------- nodes
+
+	public Node.NodeType getNodeType(final int node) {
+		return NODE_TYPES[nodeTypes[node]];
+	}
+
+	public String getNodeName(final int node) {
+		return nodeNames[node];
+	}
+
+	public String getNodeRawName(final int node) {
+		return nodeRawNames[node];
+	}
+
+	/**
+	 * Returns value of text, comment and CDATA nodes, or
+	 * the root name of the document type.
+	 */
+	public String getNodeValue(final int node) {
+		switch (getNodeType(node)) {
+			case TEXT:
+			case COMMENT:
+			case CDATA:
+				return valueOf(valueStarts[node], valueEnds[node]);
+			case DOCUMENT_TYPE:
+				return extras.get(valueStarts[node])[0];
+			default:
+				return null;
+		}
+	}
+
+	public int getParentNode(final int node) {
+		return parents[node];
+	}
+
+	public int getFirstChild(final int node) {
+		return firstChilds[node];
+	}
+
+	public int getLastChild(final int node) {
+		return lastChilds[node];
+	}
+
+	public int getNextSibling(final int node) {
+		return nextSiblings[node];
+	}
+
+	public int getPreviousSibling(final int node) {
+		return prevSiblings[node];
+	}
+
+	public int getChildNodesCount(final int node) {
+		int count = 0;
+		for (int child = firstChilds[node]; child != -1; child = nextSiblings[child]) {
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the next node in the document order within the subtree
+	 * of the given root, or <code>-1</code> when subtree is done.
+	 */
+	public int next(int node, final int root) {
+		if (firstChilds[node] != -1) {
+			return firstChilds[node];
+		}
+		while (node != root) {
+			if (nextSiblings[node] != -1) {
+				return nextSiblings[node];
+			}
+			node = parents[node];
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the text content of the node and its descendants.
+	 */
+	public String getTextContent(final int node) {
+		final StringBuilder sb = new StringBuilder();
+		for (int n = node; n != -1; n = next(n, node)) {
+			final Node.NodeType nodeType = getNodeType(n);
+			if (nodeType == Node.NodeType.TEXT || nodeType == Node.NodeType.CDATA) {
+				for (int i = valueStarts[n]; i < valueEnds[n]; i++) {
+					sb.append(charAt(i));
+				}
+			}
+		}
+		return sb.toString();
+	}
+
+	// ---------------------------------------------------------------- attributes
+
+	public int getAttributesCount(final int node) {
+		if (getNodeType(node) != Node.NodeType.ELEMENT) {
+			return 0;
+		}
+		return valueEnds[node] - valueStarts[node];
+	}
+
+	public String getAttributeName(final int node, final int index) {
+		return attrNames[valueStarts[node] + index];
+	}
+
+	public String getAttributeValue(final int node, final int index) {
+		final int attr = valueStarts[node] + index;
+		if (attrValueStarts[attr] == -1) {
+			return null;
+		}
+		return valueOf(attrValueStarts[attr], attrValueEnds[attr]);
+	}
+
+	/**
+	 * Returns attribute value. Returns <code>null</code> when
+	 * attribute doesn't exist or when attribute exist but doesn't
+	 * specify a value.
+	 */
+	public String getAttribute(final int node, final String name) {
+		final int index = indexOfAttribute(node, name);
+		if (index == -1) {
+			return null;
+		}
+		return getAttributeValue(node, index);
+	}
+
+	/**
+	 * Returns <code>true</code> if node contains an attribute.
+	 */
+	public boolean hasAttribute(final int node, final String name) {
+		return indexOfAttribute(node, name) != -1;
+	}
+
+	protected int indexOfAttribute(final int node, String name) {
+		if (!config.isCaseSensitive()) {
+			name = name.toLowerCase();
+		}
+		final int count = getAttributesCount(node);
+		for (int i = 0; i < count; i++) {
+			if (attrNames[valueStarts[node] + i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	// ---------------------------------------------------------------- view
+
+	/**
+	 * Creates new read-only view of this document. Nodes of the view
+	 * are created lazily, and they are released with the view.
+	 * Any change of the view is rejected with {@link LagartoDOMException};
+	 * use {@link Document#clone()} to get a modifiable copy.
+	 */
+	public Document view() {
+		return new View(this);
+	}
+
+	/**
+	 * Read-only {@link Document} backed by the compact document.
+	 */
+	static class View extends Document {
+
+		private static final byte ELEMENT = (byte) NodeType.ELEMENT.ordinal();
+
+		private final CompactDocument compact;
+		private final Node[] nodes;
+		private DocumentIndex index;
+
+		View(final CompactDocument compact) {
+			super(compact.config);
+			this.compact = compact;
+			this.nodes = new Node[compact.nodesCount];
+			this.nodes[0] = this;
+			this.elapsedTime = compact.elapsedTime;
+			this.errors = compact.errors;
+			if (compact.firstChilds[0] != -1) {
+				this.childNodes = new ChildNodes(this, 0);
+			}
+		}
+
+		/**
+		 * Returns the node of given index, creating it and
+		 * all missing ancestors when needed.
+		 */
+		Node node(final int id) {
+			final Node node = nodes[id];
+			if (node != null) {
+				return node;
+			}
+
+			final FastIntBuffer chain = new FastIntBuffer();
+			for (int n = id; nodes[n] == null; n = compact.parents[n]) {
+				chain.append(n);
+			}
+			for (int i = chain.size() - 1; i >= 0; i--) {
+				createNode(chain.get(i), -1, -1);
+			}
+			return nodes[id];
+		}
+
+		private Node createNode(final int id, int siblingIndex, int siblingElementIndex) {
+			final Node node;
+			switch (compact.getNodeType(id)) {
+				case ELEMENT:
+					final byte flags = compact.nodeFlags[id];
+					node = new Element(this, compact.nodeRawNames[id],
+						(flags & FLAG_VOID) != 0, (flags & FLAG_SELF_CLOSED) != 0, (flags & FLAG_RAW) != 0);
+					if (compact.valueEnds[id] != compact.valueStarts[id]) {
+						node.attributes = new Attributes(id);
+					}
+					break;
+				case TEXT:
+					node = new Text(this, compact.getNodeValue(id));
+					break;
+				case COMMENT:
+					node = new Comment(this, compact.getNodeValue(id));
+					break;
+				case CDATA:
+					node = new CData(this, compact.getNodeValue(id));
+					break;
+				case DOCUMENT_TYPE:
+					final String[] doctype = compact.extras.get(compact.valueStarts[id]);
+					node = new DocumentType(this, doctype[0], doctype[1], doctype[2]);
+					break;
+				case XML_DECLARATION:
+					final String[] xml = compact.extras.get(compact.valueStarts[id]);
+					node = new XmlDeclaration(this, xml[0], xml[1], xml[2]);
+					break;
+				default:
+					throw new LagartoDOMException("Invalid node: " + id);
+			}
+
+			if (siblingIndex == -1) {
+				siblingIndex = 0;
+				siblingElementIndex = 0;
+				for (int prev = compact.prevSiblings[id]; prev != -1; prev = compact.prevSiblings[prev]) {
+					siblingIndex++;
+					if (compact.nodeTypes[prev] == ELEMENT) {
+						siblingElementIndex++;
+					}
+				}
+			}
+			node.parentNode = nodes[compact.parents[id]];
+			node.siblingIndex = siblingIndex;
+			if (compact.nodeTypes[id] == ELEMENT) {
+				node.siblingElementIndex = siblingElementIndex;
+			}
+			if (compact.firstChilds[id] != -1) {
+				node.childNodes = new ChildNodes(node, id);
+			}
+
+			nodes[id] = node;
+			return node;
+		}
+
+		/**
+		 * Builds the index from the compact document. Indexed elements
+		 * are addressed by their node indexes and created only when
+		 * reached by the selection.
+		 */
+		@Override
+		DocumentIndex index() {
+			if (index == null) {
+				final FastIntBuffer elements = new FastIntBuffer();
+				final Map<String, FastIntBuffer> ids = new HashMap<>();
+				final Map<String, FastIntBuffer> classes = new HashMap<>();
+				final Map<String, FastIntBuffer> names = new HashMap<>();
+
+				for (int n = compact.next(0, 0); n != -1; n = compact.next(n, 0)) {
+					if (compact.nodeTypes[n] != ELEMENT) {
+						continue;
+					}
+					elements.append(n);
+
+					add(names, compact.nodeNames[n], n);
+
+					final String id = compact.getAttribute(n, DocumentIndex.ID);
+					if (id != null) {
+						add(ids, id, n);
+					}
+
+					final String classNames = compact.getAttribute(n, DocumentIndex.CLASS);
+					if (classNames != null) {
+						for (final String className : StringUtil.splitc(classNames, " \t")) {
+							if (!className.isEmpty()) {
+								add(classes, className, n);
+							}
+						}
+					}
+				}
+
+				index = new DocumentIndex(new Elements(elements), elementsOf(ids), elementsOf(classes), elementsOf(names));
+			}
+			return index;
+		}
+
+		private void add(final Map<String, FastIntBuffer> map, final String key, final int node) {
+			final FastIntBuffer list = map.computeIfAbsent(key, k -> new FastIntBuffer(4));
+
+			// class may be repeated in the attribute
+			if (list.isEmpty() || list.get(list.size() - 1) != node) {
+				list.append(node);
+			}
+		}
+
+		private Map<String, List<Element>> elementsOf(final Map<String, FastIntBuffer> map) {
+			final Map<String, List<Element>> elements = new HashMap<>(map.size() * 4 / 3 + 1);
+			map.forEach((key, list) -> elements.put(key, new Elements(list)));
+			return elements;
+		}
+
+		@Override
+		void resetIndex() {
+			index = null;
+		}
+
+		@Override
+		boolean isReadOnly() {
+			return true;
+		}
+
+		/**
+		 * Returns modifiable copy of the document.
+		 */
+		@Override
+		public Document clone() {
+			final Document document = cloneTo(new Document(config));
+			document.elapsedTime = this.elapsedTime;
+			for (int i = 0, count = document.getChildNodesCount(); i < count; i++) {
+				changeOwnerDocument(document.getChild(i), document);
+			}
+			return document;
+		}
+
+		/**
+		 * Read-only list of indexed elements, created on first access.
+		 */
+		private class Elements extends AbstractList<Element> implements RandomAccess {
+			private final int[] ids;
+
+			private Elements(final FastIntBuffer ids) {
+				this.ids = ids.toArray();
+			}
+
+			@Override
+			public Element get(final int index) {
+				return (Element) node(ids[index]);
+			}
+
+			@Override
+			public int size() {
+				return ids.length;
+			}
+		}
+
+		/**
+		 * Read-only list of child nodes. Children are created on first access.
+		 */
+		private class ChildNodes extends AbstractList<Node> {
+			private final int[] ids;
+			private final int[] elementIndexes;
+
+			private ChildNodes(final Node owner, final int parent) {
+				final int count = compact.getChildNodesCount(parent);
+				ids = new int[count];
+				elementIndexes = new int[count];
+
+				int elementIndex = 0;
+				int i = 0;
+				for (int child = compact.firstChilds[parent]; child != -1; child = compact.nextSiblings[child]) {
+					ids[i] = child;
+					elementIndexes[i] = compact.nodeTypes[child] == ELEMENT ? elementIndex++ : -1;
+					i++;
+				}
+				owner.childElementNodesCount = elementIndex;
+			}
+
+			@Override
+			public Node get(final int index) {
+				final int id = ids[index];
+				final Node node = nodes[id];
+				if (node != null) {
+					return node;
+				}
+				return createNode(id, index, elementIndexes[index]);
+			}
+
+			@Override
+			public int size() {
+				return ids.length;
+			}
+		}
+
+		/**
+		 * Read-only list of element attributes, created on first access.
+		 */
+		private class Attributes extends AbstractList<Attribute> {
+			private final int element;
+			private final Attribute[] attributes;
+
+			private Attributes(final int element) {
+				this.element = element;
+				this.attributes = new Attribute[compact.valueEnds[element] - compact.valueStarts[element]];
+			}
+
+			@Override
+			public Attribute get(final int index) {
+				Attribute attribute = attributes[index];
+				if (attribute == null) {
+					final int attr = compact.valueStarts[element] + index;
+					attribute = new ReadOnlyAttribute(
+						compact.attrRawNames[attr], compact.attrNames[attr], compact.getAttributeValue(element, index));
+					attributes[index] = attribute;
+				}
+				return attribute;
+			}
+
+			@Override
+			public int size() {
+				return attributes.length;
+			}
+		}
+
+		/**
+		 * Attribute of the read-only view. Its clone is modifiable.
+		 */
+		private static class ReadOnlyAttribute extends Attribute {
+			private ReadOnlyAttribute(final String rawName, final String name, final String value) {
+				super(rawName, name, value);
+			}
+
+			@Override
+			public void setValue(final String value) {
+				throw new LagartoDOMException("Read-only document can not be modified");
+			}
+		}
+	}
+}
@@ -25,6 +25,8 @@
 
 package jodd.lagarto.dom;
 
+import java.util.Arrays;
+
 /**
  * DOM Builder. Generic interface for DOM builder
  * implementation.
@@ -36,6 +38,19 @@ public interface DOMBuilder {
 	 */
 	Document parse(char[] content);
 
+	/**
+	 * Parses the first <code>length</code> characters of the content and returns
+	 * root {@link Document document node}. Builders that don't keep the content
+	 * may parse it without copying, so it can be a reused buffer. By default,
+	 * content is copied.
+	 */
+	default Document parse(final char[] content, final int length) {
+		if (length == content.length) {
+			return parse(content);
+		}
+		return parse(Arrays.copyOf(content, length));
+	}
+
 	/**
 	 * Parses content and returns root {@link Document document node}.
 	 */
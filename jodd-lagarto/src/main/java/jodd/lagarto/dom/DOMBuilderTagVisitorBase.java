@@ -0,0 +1,519 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.lagarto.dom;
+
+import jodd.lagarto.Doctype;
+import jodd.lagarto.Tag;
+import jodd.lagarto.TagType;
+import jodd.lagarto.TagVisitor;
+import jodd.log.Logger;
+import jodd.util.CharSequenceUtil;
+import jodd.util.StringPool;
+
+/**
+ * Base tag visitor that builds DOM tree. Implements the tree building rules:
+ * implicit closing of tags, handling of orphan and unclosed tags, void tags,
+ * conditional comments and error reporting. Concrete visitors only define
+ * how the nodes are created and linked, using node type <code>N</code>;
+ * <code>null</code> always means "no node".
+ * @see LagartoDOMBuilderTagVisitor
+ * @see CompactDOMBuilderTagVisitor
+ */
+public abstract class DOMBuilderTagVisitorBase<N> implements TagVisitor {
+
+	private final Logger log;
+
+	protected final LagartoDOMBuilder domBuilder;
+	protected final HtmlImplicitClosingRules implRules = new HtmlImplicitClosingRules();
+	protected HtmlVoidRules htmlVoidRules;
+	protected HtmlCCommentExpressionMatcher htmlCCommentExpressionMatcher;
+
+	protected N parentNode;
+
+	/**
+	 * While enabled, nodes will be added to the DOM tree.
+	 * Useful for skipping some tags.
+	 */
+	protected boolean enabled;
+
+	protected DOMBuilderTagVisitorBase(final LagartoDOMBuilder domBuilder, final Logger log) {
+		this.domBuilder = domBuilder;
+		this.log = log;
+	}
+
+	// ---------------------------------------------------------------- tree access
+
+	/**
+	 * Creates the document, if not already created, and returns its root node.
+	 */
+	protected abstract N startDocument();
+
+	/**
+	 * Finishes the document once all tags are visited.
+	 */
+	protected abstract void endDocument();
+
+	/**
+	 * Creates new detached element.
+	 */
+	protected abstract N createElement(Tag tag, boolean isVoid, boolean selfClosed);
+
+	protected abstract N createText(CharSequence text);
+
+	protected abstract N createComment(CharSequence comment);
+
+	protected abstract N createCData(CharSequence cdata);
+
+	protected abstract N createXmlDeclaration(CharSequence version, CharSequence encoding, CharSequence standalone);
+
+	protected abstract N createDocumentType(Doctype doctype);
+
+	protected abstract String getNodeName(N node);
+
+	/**
+	 * Returns parent node or <code>null</code> for the root.
+	 */
+	protected abstract N getParentNode(N node);
+
+	/**
+	 * Returns last child or <code>null</code> if there are no children.
+	 */
+	protected abstract N getLastChild(N parent);
+
+	/**
+	 * Returns first child or <code>null</code> if there are no children.
+	 */
+	protected abstract N getFirstChild(N parent);
+
+	protected abstract boolean isVoidElement(N node);
+
+	/**
+	 * Returns <code>true</code> if node is a text node with blank content.
+	 */
+	protected abstract boolean isBlankText(N node);
+
+	protected abstract void appendChild(N parent, N child);
+
+	protected abstract void detachFromParent(N node);
+
+	/**
+	 * Adds parsing error to the document.
+	 */
+	protected abstract void addError(String message);
+
+	/**
+	 * Returns <code>true</code> if both arguments refer to the same node.
+	 * Either argument may be <code>null</code>.
+	 */
+	protected boolean isSameNode(final N node1, final N node2) {
+		return node1 == node2;
+	}
+
+	// ---------------------------------------------------------------- start/end
+
+	/**
+	 * Starts with DOM building.
+	 */
+	@Override
+	public void start() {
+		log.debug("DomTree builder started");
+
+		parentNode = startDocument();
+		enabled = true;
+
+		if (domBuilder.config.isEnabledVoidTags()) {
+			htmlVoidRules = new HtmlVoidRules();
+		}
+	}
+
+	/**
+	 * Finishes the tree building. Closes unclosed tags.
+	 */
+	@Override
+	public void end() {
+		N thisNode = parentNode;
+		N thisParent;
+
+		while ((thisParent = getParentNode(thisNode)) != null) {
+			if (!domBuilder.config.isImpliedEndTags() || !implRules.implicitlyCloseTagOnEOF(getNodeName(thisNode))) {
+				error("Unclosed tag closed: <" + getNodeName(thisNode) + ">");
+			}
+			thisNode = thisParent;
+		}
+
+		// remove whitespaces
+		if (domBuilder.config.isIgnoreWhitespacesBetweenTags()) {
+			removeLastChildNodeIfEmptyText(parentNode, true);
+		}
+
+		endDocument();
+	}
+
+	// ---------------------------------------------------------------- tag
+
+	/**
+	 * Creates new element with correct configuration.
+	 */
+	protected N createElementNode(final Tag tag) {
+		boolean isVoid = false;
+		boolean selfClosed = false;
+
+		if (htmlVoidRules != null) {
+			isVoid = htmlVoidRules.isVoidTag(tag.getName());
+
+			// HTML and XHTML
+			if (isVoid) {
+				// it's void tag, lookup the flag
+				selfClosed = domBuilder.config.isSelfCloseVoidTags();
+			}
+		} else {
+			// XML, no voids, lookup the flag
+			selfClosed = domBuilder.config.isSelfCloseVoidTags();
+		}
+
+		return createElement(tag, isVoid, selfClosed);
+	}
+
+	/**
+	 * Visits tags.
+	 */
+	@Override
+	public void tag(final Tag tag) {
+		if (!enabled) {
+			return;
+		}
+
+		TagType tagType = tag.getType();
+		N node;
+
+		switch (tagType) {
+			case START:
+				if (domBuilder.config.isIgnoreWhitespacesBetweenTags()) {
+					removeLastChildNodeIfEmptyText(parentNode, false);
+				}
+
+				node = createElementNode(tag);
+
+				if (domBuilder.config.isImpliedEndTags()) {
+					String nodeName = getNodeName(node);
+
+					while (implRules.implicitlyCloseParentTagOnNewTag(getNodeName(parentNode), nodeName)) {
+						parentNode = getParentNode(parentNode);
+
+						if (log.isDebugEnabled()) {
+							log.debug("Implicitly closed tag <" + nodeName + "> ");
+						}
+					}
+				}
+
+				appendChild(parentNode, node);
+
+				if (!isVoidElement(node)) {
+					parentNode = node;
+				}
+				break;
+
+			case END:
+				if (domBuilder.config.isIgnoreWhitespacesBetweenTags()) {
+					removeLastChildNodeIfEmptyText(parentNode, true);
+				}
+
+				String tagName = tag.getName().toString();
+
+				N matchingParent = findMatchingParentOpenTag(tagName);
+
+				if (isSameNode(matchingParent, parentNode)) {		// regular situation
+					parentNode = getParentNode(parentNode);
+					break;
+				}
+
+				if (matchingParent == null) {			// matching open tag not found, remove it
+					error("Orphan closed tag ignored: </" + tagName + "> " + tag.getTagPosition());
+					break;
+				}
+
+				// try to close it implicitly
+				if (domBuilder.config.isImpliedEndTags()) {
+					boolean fixed = false;
+
+					while (implRules.implicitlyCloseParentTagOnTagEnd(getNodeName(parentNode), tagName)) {
+						parentNode = getParentNode(parentNode);
+
+						if (log.isDebugEnabled()) {
+							log.debug("Implicitly closed tag <" + tagName + ">");
+						}
+
+						if (isSameNode(parentNode, matchingParent)) {
+							parentNode = getParentNode(matchingParent);
+							fixed = true;
+							break;
+						}
+					}
+					if (fixed) {
+						break;
+					}
+				}
+
+				// matching tag found, but it is not a regular situation
+				// therefore close all unclosed tags in between
+				fixUnclosedTagsUpToMatchingParent(tag, matchingParent);
+
+				break;
+
+			case SELF_CLOSING:
+				if (domBuilder.config.isIgnoreWhitespacesBetweenTags()) {
+					removeLastChildNodeIfEmptyText(parentNode, false);
+				}
+
+				node = createElementNode(tag);
+				appendChild(parentNode, node);
+				break;
+		}
+	}
+
+	// ---------------------------------------------------------------- util
+
+	/**
+	 * Removes last child node if contains just empty text.
+	 */
+	protected void removeLastChildNodeIfEmptyText(final N parentNode, final boolean closedTag) {
+		if (parentNode == null) {
+			return;
+		}
+
+		N lastChild = getLastChild(parentNode);
+		if (lastChild == null) {
+			return;
+		}
+
+		if (closedTag) {
+			if (isSameNode(getFirstChild(parentNode), lastChild)) {
+				return;
+			}
+		}
+
+		if (isBlankText(lastChild)) {
+			detachFromParent(lastChild);
+		}
+	}
+
+	/**
+	 * Finds matching parent open tag or <code>null</code> if not found.
+	 */
+	protected N findMatchingParentOpenTag(String tagName) {
+		N parent = parentNode;
+
+		boolean caseSensitive = domBuilder.config.isCaseSensitive();
+
+		if (!caseSensitive) {
+			tagName = tagName.toLowerCase();
+		}
+
+		while (parent != null) {
+			String parentNodeName = getNodeName(parent);
+
+			if (parentNodeName != null) {
+				if (!caseSensitive) {
+					parentNodeName = parentNodeName.toLowerCase();
+				}
+			}
+
+			if (tagName.equals(parentNodeName)) {
+				return parent;
+			}
+			parent = getParentNode(parent);
+		}
+		return null;
+	}
+
+	/**
+	 * Fixes all unclosed tags up to matching parent. Missing end tags will be added
+	 * just before parent tag is closed, making the whole inner content as its tag body.
+	 * <p>
+	 * Tags that can be closed implicitly are checked and closed.
+	 * <p>
+	 * There is optional check for detecting orphan tags inside the
+	 * table or lists. If set, tags can be closed beyond the border of the
+	 * table and the list and it is reported as orphan tag.
+	 * <p>
+	 * This is just a generic solutions, closest to the rules.
+	 */
+	protected void fixUnclosedTagsUpToMatchingParent(final Tag tag, final N matchingParent) {
+		if (domBuilder.config.isUnclosedTagAsOrphanCheck()) {
+			N thisNode = parentNode;
+
+			if (!CharSequenceUtil.equalsIgnoreCase(tag.getName(), "table")) {
+
+				// check if there is table or list between this node
+				// and matching parent
+				while (!isSameNode(thisNode, matchingParent)) {
+					String thisNodeName = getNodeName(thisNode).toLowerCase();
+
+					if (thisNodeName.equals("table") || thisNodeName.equals("ul") || thisNodeName.equals("ol")) {
+
+						String positionString = tag.getPosition();
+						if (positionString == null) {
+							positionString = StringPool.EMPTY;
+						}
+
+						error("Orphan closed tag ignored: </" + tag.getName() + "> " + positionString);
+						return;
+					}
+					thisNode = getParentNode(thisNode);
+				}
+			}
+		}
+
+		while (true) {
+			if (isSameNode(parentNode, matchingParent)) {
+				parentNode = getParentNode(parentNode);
+				break;
+			}
+
+			N parentParentNode = getParentNode(parentNode);
+
+			if (domBuilder.config.isImpliedEndTags()) {
+				if (implRules.implicitlyCloseParentTagOnNewTag(
+						getNodeName(parentParentNode), getNodeName(parentNode))) {
+					// break the tree: detach this node and append it after parent
+
+					detachFromParent(parentNode);
+
+					appendChild(getParentNode(parentParentNode), parentNode);
+				}
+			}
+
+			// debug message
+
+			error("Unclosed tag closed: <" + getNodeName(parentNode) + ">");
+
+			// continue looping
+			parentNode = parentParentNode;
+		}
+	}
+
+	// ---------------------------------------------------------------- tree
+
+	@Override
+	public void script(final Tag tag, final CharSequence body) {
+		if (!enabled) {
+			return;
+		}
+
+		N node = createElementNode(tag);
+
+		appendChild(parentNode, node);
+
+		if (body.length() != 0) {
+			appendChild(node, createText(body));
+		}
+	}
+
+	@Override
+	public void comment(final CharSequence comment) {
+		if (!enabled) {
+			return;
+		}
+
+		if (domBuilder.config.isIgnoreWhitespacesBetweenTags()) {
+			removeLastChildNodeIfEmptyText(parentNode, false);
+		}
+
+		if (domBuilder.config.isIgnoreComments()) {
+			return;
+		}
+
+		appendChild(parentNode, createComment(comment));
+	}
+
+	@Override
+	public void text(final CharSequence text) {
+		if (!enabled) {
+			return;
+		}
+
+		appendChild(parentNode, createText(text));
+	}
+
+	@Override
+	public void cdata(final CharSequence cdata) {
+		if (!enabled) {
+			return;
+		}
+
+		appendChild(parentNode, createCData(cdata));
+	}
+
+	@Override
+	public void xml(final CharSequence version, final CharSequence encoding, final CharSequence standalone) {
+		if (!enabled) {
+			return;
+		}
+
+		appendChild(parentNode, createXmlDeclaration(version, encoding, standalone));
+	}
+
+	@Override
+	public void doctype(final Doctype doctype) {
+		if (!enabled) {
+			return;
+		}
+
+		appendChild(parentNode, createDocumentType(doctype));
+	}
+
+	@Override
+	public void condComment(final CharSequence expression, final boolean isStartingTag, final boolean isHidden, final boolean isHiddenEndTag) {
+		String expressionString = expression.toString().trim();
+
+		if (expressionString.equals("endif")) {
+			enabled = true;
+			return;
+		}
+
+		if (expressionString.equals("if !IE")) {
+			enabled = false;
+			return;
+		}
+
+		float ieVersion = domBuilder.config.getCondCommentIEVersion();
+
+		if (htmlCCommentExpressionMatcher == null) {
+			htmlCCommentExpressionMatcher = new HtmlCCommentExpressionMatcher();
+		}
+
+		enabled = htmlCCommentExpressionMatcher.match(ieVersion, expressionString);
+	}
+
+	// ---------------------------------------------------------------- error
+
+	@Override
+	public void error(final String message) {
+		addError(message);
+		log.log(domBuilder.config.getParsingErrorLogLevel(), message);
+	}
+
+}
@@ -94,6 +94,36 @@ public class Document extends Node {
 		return errors;
 	}
 
+	// ---------------------------------------------------------------- index
+
+	private DocumentIndex index;
+
+	/**
+	 * Returns {@link DocumentIndex index} of the document elements.
+	 * Index is built on first usage.
+	 */
+	DocumentIndex index() {
+		if (index == null) {
+			index = new DocumentIndex(this);
+		}
+		return index;
+	}
+
+	/**
+	 * Drops the index of the document elements, so it gets
+	 * rebuilt on the next usage. Invoked on every DOM change.
+	 */
+	void resetIndex() {
+		index = null;
+	}
+
+	/**
+	 * Returns <code>true</code> if the document can not be changed.
+	 */
+	boolean isReadOnly() {
+		return false;
+	}
+
 	// ---------------------------------------------------------------- attr
 
 	/**
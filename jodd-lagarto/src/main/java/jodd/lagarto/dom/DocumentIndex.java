@@ -0,0 +1,151 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.lagarto.dom;
+
+import jodd.util.StringUtil;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of document elements by id, class name and element name.
+ * All lists hold elements in the document order. Index is built
+ * lazily by the {@link Document} and dropped on any DOM mutation.
+ */
+class DocumentIndex {
+
+	static final String ID = "id";
+	static final String CLASS = "class";
+
+	private final List<Element> elements;
+	private final Map<String, List<Element>> ids;
+	private final Map<String, List<Element>> classes;
+	private final Map<String, List<Element>> names;
+
+	DocumentIndex(final Document document) {
+		this(new ArrayList<>(), new HashMap<>(), new HashMap<>(), new HashMap<>());
+		index(document);
+	}
+
+	/**
+	 * Creates index from already collected elements.
+	 */
+	DocumentIndex(
+			final List<Element> elements,
+			final Map<String, List<Element>> ids,
+			final Map<String, List<Element>> classes,
+			final Map<String, List<Element>> names) {
+		this.elements = elements;
+		this.ids = ids;
+		this.classes = classes;
+		this.names = names;
+	}
+
+	/**
+	 * Walks the tree in the document order, without using recursion.
+	 */
+	private void index(final Node root) {
+		final ArrayDeque<Node> nodes = new ArrayDeque<>();
+		nodes.push(root);
+
+		while (!nodes.isEmpty()) {
+			final Node node = nodes.pop();
+
+			if (node.getNodeType() == Node.NodeType.ELEMENT) {
+				add((Element) node);
+			}
+
+			for (int i = node.getChildNodesCount() - 1; i >= 0; i--) {
+				nodes.push(node.getChild(i));
+			}
+		}
+	}
+
+	/**
+	 * Adds element to the index. Elements must be added in the document order.
+	 */
+	void add(final Element element) {
+		elements.add(element);
+
+		add(names, element.getNodeName(), element);
+
+		final String id = element.getAttribute(ID);
+		if (id != null) {
+			add(ids, id, element);
+		}
+
+		final String classNames = element.getAttribute(CLASS);
+		if (classNames != null) {
+			for (final String className : StringUtil.splitc(classNames, " \t")) {
+				if (!className.isEmpty()) {
+					add(classes, className, element);
+				}
+			}
+		}
+	}
+
+	private void add(final Map<String, List<Element>> map, final String key, final Element element) {
+		final List<Element> list = map.computeIfAbsent(key, k -> new ArrayList<>());
+
+		// class may be repeated in the attribute
+		if (list.isEmpty() || list.get(list.size() - 1) != element) {
+			list.add(element);
+		}
+	}
+
+	// ---------------------------------------------------------------- lookup
+
+	/**
+	 * Returns all elements.
+	 */
+	List<Element> elements() {
+		return elements;
+	}
+
+	/**
+	 * Returns elements with given id.
+	 */
+	List<Element> byId(final String id) {
+		return ids.getOrDefault(id, Collections.emptyList());
+	}
+
+	/**
+	 * Returns elements that contain given class name.
+	 */
+	List<Element> byClass(final String className) {
+		return classes.getOrDefault(className, Collections.emptyList());
+	}
+
+	/**
+	 * Returns elements with given node name.
+	 */
+	List<Element> byName(final String name) {
+		return names.getOrDefault(name, Collections.emptyList());
+	}
+}
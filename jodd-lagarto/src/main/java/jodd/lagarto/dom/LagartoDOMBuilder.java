@@ -136,6 +136,16 @@ public class LagartoDOMBuilder implements DOMBuilder {
 		return doParse(lagartoParser);
 	}
 
+	/**
+	 * Creates DOM tree from the first <code>length</code> characters of the content.
+	 * Content is not copied, as the DOM tree does not keep references to it.
+	 */
+	@Override
+	public Document parse(final char[] content, final int length) {
+		LagartoParser lagartoParser = new LagartoParser(content, length);
+		return doParse(lagartoParser);
+	}
+
 	/**
 	 * Creates DOM tree from the provided content.
 	 */
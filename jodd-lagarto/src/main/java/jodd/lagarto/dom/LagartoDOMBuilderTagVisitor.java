@@ -27,12 +27,8 @@ package jodd.lagarto.dom;
 
 import jodd.lagarto.Doctype;
 import jodd.lagarto.Tag;
-import jodd.lagarto.TagType;
-import jodd.lagarto.TagVisitor;
 import jodd.log.Logger;
 import jodd.log.LoggerFactory;
-import jodd.util.CharSequenceUtil;
-import jodd.util.StringPool;
 import jodd.util.Util;
 
 /**
@@ -49,25 +45,14 @@ import jodd.util.Util;
  * may change the node position. However, not all rules are
  * implemented (yet) and this is still just experimental.
  */
-public class LagartoDOMBuilderTagVisitor implements TagVisitor {
+public class LagartoDOMBuilderTagVisitor extends DOMBuilderTagVisitorBase<Node> {
 
 	private static final Logger log = LoggerFactory.getLogger(LagartoDOMBuilderTagVisitor.class);
 
-	protected final LagartoDOMBuilder domBuilder;
-	protected final HtmlImplicitClosingRules implRules = new HtmlImplicitClosingRules();
-	protected HtmlVoidRules htmlVoidRules;
-
 	protected Document rootNode;
-	protected Node parentNode;
-
-	/**
-	 * While enabled, nodes will be added to the DOM tree.
-	 * Useful for skipping some tags.
-	 */
-	protected boolean enabled;
 
 	public LagartoDOMBuilderTagVisitor(final LagartoDOMBuilder domBuilder) {
-		this.domBuilder = domBuilder;
+		super(domBuilder, log);
 	}
 
 	/**
@@ -80,52 +65,18 @@ public class LagartoDOMBuilderTagVisitor implements TagVisitor {
 	// ---------------------------------------------------------------- start/end
 
 	/**
-	 * Starts with DOM building.
 	 * Creates root {@link jodd.lagarto.dom.Document} node.
 	 */
 	@Override
-	public void start() {
-		log.debug("DomTree builder started");
-
+	protected Node startDocument() {
 		if (rootNode == null) {
 			rootNode = new Document(domBuilder.config);
 		}
-		parentNode = rootNode;
-		enabled = true;
-
-		if (domBuilder.config.isEnabledVoidTags()) {
-			htmlVoidRules = new HtmlVoidRules();
-		}
+		return rootNode;
 	}
 
-	/**
-	 * Finishes the tree building. Closes unclosed tags.
-	 */
 	@Override
-	public void end() {
-		if (parentNode != rootNode) {
-
-			Node thisNode = parentNode;
-
-			while (thisNode != rootNode) {
-				if (domBuilder.config.isImpliedEndTags()) {
-					if (implRules.implicitlyCloseTagOnEOF(thisNode.getNodeName())) {
-						thisNode = thisNode.getParentNode();
-						continue;
-					}
-				}
-
-				error("Unclosed tag closed: <" + thisNode.getNodeName() + ">");
-
-				thisNode = thisNode.getParentNode();
-			}
-		}
-
-		// remove whitespaces
-		if (domBuilder.config.isIgnoreWhitespacesBetweenTags()) {
-			removeLastChildNodeIfEmptyText(parentNode, true);
-		}
-
+	protected void endDocument() {
 		// foster
 		if (domBuilder.config.isUseFosterRules()) {
 			HtmlFosterRules fosterRules = new HtmlFosterRules();
@@ -145,372 +96,109 @@ public class LagartoDOMBuilderTagVisitor implements TagVisitor {
 	/**
 	 * Creates new element with correct configuration.
 	 */
-	protected Element createElementNode(final Tag tag) {
-		boolean hasVoidTags = htmlVoidRules != null;
-
-		boolean isVoid = false;
-		boolean selfClosed = false;
-
-		if (hasVoidTags) {
-			isVoid = htmlVoidRules.isVoidTag(tag.getName());
-
-			// HTML and XHTML
-			if (isVoid) {
-				// it's void tag, lookup the flag
-				selfClosed = domBuilder.config.isSelfCloseVoidTags();
-			}
-		} else {
-			// XML, no voids, lookup the flag
-			selfClosed = domBuilder.config.isSelfCloseVoidTags();
-		}
-
-		return new Element(rootNode, tag, isVoid, selfClosed);
-	}
-
-	/**
-	 * Visits tags.
-	 */
 	@Override
-	public void tag(final Tag tag) {
-		if (!enabled) {
-			return;
-		}
-
-		TagType tagType = tag.getType();
-		Element node;
-
-		switch (tagType) {
-			case START:
-				if (domBuilder.config.isIgnoreWhitespacesBetweenTags()) {
-					removeLastChildNodeIfEmptyText(parentNode, false);
-				}
-
-				node = createElementNode(tag);
-
-				if (domBuilder.config.isImpliedEndTags()) {
-					while (true) {
-						String parentNodeName = parentNode.getNodeName();
-						if (!implRules.implicitlyCloseParentTagOnNewTag(parentNodeName, node.getNodeName())) {
-							break;
-						}
-						parentNode = parentNode.getParentNode();
-
-						if (log.isDebugEnabled()) {
-							log.debug("Implicitly closed tag <" + node.getNodeName() + "> ");
-						}
-					}
-				}
-
-				parentNode.addChild(node);
-
-				if (!node.isVoidElement()) {
-					parentNode = node;
-				}
-				break;
-
-			case END:
-				if (domBuilder.config.isIgnoreWhitespacesBetweenTags()) {
-					removeLastChildNodeIfEmptyText(parentNode, true);
-				}
-
-				String tagName = tag.getName().toString();
-
-				Node matchingParent = findMatchingParentOpenTag(tagName);
-
-				if (matchingParent == parentNode) {		// regular situation
-					parentNode = parentNode.getParentNode();
-					break;
-				}
-
-				if (matchingParent == null) {			// matching open tag not found, remove it
-					error("Orphan closed tag ignored: </" + tagName + "> " + tag.getTagPosition());
-					break;
-				}
-
-				// try to close it implicitly
-				if (domBuilder.config.isImpliedEndTags()) {
-					boolean fixed = false;
-
-					while (implRules.implicitlyCloseParentTagOnTagEnd(parentNode.getNodeName(), tagName)) {
-						parentNode = parentNode.getParentNode();
-
-						if (log.isDebugEnabled()) {
-							log.debug("Implicitly closed tag <" + tagName + ">");
-						}
-
-						if (parentNode == matchingParent) {
-							parentNode = matchingParent.parentNode;
-							fixed = true;
-							break;
-						}
-					}
-					if (fixed) {
-						break;
-					}
-				}
-
-
-				// matching tag found, but it is not a regular situation
-				// therefore close all unclosed tags in between
-				fixUnclosedTagsUpToMatchingParent(tag, matchingParent);
-
-				break;
-
-			case SELF_CLOSING:
-				if (domBuilder.config.isIgnoreWhitespacesBetweenTags()) {
-					removeLastChildNodeIfEmptyText(parentNode, false);
-				}
-
-				node = createElementNode(tag);
-				parentNode.addChild(node);
-				break;
-		}
+	protected Element createElementNode(final Tag tag) {
+		return (Element) super.createElementNode(tag);
 	}
 
-	// ---------------------------------------------------------------- util
+	// methods below keep the node type in signatures for subclasses
 
-	/**
-	 * Removes last child node if contains just empty text.
-	 */
+	@Override
 	protected void removeLastChildNodeIfEmptyText(final Node parentNode, final boolean closedTag) {
-		if (parentNode == null) {
-			return;
-		}
-
-		Node lastChild = parentNode.getLastChild();
-		if (lastChild == null) {
-			return;
-		}
-		
-		if (lastChild.getNodeType() != Node.NodeType.TEXT) {
-			return;
-		}
-
-		if (closedTag) {
-			if (parentNode.getChildNodesCount() == 1) {
-				return;
-			}
-		}
-
-		Text text = (Text) lastChild;
-
-		if (text.isBlank()) {
-			lastChild.detachFromParent();
-		}
+		super.removeLastChildNodeIfEmptyText(parentNode, closedTag);
 	}
 
-	/**
-	 * Finds matching parent open tag or <code>null</code> if not found.
-	 */
-	protected Node findMatchingParentOpenTag(String tagName) {
-		Node parent = parentNode;
-		
-		if (!rootNode.config.isCaseSensitive()) {
-			tagName = tagName.toLowerCase();
-		}
-		
-		while (parent != null) {
-			String parentNodeName = parent.getNodeName();
-
-			if (parentNodeName != null) {
-				if (!rootNode.config.isCaseSensitive()) {
-					parentNodeName = parentNodeName.toLowerCase();
-				}
-			}
-			
-			if (tagName.equals(parentNodeName)) {
-				return parent;
-			}
-			parent = parent.getParentNode();
-		}
-		return null;
+	@Override
+	protected Node findMatchingParentOpenTag(final String tagName) {
+		return super.findMatchingParentOpenTag(tagName);
 	}
 
-	/**
-	 * Fixes all unclosed tags up to matching parent. Missing end tags will be added
-	 * just before parent tag is closed, making the whole inner content as its tag body.
-	 * <p>
-	 * Tags that can be closed implicitly are checked and closed.
-	 * <p>
-	 * There is optional check for detecting orphan tags inside the
-	 * table or lists. If set, tags can be closed beyond the border of the
-	 * table and the list and it is reported as orphan tag.
-	 * <p>
-	 * This is just a generic solutions, closest to the rules.
-	 */
+	@Override
 	protected void fixUnclosedTagsUpToMatchingParent(final Tag tag, final Node matchingParent) {
-		if (domBuilder.config.isUnclosedTagAsOrphanCheck()) {
-			Node thisNode = parentNode;
-
-			if (!CharSequenceUtil.equalsIgnoreCase(tag.getName(), "table")) {
-
-				// check if there is table or list between this node
-				// and matching parent
-				while (thisNode != matchingParent) {
-					String thisNodeName = thisNode.getNodeName().toLowerCase();
-
-					if (thisNodeName.equals("table") || thisNodeName.equals("ul") || thisNodeName.equals("ol")) {
-
-						String positionString = tag.getPosition();
-						if (positionString == null) {
-							positionString = StringPool.EMPTY;
-						}
-
-						error("Orphan closed tag ignored: </" + tag.getName() + "> " + positionString);
-						return;
-					}
-					thisNode = thisNode.getParentNode();
-				}
-			}
-		}
-
-		while (true) {
-			if (parentNode == matchingParent) {
-				parentNode = parentNode.getParentNode();
-				break;
-			}
-
-			Node parentParentNode = parentNode.getParentNode();
-
-			if (domBuilder.config.isImpliedEndTags()) {
-				if (implRules.implicitlyCloseParentTagOnNewTag(
-						parentParentNode.getNodeName(), parentNode.getNodeName())) {
-					// break the tree: detach this node and append it after parent
-
-					parentNode.detachFromParent();
-
-					parentParentNode.getParentNode().addChild(parentNode);
-				}
-			}
-
-			// debug message
-
-			error("Unclosed tag closed: <" + parentNode.getNodeName() + ">");
-
-			// continue looping
-			parentNode = parentParentNode;
-		}
+		super.fixUnclosedTagsUpToMatchingParent(tag, matchingParent);
 	}
 
-	// ---------------------------------------------------------------- tree
+	// ---------------------------------------------------------------- nodes
 
 	@Override
-	public void script(final Tag tag, final CharSequence body) {
-		if (!enabled) {
-			return;
-		}
-
-		Element node = createElementNode(tag);
-
-		parentNode.addChild(node);
-
-		if (body.length() != 0) {
-			Node text = new Text(rootNode, body.toString());
-			node.addChild(text);
-		}
+	protected Node createElement(final Tag tag, final boolean isVoid, final boolean selfClosed) {
+		return new Element(rootNode, tag, isVoid, selfClosed);
 	}
 
 	@Override
-	public void comment(final CharSequence comment) {
-		if (!enabled) {
-			return;
-		}
-
-		if (domBuilder.config.isIgnoreWhitespacesBetweenTags()) {
-			removeLastChildNodeIfEmptyText(parentNode, false);
-		}
-
-		if (domBuilder.config.isIgnoreComments()) {
-			return;
-		}
-
-		Node node = new Comment(rootNode, comment.toString());
-
-		parentNode.addChild(node);
+	protected Node createText(final CharSequence text) {
+		return new Text(rootNode, text.toString());
 	}
 
 	@Override
-	public void text(final CharSequence text) {
-		if (!enabled) {
-			return;
-		}
-
-		String textValue = text.toString();
-
-		Node node = new Text(rootNode, textValue);
-
-		parentNode.addChild(node);
+	protected Node createComment(final CharSequence comment) {
+		return new Comment(rootNode, comment.toString());
 	}
 
 	@Override
-	public void cdata(final CharSequence cdata) {
-		if (!enabled) {
-			return;
-		}
-
-		CData cdataNode = new CData(rootNode, cdata.toString());
-
-		parentNode.addChild(cdataNode);
+	protected Node createCData(final CharSequence cdata) {
+		return new CData(rootNode, cdata.toString());
 	}
 
 	@Override
-	public void xml(final CharSequence version, final CharSequence encoding, final CharSequence standalone) {
-		if (!enabled) {
-			return;
-		}
-
-		XmlDeclaration xmlDeclaration = new XmlDeclaration(rootNode, version, encoding, standalone);
-
-		parentNode.addChild(xmlDeclaration);
+	protected Node createXmlDeclaration(final CharSequence version, final CharSequence encoding, final CharSequence standalone) {
+		return new XmlDeclaration(rootNode, version, encoding, standalone);
 	}
 
 	@Override
-	public void doctype(final Doctype doctype) {
-		if (!enabled) {
-			return;
-		}
-
-		DocumentType documentType = new DocumentType(rootNode,
+	protected Node createDocumentType(final Doctype doctype) {
+		return new DocumentType(rootNode,
 				Util.toString(doctype.getName()),
 				Util.toString(doctype.getPublicIdentifier()),
 				Util.toString(doctype.getSystemIdentifier())
 		);
-
-		parentNode.addChild(documentType);
 	}
 
-	@Override
-	public void condComment(final CharSequence expression, final boolean isStartingTag, final boolean isHidden, final boolean isHiddenEndTag) {
-		String expressionString = expression.toString().trim();
+	// ---------------------------------------------------------------- tree
 
-		if (expressionString.equals("endif")) {
-			enabled = true;
-			return;
-		}
+	@Override
+	protected String getNodeName(final Node node) {
+		return node.getNodeName();
+	}
 
-		if (expressionString.equals("if !IE")) {
-			enabled = false;
-			return;
-		}
+	@Override
+	protected Node getParentNode(final Node node) {
+		return node.getParentNode();
+	}
 
-		float ieVersion = domBuilder.config.getCondCommentIEVersion();
+	@Override
+	protected Node getLastChild(final Node parent) {
+		return parent.getLastChild();
+	}
 
-		if (htmlCCommentExpressionMatcher == null) {
-			htmlCCommentExpressionMatcher = new HtmlCCommentExpressionMatcher();
-		}
+	@Override
+	protected Node getFirstChild(final Node parent) {
+		return parent.getFirstChild();
+	}
 
-		enabled = htmlCCommentExpressionMatcher.match(ieVersion, expressionString);
+	@Override
+	protected boolean isVoidElement(final Node node) {
+		return ((Element) node).isVoidElement();
 	}
 
-	protected HtmlCCommentExpressionMatcher htmlCCommentExpressionMatcher;
+	@Override
+	protected boolean isBlankText(final Node node) {
+		return node.getNodeType() == Node.NodeType.TEXT && ((Text) node).isBlank();
+	}
 
+	@Override
+	protected void appendChild(final Node parent, final Node child) {
+		parent.addChild(child);
+	}
 
-	// ---------------------------------------------------------------- error
+	@Override
+	protected void detachFromParent(final Node node) {
+		node.detachFromParent();
+	}
 
 	@Override
-	public void error(final String message) {
+	protected void addError(final String message) {
 		rootNode.addError(message);
-		log.log(domBuilder.config.getParsingErrorLogLevel(), message);
 	}
 
-}
\ No newline at end of file
+}
@@ -98,8 +98,9 @@ public abstract class Node implements Cloneable {
 		if (attributes != null) {
 			dest.attributes = new ArrayList<>(attributes.size());
 			for (int i = 0, attributesSize = attributes.size(); i < attributesSize; i++) {
-				Attribute attr = attributes.get(i);
-				dest.attributes.add(attr.clone());
+				Attribute attr = attributes.get(i).clone();
+				attr.owner = dest;
+				dest.attributes.add(attr);
 			}
 		}
 
@@ -154,6 +155,7 @@ public abstract class Node implements Cloneable {
 	 * Sets node value.
 	 */
 	public void setNodeValue(final String value) {
+		assertModifiable();
 		this.nodeValue = value;
 	}
 
@@ -173,11 +175,13 @@ public abstract class Node implements Cloneable {
 		if (parentNode == null) {
 			return;
 		}
+		assertModifiable();
 		if (parentNode.childNodes != null) {
 			parentNode.childNodes.remove(siblingIndex);
 			parentNode.reindexChildren();
 		}
 		parentNode = null;
+		resetDocumentIndex();
 	}
 
 	/**
@@ -185,11 +189,13 @@ public abstract class Node implements Cloneable {
 	 * since it might be slow due to {@link #reindexChildren()}.
 	 */
 	public void addChild(final Node node) {
+		assertModifiable();
 		node.detachFromParent();
 		node.parentNode = this;
 		initChildNodes(node);
 		childNodes.add(node);
 		reindexChildrenOnAdd(1);
+		resetDocumentIndex();
 	}
 
 	/**
@@ -200,6 +206,7 @@ public abstract class Node implements Cloneable {
 		if (nodes.length == 0) {
 			return;	// nothing to add
 		}
+		assertModifiable();
 		for (Node node : nodes) {
 			node.detachFromParent();
 			node.parentNode = this;
@@ -207,12 +214,14 @@ public abstract class Node implements Cloneable {
 			childNodes.add(node);
 		}
 		reindexChildrenOnAdd(nodes.length);
+		resetDocumentIndex();
 	}
 
 	/**
 	 * Inserts node at given index.
 	 */
 	public void insertChild(final Node node, final int index) {
+		assertModifiable();
 		node.detachFromParent();
 		node.parentNode = this;
 		try {
@@ -222,6 +231,7 @@ public abstract class Node implements Cloneable {
 			throw new LagartoDOMException("Invalid node index: " + index);
 		}
 		reindexChildren();
+		resetDocumentIndex();
 	}
 
 	/**
@@ -229,6 +239,7 @@ public abstract class Node implements Cloneable {
 	 * after all children are added.
 	 */
 	public void insertChild(final Node[] nodes, int index) {
+		assertModifiable();
 		for (Node node : nodes) {
 			node.detachFromParent();
 			node.parentNode = this;
@@ -241,6 +252,7 @@ public abstract class Node implements Cloneable {
 			}
 		}
 		reindexChildren();
+		resetDocumentIndex();
 	}
 
 	/**
@@ -323,11 +335,14 @@ public abstract class Node implements Cloneable {
 	 * Removes all child nodes. Each child node will be detached from this parent.
 	 */
 	public void removeAllChilds() {
+		assertModifiable();
 		List<Node> removedNodes = childNodes;
 		childNodes = null;
 		childElementNodes = null;
 		childElementNodesCount = 0;
 
+		resetDocumentIndex();
+
 		if (removedNodes != null) {
 			for (int i = 0, removedNodesSize = removedNodes.size(); i < removedNodesSize; i++) {
 				Node removedNode = removedNodes.get(i);
@@ -451,7 +466,10 @@ public abstract class Node implements Cloneable {
 		if (index == -1) {
 			return false;
 		}
-		attributes.remove(index);
+		assertModifiable();
+		Attribute attribute = attributes.remove(index);
+		attribute.owner = null;
+		resetDocumentIndex(attribute.getName());
 		return true;
 	}
 
@@ -474,7 +492,10 @@ public abstract class Node implements Cloneable {
 				return;
 			}
 		}
-		attributes.add(new Attribute(rawAttributeName, name, value));
+		Attribute attribute = new Attribute(rawAttributeName, name, value);
+		attribute.owner = this;
+		attributes.add(attribute);
+		resetDocumentIndex(name);
 	}
 
 	/**
@@ -870,10 +891,44 @@ public abstract class Node implements Cloneable {
 		}
 	}
 
+	/**
+	 * Drops the element index of the owner document, as the tree
+	 * or attributes have been changed.
+	 */
+	protected void resetDocumentIndex() {
+		if (nodeType == NodeType.DOCUMENT) {
+			((Document) this).resetIndex();
+		} else if (ownerDocument != null) {
+			ownerDocument.resetIndex();
+		}
+	}
+
+	/**
+	 * Drops the element index of the owner document if indexed
+	 * attribute (id or class) has been changed.
+	 */
+	protected void resetDocumentIndex(final String attributeName) {
+		if (attributeName.equals("id") || attributeName.equals("class")) {
+			resetDocumentIndex();
+		}
+	}
+
+	/**
+	 * Throws {@link LagartoDOMException} if the owner document
+	 * is read-only and therefore can not be changed.
+	 */
+	protected void assertModifiable() {
+		Document document = nodeType == NodeType.DOCUMENT ? (Document) this : ownerDocument;
+		if (document != null && document.isReadOnly()) {
+			throw new LagartoDOMException("Read-only document can not be modified");
+		}
+	}
+
 	/**
 	 * Initializes attributes when needed.
 	 */
 	protected void initAttributes() {
+		assertModifiable();
 		if (attributes == null) {
 			attributes = new ArrayList<>(5);
 		}
@@ -884,6 +939,7 @@ public abstract class Node implements Cloneable {
 	 * Also fix owner document for new node, if needed.
 	 */
 	protected void initChildNodes(final Node newNode) {
+		assertModifiable();
 		if (childNodes == null) {
 			childNodes = new ArrayList<>();
 		}
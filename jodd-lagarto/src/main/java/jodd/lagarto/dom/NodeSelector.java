@@ -28,15 +28,29 @@ package jodd.lagarto.dom;
 import jodd.csselly.CSSelly;
 import jodd.csselly.Combinator;
 import jodd.csselly.CssSelector;
+import jodd.csselly.Selector;
+import jodd.csselly.selector.AttributeSelector;
+import jodd.csselly.selector.Match;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Node selector selects DOM nodes using {@link CSSelly CSS3 selectors}.
  * Group of queries are supported.
+ * <p>
+ * When selecting from the whole {@link Document}, selectors made of element
+ * names and attributes only (including ids and classes) are evaluated
+ * right-to-left: candidates for the last selector are taken from the
+ * {@link DocumentIndex document index} and then matched against the previous
+ * selectors by walking up the tree. Other selectors, and all selections from
+ * a subtree, are evaluated left-to-right, by walking the (sub)tree.
  */
 public class NodeSelector {
 
@@ -74,8 +88,16 @@ public class NodeSelector {
 	protected void processSelectors(final List<Node> results, final List<CssSelector> selectors) {
 		List<Node> selectedNodes = select(rootNode, selectors);
 
+		if (results.isEmpty()) {
+			results.addAll(selectedNodes);
+			return;
+		}
+
+		Set<Node> existing = Collections.newSetFromMap(new IdentityHashMap<>(results.size()));
+		existing.addAll(results);
+
 		for (Node selectedNode : selectedNodes) {
-			if (!results.contains(selectedNode)) {
+			if (existing.add(selectedNode)) {
 				results.add(selectedNode);
 			}
 		}
@@ -127,6 +149,12 @@ public class NodeSelector {
 
 	protected List<Node> select(final Node rootNode, final List<CssSelector> selectors) {
 
+		// index covers the whole document, so it is used only when selecting from it;
+		// subtree selections walk just the subtree, as the index may need to be rebuilt
+		if (rootNode.getNodeType() == Node.NodeType.DOCUMENT && !selectors.isEmpty() && isIndexable(selectors)) {
+			return selectRightToLeft((Document) rootNode, selectors.get(selectors.size() - 1));
+		}
+
 		// start with the root node
 		List<Node> nodes = new ArrayList<>();
 		nodes.add(rootNode);
@@ -242,6 +270,153 @@ public class NodeSelector {
 		}
 	}
 
+	// ---------------------------------------------------------------- right-to-left
+
+	/**
+	 * Returns <code>true</code> if selectors can be evaluated
+	 * right-to-left, i.e. if they consist only of attribute selectors
+	 * that do not depend on the current results.
+	 */
+	protected boolean isIndexable(final List<CssSelector> selectors) {
+		for (CssSelector cssSelector : selectors) {
+			int totalSelectors = cssSelector.selectorsCount();
+			for (int i = 0; i < totalSelectors; i++) {
+				if (cssSelector.getSelector(i).getType() != Selector.Type.ATTRIBUTE) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Selects elements matching the last css selector, starting from
+	 * the indexed candidates. Results are in the document order.
+	 */
+	protected List<Node> selectRightToLeft(final Document document, final CssSelector lastCssSelector) {
+		List<Element> candidates = resolveCandidates(document.index(), lastCssSelector);
+
+		List<Node> result = new ArrayList<>();
+		Map<CssSelector, Set<Node>> mismatches = new IdentityHashMap<>();
+		for (Element candidate : candidates) {
+			if (matchRightToLeft(document, candidate, lastCssSelector, mismatches)) {
+				result.add(candidate);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Resolves the smallest known set of candidates for the css selector:
+	 * elements with the id, the class name or the element name.
+	 */
+	protected List<Element> resolveCandidates(final DocumentIndex index, final CssSelector cssSelector) {
+		List<Element> byClass = null;
+
+		int totalSelectors = cssSelector.selectorsCount();
+		for (int i = 0; i < totalSelectors; i++) {
+			AttributeSelector attributeSelector = (AttributeSelector) cssSelector.getSelector(i);
+
+			if (attributeSelector.getValue() == null) {
+				continue;
+			}
+			if (attributeSelector.getMatch() == Match.EQUALS && attributeSelector.getName().equals("id")) {
+				return index.byId(attributeSelector.getValue());
+			}
+			if (attributeSelector.getMatch() == Match.INCLUDES && attributeSelector.getName().equals("class")) {
+				List<Element> elements = index.byClass(attributeSelector.getValue());
+				if (byClass == null || elements.size() < byClass.size()) {
+					byClass = elements;
+				}
+			}
+		}
+
+		if (byClass != null) {
+			return byClass;
+		}
+
+		String element = cssSelector.getElement();
+		if (!element.equals("*")) {
+			return index.byName(element);
+		}
+		return index.elements();
+	}
+
+	/**
+	 * Matches node against the css selector and, recursively, against all
+	 * previous selectors, following their combinators backwards.
+	 * Nodes that matched a selector, but not the previous ones, are
+	 * remembered, so ancestors and siblings are not matched again
+	 * for the same selector.
+	 */
+	protected boolean matchRightToLeft(
+			final Node rootNode, final Node node, final CssSelector cssSelector,
+			final Map<CssSelector, Set<Node>> mismatches) {
+
+		if (!cssSelector.accept(node)) {
+			return false;
+		}
+
+		Set<Node> mismatched = mismatches.get(cssSelector);
+		if (mismatched != null && mismatched.contains(node)) {
+			return false;
+		}
+
+		if (matchPrevious(rootNode, node, cssSelector, mismatches)) {
+			return true;
+		}
+
+		if (mismatched == null) {
+			mismatched = Collections.newSetFromMap(new IdentityHashMap<>());
+			mismatches.put(cssSelector, mismatched);
+		}
+		mismatched.add(node);
+		return false;
+	}
+
+	/**
+	 * Matches node, already accepted by the css selector, against the previous selectors.
+	 */
+	private boolean matchPrevious(
+			final Node rootNode, final Node node, final CssSelector cssSelector,
+			final Map<CssSelector, Set<Node>> mismatches) {
+
+		CssSelector previousCssSelector = cssSelector.getPrevCssSelector();
+
+		if (previousCssSelector == null) {
+			// all indexed elements are in the document
+			return true;
+		}
+
+		switch (previousCssSelector.getCombinator()) {
+			case DESCENDANT:
+				Node parent = node.getParentNode();
+				while (parent != null && parent != rootNode) {
+					if (matchRightToLeft(rootNode, parent, previousCssSelector, mismatches)) {
+						return true;
+					}
+					parent = parent.getParentNode();
+				}
+				return false;
+			case CHILD:
+				parent = node.getParentNode();
+				return parent != null && parent != rootNode && matchRightToLeft(rootNode, parent, previousCssSelector, mismatches);
+			case ADJACENT_SIBLING:
+				Node sibling = node.getPreviousSiblingElement();
+				return sibling != null && matchRightToLeft(rootNode, sibling, previousCssSelector, mismatches);
+			case GENERAL_SIBLING:
+				sibling = node.getPreviousSiblingElement();
+				while (sibling != null) {
+					if (matchRightToLeft(rootNode, sibling, previousCssSelector, mismatches)) {
+						return true;
+					}
+					sibling = sibling.getPreviousSiblingElement();
+				}
+				return false;
+		}
+		return false;
+	}
+
 	/**
 	 * Filter nodes.
 	 */
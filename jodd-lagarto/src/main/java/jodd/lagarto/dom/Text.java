@@ -66,6 +66,7 @@ public class Text extends Node {
 	 */
 	@Override
 	public void setNodeValue(final String value) {
+		assertModifiable();
 		encodedText = null;
 		super.setNodeValue(value);
 	}
@@ -74,6 +75,7 @@ public class Text extends Node {
 	 * Sets HTML text, but decodes it first.
 	 */
 	public void setTextValue(final String text) {
+		assertModifiable();
 		encodedText = text;
 		nodeValue = HtmlDecoder.decode(text);
 	}
@@ -0,0 +1,175 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.jerry;
+
+import jodd.io.FileUtil;
+import jodd.lagarto.LagartoException;
+import jodd.lagarto.dom.LagartoDOMBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JerryBatchTest {
+
+	private static String page(final int i) {
+		return "<html><head><title>Page " + i + "</title></head><body>" +
+			"<div class='item'>" + i + "</div><div class='item'>" + (i * 2) + "</div></body></html>";
+	}
+
+	@Test
+	void testProcessBytesKeepsOrder() {
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			final JerryBatch<String> batch = new JerryBatch<>(doc -> doc.s("title").text()).pool(pool);
+
+			final List<String> titles = batch.processBytes(
+				IntStream.range(0, 200).mapToObj(i -> page(i).getBytes(StandardCharsets.UTF_8)));
+
+			assertEquals(200, titles.size());
+			for (int i = 0; i < 200; i++) {
+				assertEquals("Page " + i, titles.get(i));
+			}
+
+			final JerryBatch.Stats stats = batch.stats();
+			assertEquals(200, stats.getDocuments());
+			assertTrue(stats.getChars() > 0);
+			assertTrue(stats.getParseTime() > 0);
+			assertTrue(stats.getThroughput() > 0);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void testProcessReadersAndSniffing() {
+		final JerryBatch<Integer> batch = new JerryBatch<>(doc -> doc.s("div.item").size());
+
+		final List<Integer> counts = batch.processReaders(Stream.of(
+			new StringReader(page(1)), new StringReader("<div class='item'>x</div>"), new StringReader("")));
+
+		assertEquals(3, counts.size());
+		assertEquals(2, counts.get(0).intValue());
+		assertEquals(1, counts.get(1).intValue());
+		assertEquals(0, counts.get(2).intValue());
+
+		final JerryBatch<String> texts = new JerryBatch<>(doc -> doc.s("p").text()).encoding("ISO-8859-1");
+
+		final List<String> result = texts.processBytes(Stream.of(
+			"<meta charset='utf-8'><p>č</p>".getBytes(StandardCharsets.UTF_8),
+			"<p>é</p>".getBytes(StandardCharsets.ISO_8859_1)));
+
+		assertEquals("č", result.get(0));
+		assertEquals("é", result.get(1));
+	}
+
+	@Test
+	void testProcessFiles() throws IOException {
+		final File dir = FileUtil.createTempDirectory("jodd", "batch");
+		try {
+			final List<File> files = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				final File file = new File(dir, i + ".html");
+				FileUtil.writeString(file, page(i));
+				files.add(file);
+			}
+
+			final JerryBatch<String> batch = new JerryBatch<>(doc -> doc.s("div.item").last().text())
+				.domBuilder(() -> new LagartoDOMBuilder().enableXhtmlMode());
+
+			final List<String> result = batch.processFiles(files.stream());
+
+			for (int i = 0; i < 10; i++) {
+				assertEquals(String.valueOf(i * 2), result.get(i));
+			}
+
+			assertThrows(LagartoException.class, () -> batch.processFiles(Stream.of(new File(dir, "missing.html"))));
+		}
+		finally {
+			FileUtil.deleteDir(dir);
+		}
+	}
+
+	@Test
+	void testProcessWithConsumerAndReusedBuffers() {
+		final ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			final AtomicInteger builders = new AtomicInteger();
+			final JerryBatch<String> batch = new JerryBatch<>(doc -> doc.s("title").text() + ':' + doc.s("div.item").size())
+				.domBuilder(() -> {
+					builders.incrementAndGet();
+					return new LagartoDOMBuilder();
+				})
+				.pool(pool);
+
+			// large documents grow the buffers, small ones must not see their leftovers
+			final StringBuilder large = new StringBuilder("<title>large</title>");
+			for (int i = 0; i < 10_000; i++) {
+				large.append("<div class='item'>").append(i).append("</div>");
+			}
+
+			final Set<String> results = Collections.newSetFromMap(new ConcurrentHashMap<>());
+			batch.processBytes(
+				IntStream.range(0, 100).mapToObj(i ->
+					(i % 10 == 0 ? large.toString() : "<title>" + i + "</title>").getBytes(StandardCharsets.UTF_8)),
+				results::add);
+
+			assertEquals(91, results.size());
+			assertTrue(results.contains("large:10000"));
+			assertTrue(results.contains("7:0"));
+			assertEquals(100, batch.stats().getDocuments());
+
+			// one worker per concurrently working thread
+			final int first = builders.get();
+			assertTrue(first >= 1 && first <= 3, String.valueOf(first));
+
+			// workers are released, next batch creates new ones
+			batch.processReaders(Stream.of(new StringReader("<title>x</title>")), results::add);
+			assertTrue(results.contains("x:0"));
+			assertEquals(first + 1, builders.get());
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+}
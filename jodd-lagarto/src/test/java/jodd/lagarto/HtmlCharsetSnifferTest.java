@@ -0,0 +1,95 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.lagarto;
+
+import jodd.io.StreamUtil;
+import jodd.lagarto.adapter.StripHtmlTagAdapter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class HtmlCharsetSnifferTest {
+
+	@Test
+	void testSniffMeta() {
+		assertEquals("windows-1250", HtmlCharsetSniffer.sniff("<html><head><meta charset=\"Windows-1250\">"));
+		assertEquals("iso-8859-2", HtmlCharsetSniffer.sniff("<head><META http-equiv='Content-Type' content='text/html; charset=ISO-8859-2'/>"));
+		assertEquals("utf-8", HtmlCharsetSniffer.sniff("<meta charset=utf-8>"));
+		assertEquals("UTF-8", HtmlCharsetSniffer.sniff("<meta charset=utf-16>"));
+		assertNull(HtmlCharsetSniffer.sniff("<html><head><title>charset=latin1</title>"));
+		assertNull(HtmlCharsetSniffer.sniff("<meta charset=\"unknown-charset\">"));
+	}
+
+	@Test
+	void testSniffXml() {
+		assertEquals("iso-8859-1", HtmlCharsetSniffer.sniff("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><root/>"));
+	}
+
+	@Test
+	void testReaderWithBom() throws IOException {
+		byte[] bytes = "﻿<p>žaba</p>".getBytes(StandardCharsets.UTF_8);
+
+		Reader reader = HtmlCharsetSniffer.createReader(new ByteArrayInputStream(bytes), "ISO-8859-1");
+
+		assertEquals("<p>žaba</p>", new String(StreamUtil.readChars(reader)));
+	}
+
+	@Test
+	void testReaderWithMeta() throws IOException {
+		String html = "<html><head><meta charset=\"ISO-8859-2\"></head><body>žaba</body></html>";
+		byte[] bytes = html.getBytes("ISO-8859-2");
+
+		Reader reader = HtmlCharsetSniffer.createReader(new ByteArrayInputStream(bytes), "UTF-8");
+
+		assertEquals(html, new String(StreamUtil.readChars(reader)));
+	}
+
+	@Test
+	void testStreamingParser() throws IOException {
+		StringBuilder html = new StringBuilder("<html><head><meta charset=\"ISO-8859-2\"></head><body>");
+		for (int i = 0; i < 5000; i++) {
+			html.append("<div   class='c").append(i).append("'>  žaba  </div>\n");
+		}
+		html.append("</body></html>");
+
+		LagartoParser lagartoParser = new LagartoParser(
+			new ByteArrayInputStream(html.toString().getBytes("ISO-8859-2")), "UTF-8");
+
+		StringBuilder out = new StringBuilder();
+		lagartoParser.parse(new StripHtmlTagAdapter(new TagWriter(out)));
+
+		StringBuilder expected = new StringBuilder();
+		new LagartoParser(html.toString()).parse(new StripHtmlTagAdapter(new TagWriter(expected)));
+
+		assertEquals(expected.toString(), out.toString());
+		assertEquals(LagartoParser.DEFAULT_WINDOW_SIZE, lagartoParser.input.length);
+	}
+}
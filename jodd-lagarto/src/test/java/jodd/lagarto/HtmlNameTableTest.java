@@ -0,0 +1,77 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package jodd.lagarto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HtmlNameTableTest {
+
+	@Test
+	void testLookup() {
+		char[] input = "<div class='x'>".toCharArray();
+
+		assertSame("div", HtmlNameTable.lookup(input, 1, 4));
+		assertSame("class", HtmlNameTable.lookup(input, 5, 10));
+		assertNull(HtmlNameTable.lookup(input, 1, 3));
+		assertNull(HtmlNameTable.lookup(input, 1, 1));
+		assertNull(HtmlNameTable.lookup("DIV".toCharArray(), 0, 3));
+	}
+
+	@Test
+	void testIntern() {
+		assertSame("href", HtmlNameTable.intern(new StringBuilder("href")));
+		assertEquals("foo", HtmlNameTable.intern(new StringBuilder("foo")));
+	}
+
+	@Test
+	void testParsedTagViews() {
+		LagartoParser lagartoParser = new LagartoParser("<div class=\"one\" data-x='a&amp;b' Foo=bar>");
+
+		lagartoParser.parse(new EmptyTagVisitor() {
+			@Override
+			public void tag(Tag tag) {
+				assertSame("div", tag.getName());
+				assertSame("class", tag.getAttributeName(0));
+
+				assertFalse(tag.getAttributeValue(0) instanceof String);
+				assertEquals("one", tag.getAttributeValue(0).toString());
+
+				assertFalse(tag.getAttributeName(1) instanceof String);
+				assertTrue(tag.getAttributeValue(1) instanceof String);
+				assertEquals("a&b", tag.getAttributeValue(1));
+
+				assertEquals("Foo", tag.getAttributeName(2).toString());
+				assertEquals("bar", tag.getAttributeValue(2).toString());
+				assertEquals("bar", tag.getAttributeValue("foo").toString());
+			}
+		});
+	}
+}
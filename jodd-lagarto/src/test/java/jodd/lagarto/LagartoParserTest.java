@@ -34,6 +34,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.StringReader;
 import java.net.URL;
 
 import static jodd.util.StringPool.NEWLINE;
@@ -64,15 +65,25 @@ class LagartoParserTest {
 
 	@Test
 	void testHtmls() throws IOException {
-		_testHtmls(testDataRoot);
+		_testHtmls(testDataRoot, false);
 	}
 
 	@Test
 	void testHtmls2() throws IOException {
-		_testHtmls(testDataRoot2);
+		_testHtmls(testDataRoot2, false);
 	}
 
-	private void _testHtmls(String root) throws IOException {
+	@Test
+	void testHtmlsStreaming() throws IOException {
+		_testHtmls(testDataRoot, true);
+	}
+
+	@Test
+	void testHtmls2Streaming() throws IOException {
+		_testHtmls(testDataRoot2, true);
+	}
+
+	private void _testHtmls(String root, boolean streaming) throws IOException {
 		FindFile ff = new WildcardFindFile().include("**/*.*ml");
 		long reps = 1;
 
@@ -99,7 +110,7 @@ class LagartoParserTest {
 
 				boolean isXml = file.getName().endsWith(".xml");
 
-				String[] results = _parse(content, isXml);
+				String[] results = _parse(content, isXml, streaming);
 				String result = results[0];		// parsing result
 				String result2 = results[1];	// tag writer
 
@@ -158,7 +169,7 @@ class LagartoParserTest {
 		return errors.toString();
 	}
 
-	private String[] _parse(String content, boolean isXml) {
+	private String[] _parse(String content, boolean isXml, boolean streaming) {
 		final StringBuilder result = new StringBuilder();
 		final StringBuilder out = new StringBuilder();
 
@@ -256,7 +267,9 @@ class LagartoParserTest {
 		};
 
 
-		LagartoParser lagartoParser = new LagartoParser(content);
+		LagartoParser lagartoParser = streaming ?
+			new LagartoParser(new StringReader(content), 16) :
+			new LagartoParser(content);
 		lagartoParser.getConfig().setCalculatePosition(true);
 
 		if (isXml) {
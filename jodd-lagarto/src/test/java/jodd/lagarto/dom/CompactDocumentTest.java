@@ -0,0 +1,240 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.lagarto.dom;
+
+import jodd.io.FileUtil;
+import jodd.jerry.Jerry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactDocumentTest {
+
+	protected String testDataRoot;
+
+	@BeforeEach
+	void setUp() {
+		if (testDataRoot != null) {
+			return;
+		}
+		URL data = NodeSelectorTest.class.getResource("test");
+		testDataRoot = data.getFile();
+	}
+
+	@Test
+	void testSameTreeAsLagartoDom() throws IOException {
+		File[] files = new File(testDataRoot).listFiles((dir, name) -> name.endsWith(".html") && !name.contains("-out"));
+
+		assertTrue(files.length > 10);
+
+		for (File file : files) {
+			String content = FileUtil.readString(file);
+
+			assertSameTree(file.getName(), content, () -> new LagartoDOMBuilder());
+			assertSameTree(file.getName(), content, () -> new LagartoDOMBuilder().enableXhtmlMode());
+			assertSameTree(file.getName(), content, () -> new LagartoDOMBuilder().enableXmlMode());
+			assertSameTree(file.getName(), content, () -> new LagartoDOMBuilder().enableHtmlPlusMode());
+		}
+	}
+
+	private void assertSameTree(final String name, final String content, final Supplier<LagartoDOMBuilder> builderSupplier) {
+		LagartoDOMBuilder lagartoDOMBuilder = builderSupplier.get();
+		lagartoDOMBuilder.enableDebug();
+		Document expected = lagartoDOMBuilder.parse(content);
+
+		CompactDOMBuilder compactDOMBuilder = new CompactDOMBuilder();
+		compactDOMBuilder.setConfig(lagartoDOMBuilder.getConfig());
+		Document view = compactDOMBuilder.parse(content);
+
+		assertEquals(expected.getHtml(), view.getHtml(), name);
+		assertEquals(expected.getTextContent(), view.getTextContent(), name);
+		assertEquals(expected.getErrors(), view.getErrors(), name);
+		assertTrue(view.check(), name);
+
+		assertEquals(expected.getHtml(), CompactDocument.of(expected).view().getHtml(), name);
+	}
+
+	@Test
+	void testCompactDocument() {
+		CompactDOMBuilder compactDOMBuilder = new CompactDOMBuilder();
+		CompactDocument doc = compactDOMBuilder.parseCompact(
+			"<!DOCTYPE html><html><body><div id='main' class='a b'>one<p>two &amp; <b>three</b></p>  </div><!--c--></body></html>");
+
+		assertEquals(Node.NodeType.DOCUMENT, doc.getNodeType(0));
+
+		int html = doc.getFirstChild(0);
+		assertEquals(Node.NodeType.DOCUMENT_TYPE, doc.getNodeType(html));
+		assertEquals("html", doc.getNodeValue(html));
+
+		html = doc.getNextSibling(html);
+		assertEquals("html", doc.getNodeName(html));
+		assertEquals(0, doc.getParentNode(html));
+
+		int body = doc.getFirstChild(html);
+		int div = doc.getFirstChild(body);
+		assertEquals("div", doc.getNodeName(div));
+		assertEquals(2, doc.getAttributesCount(div));
+		assertEquals("main", doc.getAttribute(div, "ID"));
+		assertEquals("a b", doc.getAttribute(div, "class"));
+		assertTrue(doc.hasAttribute(div, "id"));
+		assertFalse(doc.hasAttribute(div, "title"));
+		assertEquals(3, doc.getChildNodesCount(div));
+		assertEquals("onetwo & three  ", doc.getTextContent(div));
+
+		int comment = doc.getLastChild(body);
+		assertEquals(Node.NodeType.COMMENT, doc.getNodeType(comment));
+		assertEquals("c", doc.getNodeValue(comment));
+		assertEquals(div, doc.getPreviousSibling(comment));
+	}
+
+	@Test
+	void testNonLatin1Values() {
+		CompactDOMBuilder compactDOMBuilder = new CompactDOMBuilder();
+		CompactDocument doc = compactDOMBuilder.parseCompact("<p title='é'>a&amp;b</p><p title='č'>ž</p><p>x</p>");
+
+		int p1 = doc.getFirstChild(0);
+		int p2 = doc.getNextSibling(p1);
+		int p3 = doc.getNextSibling(p2);
+
+		assertEquals("a&b", doc.getTextContent(p1));
+		assertEquals("é", doc.getAttribute(p1, "title"));
+		assertEquals("ž", doc.getTextContent(p2));
+		assertEquals("č", doc.getAttribute(p2, "title"));
+		assertEquals("x", doc.getTextContent(p3));
+		assertEquals("<p title=\"é\">a&amp;b</p><p title=\"č\">ž</p><p>x</p>", doc.view().getHtml());
+	}
+
+	@Test
+	void testView() {
+		CompactDOMBuilder compactDOMBuilder = new CompactDOMBuilder();
+		CompactDocument compact = compactDOMBuilder.parseCompact(
+			"<div id='a'><p class='x'>1</p><p class='x y'>2</p><span>3</span></div><div id='b'><p>4</p></div>");
+
+		Document view = compact.view();
+
+		List<Node> nodes = new NodeSelector(view).select("div#a p.x");
+		assertEquals(2, nodes.size());
+		assertEquals("2", nodes.get(1).getTextContent());
+		assertEquals(1, nodes.get(1).getSiblingIndex());
+		assertSame(nodes.get(0).getParentNode(), view.getChild(0));
+		assertSame(nodes.get(1), view.getChild(0).getChild(1));
+
+		nodes = new NodeSelector(view).select("p:last-child");
+		assertEquals(1, nodes.size());
+		assertEquals("4", nodes.get(0).getTextContent());
+
+		// read-only
+		assertThrows(LagartoDOMException.class, () -> view.getChild(0).addChild(new Element(view, "i")));
+		assertThrows(LagartoDOMException.class, () -> view.getChild(1).detachFromParent());
+
+		// clone is a regular, mutable tree
+		Document clone = view.clone();
+		clone.getChild(1).addChild(new Element(clone, "i"));
+		assertEquals("<div id=\"b\"><p>4</p><i></i></div>", clone.getChild(1).getHtml());
+
+		// each view has own nodes
+		assertFalse(compact.view().getChild(0) == view.getChild(0));
+	}
+
+	@Test
+	void testViewIsReadOnly() {
+		Document view = new CompactDOMBuilder().parseCompact(
+			"<div id='a'><p>1</p><br></div>").view();
+
+		Node div = view.getChild(0);
+		Node p = div.getChild(0);
+		Node br = div.getChild(1);
+		Node text = p.getChild(0);
+
+		assertThrows(LagartoDOMException.class, () -> br.addChild(new Element(view, "i")));
+		assertThrows(LagartoDOMException.class, () -> text.addChild(new Text(view, "x")));
+		assertThrows(LagartoDOMException.class, () -> p.setAttribute("id", "b"));
+		assertThrows(LagartoDOMException.class, () -> div.setAttribute("id", "b"));
+		assertThrows(LagartoDOMException.class, () -> div.getAttribute(0).setValue("b"));
+		assertThrows(LagartoDOMException.class, () -> div.removeAttribute("id"));
+		assertThrows(LagartoDOMException.class, () -> text.setNodeValue("2"));
+		assertThrows(LagartoDOMException.class, () -> ((Text) text).setTextValue("2"));
+		assertThrows(LagartoDOMException.class, () -> div.removeAllChilds());
+		assertThrows(LagartoDOMException.class, () -> view.insertChild(new Element(view, "i"), 0));
+
+		assertEquals("<div id=\"a\"><p>1</p><br></div>", view.getHtml());
+
+		// clone is modifiable
+		Document clone = view.clone();
+		clone.getChild(0).getAttribute(0).setValue("b");
+		clone.getChild(0).getChild(1).setAttribute("class", "x");
+		assertEquals("<div id=\"b\"><p>1</p><br class=\"x\"></div>", clone.getHtml());
+		assertEquals(1, new NodeSelector(clone).select(".x").size());
+		assertEquals("<div id=\"a\"><p>1</p><br></div>", view.getHtml());
+	}
+
+	@Test
+	void testViewIndex() {
+		Document view = new CompactDOMBuilder().parseCompact(
+			"<div id='a'><p class='x'>1</p><p class='x y x'>2</p></div><div id='b'><p>3</p></div>").view();
+
+		List<Node> nodes = new NodeSelector(view).select(".x");
+		assertEquals(2, nodes.size());
+		assertEquals("1", nodes.get(0).getTextContent());
+		assertSame(view.getChild(0).getChild(1), nodes.get(1));
+
+		nodes = new NodeSelector(view).select("#b");
+		assertEquals(1, nodes.size());
+		assertEquals("3", nodes.get(0).getTextContent());
+		assertEquals(1, nodes.get(0).getSiblingIndex());
+
+		nodes = new NodeSelector(view).select("p");
+		assertEquals(3, nodes.size());
+		assertSame(view.getChild(1).getChild(0), nodes.get(2));
+
+		view.resetIndex();
+		assertEquals(1, new NodeSelector(view).select(".y").size());
+	}
+
+	@Test
+	void testJerry() {
+		Jerry doc = Jerry.jerry(new CompactDOMBuilder()).parse(
+			"<ul><li><a href='/1'>One</a></li><li><a href='/2'>Two</a><li><a>Three</a></ul>");
+
+		assertEquals(3, doc.s("li").size());
+		assertEquals("/2", doc.s("li a").eq(1).attr("href"));
+		assertEquals("OneTwoThree", doc.s("ul").text());
+		assertNull(doc.s("a").last().attr("href"));
+	}
+}
@@ -26,6 +26,8 @@
 package jodd.lagarto.dom;
 
 import jodd.io.FastCharArrayWriter;
+import jodd.lagarto.LagartoParser;
+import jodd.lagarto.Tag;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -323,4 +325,30 @@ class DomBuilderTest {
         Element div = (Element) document.getFirstChild();
         assertEquals("&lt;root /&gt;", div.getAttribute("title"));
     }
+
+	@Test
+	void testCustomTagVisitor() {
+		LagartoDOMBuilder lagartoDOMBuilder = new LagartoDOMBuilder() {
+			@Override
+			protected Document doParse(final LagartoParser lagartoParser) {
+				lagartoParser.setConfig(config);
+
+				LagartoDOMBuilderTagVisitor domBuilderTagVisitor = new LagartoDOMBuilderTagVisitor(this) {
+					@Override
+					protected Element createElementNode(final Tag tag) {
+						Element element = super.createElementNode(tag);
+						element.setAttribute("data-level", String.valueOf(tag.getDeepLevel()));
+						return element;
+					}
+				};
+				lagartoParser.parse(domBuilderTagVisitor);
+				return domBuilderTagVisitor.getDocument();
+			}
+		};
+
+		Document document = lagartoDOMBuilder.parse("<div><b>nice</b></div>");
+		Element div = (Element) document.getFirstChild();
+		assertEquals("1", div.getAttribute("data-level"));
+		assertEquals("2", div.getFirstChild().getAttribute("data-level"));
+	}
 }
@@ -378,6 +378,133 @@ class NodeSelectorTest {
 		assertEquals("body", nodes.get(0).nodeName);
 	}
 
+	@Test
+	void testIndexedSelectionAfterMutation() {
+		Document document = new LagartoDOMBuilder().parse(
+			"<div class='item'><a href='#1'>1</a><span><a href='#2'>2</a></span><a>3</a></div>");
+		NodeSelector nodeSelector = new NodeSelector(document);
+
+		List<Node> nodes = nodeSelector.select("div.item > a[href]");
+		assertEquals(1, nodes.size());
+		assertEquals("#1", nodes.get(0).getAttribute("href"));
+
+		nodes = nodeSelector.select("div.item a[href]");
+		assertEquals(2, nodes.size());
+
+		// attribute change
+		nodes.get(1).setAttribute("class", "last");
+		assertEquals(1, nodeSelector.select("div.item .last").size());
+
+		// attribute value change
+		Node last = nodes.get(1);
+		last.getAttribute(last.indexOfAttributeInstance("class")).setValue("other");
+		assertEquals(0, nodeSelector.select("div.item .last").size());
+		assertEquals(1, nodeSelector.select("div.item .other").size());
+		last.getAttribute(last.indexOfAttributeInstance("class")).setValue("last");
+
+		// cloned attributes belong to the clone
+		Node clone = last.clone();
+		clone.getAttribute(clone.indexOfAttributeInstance("class")).setValue("other");
+		assertEquals(1, nodeSelector.select("div.item .last").size());
+
+		// tree change
+		Element a = new Element(document, "a");
+		a.setAttribute("href", "#4");
+		document.getFirstChild().addChild(a);
+
+		nodes = nodeSelector.select("div.item > a[href]");
+		assertEquals(2, nodes.size());
+		assertEquals("#4", nodes.get(1).getAttribute("href"));
+
+		a.detachFromParent();
+		assertEquals(1, nodeSelector.select("div.item > a[href]").size());
+	}
+
+	@Test
+	void testDeepDescendantSelection() {
+		StringBuilder html = new StringBuilder();
+		for (int i = 0; i < 300; i++) {
+			html.append("<div>");
+		}
+		html.append("<span>x</span>");
+		for (int i = 0; i < 300; i++) {
+			html.append("</div>");
+		}
+		Document document = new LagartoDOMBuilder().parse(html.toString());
+		NodeSelector nodeSelector = new NodeSelector(document);
+
+		assertEquals(1, nodeSelector.select("div div div div div span").size());
+		assertEquals(0, nodeSelector.select("p div div div div span").size());
+		assertEquals(0, nodeSelector.select("div p div div div div span").size());
+	}
+
+	@Test
+	void testIndexedSelectionOrderAndRoot() {
+		Document document = new LagartoDOMBuilder().parse(
+			"<div id='d1'><div id='d2'><p id='p1'></p></div><p id='p2'></p><p id='p3'></p></div>");
+
+		List<Node> nodes = new NodeSelector(document).select("div > p");
+		assertEquals(3, nodes.size());
+		assertEquals("p1", nodes.get(0).getAttribute("id"));
+		assertEquals("p2", nodes.get(1).getAttribute("id"));
+
+		nodes = new NodeSelector(document).select("p + p");
+		assertEquals(1, nodes.size());
+		assertEquals("p3", nodes.get(0).getAttribute("id"));
+
+		nodes = new NodeSelector(document).select("div ~ p");
+		assertEquals(2, nodes.size());
+
+		Node d2 = document.getChild(0).getChild(0);
+		nodes = new NodeSelector(d2).select("p");
+		assertEquals(1, nodes.size());
+		assertEquals("p1", nodes.get(0).getAttribute("id"));
+
+		assertEquals(0, new NodeSelector(d2).select("div p").size());
+		assertEquals(0, new NodeSelector(d2).select("#d2").size());
+	}
+
+	@Test
+	void testSubtreeSelectionAfterMutations() {
+		Document document = new LagartoDOMBuilder().parse(
+			"<ul id='list'><li class='item'>1</li></ul><ul id='other'><li class='item'>x</li></ul>");
+		NodeSelector documentSelector = new NodeSelector(document);
+
+		Node list = documentSelector.select("#list").get(0);
+		NodeSelector listSelector = new NodeSelector(list);
+
+		for (int i = 2; i <= 5; i++) {
+			Element li = new Element(document, "li");
+			li.setAttribute("class", "item");
+			li.addChild(new Text(document, String.valueOf(i)));
+			list.addChild(li);
+
+			List<Node> items = listSelector.select("li.item");
+			assertEquals(i, items.size());
+			assertEquals(String.valueOf(i), items.get(i - 1).getTextContent());
+
+			assertEquals(i + 1, documentSelector.select(".item").size());
+		}
+
+		// attribute changes inside the subtree
+		list.getChild(0).setAttribute("class", "first");
+		assertEquals(4, listSelector.select(".item").size());
+		assertEquals(1, listSelector.select(".first").size());
+		assertEquals(5, documentSelector.select("ul li.item").size());
+		assertEquals(1, documentSelector.select("#list > .first").size());
+
+		// non indexed attribute
+		list.getChild(1).setAttribute("title", "t");
+		assertEquals(1, listSelector.select("li[title]").size());
+		assertEquals(1, documentSelector.select("#list li[title]").size());
+
+		// removal
+		list.removeChild(0);
+		assertEquals(4, listSelector.select("li").size());
+		assertEquals(0, documentSelector.select(".first").size());
+		assertEquals(0, listSelector.select("#other li").size());
+		assertEquals(1, new NodeSelector(documentSelector.select("#other").get(0)).select("li.item").size());
+	}
 
 	// ---------------------------------------------------------------- utils
 
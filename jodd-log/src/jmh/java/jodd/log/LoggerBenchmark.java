@@ -0,0 +1,133 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.log;
+
+import jodd.log.impl.AsyncLoggerProvider;
+import jodd.log.impl.SimpleLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * Logging throughput of {@link SimpleLogger} (to redirected <code>System.out</code>)
+ * and async logger (to file), both writing into a temporary file.
+ * <p>
+ * Run:
+ * <code>
+ * gw :jodd-log:LoggerBenchmark
+ * </code>
+ * </p>
+ *
+ * Results (allocation rate with <code>-prof gc</code>, boxing of
+ * the arguments takes 32 B/op):
+ * <pre>
+ * Benchmark                                     Mode  Cnt          Score           Error  Units    Alloc
+ * LoggerBenchmark.async                        thrpt    5    3552840.427 ±   1185653.794  ops/s    80 B/op
+ * LoggerBenchmark.asyncParameterized           thrpt    5    3396798.948 ±   1536415.094  ops/s    32 B/op
+ * LoggerBenchmark.asyncParameterizedDisabled   thrpt    5  295983152.419 ± 175294618.860  ops/s    16 B/op
+ * LoggerBenchmark.simple                       thrpt    5     126017.046 ±     64387.921  ops/s  2480 B/op
+ * LoggerBenchmark.simpleDisabled               thrpt    5   34475220.119 ±  28054200.466  ops/s    56 B/op
+ * </pre>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class LoggerBenchmark {
+
+	private File simpleFile;
+	private File asyncFile;
+	private PrintStream systemOut;
+	private PrintStream simpleOut;
+	private AsyncLoggerProvider asyncProvider;
+
+	private Logger simpleLogger;
+	private Logger asyncLogger;
+	private int counter;
+
+	@Setup
+	public void setup() throws IOException {
+		simpleFile = File.createTempFile("jodd-simple", ".log");
+		asyncFile = File.createTempFile("jodd-async", ".log");
+
+		systemOut = System.out;
+		simpleOut = new PrintStream(new BufferedOutputStream(new FileOutputStream(simpleFile), 64 * 1024));
+		System.setOut(simpleOut);
+
+		simpleLogger = SimpleLogger.PROVIDER.createLogger("jodd.log.LoggerBenchmark");
+		simpleLogger.setLevel(Logger.Level.INFO);
+
+		asyncProvider = new AsyncLoggerProvider(asyncFile);
+		asyncLogger = asyncProvider.createLogger("jodd.log.LoggerBenchmark");
+		asyncLogger.setLevel(Logger.Level.INFO);
+	}
+
+	@TearDown
+	public void tearDown() {
+		asyncProvider.close();
+		System.setOut(systemOut);
+		simpleOut.close();
+		simpleFile.delete();
+		asyncFile.delete();
+	}
+
+	@Benchmark
+	public void simple() {
+		simpleLogger.info("Processed item " + counter++ + " of order " + 173);
+	}
+
+	@Benchmark
+	public void simpleDisabled() {
+		simpleLogger.debug("Processed item " + counter++ + " of order " + 173);
+	}
+
+	@Benchmark
+	public void async() {
+		asyncLogger.info("Processed item " + counter++ + " of order " + 173);
+	}
+
+	@Benchmark
+	public void asyncParameterized() {
+		asyncLogger.info("Processed item {} of order {}", counter++, 173);
+	}
+
+	@Benchmark
+	public void asyncParameterizedDisabled() {
+		asyncLogger.debug("Processed item {} of order {}", counter++, 173);
+	}
+
+}
@@ -30,7 +30,8 @@ import java.util.function.Supplier;
 /**
  * Simple Logger interface. It defines only logger methods with string
  * argument as our coding style and approach insist in always using if block
- * around the logging.
+ * around the logging. When that is not possible, use the supplier or
+ * parameterized methods: their message is built only if the level is enabled.
  */
 public interface Logger {
 
@@ -97,6 +98,53 @@ public interface Logger {
 		}
 	}
 
+	/**
+	 * Logs a parameterized message at provided logging level. Message
+	 * is formatted only if the level is enabled. When the last argument
+	 * is a <code>Throwable</code>, it is logged as the throwable of the
+	 * message and not formatted.
+	 * @see MessageFormatter
+	 */
+	default void log(final Level level, final String format, final Object arg) {
+		if (isEnabled(level)) {
+			if (arg instanceof Throwable) {
+				log(level, format, (Throwable) arg);
+			}
+			else {
+				log(level, MessageFormatter.format(format, arg));
+			}
+		}
+	}
+
+	/**
+	 * Logs a parameterized message at provided logging level.
+	 */
+	default void log(final Level level, final String format, final Object arg1, final Object arg2) {
+		if (isEnabled(level)) {
+			if (arg2 instanceof Throwable) {
+				log(level, MessageFormatter.format(format, arg1), (Throwable) arg2);
+			}
+			else {
+				log(level, MessageFormatter.format(format, arg1, arg2));
+			}
+		}
+	}
+
+	/**
+	 * Logs a parameterized message at provided logging level.
+	 */
+	default void log(final Level level, final String format, final Object... args) {
+		if (isEnabled(level)) {
+			final Throwable throwable = MessageFormatter.trailingThrowable(args);
+			if (throwable != null) {
+				log(level, MessageFormatter.format(format, args.length - 1, args), throwable);
+			}
+			else {
+				log(level, MessageFormatter.format(format, args));
+			}
+		}
+	}
+
 
 	// ---------------------------------------------------------------- level
 
@@ -126,6 +174,51 @@ public interface Logger {
 		}
 	}
 
+	/**
+	 * Logs a parameterized message at TRACE level. Message is
+	 * formatted only if the level is enabled.
+	 * @see MessageFormatter
+	 */
+	default void trace(final String format, final Object arg) {
+		if (isTraceEnabled()) {
+			if (arg instanceof Throwable) {
+				log(Level.TRACE, format, (Throwable) arg);
+			}
+			else {
+				trace(MessageFormatter.format(format, arg));
+			}
+		}
+	}
+
+	/**
+	 * Logs a parameterized message at TRACE level.
+	 */
+	default void trace(final String format, final Object arg1, final Object arg2) {
+		if (isTraceEnabled()) {
+			if (arg2 instanceof Throwable) {
+				log(Level.TRACE, MessageFormatter.format(format, arg1), (Throwable) arg2);
+			}
+			else {
+				trace(MessageFormatter.format(format, arg1, arg2));
+			}
+		}
+	}
+
+	/**
+	 * Logs a parameterized message at TRACE level.
+	 */
+	default void trace(final String format, final Object... args) {
+		if (isTraceEnabled()) {
+			final Throwable throwable = MessageFormatter.trailingThrowable(args);
+			if (throwable != null) {
+				log(Level.TRACE, MessageFormatter.format(format, args.length - 1, args), throwable);
+			}
+			else {
+				trace(MessageFormatter.format(format, args));
+			}
+		}
+	}
+
 	// ---------------------------------------------------------------- debug
 
 	/**
@@ -147,6 +240,51 @@ public interface Logger {
 		}
 	}
 
+	/**
+	 * Logs a parameterized message at DEBUG level. Message is
+	 * formatted only if the level is enabled.
+	 * @see MessageFormatter
+	 */
+	default void debug(final String format, final Object arg) {
+		if (isDebugEnabled()) {
+			if (arg instanceof Throwable) {
+				log(Level.DEBUG, format, (Throwable) arg);
+			}
+			else {
+				debug(MessageFormatter.format(format, arg));
+			}
+		}
+	}
+
+	/**
+	 * Logs a parameterized message at DEBUG level.
+	 */
+	default void debug(final String format, final Object arg1, final Object arg2) {
+		if (isDebugEnabled()) {
+			if (arg2 instanceof Throwable) {
+				log(Level.DEBUG, MessageFormatter.format(format, arg1), (Throwable) arg2);
+			}
+			else {
+				debug(MessageFormatter.format(format, arg1, arg2));
+			}
+		}
+	}
+
+	/**
+	 * Logs a parameterized message at DEBUG level.
+	 */
+	default void debug(final String format, final Object... args) {
+		if (isDebugEnabled()) {
+			final Throwable throwable = MessageFormatter.trailingThrowable(args);
+			if (throwable != null) {
+				log(Level.DEBUG, MessageFormatter.format(format, args.length - 1, args), throwable);
+			}
+			else {
+				debug(MessageFormatter.format(format, args));
+			}
+		}
+	}
+
 	// ---------------------------------------------------------------- info
 	/**
 	 * Returns <code>true</code> if INFO level is enabled.
@@ -167,6 +305,51 @@ public interface Logger {
 		}
 	}
 
+	/**
+	 * Logs a parameterized message at INFO level. Message is
+	 * formatted only if the level is enabled.
+	 * @see MessageFormatter
+	 */
+	default void info(final String format, final Object arg) {
+		if (isInfoEnabled()) {
+			if (arg instanceof Throwable) {
+				log(Level.INFO, format, (Throwable) arg);
+			}
+			else {
+				info(MessageFormatter.format(format, arg));
+			}
+		}
+	}
+
+	/**
+	 * Logs a parameterized message at INFO level.
+	 */
+	default void info(final String format, final Object arg1, final Object arg2) {
+		if (isInfoEnabled()) {
+			if (arg2 instanceof Throwable) {
+				log(Level.INFO, MessageFormatter.format(format, arg1), (Throwable) arg2);
+			}
+			else {
+				info(MessageFormatter.format(format, arg1, arg2));
+			}
+		}
+	}
+
+	/**
+	 * Logs a parameterized message at INFO level.
+	 */
+	default void info(final String format, final Object... args) {
+		if (isInfoEnabled()) {
+			final Throwable throwable = MessageFormatter.trailingThrowable(args);
+			if (throwable != null) {
+				log(Level.INFO, MessageFormatter.format(format, args.length - 1, args), throwable);
+			}
+			else {
+				info(MessageFormatter.format(format, args));
+			}
+		}
+	}
+
 	// ---------------------------------------------------------------- warn
 
 	/**
@@ -202,6 +385,51 @@ public interface Logger {
 		}
 	}
 
+	/**
+	 * Logs a parameterized message at WARN level. Message is
+	 * formatted only if the level is enabled.
+	 * @see MessageFormatter
+	 */
+	default void warn(final String format, final Object arg) {
+		if (isWarnEnabled()) {
+			if (arg instanceof Throwable) {
+				log(Level.WARN, format, (Throwable) arg);
+			}
+			else {
+				warn(MessageFormatter.format(format, arg));
+			}
+		}
+	}
+
+	/**
+	 * Logs a parameterized message at WARN level.
+	 */
+	default void warn(final String format, final Object arg1, final Object arg2) {
+		if (isWarnEnabled()) {
+			if (arg2 instanceof Throwable) {
+				log(Level.WARN, MessageFormatter.format(format, arg1), (Throwable) arg2);
+			}
+			else {
+				warn(MessageFormatter.format(format, arg1, arg2));
+			}
+		}
+	}
+
+	/**
+	 * Logs a parameterized message at WARN level.
+	 */
+	default void warn(final String format, final Object... args) {
+		if (isWarnEnabled()) {
+			final Throwable throwable = MessageFormatter.trailingThrowable(args);
+			if (throwable != null) {
+				log(Level.WARN, MessageFormatter.format(format, args.length - 1, args), throwable);
+			}
+			else {
+				warn(MessageFormatter.format(format, args));
+			}
+		}
+	}
+
 	// ---------------------------------------------------------------- error
 
 	/**
@@ -237,4 +465,49 @@ public interface Logger {
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Logs a parameterized message at ERROR level. Message is
+	 * formatted only if the level is enabled.
+	 * @see MessageFormatter
+	 */
+	default void error(final String format, final Object arg) {
+		if (isErrorEnabled()) {
+			if (arg instanceof Throwable) {
+				log(Level.ERROR, format, (Throwable) arg);
+			}
+			else {
+				error(MessageFormatter.format(format, arg));
+			}
+		}
+	}
+
+	/**
+	 * Logs a parameterized message at ERROR level.
+	 */
+	default void error(final String format, final Object arg1, final Object arg2) {
+		if (isErrorEnabled()) {
+			if (arg2 instanceof Throwable) {
+				log(Level.ERROR, MessageFormatter.format(format, arg1), (Throwable) arg2);
+			}
+			else {
+				error(MessageFormatter.format(format, arg1, arg2));
+			}
+		}
+	}
+
+	/**
+	 * Logs a parameterized message at ERROR level.
+	 */
+	default void error(final String format, final Object... args) {
+		if (isErrorEnabled()) {
+			final Throwable throwable = MessageFormatter.trailingThrowable(args);
+			if (throwable != null) {
+				log(Level.ERROR, MessageFormatter.format(format, args.length - 1, args), throwable);
+			}
+			else {
+				error(MessageFormatter.format(format, args));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,187 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.log;
+
+import java.util.Arrays;
+
+/**
+ * Formats parameterized log messages. Each <code>{}</code> in the pattern
+ * is replaced with the next argument. Placeholders without arguments are
+ * left as they are and extra arguments are ignored.
+ */
+public class MessageFormatter {
+
+	/**
+	 * Formats message with single argument.
+	 */
+	public static String format(final String pattern, final Object arg) {
+		return formatTo(new StringBuilder(pattern.length() + 16), pattern, 1, arg, null, null).toString();
+	}
+
+	/**
+	 * Formats message with two arguments.
+	 */
+	public static String format(final String pattern, final Object arg1, final Object arg2) {
+		return formatTo(new StringBuilder(pattern.length() + 32), pattern, 2, arg1, arg2, null).toString();
+	}
+
+	/**
+	 * Formats message with any number of arguments.
+	 */
+	public static String format(final String pattern, final Object... args) {
+		return formatTo(new StringBuilder(pattern.length() + 16 * args.length), pattern, args.length, null, null, args).toString();
+	}
+
+	/**
+	 * Appends formatted message with single argument.
+	 */
+	public static StringBuilder formatTo(final StringBuilder out, final String pattern, final Object arg) {
+		return formatTo(out, pattern, 1, arg, null, null);
+	}
+
+	/**
+	 * Appends formatted message with two arguments.
+	 */
+	public static StringBuilder formatTo(final StringBuilder out, final String pattern, final Object arg1, final Object arg2) {
+		return formatTo(out, pattern, 2, arg1, arg2, null);
+	}
+
+	/**
+	 * Appends formatted message with any number of arguments.
+	 */
+	public static StringBuilder formatTo(final StringBuilder out, final String pattern, final Object... args) {
+		return formatTo(out, pattern, args.length, null, null, args);
+	}
+
+	/**
+	 * Formats message with the first <code>count</code> arguments of the array.
+	 */
+	public static String format(final String pattern, final int count, final Object[] args) {
+		return formatTo(new StringBuilder(pattern.length() + 16 * count), pattern, count, args).toString();
+	}
+
+	/**
+	 * Appends formatted message with the first <code>count</code> arguments of the array.
+	 */
+	public static StringBuilder formatTo(final StringBuilder out, final String pattern, final int count, final Object[] args) {
+		return formatTo(out, pattern, count, null, null, args);
+	}
+
+	/**
+	 * Returns the last argument if it is a <code>Throwable</code>, otherwise
+	 * returns <code>null</code>. Such argument is logged as the throwable
+	 * of the message, as SLF4J and Log4j do.
+	 */
+	public static Throwable trailingThrowable(final Object[] args) {
+		if (args == null || args.length == 0) {
+			return null;
+		}
+		final Object last = args[args.length - 1];
+		return last instanceof Throwable ? (Throwable) last : null;
+	}
+
+	/**
+	 * Appends formatted message. Arguments are taken from the array,
+	 * if given, or from the first two arguments, so the common
+	 * cases do not allocate the array.
+	 */
+	private static StringBuilder formatTo(
+			final StringBuilder out, final String pattern,
+			final int argsCount, final Object arg1, final Object arg2, final Object[] args) {
+
+		if (pattern == null) {
+			return out.append((String) null);
+		}
+
+		int from = 0;
+		for (int i = 0; i < argsCount; i++) {
+			final int ndx = pattern.indexOf("{}", from);
+			if (ndx == -1) {
+				break;
+			}
+			out.append(pattern, from, ndx);
+
+			final Object arg;
+			if (args != null) {
+				arg = args[i];
+			}
+			else {
+				arg = i == 0 ? arg1 : arg2;
+			}
+			appendArgument(out, arg);
+
+			from = ndx + 2;
+		}
+		return out.append(pattern, from, pattern.length());
+	}
+
+	private static void appendArgument(final StringBuilder out, final Object arg) {
+		// common types are appended without creating strings
+		if (arg instanceof String) {
+			out.append((String) arg);
+			return;
+		}
+		if (arg instanceof Integer) {
+			out.append(((Integer) arg).intValue());
+			return;
+		}
+		if (arg instanceof Long) {
+			out.append(((Long) arg).longValue());
+			return;
+		}
+		if (arg instanceof Boolean) {
+			out.append(((Boolean) arg).booleanValue());
+			return;
+		}
+		if (arg instanceof Character) {
+			out.append(((Character) arg).charValue());
+			return;
+		}
+		if (arg == null || !arg.getClass().isArray()) {
+			out.append(arg);
+			return;
+		}
+		if (arg instanceof Object[]) {
+			out.append(Arrays.deepToString((Object[]) arg));
+		} else if (arg instanceof int[]) {
+			out.append(Arrays.toString((int[]) arg));
+		} else if (arg instanceof long[]) {
+			out.append(Arrays.toString((long[]) arg));
+		} else if (arg instanceof byte[]) {
+			out.append(Arrays.toString((byte[]) arg));
+		} else if (arg instanceof char[]) {
+			out.append(Arrays.toString((char[]) arg));
+		} else if (arg instanceof short[]) {
+			out.append(Arrays.toString((short[]) arg));
+		} else if (arg instanceof boolean[]) {
+			out.append(Arrays.toString((boolean[]) arg));
+		} else if (arg instanceof float[]) {
+			out.append(Arrays.toString((float[]) arg));
+		} else {
+			out.append(Arrays.toString((double[]) arg));
+		}
+	}
+}
@@ -0,0 +1,178 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.log.impl;
+
+import jodd.log.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded ring buffer of preallocated log events, for many producers and
+ * a single consumer. Producers claim a slot with CAS on the cursor and
+ * publish it by setting slot's sequence; no locks are used.
+ */
+final class AsyncLogBuffer {
+
+	/**
+	 * Log event slot, reused for every pass through the ring.
+	 */
+	static final class Event {
+		volatile long sequence;
+		long claimed;
+		AsyncLogger logger;
+		Logger.Level level;
+		long time;
+		String message;
+		StringBuilder text = new StringBuilder(128);
+		Throwable throwable;
+		boolean dropped;
+	}
+
+	private static final int MAX_TEXT_CAPACITY = 4096;
+
+	private final Event[] events;
+	private final int mask;
+	private final AtomicLong cursor = new AtomicLong();
+	private long consumed;
+	private volatile boolean closed;
+
+	AsyncLogBuffer(final int size) {
+		int capacity = 1;
+		while (capacity < size) {
+			capacity <<= 1;
+		}
+		this.events = new Event[capacity];
+		this.mask = capacity - 1;
+
+		for (int i = 0; i < capacity; i++) {
+			events[i] = new Event();
+			events[i].sequence = i;
+		}
+	}
+
+	/**
+	 * Claims next free slot. When buffer is full, either waits for the
+	 * consumer or returns <code>null</code>. Returns <code>null</code>
+	 * when buffer is closed.
+	 */
+	Event claim(final boolean block) {
+		long seq = cursor.get();
+
+		while (true) {
+			if (closed) {
+				return null;
+			}
+			final Event event = events[(int) seq & mask];
+			final long diff = event.sequence - seq;
+
+			if (diff == 0) {
+				if (cursor.compareAndSet(seq, seq + 1)) {
+					event.claimed = seq;
+					return event;
+				}
+			}
+			else if (diff < 0) {
+				// full
+				if (!block) {
+					return null;
+				}
+				LockSupport.parkNanos(1000);
+			}
+			seq = cursor.get();
+		}
+	}
+
+	/**
+	 * Publishes claimed event to the consumer.
+	 */
+	void publish(final Event event) {
+		event.sequence = event.claimed + 1;
+	}
+
+	/**
+	 * Returns next published event or <code>null</code>. Consumer only.
+	 */
+	Event next() {
+		final Event event = events[(int) consumed & mask];
+		if (event.sequence != consumed + 1) {
+			return null;
+		}
+		return event;
+	}
+
+	/**
+	 * Returns <code>true</code> if next event is published. Consumer only.
+	 */
+	boolean hasNext() {
+		return next() != null;
+	}
+
+	/**
+	 * Releases consumed event, so the slot can be claimed again. Consumer only.
+	 */
+	void release(final Event event) {
+		event.logger = null;
+		event.message = null;
+		event.throwable = null;
+		event.dropped = false;
+		if (event.text.capacity() > MAX_TEXT_CAPACITY) {
+			event.text = new StringBuilder(128);
+		} else {
+			event.text.setLength(0);
+		}
+		event.sequence = consumed + events.length;
+		consumed++;
+	}
+
+	/**
+	 * Returns number of consumed events. Consumer only.
+	 */
+	long consumed() {
+		return consumed;
+	}
+
+	/**
+	 * Returns number of claimed events.
+	 */
+	long claimed() {
+		return cursor.get();
+	}
+
+	/**
+	 * Closes the buffer, so no more slots can be claimed.
+	 */
+	void close() {
+		closed = true;
+	}
+
+	/**
+	 * Returns <code>true</code> if buffer is closed.
+	 */
+	boolean isClosed() {
+		return closed;
+	}
+}
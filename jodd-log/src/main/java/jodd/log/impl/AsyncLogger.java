@@ -0,0 +1,308 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.log.impl;
+
+import jodd.log.Logger;
+import jodd.log.MessageFormatter;
+
+/**
+ * Asynchronous logger. Events are handed to the {@link AsyncLoggerProvider}
+ * and written by its background thread. Parameterized messages are formatted
+ * directly into the preallocated event, so no message string is created.
+ * Arguments are formatted before the method returns, so they
+ * may be safely changed afterwards.
+ */
+public class AsyncLogger implements Logger {
+
+	private final String name;
+	private Level level;
+	private final AsyncLoggerProvider provider;
+
+	public AsyncLogger(final AsyncLoggerProvider provider, final String name, final Level defaultLevel) {
+		this.name = name;
+		this.provider = provider;
+		this.level = defaultLevel;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public boolean isEnabled(final Level level) {
+		return level.isEnabledFor(this.level);
+	}
+
+	@Override
+	public void log(final Level level, final String message) {
+		print(level, message, null);
+	}
+
+	@Override
+	public void log(final Level level, final String message, final Throwable throwable) {
+		print(level, message, throwable);
+	}
+
+	@Override
+	public void log(final Level level, final String format, final Object arg) {
+		print(level, format, 1, arg, null, null);
+	}
+
+	@Override
+	public void log(final Level level, final String format, final Object arg1, final Object arg2) {
+		print(level, format, 2, arg1, arg2, null);
+	}
+
+	@Override
+	public void log(final Level level, final String format, final Object... args) {
+		print(level, format, -1, null, null, args);
+	}
+
+	@Override
+	public void setLevel(final Level level) {
+		this.level = level;
+	}
+
+	// ---------------------------------------------------------------- trace
+
+	@Override
+	public boolean isTraceEnabled() {
+		return Level.TRACE.isEnabledFor(level);
+	}
+
+	@Override
+	public void trace(final String message) {
+		print(Level.TRACE, message, null);
+	}
+
+	@Override
+	public void trace(final String format, final Object arg) {
+		print(Level.TRACE, format, 1, arg, null, null);
+	}
+
+	@Override
+	public void trace(final String format, final Object arg1, final Object arg2) {
+		print(Level.TRACE, format, 2, arg1, arg2, null);
+	}
+
+	@Override
+	public void trace(final String format, final Object... args) {
+		print(Level.TRACE, format, -1, null, null, args);
+	}
+
+	// ---------------------------------------------------------------- debug
+
+	@Override
+	public boolean isDebugEnabled() {
+		return Level.DEBUG.isEnabledFor(level);
+	}
+
+	@Override
+	public void debug(final String message) {
+		print(Level.DEBUG, message, null);
+	}
+
+	@Override
+	public void debug(final String format, final Object arg) {
+		print(Level.DEBUG, format, 1, arg, null, null);
+	}
+
+	@Override
+	public void debug(final String format, final Object arg1, final Object arg2) {
+		print(Level.DEBUG, format, 2, arg1, arg2, null);
+	}
+
+	@Override
+	public void debug(final String format, final Object... args) {
+		print(Level.DEBUG, format, -1, null, null, args);
+	}
+
+	// ---------------------------------------------------------------- info
+
+	@Override
+	public boolean isInfoEnabled() {
+		return Level.INFO.isEnabledFor(level);
+	}
+
+	@Override
+	public void info(final String message) {
+		print(Level.INFO, message, null);
+	}
+
+	@Override
+	public void info(final String format, final Object arg) {
+		print(Level.INFO, format, 1, arg, null, null);
+	}
+
+	@Override
+	public void info(final String format, final Object arg1, final Object arg2) {
+		print(Level.INFO, format, 2, arg1, arg2, null);
+	}
+
+	@Override
+	public void info(final String format, final Object... args) {
+		print(Level.INFO, format, -1, null, null, args);
+	}
+
+	// ---------------------------------------------------------------- warn
+
+	@Override
+	public boolean isWarnEnabled() {
+		return Level.WARN.isEnabledFor(level);
+	}
+
+	@Override
+	public void warn(final String message) {
+		print(Level.WARN, message, null);
+	}
+
+	@Override
+	public void warn(final String message, final Throwable throwable) {
+		print(Level.WARN, message, throwable);
+	}
+
+	@Override
+	public void warn(final String format, final Object arg) {
+		print(Level.WARN, format, 1, arg, null, null);
+	}
+
+	@Override
+	public void warn(final String format, final Object arg1, final Object arg2) {
+		print(Level.WARN, format, 2, arg1, arg2, null);
+	}
+
+	@Override
+	public void warn(final String format, final Object... args) {
+		print(Level.WARN, format, -1, null, null, args);
+	}
+
+	// ---------------------------------------------------------------- error
+
+	@Override
+	public boolean isErrorEnabled() {
+		return Level.ERROR.isEnabledFor(level);
+	}
+
+	@Override
+	public void error(final String message) {
+		print(Level.ERROR, message, null);
+	}
+
+	@Override
+	public void error(final String message, final Throwable throwable) {
+		print(Level.ERROR, message, throwable);
+	}
+
+	@Override
+	public void error(final String format, final Object arg) {
+		print(Level.ERROR, format, 1, arg, null, null);
+	}
+
+	@Override
+	public void error(final String format, final Object arg1, final Object arg2) {
+		print(Level.ERROR, format, 2, arg1, arg2, null);
+	}
+
+	@Override
+	public void error(final String format, final Object... args) {
+		print(Level.ERROR, format, -1, null, null, args);
+	}
+
+	// ---------------------------------------------------------------- print
+
+	/**
+	 * Sends the message to the writer if level is enabled.
+	 */
+	protected void print(final Level level, final String message, final Throwable throwable) {
+		if (!isEnabled(level)) {
+			return;
+		}
+		final AsyncLogBuffer.Event event = provider.claim(this, level, throwable);
+		if (event == null) {
+			return;
+		}
+		event.message = message;
+		provider.publish(event);
+	}
+
+	/**
+	 * Formats the message into the event and sends it to the writer,
+	 * if level is enabled. Negative arguments count means that
+	 * arguments are given in the array. Trailing <code>Throwable</code>
+	 * argument is not formatted, but logged as the throwable of the event.
+	 */
+	protected void print(
+			final Level level, final String format,
+			final int argsCount, final Object arg1, final Object arg2, final Object[] args) {
+
+		if (!isEnabled(level)) {
+			return;
+		}
+
+		int count = argsCount;
+		final Throwable throwable;
+
+		if (count < 0) {
+			count = args == null ? 0 : args.length;
+			throwable = MessageFormatter.trailingThrowable(args);
+		}
+		else {
+			final Object last = count == 2 ? arg2 : arg1;
+			throwable = last instanceof Throwable ? (Throwable) last : null;
+		}
+		if (throwable != null) {
+			count--;
+		}
+
+		final AsyncLogBuffer.Event event = provider.claim(this, level, throwable);
+		if (event == null) {
+			return;
+		}
+		try {
+			if (args != null) {
+				MessageFormatter.formatTo(event.text, format, count, args);
+			}
+			else if (count == 2) {
+				MessageFormatter.formatTo(event.text, format, arg1, arg2);
+			}
+			else if (count == 1) {
+				MessageFormatter.formatTo(event.text, format, arg1);
+			}
+			else {
+				event.text.append(format);
+			}
+		}
+		catch (RuntimeException rex) {
+			event.text.append(format).append(" [").append(rex).append(']');
+		}
+		finally {
+			// claimed event must be always published
+			provider.publish(event);
+		}
+	}
+
+}
@@ -0,0 +1,345 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.log.impl;
+
+import jodd.log.Logger;
+import jodd.log.LoggerProvider;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Provider for {@link AsyncLogger}. Loggers put events into the lock-free
+ * ring buffer and return immediately; background thread drains the buffer
+ * and writes events in batches, flushing the output once per batch.
+ * <p>
+ * When the buffer is full, loggers wait for the writer by default;
+ * optionally, events may be dropped instead. Provider should be
+ * {@link #close() closed} on shutdown to write all pending events;
+ * shutdown hook does this if it is not done explicitly. Events logged
+ * while closing are either written or counted as dropped.
+ * <p>
+ * Idle writer thread is parked until the next event is published.
+ * Output errors are counted and passed to the optional
+ * {@link #setErrorHandler(Consumer) error handler}.
+ */
+public class AsyncLoggerProvider implements LoggerProvider<AsyncLogger>, AutoCloseable {
+
+	private final long startTime;
+	private final Map<String, AsyncLogger> loggers = new ConcurrentHashMap<>();
+	private final Logger.Level defaultLevel;
+	private final AsyncLogBuffer buffer;
+	private final Writer writer;
+	private final PrintWriter printWriter;
+	private final Thread writerThread;
+	private final Thread shutdownHook;
+	private final LongAdder droppedCount = new LongAdder();
+	private final LongAdder errorCount = new LongAdder();
+
+	private final StringBuilder line = new StringBuilder(256);
+	private char[] chars = new char[256];
+
+	private volatile boolean running = true;
+	private volatile boolean parked;
+	private volatile long flushedCount;
+	private boolean dropWhenFull;
+	private Consumer<IOException> errorHandler;
+
+	/**
+	 * Creates provider that appends to given file, with buffer of
+	 * 8192 events and DEBUG as default level.
+	 */
+	public AsyncLoggerProvider(final File file) {
+		this(openFile(file), 8192, Logger.Level.DEBUG);
+	}
+
+	/**
+	 * Creates provider that writes to given writer. Buffer size is
+	 * rounded up to the power of two.
+	 */
+	public AsyncLoggerProvider(final Writer writer, final int bufferSize, final Logger.Level defaultLevel) {
+		this.startTime = System.currentTimeMillis();
+		this.defaultLevel = defaultLevel;
+		this.buffer = new AsyncLogBuffer(bufferSize);
+		this.writer = new BufferedWriter(writer, 64 * 1024);
+		this.printWriter = new PrintWriter(this.writer);
+
+		this.writerThread = new Thread(this::run, "jodd-async-logger");
+		this.writerThread.setDaemon(true);
+		this.writerThread.start();
+
+		this.shutdownHook = new Thread(this::close, "jodd-async-logger-shutdown");
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+	}
+
+	private static Writer openFile(final File file) {
+		try {
+			return new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8);
+		}
+		catch (IOException ioex) {
+			throw new UncheckedIOException(ioex);
+		}
+	}
+
+	/**
+	 * Drops events when the buffer is full, instead of waiting
+	 * for the writer.
+	 */
+	public AsyncLoggerProvider setDropWhenFull(final boolean dropWhenFull) {
+		this.dropWhenFull = dropWhenFull;
+		return this;
+	}
+
+	/**
+	 * Sets the consumer of output errors. Errors are consumed
+	 * in the writer thread.
+	 */
+	public AsyncLoggerProvider setErrorHandler(final Consumer<IOException> errorHandler) {
+		this.errorHandler = errorHandler;
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public AsyncLogger createLogger(final String name) {
+		return loggers.computeIfAbsent(name, n -> new AsyncLogger(this, n, defaultLevel));
+	}
+
+	/**
+	 * Returns number of events dropped because the buffer was full
+	 * or provider was closed.
+	 */
+	public long getDroppedCount() {
+		return droppedCount.sum();
+	}
+
+	/**
+	 * Returns number of output errors.
+	 */
+	public long getErrorCount() {
+		return errorCount.sum();
+	}
+
+	// ---------------------------------------------------------------- producer
+
+	/**
+	 * Claims an event slot. Returns <code>null</code> if event has to be dropped.
+	 * Claimed event must be {@link #publish(AsyncLogBuffer.Event) published}.
+	 */
+	AsyncLogBuffer.Event claim(final AsyncLogger logger, final Logger.Level level, final Throwable throwable) {
+		if (!running) {
+			droppedCount.increment();
+			return null;
+		}
+		final AsyncLogBuffer.Event event = buffer.claim(!dropWhenFull);
+		if (event == null) {
+			droppedCount.increment();
+			return null;
+		}
+		event.logger = logger;
+		event.level = level;
+		event.time = System.currentTimeMillis();
+		event.throwable = throwable;
+		return event;
+	}
+
+	/**
+	 * Publishes claimed event and wakes up the writer, if it is parked.
+	 * Event claimed while the writer was finishing, is published as dropped.
+	 */
+	void publish(final AsyncLogBuffer.Event event) {
+		if (buffer.isClosed()) {
+			event.dropped = true;
+			droppedCount.increment();
+		}
+		buffer.publish(event);
+
+		if (parked) {
+			LockSupport.unpark(writerThread);
+		}
+	}
+
+	// ---------------------------------------------------------------- writer
+
+	private void run() {
+		while (running) {
+			if (drain() > 0) {
+				continue;
+			}
+			parked = true;
+			if (running && !buffer.hasNext()) {
+				LockSupport.park(this);
+			}
+			parked = false;
+		}
+
+		// no more events can be claimed; write the ones that are claimed so far
+		buffer.close();
+		while (buffer.consumed() < buffer.claimed()) {
+			if (drain() == 0) {
+				LockSupport.parkNanos(this, 10_000);
+			}
+		}
+
+		try {
+			writer.close();
+		}
+		catch (IOException ioex) {
+			error(ioex);
+		}
+	}
+
+	/**
+	 * Reports output error.
+	 */
+	private void error(final IOException ioex) {
+		errorCount.increment();
+		if (errorHandler != null) {
+			try {
+				errorHandler.accept(ioex);
+			}
+			catch (RuntimeException ignore) {
+			}
+		}
+	}
+
+	/**
+	 * Writes all published events and flushes the output.
+	 */
+	private int drain() {
+		int count = 0;
+		AsyncLogBuffer.Event event;
+
+		while ((event = buffer.next()) != null) {
+			if (!event.dropped) {
+				try {
+					write(event);
+				}
+				catch (IOException ioex) {
+					error(ioex);
+				}
+			}
+			buffer.release(event);
+			count++;
+		}
+		if (count > 0) {
+			printWriter.flush();
+			if (printWriter.checkError()) {
+				error(new IOException("Failed to write log events"));
+			}
+		}
+
+		flushedCount = buffer.consumed();
+		return count;
+	}
+
+	/**
+	 * Writes single event. Line is built in the reusable buffer,
+	 * so writing does not create any strings.
+	 */
+	private void write(final AsyncLogBuffer.Event event) throws IOException {
+		line.setLength(0);
+		line.append(event.time - startTime)
+			.append(" [").append(event.level.name()).append("] ")
+			.append(event.logger.getName()).append(" - ");
+
+		if (event.message != null) {
+			line.append(event.message);
+		}
+		else {
+			line.append(event.text);
+		}
+		line.append('\n');
+
+		final int length = line.length();
+		if (length > chars.length) {
+			chars = new char[Math.max(length, chars.length << 1)];
+		}
+		line.getChars(0, length, chars, 0);
+		writer.write(chars, 0, length);
+
+		if (event.throwable != null) {
+			event.throwable.printStackTrace(printWriter);
+		}
+	}
+
+	// ---------------------------------------------------------------- lifecycle
+
+	/**
+	 * Waits until all events logged so far are written.
+	 */
+	public void flush() {
+		final long target = buffer.claimed();
+
+		while (flushedCount < target && writerThread.isAlive()) {
+			LockSupport.unpark(writerThread);
+			LockSupport.parkNanos(10_000);
+		}
+	}
+
+	/**
+	 * Stops accepting events, writes pending ones and closes the output.
+	 */
+	@Override
+	public synchronized void close() {
+		if (!running) {
+			return;
+		}
+		running = false;
+
+		LockSupport.unpark(writerThread);
+		try {
+			writerThread.join();
+		}
+		catch (InterruptedException ignore) {
+			Thread.currentThread().interrupt();
+		}
+
+		if (Thread.currentThread() != shutdownHook) {
+			try {
+				Runtime.getRuntime().removeShutdownHook(shutdownHook);
+			}
+			catch (IllegalStateException ignore) {
+				// shutdown in progress
+			}
+		}
+	}
+
+}
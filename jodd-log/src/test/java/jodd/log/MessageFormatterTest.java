@@ -0,0 +1,134 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.log;
+
+import jodd.log.impl.NOPLogger;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageFormatterTest {
+
+	@Test
+	void testFormat() {
+		assertEquals("a 1 b", MessageFormatter.format("a {} b", 1));
+		assertEquals("1-2", MessageFormatter.format("{}-{}", 1, 2));
+		assertEquals("1-2-3", MessageFormatter.format("{}-{}-{}", 1, 2, 3));
+		assertEquals("null", MessageFormatter.format("{}", (Object) null));
+		assertEquals("[1, 2] [a, [b]]", MessageFormatter.format("{} {}", new int[] {1, 2}, new Object[] {"a", new String[] {"b"}}));
+
+		// missing and extra arguments
+		assertEquals("1 {}", MessageFormatter.format("{} {}", 1));
+		assertEquals("x", MessageFormatter.format("x", 1, 2));
+		assertEquals("{1}", MessageFormatter.format("{{}}", 1));
+
+		assertEquals(">1", MessageFormatter.formatTo(new StringBuilder(">"), "{}", 1).toString());
+	}
+
+	@Test
+	void testLazyLogging() {
+		final List<String> messages = new ArrayList<>();
+		final boolean[] enabled = new boolean[1];
+
+		Logger logger = new NOPLogger("test") {
+			@Override
+			public boolean isEnabled(final Level level) {
+				return enabled[0];
+			}
+			@Override
+			public boolean isDebugEnabled() {
+				return enabled[0];
+			}
+			@Override
+			public void debug(final String message) {
+				messages.add(message);
+			}
+			@Override
+			public void log(final Level level, final String message) {
+				messages.add(level + " " + message);
+			}
+		};
+
+		logger.debug("value {}", new Object() {
+			@Override
+			public String toString() {
+				throw new IllegalStateException();
+			}
+		});
+		logger.debug("values {} {} {}", 1, 2, 3);
+		assertTrue(messages.isEmpty());
+
+		enabled[0] = true;
+		logger.debug("value {}", 1);
+		logger.debug("values {} {} {}", 1, 2, 3);
+		logger.log(Logger.Level.WARN, "{}+{}", 1, 2);
+
+		assertEquals(Arrays.asList("value 1", "values 1 2 3", "WARN 1+2"), messages);
+	}
+
+	@Test
+	void testTrailingThrowable() {
+		final Exception ex = new Exception();
+
+		assertNull(MessageFormatter.trailingThrowable(null));
+		assertNull(MessageFormatter.trailingThrowable(new Object[] {1, 2}));
+		assertSame(ex, MessageFormatter.trailingThrowable(new Object[] {1, ex}));
+
+		assertEquals("a 1 {}", MessageFormatter.format("a {} {}", 1, new Object[] {1, ex}));
+
+		final List<String> messages = new ArrayList<>();
+		final List<Throwable> throwables = new ArrayList<>();
+		final Logger logger = new NOPLogger("test") {
+			@Override
+			public boolean isEnabled(final Level level) {
+				return true;
+			}
+			@Override
+			public boolean isErrorEnabled() {
+				return true;
+			}
+			@Override
+			public void log(final Level level, final String message, final Throwable throwable) {
+				messages.add(level + " " + message);
+				throwables.add(throwable);
+			}
+		};
+
+		logger.error("failed {}", 1, ex);
+		logger.error("failed {} {}", 1, 2, ex);
+		logger.log(Logger.Level.INFO, "failed {}", ex);
+
+		assertEquals(Arrays.asList("ERROR failed 1", "ERROR failed 1 2", "INFO failed {}"), messages);
+		assertEquals(Arrays.asList(ex, ex, ex), throwables);
+	}
+}
@@ -0,0 +1,212 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.log.impl;
+
+import jodd.log.Logger;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncLoggerTest {
+
+	@Test
+	void testLogging() {
+		StringWriter out = new StringWriter();
+
+		try (AsyncLoggerProvider provider = new AsyncLoggerProvider(out, 4, Logger.Level.INFO)) {
+			Logger logger = provider.createLogger("foo");
+			assertSame(logger, provider.createLogger("foo"));
+
+			assertFalse(logger.isDebugEnabled());
+			assertTrue(logger.isInfoEnabled());
+
+			logger.debug("skipped {}", 1);
+			logger.info("hello");
+			logger.info("{} + {} = {}", 1, 2, 3);
+			logger.warn("value {}", "x");
+			logger.error("failed", new IllegalStateException("boom"));
+
+			provider.flush();
+
+			String[] lines = out.toString().split("\n");
+			assertTrue(lines[0].endsWith("[INFO] foo - hello"), lines[0]);
+			assertTrue(lines[1].endsWith("[INFO] foo - 1 + 2 = 3"), lines[1]);
+			assertTrue(lines[2].endsWith("[WARN] foo - value x"), lines[2]);
+			assertTrue(lines[3].endsWith("[ERROR] foo - failed"), lines[3]);
+			assertTrue(lines[4].startsWith("java.lang.IllegalStateException: boom"), lines[4]);
+		}
+	}
+
+	@Test
+	void testManyThreads() throws Exception {
+		StringWriter out = new StringWriter();
+		AsyncLoggerProvider provider = new AsyncLoggerProvider(out, 16, Logger.Level.DEBUG);
+
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			final Logger logger = provider.createLogger("t" + t);
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 1000; i++) {
+					logger.debug("message {}", i);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		provider.close();
+
+		// all messages, in order per logger
+		int[] next = new int[4];
+		String[] lines = out.toString().split("\n");
+		assertEquals(4000, lines.length);
+
+		for (String line : lines) {
+			int ndx = line.indexOf("[DEBUG] t");
+			int t = line.charAt(ndx + 9) - '0';
+			assertTrue(line.endsWith(" - message " + next[t]), line);
+			next[t]++;
+		}
+		assertEquals(0, provider.getDroppedCount());
+
+		// closed
+		provider.createLogger("t0").info("lost");
+		assertEquals(1, provider.getDroppedCount());
+	}
+
+	@Test
+	void testTrailingThrowable() {
+		StringWriter out = new StringWriter();
+
+		try (AsyncLoggerProvider provider = new AsyncLoggerProvider(out, 4, Logger.Level.INFO)) {
+			Logger logger = provider.createLogger("foo");
+
+			logger.error("failed {}", 7, new IllegalStateException("boom"));
+			logger.warn("{} {}", 1, 2, new IllegalArgumentException("bang"));
+			logger.info("{}", new IllegalStateException("only"));
+
+			provider.flush();
+
+			String[] lines = out.toString().split("\n");
+			assertTrue(lines[0].endsWith("[ERROR] foo - failed 7"), lines[0]);
+			assertTrue(lines[1].startsWith("java.lang.IllegalStateException: boom"), lines[1]);
+
+			int ndx = 2;
+			while (!lines[ndx].contains("[WARN]")) {
+				ndx++;
+			}
+			assertTrue(lines[ndx].endsWith("[WARN] foo - 1 2"), lines[ndx]);
+			assertTrue(lines[ndx + 1].startsWith("java.lang.IllegalArgumentException: bang"), lines[ndx + 1]);
+			assertTrue(out.toString().contains("[INFO] foo - {}\njava.lang.IllegalStateException: only"));
+		}
+	}
+
+	@Test
+	void testLoggingWhileClosing() throws Exception {
+		StringWriter out = new StringWriter();
+		AsyncLoggerProvider provider = new AsyncLoggerProvider(out, 16, Logger.Level.DEBUG);
+
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			final Logger logger = provider.createLogger("t" + t);
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 20_000; i++) {
+					logger.debug("message {}", i);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		Thread.sleep(5);
+		provider.close();
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		// each event is either written or dropped
+		String written = out.toString();
+		int lines = written.isEmpty() ? 0 : written.split("\n").length;
+		assertEquals(4 * 20_000, lines + provider.getDroppedCount());
+	}
+
+	@Test
+	void testErrorHandler() {
+		Writer failing = new Writer() {
+			@Override
+			public void write(final char[] cbuf, final int off, final int len) throws IOException {
+				throw new IOException("disk full");
+			}
+			@Override
+			public void flush() throws IOException {
+				throw new IOException("disk full");
+			}
+			@Override
+			public void close() {
+			}
+		};
+
+		List<IOException> errors = new CopyOnWriteArrayList<>();
+		AsyncLoggerProvider provider = new AsyncLoggerProvider(failing, 4, Logger.Level.INFO).setErrorHandler(errors::add);
+
+		provider.createLogger("foo").info("hello");
+		provider.flush();
+		provider.close();
+
+		assertTrue(provider.getErrorCount() > 0);
+		assertEquals(provider.getErrorCount(), errors.size());
+	}
+
+	@Test
+	void testFile() throws IOException {
+		File file = File.createTempFile("jodd", ".log");
+		try {
+			try (AsyncLoggerProvider provider = new AsyncLoggerProvider(file)) {
+				provider.createLogger("bar").info("to file");
+			}
+			String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+			assertTrue(content.endsWith("[INFO] bar - to file\n"), content);
+		}
+		finally {
+			file.delete();
+		}
+	}
+}
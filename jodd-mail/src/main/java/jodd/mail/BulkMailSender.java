@@ -0,0 +1,439 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.mail;
+
+import com.sun.mail.smtp.SMTPAddressFailedException;
+import com.sun.mail.smtp.SMTPSendFailedException;
+
+import javax.mail.MessagingException;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Sends large number of emails over a pool of SMTP connections. Each connection
+ * is a {@link SendMailSession} owned by its own worker thread. Emails are queued,
+ * and sending blocks when the queue is full, so producer can not run ahead of
+ * the connections. Transient failures are retried; failed emails are reported
+ * to the {@link #onFailure(BiConsumer) failure handler}. When a worker is interrupted,
+ * sending is aborted: queued emails are reported as failed and no new emails are accepted.
+ * <p>
+ * For newsletters, {@link #prepare(Email) prepare} the email once and
+ * send it to each recipient, so the message body is shared.
+ */
+public class BulkMailSender implements AutoCloseable {
+
+	/**
+	 * Static constructor for fluent usage.
+	 */
+	public static BulkMailSender create(final MailServer<SendMailSession> mailServer) {
+		return new BulkMailSender(mailServer);
+	}
+
+	private final MailServer<SendMailSession> mailServer;
+	private int connections = 4;
+	private int queueSize = 1000;
+	private int maxRetries = 3;
+	private long retryDelay = 100;
+	private BiConsumer<Email, Exception> failureHandler;
+
+	private BlockingQueue<Task> queue;
+	private Thread[] workers;
+	private volatile boolean closed;
+	private volatile boolean aborted;
+
+	private final LongAdder sentCount = new LongAdder();
+	private final LongAdder failedCount = new LongAdder();
+	private final LongAdder retryCount = new LongAdder();
+	private long startTime;
+	private volatile long endTime;
+
+	public BulkMailSender(final MailServer<SendMailSession> mailServer) {
+		this.mailServer = mailServer;
+	}
+
+	// ---------------------------------------------------------------- config
+
+	/**
+	 * Sets number of SMTP connections.
+	 */
+	public BulkMailSender connections(final int connections) {
+		this.connections = connections;
+		return this;
+	}
+
+	/**
+	 * Sets the number of emails waiting to be sent.
+	 */
+	public BulkMailSender queueSize(final int queueSize) {
+		this.queueSize = queueSize;
+		return this;
+	}
+
+	/**
+	 * Sets maximal number of retries of transient failures.
+	 */
+	public BulkMailSender maxRetries(final int maxRetries) {
+		this.maxRetries = maxRetries;
+		return this;
+	}
+
+	/**
+	 * Sets the delay before the first retry, in milliseconds. Delay grows with each retry.
+	 */
+	public BulkMailSender retryDelay(final long retryDelay) {
+		this.retryDelay = retryDelay;
+		return this;
+	}
+
+	/**
+	 * Defines consumer of failed emails and their failures. Failures are consumed in
+	 * the worker threads. For {@link PreparedEmail prepared emails}, consumer receives
+	 * an email with just the subject and recipients. Exceptions thrown by the consumer
+	 * are ignored.
+	 */
+	public BulkMailSender onFailure(final BiConsumer<Email, Exception> failureHandler) {
+		this.failureHandler = failureHandler;
+		return this;
+	}
+
+	// ---------------------------------------------------------------- lifecycle
+
+	/**
+	 * Starts the workers. Connections are opened when first email is sent.
+	 */
+	public BulkMailSender start() {
+		if (workers != null) {
+			throw new MailException("Bulk sender already started");
+		}
+		if (connections <= 0 || queueSize <= 0) {
+			throw new MailException("Invalid number of connections or queue size");
+		}
+
+		queue = new ArrayBlockingQueue<>(queueSize);
+		workers = new Thread[connections];
+		startTime = System.nanoTime();
+
+		for (int i = 0; i < connections; i++) {
+			workers[i] = new Thread(this::work, "jodd-mail-bulk-" + (i + 1));
+			workers[i].setDaemon(true);
+			workers[i].start();
+		}
+		return this;
+	}
+
+	/**
+	 * Waits for all queued emails to be sent and closes all connections.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		if (workers == null) {
+			return;
+		}
+		try {
+			for (final Thread worker : workers) {
+				worker.join();
+			}
+		} catch (final InterruptedException iex) {
+			Thread.currentThread().interrupt();
+			throw new MailException("Interrupted while closing", iex);
+		}
+		endTime = System.nanoTime();
+	}
+
+	// ---------------------------------------------------------------- send
+
+	/**
+	 * Renders email that is going to be sent to many recipients.
+	 * @see SendMailSession#prepareMail(Email)
+	 */
+	public PreparedEmail prepare(final Email email) {
+		try (SendMailSession session = mailServer.createSession()) {
+			return session.prepareMail(email);
+		}
+	}
+
+	/**
+	 * Queues the email. Blocks while the queue is full.
+	 */
+	public void send(final Email email) {
+		enqueue(new Task(email, null, null));
+	}
+
+	/**
+	 * Queues the prepared email for given recipients. Blocks while the queue is full.
+	 */
+	public void send(final PreparedEmail email, final EmailAddress... to) {
+		enqueue(new Task(null, email, to));
+	}
+
+	private void enqueue(final Task task) {
+		if (closed || aborted || workers == null) {
+			throw new MailException("Bulk sender is not running");
+		}
+		try {
+			while (!queue.offer(task, 50, TimeUnit.MILLISECONDS)) {
+				if (aborted) {
+					throw new MailException("Bulk sender is not running");
+				}
+			}
+		} catch (final InterruptedException iex) {
+			Thread.currentThread().interrupt();
+			throw new MailException("Interrupted while sending", iex);
+		}
+		if (aborted && queue.remove(task)) {
+			throw new MailException("Bulk sender is not running");
+		}
+	}
+
+	/**
+	 * Worker loop: sends emails over single session until sender is closed and queue is empty.
+	 * Any failure of a task is reported, so the worker keeps running and the queue is drained.
+	 * On interruption or error, sending is aborted and all queued emails are reported as failed.
+	 */
+	private void work() {
+		SendMailSession session = null;
+		boolean completed = false;
+
+		try {
+			tasks:
+			while (!aborted) {
+				final Task task;
+				try {
+					task = queue.poll(50, TimeUnit.MILLISECONDS);
+				} catch (final InterruptedException iex) {
+					Thread.currentThread().interrupt();
+					aborted = true;
+					break;
+				}
+				if (task == null) {
+					if (closed) {
+						break;
+					}
+					continue;
+				}
+
+				int attempt = 0;
+				while (true) {
+					try {
+						if (session == null || !session.isConnected()) {
+							closeSession(session);
+							session = mailServer.createSession();
+							session.open();
+						}
+						task.send(session);
+						sentCount.increment();
+						break;
+					}
+					catch (final MailException mex) {
+						if (attempt < maxRetries && isTransient(mex)) {
+							attempt++;
+							retryCount.increment();
+							if (!sleep(retryDelay * attempt)) {
+								failed(task, mex);
+								aborted = true;
+								break tasks;
+							}
+							continue;
+						}
+						failed(task, mex);
+						break;
+					}
+					catch (final Exception ex) {
+						failed(task, ex);
+						break;
+					}
+				}
+			}
+			completed = true;
+		}
+		finally {
+			if (!completed) {
+				aborted = true;
+			}
+			closeSession(session);
+			if (aborted) {
+				drain();
+			}
+		}
+	}
+
+	/**
+	 * Reports all queued emails as failed.
+	 */
+	private void drain() {
+		Task task;
+		while ((task = queue.poll()) != null) {
+			failed(task, new MailException("Bulk sending aborted"));
+		}
+	}
+
+	private void failed(final Task task, final Exception ex) {
+		failedCount.increment();
+		if (failureHandler != null) {
+			try {
+				failureHandler.accept(task.email(), ex);
+			}
+			catch (final Exception ignore) {
+			}
+		}
+	}
+
+	private static boolean sleep(final long millis) {
+		try {
+			Thread.sleep(millis);
+			return true;
+		} catch (final InterruptedException iex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private static void closeSession(final SendMailSession session) {
+		if (session != null && session.isConnected()) {
+			try {
+				session.close();
+			} catch (final MailException ignore) {
+			}
+		}
+	}
+
+	/**
+	 * Returns {@code true} if failure is transient: connection failure or
+	 * SMTP reply with 4xx code. Permanent (5xx) failures are not retried.
+	 */
+	protected boolean isTransient(final MailException mex) {
+		Throwable t = mex.getCause();
+
+		while (t != null) {
+			if (t instanceof SMTPSendFailedException) {
+				return isTransientCode(((SMTPSendFailedException) t).getReturnCode());
+			}
+			if (t instanceof SMTPAddressFailedException) {
+				return isTransientCode(((SMTPAddressFailedException) t).getReturnCode());
+			}
+			if (t instanceof IOException) {
+				return true;
+			}
+			if (t instanceof MessagingException && ((MessagingException) t).getNextException() != null) {
+				t = ((MessagingException) t).getNextException();
+			} else {
+				t = t.getCause();
+			}
+		}
+		return false;
+	}
+
+	private static boolean isTransientCode(final int code) {
+		return code >= 400 && code < 500;
+	}
+
+	// ---------------------------------------------------------------- statistics
+
+	/**
+	 * Returns number of sent emails.
+	 */
+	public long sentCount() {
+		return sentCount.sum();
+	}
+
+	/**
+	 * Returns number of emails that failed to be sent.
+	 */
+	public long failedCount() {
+		return failedCount.sum();
+	}
+
+	/**
+	 * Returns total number of retries.
+	 */
+	public long retryCount() {
+		return retryCount.sum();
+	}
+
+	/**
+	 * Returns number of sent emails per second, from the start until
+	 * the sender is closed or until now.
+	 */
+	public double throughput() {
+		if (workers == null) {
+			return 0;
+		}
+		final long end = endTime != 0 ? endTime : System.nanoTime();
+		final long elapsed = Math.max(end - startTime, 1);
+		return sentCount.sum() * 1_000_000_000d / elapsed;
+	}
+
+	@Override
+	public String toString() {
+		return "BulkMailSender{sent=" + sentCount() + ", failed=" + failedCount() + ", retries=" + retryCount()
+			+ ", throughput=" + String.format("%.1f", throughput()) + "/s}";
+	}
+
+	// ---------------------------------------------------------------- task
+
+	/**
+	 * Single email to send.
+	 */
+	private static class Task {
+		private final Email email;
+		private final PreparedEmail preparedEmail;
+		private final EmailAddress[] to;
+
+		private Task(final Email email, final PreparedEmail preparedEmail, final EmailAddress[] to) {
+			this.email = email;
+			this.preparedEmail = preparedEmail;
+			this.to = to;
+		}
+
+		/**
+		 * Returns the email of this task. For prepared emails,
+		 * returns new email with the subject and recipients.
+		 */
+		private Email email() {
+			if (email != null) {
+				return email;
+			}
+			return Email.create().subject(preparedEmail.subject()).to(to);
+		}
+
+		private void send(final SendMailSession session) {
+			if (email != null) {
+				session.sendMail(email);
+			} else {
+				session.sendMail(preparedEmail, to);
+			}
+		}
+	}
+}
@@ -0,0 +1,103 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.mail;
+
+import javax.mail.Message.RecipientType;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import javax.mail.util.SharedByteArrayInputStream;
+import java.io.InputStream;
+
+/**
+ * Email which content is rendered once and then sent to many recipients.
+ * Message body, including encoded attachments, is shared between all sent
+ * messages; only recipients and message ID are set for each of them.
+ *
+ * @see SendMailSession#prepareMail(Email)
+ */
+public class PreparedEmail {
+
+	/**
+	 * Headers of the template that are not rendered.
+	 */
+	static final String[] IGNORED_HEADERS = {"To", "Cc", "Bcc", "Message-ID"};
+
+	private final byte[] message;
+	private final String subject;
+
+	PreparedEmail(final byte[] message, final String subject) {
+		this.message = message;
+		this.subject = subject;
+	}
+
+	/**
+	 * Returns the subject of the email.
+	 */
+	public String subject() {
+		return subject;
+	}
+
+	/**
+	 * Returns the size of the rendered message, in bytes.
+	 */
+	public int size() {
+		return message.length;
+	}
+
+	/**
+	 * Creates new {@link MimeMessage} for given recipients. Only message headers are parsed.
+	 */
+	MimeMessage createMessage(final Session session, final EmailAddress[] to) throws MessagingException {
+		final PreparedMimeMessage msg = new PreparedMimeMessage(session, new SharedByteArrayInputStream(message));
+		msg.setRecipients(RecipientType.TO, EmailAddress.convert(to));
+		msg.updateMessageID();
+		return msg;
+	}
+
+	@Override
+	public String toString() {
+		return "PreparedEmail{'" + subject + "'}";
+	}
+
+	/**
+	 * Message parsed from the shared input stream. Content is
+	 * not copied and it is written as it is, without re-encoding.
+	 */
+	private static class PreparedMimeMessage extends MimeMessage {
+
+		private PreparedMimeMessage(final Session session, final InputStream in) throws MessagingException {
+			super(session, in);
+		}
+
+		// makes method accessible in this package
+		@Override
+		protected void updateMessageID() throws MessagingException {
+			super.updateMessageID();
+		}
+	}
+}
@@ -33,6 +33,7 @@ import javax.mail.MessagingException;
 import javax.mail.Session;
 import javax.mail.Store;
 import java.io.File;
+import java.util.Iterator;
 import java.util.function.Consumer;
 
 /**
@@ -333,24 +334,7 @@ public class ReceiveMailSession extends MailSession<Store> {
 			final ReceivedEmail[] emails = new ReceivedEmail[messages.length];
 
 			for (int i = 0; i < messages.length; i++) {
-				final Message msg = messages[i];
-
-				// we need to parse message BEFORE flags are set!
-				emails[i] = new ReceivedEmail(msg, envelope, attachmentStorage);
-
-				if (!EmailUtil.isEmptyFlags(flagsToSet)) {
-					emails[i].flags(flagsToSet);
-					msg.setFlags(flagsToSet, true);
-				}
-
-				if (!EmailUtil.isEmptyFlags(flagsToUnset)) {
-					emails[i].flags().remove(flagsToUnset);
-					msg.setFlags(flagsToUnset, false);
-				}
-
-				if (EmailUtil.isEmptyFlags(flagsToSet) && !emails[i].isSeen()) {
-					msg.setFlag(Flags.Flag.SEEN, false);
-				}
+				emails[i] = receiveMessage(messages[i], flagsToSet, flagsToUnset, envelope, false);
 			}
 
 			if (processedMessageConsumer != null) {
@@ -371,6 +355,57 @@ public class ReceiveMailSession extends MailSession<Store> {
 	}
 
 
+	/**
+	 * Receives single message and updates its flags.
+	 */
+	ReceivedEmail receiveMessage(
+			final Message msg,
+			final Flags flagsToSet,
+			final Flags flagsToUnset,
+			final boolean envelope,
+			final boolean deferContent) throws MessagingException {
+
+		// we need to parse message BEFORE flags are set!
+		final ReceivedEmail email = new ReceivedEmail(msg, envelope || deferContent, attachmentStorage);
+
+		if (deferContent) {
+			email.deferContent(EmailUtil.isEmptyFlags(flagsToSet) && !email.isSeen());
+		}
+
+		if (!EmailUtil.isEmptyFlags(flagsToSet)) {
+			email.flags(flagsToSet);
+			msg.setFlags(flagsToSet, true);
+		}
+
+		if (!EmailUtil.isEmptyFlags(flagsToUnset)) {
+			email.flags().remove(flagsToUnset);
+			msg.setFlags(flagsToUnset, false);
+		}
+
+		if (EmailUtil.isEmptyFlags(flagsToSet) && !email.isSeen()) {
+			msg.setFlag(Flags.Flag.SEEN, false);
+		}
+
+		return email;
+	}
+
+	/**
+	 * The streaming email receiving method. Messages are fetched in pages
+	 * and parsed one by one, so the whole folder is never held in memory.
+	 * @see ReceivedEmailIterator
+	 */
+	Iterator<ReceivedEmail> iterateMessages(
+			final EmailFilter filter,
+			final Flags flagsToSet,
+			final Flags flagsToUnset,
+			final boolean envelope,
+			final int pageSize,
+			final Consumer<Message[]> processedMessageConsumer) {
+		useAndOpenFolderIfNotSet();
+
+		return new ReceivedEmailIterator(this, folder, filter, flagsToSet, flagsToUnset, envelope, pageSize, processedMessageConsumer);
+	}
+
 	// ---------------------------------------------------------------- update
 
 	/**
@@ -399,6 +434,15 @@ public class ReceiveMailSession extends MailSession<Store> {
 		}
 	}
 
+	/**
+	 * Closes current folder, if opened, and expunges deleted messages.
+	 * The same folder is opened again on next access.
+	 */
+	void closeFolder() {
+		closeFolderIfOpened(folder);
+		folder = null;
+	}
+
 	@Override
 	public void close() {
 		closeFolderIfOpened(folder);
@@ -36,10 +36,12 @@ import javax.mail.Multipart;
 import javax.mail.Part;
 import javax.mail.internet.MimeMessage;
 import javax.mail.internet.MimePart;
+import javax.activation.DataSource;
 import javax.mail.util.ByteArrayDataSource;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Date;
@@ -267,6 +269,65 @@ public class ReceivedEmail extends CommonEmail<ReceivedEmail> {
 		return false;
 	}
 
+	// ---------------------------------------------------------------- deferred content
+
+	private boolean contentDeferred;
+	private boolean keepUnseen;
+
+	/**
+	 * Defers parsing of the message content until it is first accessed.
+	 * When <code>keepUnseen</code> is set, the message is marked as unseen
+	 * again after the content is loaded.
+	 */
+	ReceivedEmail deferContent(final boolean keepUnseen) {
+		this.contentDeferred = true;
+		this.keepUnseen = keepUnseen;
+		return this;
+	}
+
+	/**
+	 * Returns {@code true} if the message content is not loaded yet.
+	 * Content is loaded on first access of messages, attachments or attached messages.
+	 * Folder of the original message must be still opened at that time.
+	 */
+	public boolean isContentDeferred() {
+		return contentDeferred;
+	}
+
+	/**
+	 * Loads the deferred content of the original message.
+	 * Does nothing if content is already loaded.
+	 */
+	public ReceivedEmail loadContent() {
+		if (!contentDeferred) {
+			return this;
+		}
+		contentDeferred = false;
+
+		try {
+			processPart(originalMessage);
+
+			if (keepUnseen) {
+				originalMessage.setFlag(Flag.SEEN, false);
+			}
+		} catch (final Exception ex) {
+			throw new MailException("Message parsing failed", ex);
+		}
+		return this;
+	}
+
+	@Override
+	public List<EmailMessage> messages() {
+		loadContent();
+		return super.messages();
+	}
+
+	@Override
+	public List<EmailAttachment<? extends DataSource>> attachments() {
+		loadContent();
+		return super.attachments();
+	}
+
 	// ---------------------------------------------------------------- original message
 
 	/**
@@ -441,11 +502,13 @@ public class ReceivedEmail extends CommonEmail<ReceivedEmail> {
 	 */
 	private ReceivedEmail addAttachment(final Part part, final InputStream content, final File attachmentStorage) throws MessagingException, IOException {
 		final EmailAttachmentBuilder builder = addAttachmentInfo(part);
-		builder.content(content, part.getContentType());
 		if (attachmentStorage != null) {
+			// content is streamed directly to the file
+			builder.content(new InputStreamDataSource(content, part.getContentType()));
 			String name = messageId + "-" + (this.attachments().size() + 1);
 			return storeAttachment(builder.buildFileDataSource(name, attachmentStorage));
 		}
+		builder.content(content, part.getContentType());
 		return storeAttachment(builder.buildByteArrayDataSource());
 	}
 
@@ -484,6 +547,39 @@ public class ReceivedEmail extends CommonEmail<ReceivedEmail> {
 			.inline(isInline);
 	}
 
+	/**
+	 * Unnamed {@link DataSource} of an {@link InputStream} that can be read only once.
+	 */
+	private static class InputStreamDataSource implements DataSource {
+		private final InputStream inputStream;
+		private final String contentType;
+
+		private InputStreamDataSource(final InputStream inputStream, final String contentType) {
+			this.inputStream = inputStream;
+			this.contentType = contentType;
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return inputStream;
+		}
+
+		@Override
+		public OutputStream getOutputStream() throws IOException {
+			throw new IOException("Read-only data source");
+		}
+
+		@Override
+		public String getContentType() {
+			return contentType;
+		}
+
+		@Override
+		public String getName() {
+			return StringPool.EMPTY;
+		}
+	}
+
 	// ---------------------------------------------------------------- inner messages
 
 	/**
@@ -519,6 +615,7 @@ public class ReceivedEmail extends CommonEmail<ReceivedEmail> {
 	 * @return {@link List} of {@link ReceivedEmail}s.
 	 */
 	public List<ReceivedEmail> attachedMessages() {
+		loadContent();
 		return attachedMessages;
 	}
 
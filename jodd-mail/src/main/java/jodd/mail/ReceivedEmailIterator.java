@@ -0,0 +1,174 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.mail;
+
+import javax.mail.FetchProfile;
+import javax.mail.Flags;
+import javax.mail.Folder;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Iterator over received emails of a folder. Messages are fetched in pages:
+ * envelopes and flags of all messages in a page are prefetched in a single
+ * request, and then messages are received one by one. Message content is
+ * {@link ReceivedEmail#loadContent() loaded} when first accessed, unless
+ * messages are deleted upon receiving. Deleted messages are expunged
+ * after the last page, or when the folder is closed.
+ */
+class ReceivedEmailIterator implements Iterator<ReceivedEmail> {
+
+	private final ReceiveMailSession session;
+	private final Folder folder;
+	private final Flags flagsToSet;
+	private final Flags flagsToUnset;
+	private final boolean envelope;
+	private final boolean deleted;
+	private final int pageSize;
+	private final Consumer<Message[]> processedMessageConsumer;
+
+	private final Message[] searchResult;
+	private final int total;
+
+	private int offset;
+	private ReceivedEmail[] page = ReceivedEmail.EMPTY_ARRAY;
+	private int pageIndex;
+	private boolean done;
+
+	ReceivedEmailIterator(
+			final ReceiveMailSession session,
+			final Folder folder,
+			final EmailFilter filter,
+			final Flags flagsToSet,
+			final Flags flagsToUnset,
+			final boolean envelope,
+			final int pageSize,
+			final Consumer<Message[]> processedMessageConsumer) {
+
+		if (pageSize <= 0) {
+			throw new MailException("Invalid page size: " + pageSize);
+		}
+
+		this.session = session;
+		this.folder = folder;
+		this.flagsToSet = flagsToSet;
+		this.flagsToUnset = flagsToUnset;
+		this.envelope = envelope;
+		this.deleted = !EmailUtil.isEmptyFlags(flagsToSet) && flagsToSet.contains(Flags.Flag.DELETED);
+		this.pageSize = pageSize;
+		this.processedMessageConsumer = processedMessageConsumer;
+
+		try {
+			if (filter == null) {
+				searchResult = null;
+				total = folder.getMessageCount();
+			} else {
+				searchResult = folder.search(filter.getSearchTerm());
+				total = searchResult.length;
+			}
+		} catch (final MessagingException msgexc) {
+			throw new MailException("Failed to fetch messages", msgexc);
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (pageIndex < page.length) {
+			return true;
+		}
+		if (done) {
+			return false;
+		}
+		if (offset < total) {
+			fetchNextPage();
+			return true;
+		}
+
+		done = true;
+		page = ReceivedEmail.EMPTY_ARRAY;
+
+		// if messages were marked to be deleted, we need to expunge the folder
+		if (deleted) {
+			try {
+				folder.expunge();
+			} catch (final MessagingException msgexc) {
+				throw new MailException("Failed to expunge messages", msgexc);
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public ReceivedEmail next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final ReceivedEmail email = page[pageIndex];
+		page[pageIndex++] = null;
+		return email;
+	}
+
+	/**
+	 * Fetches and receives next page of messages.
+	 */
+	private void fetchNextPage() {
+		final int end = Math.min(offset + pageSize, total);
+
+		try {
+			final Message[] messages;
+			if (searchResult == null) {
+				messages = folder.getMessages(offset + 1, end);
+			} else {
+				messages = Arrays.copyOfRange(searchResult, offset, end);
+			}
+
+			final FetchProfile fetchProfile = new FetchProfile();
+			fetchProfile.add(FetchProfile.Item.ENVELOPE);
+			fetchProfile.add(FetchProfile.Item.FLAGS);
+			folder.fetch(messages, fetchProfile);
+
+			final ReceivedEmail[] emails = new ReceivedEmail[messages.length];
+
+			for (int i = 0; i < messages.length; i++) {
+				emails[i] = session.receiveMessage(messages[i], flagsToSet, flagsToUnset, envelope, !envelope && !deleted);
+			}
+
+			if (processedMessageConsumer != null) {
+				processedMessageConsumer.accept(messages);
+			}
+
+			page = emails;
+			pageIndex = 0;
+			offset = end;
+		} catch (final MessagingException msgexc) {
+			throw new MailException("Failed to fetch messages", msgexc);
+		}
+	}
+}
@@ -26,7 +26,13 @@
 package jodd.mail;
 
 import javax.mail.Flags;
+import javax.mail.Message;
 import javax.mail.MessagingException;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Fluent builder
@@ -40,6 +46,7 @@ public class ReceiverBuilder {
 	private boolean envelopeOnly;
 	private String targetFolder;
 	private String fromFolder;
+	private int pageSize = 100;
 
 	public ReceiverBuilder(final ReceiveMailSession session) {
 		this.session = session;
@@ -110,6 +117,15 @@ public class ReceiverBuilder {
 		return this;
 	}
 
+	/**
+	 * Defines number of messages fetched at once when emails
+	 * are received as {@link #stream() stream}.
+	 */
+	public ReceiverBuilder pageSize(final int pageSize) {
+		this.pageSize = pageSize;
+		return this;
+	}
+
 	/**
 	 * Receives the emails as specified by the builder.
 	 */
@@ -118,15 +134,49 @@ public class ReceiverBuilder {
 			session.useFolder(fromFolder);
 		}
 
-		return session.receiveMessages(filter, flagsToSet, flagsToUnset, envelopeOnly, messages -> {
-			if (targetFolder != null) {
-				try {
-					session.folder.copyMessages(messages, session.getFolder(targetFolder));
-				} catch (MessagingException e) {
-					throw new MailException("Copying messages failed");
-				}
+		return session.receiveMessages(filter, flagsToSet, flagsToUnset, envelopeOnly, this::moveMessages);
+	}
+
+	/**
+	 * Receives the emails one by one, as specified by the builder. Messages are fetched
+	 * in {@link #pageSize(int) pages} and their content is loaded when accessed, while
+	 * the folder is still opened. Deleted messages are received with their content
+	 * and expunged when all emails are received, or when the folder is closed.
+	 */
+	public Iterator<ReceivedEmail> iterator() {
+		if (fromFolder != null) {
+			session.useFolder(fromFolder);
+		}
+
+		return session.iterateMessages(filter, flagsToSet, flagsToUnset, envelopeOnly, pageSize, this::moveMessages);
+	}
+
+	/**
+	 * Receives the emails as a sequential stream. Stream should be used in
+	 * try-with-resources block: on close, the folder is closed and deleted messages
+	 * are expunged, even when not all emails are consumed. Note that flags are set
+	 * for all messages of a fetched page at once. Deferred content of
+	 * received emails is available only while the stream is not closed.
+	 * @see #iterator()
+	 */
+	public Stream<ReceivedEmail> stream() {
+		final Iterator<ReceivedEmail> iterator = iterator();
+		return StreamSupport.stream(
+			Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+			.onClose(session::closeFolder);
+	}
+
+	/**
+	 * Copies processed messages to the target folder, if defined.
+	 */
+	private void moveMessages(final Message[] messages) {
+		if (targetFolder != null) {
+			try {
+				session.folder.copyMessages(messages, session.getFolder(targetFolder));
+			} catch (MessagingException e) {
+				throw new MailException("Copying messages failed");
 			}
-		});
+		}
 	}
 
 }
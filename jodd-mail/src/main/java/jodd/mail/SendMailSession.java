@@ -38,7 +38,10 @@ import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeBodyPart;
 import javax.mail.internet.MimeMessage;
 import javax.mail.internet.MimeMultipart;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
@@ -89,6 +92,44 @@ public class SendMailSession extends MailSession<Transport> {
 		}
 	}
 
+	/**
+	 * Renders the email once, so it can be {@link #sendMail(PreparedEmail, EmailAddress...) sent}
+	 * to many recipients. Recipients of the provided email are ignored.
+	 *
+	 * @param email {@link Email} template.
+	 * @return {@link PreparedEmail} with the rendered message.
+	 */
+	public PreparedEmail prepareMail(final Email email) {
+		try {
+			final MimeMessage msg = createMessage(email);
+			msg.saveChanges();
+
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			msg.writeTo(out, PreparedEmail.IGNORED_HEADERS);
+
+			return new PreparedEmail(out.toByteArray(), email.subject());
+		} catch (final MessagingException | IOException ex) {
+			throw new MailException("Failed to prepare email: " + email, ex);
+		}
+	}
+
+	/**
+	 * Sends prepared email to given recipients. Returns Message ID of sent email.
+	 *
+	 * @param email {@link PreparedEmail} to send.
+	 * @param to    recipients.
+	 * @return String representing message ID.
+	 */
+	public String sendMail(final PreparedEmail email, final EmailAddress... to) {
+		try {
+			final MimeMessage msg = email.createMessage(getSession(), to);
+			getService().sendMessage(msg, msg.getAllRecipients());
+			return msg.getMessageID();
+		} catch (final MessagingException msgexc) {
+			throw new MailException("Failed to send email: " + email + " to: " + Arrays.toString(to), msgexc);
+		}
+	}
+
 	// ---------------------------------------------------------------- adapter
 
 	/**
@@ -0,0 +1,301 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.mail;
+
+import jodd.mail.fixture.FakeSmtpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.mail.Session;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkMailSenderTest {
+
+	private FakeSmtpServer smtp;
+	private SmtpServer smtpServer;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		smtp = new FakeSmtpServer();
+		smtpServer = MailServer.create()
+			.host("localhost")
+			.port(smtp.port())
+			.buildSmtpMailServer();
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		smtp.stop();
+	}
+
+	private static Email email(final int i) {
+		return Email.create()
+			.from("jodd@use.me")
+			.to("user" + i + "@jodd.org")
+			.subject("Hello " + i)
+			.textMessage("Hi " + i);
+	}
+
+	@Test
+	void testSend() {
+		final BulkMailSender sender = BulkMailSender.create(smtpServer)
+			.connections(3)
+			.queueSize(5)
+			.start();
+
+		for (int i = 0; i < 100; i++) {
+			sender.send(email(i));
+		}
+		sender.close();
+
+		assertEquals(100, sender.sentCount());
+		assertEquals(0, sender.failedCount());
+		assertEquals(100, smtp.messages().size());
+		assertTrue(smtp.connections() <= 3);
+		assertTrue(sender.throughput() > 0);
+
+		final Set<String> subjects = new HashSet<>();
+		for (final String message : smtp.messages()) {
+			final int ndx = message.indexOf("Subject: ");
+			subjects.add(message.substring(ndx, message.indexOf("\r\n", ndx)));
+		}
+		assertEquals(100, subjects.size());
+	}
+
+	@Test
+	void testSendPrepared() {
+		final BulkMailSender sender = BulkMailSender.create(smtpServer).connections(2).start();
+
+		final PreparedEmail newsletter = sender.prepare(Email.create()
+			.from("jodd@use.me")
+			.subject("Newsletter")
+			.textMessage("News")
+			.attachment(EmailAttachment.with().name("data.bin").content(new byte[] {1, 2, 3, 4, 5})));
+
+		for (int i = 0; i < 20; i++) {
+			sender.send(newsletter, EmailAddress.of("user" + i + "@jodd.org"));
+		}
+		sender.close();
+
+		assertEquals(20, sender.sentCount());
+		assertEquals(20, smtp.messages().size());
+
+		final Set<String> to = new HashSet<>();
+		final Set<String> messageIds = new HashSet<>();
+		for (final String message : smtp.messages()) {
+			assertTrue(message.contains("Subject: Newsletter"));
+			assertTrue(message.contains("filename=data.bin"));
+			assertTrue(message.contains("AQIDBAU="));
+
+			final int toNdx = message.indexOf("To: ");
+			to.add(message.substring(toNdx, message.indexOf("\r\n", toNdx)));
+
+			final int idNdx = message.indexOf("Message-ID: ");
+			messageIds.add(message.substring(idNdx, message.indexOf("\r\n", idNdx)));
+		}
+		assertEquals(20, to.size());
+		assertEquals(20, messageIds.size());
+	}
+
+	@Test
+	void testRetryTransientFailures() {
+		smtp.failNext(3);
+
+		final BulkMailSender sender = BulkMailSender.create(smtpServer)
+			.connections(1)
+			.retryDelay(1)
+			.start();
+
+		for (int i = 0; i < 10; i++) {
+			sender.send(email(i));
+		}
+		sender.close();
+
+		assertEquals(10, sender.sentCount());
+		assertEquals(3, sender.retryCount());
+		assertEquals(0, sender.failedCount());
+		assertEquals(10, smtp.messages().size());
+	}
+
+	@Test
+	void testPermanentFailure() {
+		smtp.reject("user3@jodd.org");
+
+		final List<Exception> failures = new CopyOnWriteArrayList<>();
+		final List<Email> failedEmails = new CopyOnWriteArrayList<>();
+		final BulkMailSender sender = BulkMailSender.create(smtpServer)
+			.connections(2)
+			.retryDelay(1)
+			.onFailure((email, ex) -> {
+				failedEmails.add(email);
+				failures.add(ex);
+			})
+			.start();
+
+		for (int i = 0; i < 10; i++) {
+			sender.send(email(i));
+		}
+		sender.close();
+
+		assertEquals(9, sender.sentCount());
+		assertEquals(1, sender.failedCount());
+		assertEquals(0, sender.retryCount());
+		assertEquals(1, failures.size());
+		assertTrue(failures.get(0).getMessage().contains("Hello 3"));
+		assertEquals("Hello 3", failedEmails.get(0).subject());
+	}
+
+	@Test
+	void testFailureHandlerThrows() {
+		smtp.reject("user3@jodd.org");
+		smtp.reject("user5@jodd.org");
+
+		final BulkMailSender sender = BulkMailSender.create(smtpServer)
+			.connections(1)
+			.queueSize(1)
+			.onFailure((email, ex) -> {
+				throw new IllegalStateException("handler");
+			})
+			.start();
+
+		for (int i = 0; i < 10; i++) {
+			sender.send(email(i));
+		}
+		sender.close();
+
+		assertEquals(8, sender.sentCount());
+		assertEquals(2, sender.failedCount());
+		assertEquals(8, smtp.messages().size());
+	}
+
+	@Test
+	void testNonMailExceptionFailure() {
+		final SmtpServer failingServer = new SmtpServer(MailServer.create().host("localhost").port(smtp.port())) {
+			@Override
+			public SendMailSession createSession() {
+				final SendMailSession session = super.createSession();
+				return new SendMailSession(Session.getInstance(createSessionProperties()), session.getService()) {
+					@Override
+					public String sendMail(final Email email) {
+						if (email.subject().equals("Hello 3")) {
+							throw new IllegalStateException("sender");
+						}
+						return super.sendMail(email);
+					}
+				};
+			}
+		};
+
+		final List<Exception> failures = new CopyOnWriteArrayList<>();
+		final BulkMailSender sender = BulkMailSender.create(failingServer)
+			.connections(1)
+			.queueSize(1)
+			.onFailure((email, ex) -> failures.add(ex))
+			.start();
+
+		for (int i = 0; i < 10; i++) {
+			sender.send(email(i));
+		}
+		sender.close();
+
+		assertEquals(9, sender.sentCount());
+		assertEquals(1, sender.failedCount());
+		assertEquals(9, smtp.messages().size());
+		assertTrue(failures.get(0) instanceof IllegalStateException);
+	}
+
+	@Test
+	void testConnectionFailure() throws IOException {
+		smtp.stop();
+
+		final List<Exception> failures = new CopyOnWriteArrayList<>();
+		final BulkMailSender sender = BulkMailSender.create(smtpServer)
+			.connections(1)
+			.maxRetries(2)
+			.retryDelay(1)
+			.onFailure((email, ex) -> failures.add(ex))
+			.start();
+
+		sender.send(email(1));
+		sender.close();
+
+		assertEquals(0, sender.sentCount());
+		assertEquals(2, sender.retryCount());
+		assertEquals(1, failures.size());
+	}
+
+	@Test
+	void testInterruptedRetry() {
+		final SmtpServer interruptingServer = new SmtpServer(MailServer.create().host("localhost").port(smtp.port())) {
+			@Override
+			public SendMailSession createSession() {
+				Thread.currentThread().interrupt();
+				throw new MailException("Interrupted", new IOException("connection"));
+			}
+		};
+
+		final List<Exception> failures = new CopyOnWriteArrayList<>();
+		final BulkMailSender sender = BulkMailSender.create(interruptingServer)
+			.connections(1)
+			.retryDelay(10_000)
+			.onFailure((email, ex) -> failures.add(ex))
+			.start();
+
+		int rejected = 0;
+		for (int i = 0; i < 5; i++) {
+			try {
+				sender.send(email(i));
+			} catch (final MailException ignore) {
+				rejected++;
+			}
+		}
+		sender.close();
+
+		assertEquals(0, sender.sentCount());
+		assertEquals(5, sender.failedCount() + rejected);
+		assertEquals(sender.failedCount(), failures.size());
+		assertThrows(MailException.class, () -> sender.send(email(6)));
+	}
+
+	@Test
+	void testNotRunning() {
+		final BulkMailSender sender = BulkMailSender.create(smtpServer);
+		assertThrows(MailException.class, () -> sender.send(email(1)));
+
+		sender.start();
+		sender.close();
+		assertThrows(MailException.class, () -> sender.send(email(1)));
+	}
+}
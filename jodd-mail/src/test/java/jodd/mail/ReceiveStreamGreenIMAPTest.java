@@ -0,0 +1,211 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.mail;
+
+import jodd.io.FileUtil;
+import jodd.mail.fixture.GreenMailServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import javax.activation.FileDataSource;
+import java.io.File;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReceiveStreamGreenIMAPTest {
+
+	private static final int IMAP_PORT = 3143;
+	private static final int COUNT = 25;
+
+	private GreenMailServer greenMail;
+
+	@BeforeEach
+	void startGreenMailInstance() {
+		greenMail = new GreenMailServer().start();
+
+		final SendMailSession session = MailServer.create()
+			.host(GreenMailServer.HOST)
+			.port(GreenMailServer.SMTP_PORT)
+			.buildSmtpMailServer()
+			.createSession();
+
+		session.open();
+		for (int i = 0; i < COUNT; i++) {
+			session.sendMail(Email.create()
+				.subject("Mail : " + i)
+				.from("Jodd", "jodd@use.me")
+				.to(GreenMailServer.GREEN_MAIL_COM)
+				.textMessage("Hello " + i)
+				.attachment(EmailAttachment.with().name("a.bin").content(new byte[]{(byte) i, 1, 2})));
+		}
+		session.close();
+	}
+
+	@AfterEach
+	void stopGreenMailInstance() {
+		greenMail.stop();
+	}
+
+	private ReceiveMailSession createSession(final File attachmentStorage) {
+		return MailServer.create()
+			.host(GreenMailServer.HOST)
+			.port(IMAP_PORT)
+			.auth(GreenMailServer.USER, GreenMailServer.PASSWORD)
+			.storeAttachmentsIn(attachmentStorage)
+			.buildImapMailServer()
+			.createSession();
+	}
+
+	@Test
+	void testStream() {
+		final ReceiveMailSession session = createSession(null);
+		session.open();
+
+		try (Stream<ReceivedEmail> stream = session.receive().pageSize(10).stream()) {
+			final List<ReceivedEmail> emails = stream.collect(Collectors.toList());
+			assertEquals(COUNT, emails.size());
+
+			for (int i = 0; i < COUNT; i++) {
+				final ReceivedEmail email = emails.get(i);
+				assertEquals("Mail : " + i, email.subject());
+				assertTrue(email.isContentDeferred());
+
+				assertEquals("Hello " + i, email.messages().get(0).getContent());
+				assertFalse(email.isContentDeferred());
+				assertEquals(1, email.attachments().size());
+				assertArrayEquals(new byte[]{(byte) i, 1, 2}, email.attachments().get(0).toByteArray());
+			}
+		}
+
+		// content access does not mark messages as seen
+		assertEquals(COUNT, session.getUnreadMessageCount());
+
+		session.close();
+	}
+
+	@Test
+	void testIteratorEnvelopes() {
+		final ReceiveMailSession session = createSession(null);
+		session.open();
+
+		final Iterator<ReceivedEmail> iterator = session.receive().envelopeOnly().pageSize(7).iterator();
+
+		int count = 0;
+		while (iterator.hasNext()) {
+			final ReceivedEmail email = iterator.next();
+			assertFalse(email.isContentDeferred());
+			assertTrue(email.messages().isEmpty());
+			assertTrue(email.attachments().isEmpty());
+			count++;
+		}
+		assertEquals(COUNT, count);
+		assertFalse(iterator.hasNext());
+
+		session.close();
+	}
+
+	@Test
+	void testStreamAndDelete() {
+		final ReceiveMailSession session = createSession(null);
+		session.open();
+
+		final List<ReceivedEmail> emails = session.receive()
+			.filter(EmailFilter.filter().subject("Mail : 1"))
+			.markDeleted()
+			.pageSize(4)
+			.stream()
+			.collect(Collectors.toList());
+
+		// "Mail : 1" and "Mail : 10" - "Mail : 19"
+		assertEquals(11, emails.size());
+		for (final ReceivedEmail email : emails) {
+			assertFalse(email.isContentDeferred());
+			assertEquals(1, email.attachments().size());
+		}
+		assertEquals(COUNT - 11, session.getMessageCount());
+
+		session.close();
+	}
+
+	@Test
+	void testStreamClosedEarly() {
+		final ReceiveMailSession session = createSession(null);
+		session.open();
+
+		try (Stream<ReceivedEmail> stream = session.receive().markDeleted().pageSize(5).stream()) {
+			assertEquals(5, stream.limit(5).count());
+		}
+
+		// deleted messages are expunged on close, and folder is opened again
+		assertEquals(COUNT - 5, session.getMessageCount());
+
+		session.close();
+	}
+
+	@Test
+	void testInvalidPageSize() {
+		final ReceiveMailSession session = createSession(null);
+		session.open();
+
+		assertThrows(MailException.class, () -> session.receive().pageSize(0).iterator());
+
+		session.close();
+	}
+
+	@Test
+	@EnabledOnOs(value = {OS.AIX, OS.LINUX, OS.MAC, OS.SOLARIS})
+	void testStreamToAttachmentStorage() throws Exception {
+		final File attachmentStorage = FileUtil.createTempDirectory("jodd", "mail");
+
+		final ReceiveMailSession session = createSession(attachmentStorage);
+		session.open();
+
+		session.receive().pageSize(10).stream().forEach(email -> {
+			assertEquals(1, email.attachments().size());
+
+			final EmailAttachment attachment = email.attachments().get(0);
+			assertTrue(attachment.getDataSource() instanceof FileDataSource);
+			assertEquals("a.bin", attachment.getName());
+			assertEquals(3, attachment.toByteArray().length);
+		});
+
+		session.close();
+
+		assertEquals(COUNT, attachmentStorage.listFiles().length);
+		FileUtil.deleteDir(attachmentStorage);
+	}
+}
@@ -0,0 +1,171 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.mail.fixture;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.io.OutputStreamWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process SMTP server. Accepts everything, except configured
+ * rejected recipients and the first few messages, when transient failures
+ * are requested.
+ */
+public class FakeSmtpServer {
+
+	private final ServerSocket serverSocket;
+	private final List<String> messages = new CopyOnWriteArrayList<>();
+	private final Set<String> rejectedRecipients = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger transientFailures = new AtomicInteger();
+	private final AtomicInteger connections = new AtomicInteger();
+	private volatile boolean running = true;
+
+	public FakeSmtpServer() throws IOException {
+		serverSocket = new ServerSocket(0);
+		final Thread thread = new Thread(this::accept, "fake-smtp");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	public int port() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Messages received so far.
+	 */
+	public List<String> messages() {
+		return messages;
+	}
+
+	/**
+	 * Number of accepted connections.
+	 */
+	public int connections() {
+		return connections.get();
+	}
+
+	/**
+	 * Rejects given recipient with permanent failure.
+	 */
+	public FakeSmtpServer reject(final String recipient) {
+		rejectedRecipients.add(recipient);
+		return this;
+	}
+
+	/**
+	 * Fails next messages with transient failure.
+	 */
+	public FakeSmtpServer failNext(final int count) {
+		transientFailures.set(count);
+		return this;
+	}
+
+	public void stop() throws IOException {
+		running = false;
+		serverSocket.close();
+	}
+
+	private void accept() {
+		while (running) {
+			try {
+				final Socket socket = serverSocket.accept();
+				connections.incrementAndGet();
+				final Thread thread = new Thread(() -> handle(socket), "fake-smtp-connection");
+				thread.setDaemon(true);
+				thread.start();
+			} catch (final IOException ignore) {
+			}
+		}
+	}
+
+	private void handle(final Socket socket) {
+		try (
+			final Socket s = socket;
+			final BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.ISO_8859_1));
+			final Writer out = new OutputStreamWriter(s.getOutputStream(), StandardCharsets.ISO_8859_1)
+		) {
+			reply(out, "220 localhost fake SMTP");
+
+			String line;
+			while ((line = in.readLine()) != null) {
+				final String command = line.toUpperCase();
+
+				if (command.startsWith("EHLO")) {
+					reply(out, "250-localhost\r\n250 OK");
+				}
+				else if (command.startsWith("RCPT TO:")) {
+					final String recipient = line.substring(line.indexOf('<') + 1, line.lastIndexOf('>'));
+					if (rejectedRecipients.contains(recipient)) {
+						reply(out, "550 Mailbox unavailable");
+					} else {
+						reply(out, "250 OK");
+					}
+				}
+				else if (command.equals("DATA")) {
+					reply(out, "354 End data with <CR><LF>.<CR><LF>");
+					final StringBuilder message = new StringBuilder();
+					while ((line = in.readLine()) != null && !line.equals(".")) {
+						if (line.startsWith("..")) {
+							line = line.substring(1);
+						}
+						message.append(line).append("\r\n");
+					}
+					if (transientFailures.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0) {
+						reply(out, "451 Try again later");
+					} else {
+						messages.add(message.toString());
+						reply(out, "250 OK");
+					}
+				}
+				else if (command.equals("QUIT")) {
+					reply(out, "221 Bye");
+					return;
+				}
+				else {
+					reply(out, "250 OK");
+				}
+			}
+		} catch (final IOException ignore) {
+		}
+	}
+
+	private static void reply(final Writer out, final String reply) throws IOException {
+		out.write(reply);
+		out.write("\r\n");
+		out.flush();
+	}
+}
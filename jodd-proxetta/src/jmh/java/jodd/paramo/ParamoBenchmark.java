@@ -0,0 +1,113 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.paramo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves parameter names of all methods of a class, as it is done
+ * on startup by Madvoc and Petite.
+ * <p>
+ * Run:
+ * <code>
+ * gw :jodd-proxetta:ParamoBenchmark
+ * </code>
+ * </p>
+ *
+ * Results (<code>paramo</code> with and without <code>-parameters</code>):
+ * <pre>
+ * Benchmark                           Mode  Cnt       Score        Error  Units
+ * ParamoBenchmark.bytecodePerClass   thrpt    5   47072.250 ±  19328.285  ops/s
+ * ParamoBenchmark.bytecodePerMethod  thrpt    5    5905.416 ±    545.670  ops/s
+ * ParamoBenchmark.paramo             thrpt    5  372138.995 ± 124244.525  ops/s
+ * ParamoBenchmark.paramo             thrpt    5   48975.038 ±   8987.074  ops/s
+ * </pre>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class ParamoBenchmark {
+
+	public static class Action {
+		public void view(final String id, final int page) {}
+		public void list(final String filter, final long from, final long to) {}
+		public void save(final Map<String, Object> data, final boolean overwrite) {}
+		public void delete(final List<Long> ids) {}
+		public void search(final String query, final int offset, final int limit, final String order) {}
+		public void move(final double x, final double y) {}
+		public void tag(final String id, final String... tags) {}
+		public void upload(final byte[] content, final String contentType, final String fileName) {}
+	}
+
+	private final Method[] methods = Action.class.getDeclaredMethods();
+
+	/**
+	 * Bytecode is read for every method, as before the class cache was added.
+	 */
+	@Benchmark
+	public void bytecodePerMethod(final Blackhole blackhole) {
+		for (final Method method : methods) {
+			Paramo.classParametersCache.clear();
+			blackhole.consume(Paramo.resolveClassParameters(Action.class)
+				.resolve(method.getName(), jodd.asm7.Type.getMethodDescriptor(method), method.getParameters()));
+		}
+	}
+
+	/**
+	 * Bytecode is read once for the class.
+	 */
+	@Benchmark
+	public void bytecodePerClass(final Blackhole blackhole) {
+		Paramo.classParametersCache.clear();
+		for (final Method method : methods) {
+			blackhole.consume(Paramo.resolveClassParameters(Action.class)
+				.resolve(method.getName(), jodd.asm7.Type.getMethodDescriptor(method), method.getParameters()));
+		}
+	}
+
+	/**
+	 * Paramo on a cleared cache; uses reflection names when compiled with <code>-parameters</code>.
+	 */
+	@Benchmark
+	public void paramo(final Blackhole blackhole) {
+		Paramo.classParametersCache.clear();
+		for (final Method method : methods) {
+			blackhole.consume(Paramo.resolveParameters(method));
+		}
+	}
+
+}
@@ -0,0 +1,120 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.proxetta;
+
+import jodd.proxetta.fixture.ArgumentsArrayAdvice;
+import jodd.proxetta.fixture.BoxedResultAdvice;
+import jodd.proxetta.fixture.Compute;
+import jodd.proxetta.fixture.EmptyAdvice;
+import jodd.proxetta.fixture.InfoAdvice;
+import jodd.proxetta.fixture.TypedAdvice;
+import jodd.proxetta.pointcuts.AllTopMethodsPointcut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Invocation of proxied method with primitive arguments and return value,
+ * using various advice styles: arguments array and boxed result, as before,
+ * and the typed fast path. Run with <code>-prof gc</code> to see allocations.
+ * <p>
+ * Run:
+ * <code>
+ * gw :jodd-proxetta:AdviceInvocationBenchmark
+ * </code>
+ * </p>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class AdviceInvocationBenchmark {
+
+	private Compute plain;
+	private Compute empty;
+	private Compute boxedResult;
+	private Compute argumentsArray;
+	private Compute info;
+	private Compute typed;
+
+	private int i = 1000;
+	private long l = 100_000;
+	private double d = 2000.5;
+
+	@Setup
+	public void setup() {
+		plain = new Compute();
+		empty = proxy(EmptyAdvice.class);
+		boxedResult = proxy(BoxedResultAdvice.class);
+		argumentsArray = proxy(ArgumentsArrayAdvice.class);
+		info = proxy(InfoAdvice.class);
+		typed = proxy(TypedAdvice.class);
+	}
+
+	private Compute proxy(final Class<? extends ProxyAdvice> advice) {
+		return (Compute) Proxetta.proxyProxetta()
+			.setVariableClassName(true)
+			.withAspect(new ProxyAspect(advice, new AllTopMethodsPointcut()))
+			.proxy()
+			.setTarget(Compute.class)
+			.newInstance();
+	}
+
+	@Benchmark
+	public long plain() {
+		return plain.compute(i, l, d, true);
+	}
+
+	@Benchmark
+	public long emptyAdvice() {
+		return empty.compute(i, l, d, true);
+	}
+
+	@Benchmark
+	public long emptyAdvice_boxedResult() {
+		return boxedResult.compute(i, l, d, true);
+	}
+
+	@Benchmark
+	public long argumentsArray() {
+		return argumentsArray.compute(i, l, d, true);
+	}
+
+	@Benchmark
+	public long info() {
+		return info.compute(i, l, d, true);
+	}
+
+	@Benchmark
+	public long methodAndTypedArguments() {
+		return typed.compute(i, l, d, true);
+	}
+
+}
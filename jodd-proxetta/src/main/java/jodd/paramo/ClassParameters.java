@@ -0,0 +1,81 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.paramo;
+
+import jodd.asm.EmptyClassVisitor;
+import jodd.asm7.MethodVisitor;
+import jodd.asm7.Type;
+
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parameter information of all methods and constructors of a single class,
+ * collected in one pass over the class bytecode. Methods are stored by their
+ * name and descriptor. Holds no reference to the class itself, so it
+ * can be stored as a value of a weak cache.
+ */
+final class ClassParameters extends EmptyClassVisitor {
+
+	private final String className;
+	private final Map<String, ParamExtractor> methods = new HashMap<>();
+
+	ClassParameters(final String className) {
+		this.className = className;
+	}
+
+	@Override
+	public MethodVisitor visitMethod(final int access, final String name, final String desc, final String signature, final String[] exceptions) {
+		final Type[] argumentTypes = Type.getArgumentTypes(desc);
+		if (argumentTypes.length == 0) {
+			return null;
+		}
+
+		final ParamExtractor paramExtractor = new ParamExtractor(Modifier.isStatic(access) ? 0 : 1, argumentTypes);
+		methods.put(name + desc, paramExtractor);
+		return paramExtractor;
+	}
+
+	/**
+	 * Returns method parameters for a method with given name and descriptor.
+	 * Returns an empty array if method is not found.
+	 */
+	MethodParameter[] resolve(final String methodName, final String methodDescriptor, final Parameter[] parameters) {
+		final ParamExtractor paramExtractor = methods.get(methodName + methodDescriptor);
+
+		if (paramExtractor == null) {
+			return MethodParameter.EMPTY_ARRAY;
+		}
+		if (!paramExtractor.debugInfoPresent) {
+			throw new ParamoException("Parameter names not available for method: "
+					+ className + '#' + methodName);
+		}
+		return paramExtractor.getMethodParameters(parameters);
+	}
+
+}
@@ -27,54 +27,90 @@ package jodd.paramo;
 
 import jodd.asm.EmptyMethodVisitor;
 import jodd.asm7.Label;
-import jodd.util.ArraysUtil;
+import jodd.asm7.Type;
 
 import java.lang.reflect.Parameter;
 
 /**
  * Extracts param information from a method.
+ * Parameters are matched by their local variable slots, so the order
+ * of local variable entries in the bytecode is not important. Only
+ * entries whose scope starts at the method entry are parameters; other
+ * entries in the same slot are local variables that reuse it.
  */
 final class ParamExtractor extends EmptyMethodVisitor {
 
-	private final int paramCount;
-	private final int ignoreCount;
-	private final Parameter[] parameters;
-	private MethodParameter[] methodParameters;
-	private int currentParam;
+	private final int[] slots;
+	private final String[] names;
+	private final String[] signatures;
+	private Label entryLabel;
 	boolean debugInfoPresent;
 
-	ParamExtractor(final int ignoreCount, final int paramCount, final Parameter[] parameters) {
-		this.ignoreCount = ignoreCount;
-		this.paramCount = paramCount;
-		this.methodParameters = new MethodParameter[paramCount];
-		this.currentParam = 0;
-		this.debugInfoPresent = paramCount == 0;
-		this.parameters = parameters;// for 0 params, no need for debug info
+	ParamExtractor(final int ignoreCount, final Type[] argumentTypes) {
+		final int paramCount = argumentTypes.length;
+		this.slots = new int[paramCount];
+		this.names = new String[paramCount];
+		this.signatures = new String[paramCount];
+		this.debugInfoPresent = paramCount == 0;		// for 0 params, no need for debug info
+
+		int slot = ignoreCount;
+		for (int i = 0; i < paramCount; i++) {
+			slots[i] = slot;
+			slot += argumentTypes[i].getSize();
+		}
 	}
 
+	/**
+	 * Labels are visited in the bytecode order, so the first one marks
+	 * the method entry (offset 0) when parameters are in the local
+	 * variable table, as their scope starts there.
+	 */
 	@Override
-	public void visitLocalVariable(final String name, final String desc, String signature, final Label start, final Label end, final int index) {
-		if ((index >= ignoreCount) && (index < (ignoreCount + paramCount))) {
-			if (!name.equals("arg" + currentParam)) {
-				debugInfoPresent = true;
-			}
-			if (signature == null) {
-				signature = desc;
-			}
-			methodParameters[currentParam] = new MethodParameter(
-				name, signature, parameters[currentParam]);
-			currentParam++;
+	public void visitLabel(final Label label) {
+		if (entryLabel == null) {
+			entryLabel = label;
 		}
 	}
 
 	@Override
-	public void visitEnd() {
-		if (methodParameters.length > currentParam) {
-			methodParameters = ArraysUtil.subarray(methodParameters, 0, currentParam);
+	public void visitLocalVariable(final String name, final String desc, final String signature, final Label start, final Label end, final int index) {
+		if (start != entryLabel) {
+			return;				// slot reused by some other local variable
+		}
+		for (int i = 0; i < slots.length; i++) {
+			if (slots[i] != index) {
+				continue;
+			}
+			if (!name.equals("arg" + i)) {
+				debugInfoPresent = true;
+			}
+			names[i] = name;
+			signatures[i] = signature != null ? signature : desc;
+			return;
 		}
 	}
 
-	MethodParameter[] getMethodParameters() {
+	/**
+	 * Returns method parameters bound to given reflection parameters.
+	 * Parameters without local variable information are skipped.
+	 */
+	MethodParameter[] getMethodParameters(final Parameter[] parameters) {
+		int count = 0;
+		for (final String name : names) {
+			if (name != null) {
+				count++;
+			}
+		}
+
+		final MethodParameter[] methodParameters = new MethodParameter[count];
+
+		int ndx = 0;
+		for (int i = 0; i < names.length; i++) {
+			if (names[i] == null) {
+				continue;
+			}
+			methodParameters[ndx++] = new MethodParameter(names[i], signatures[i], parameters[i]);
+		}
 		return methodParameters;
 	}
 
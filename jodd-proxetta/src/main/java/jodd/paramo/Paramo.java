@@ -26,6 +26,7 @@
 package jodd.paramo;
 
 import jodd.asm7.ClassReader;
+import jodd.cache.TypeCache;
 import jodd.io.StreamUtil;
 import jodd.util.ClassLoaderUtil;
 
@@ -33,46 +34,173 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
 
 /**
  * Extracts method or constructor parameter names from bytecode debug information in runtime.
+ * When class is compiled with <code>-parameters</code>, names are taken from
+ * the reflection and bytecode is not read at all.
  */
 public class Paramo {
 
 	protected static final String CTOR_METHOD = "<init>";
 
+	/**
+	 * Parsed parameters of all methods, per class. Keys are weak,
+	 * so classes may be unloaded.
+	 */
+	static final TypeCache<ClassParameters> classParametersCache =
+		TypeCache.<ClassParameters>create().weak(true).threadsafe(true).get();
+
 	/**
 	 * Resolves method parameters from a method or constructor.
 	 * Returns an empty array when target does not contain any parameter.
-	 * No caching is involved in this process, i.e. class bytecode
-	 * is examined every time this method is called.
+	 * Class bytecode is read only once, when parameters of any of its
+	 * methods are resolved for the first time.
 	 */
 	public static MethodParameter[] resolveParameters(final AccessibleObject methodOrCtor) {
-		final Class[] paramTypes;
 		final Parameter[] parameters;
 		final Class declaringClass;
 		final String name;
+		final String descriptor;
 
 		if (methodOrCtor instanceof Method) {
 			final Method method = (Method) methodOrCtor;
-			paramTypes = method.getParameterTypes();
 			name = method.getName();
 			declaringClass = method.getDeclaringClass();
 			parameters = method.getParameters();
+			if (parameters.length == 0) {
+				return MethodParameter.EMPTY_ARRAY;
+			}
+			descriptor = jodd.asm7.Type.getMethodDescriptor(method);
 		} else {
 			final Constructor constructor = (Constructor) methodOrCtor;
-			paramTypes = constructor.getParameterTypes();
 			declaringClass = constructor.getDeclaringClass();
 			name = CTOR_METHOD;
 			parameters = constructor.getParameters();
+			if (parameters.length == 0) {
+				return MethodParameter.EMPTY_ARRAY;
+			}
+			descriptor = jodd.asm7.Type.getConstructorDescriptor(constructor);
+		}
+
+		if (isNamePresent(parameters)) {
+			return resolveFromReflection(parameters);
+		}
+
+		return resolveClassParameters(declaringClass).resolve(name, descriptor, parameters);
+	}
+
+	/**
+	 * Returns <code>true</code> if all parameter names are stored in the class file.
+	 */
+	private static boolean isNamePresent(final Parameter[] parameters) {
+		for (final Parameter parameter : parameters) {
+			if (!parameter.isNamePresent()) {
+				return false;
+			}
 		}
+		return true;
+	}
+
+	/**
+	 * Resolves method parameters from the reflection.
+	 */
+	private static MethodParameter[] resolveFromReflection(final Parameter[] parameters) {
+		final MethodParameter[] methodParameters = new MethodParameter[parameters.length];
 
-		if (paramTypes.length == 0) {
-			return MethodParameter.EMPTY_ARRAY;
+		for (int i = 0; i < parameters.length; i++) {
+			final Parameter parameter = parameters[i];
+			final StringBuilder signature = new StringBuilder();
+
+			appendSignature(signature, parameter.getParameterizedType());
+
+			methodParameters[i] = new MethodParameter(parameter.getName(), signature.toString(), parameter);
 		}
+		return methodParameters;
+	}
 
+	/**
+	 * Appends bytecode signature of a generic type, in the same form as
+	 * stored in local variable type table.
+	 */
+	private static void appendSignature(final StringBuilder sb, final Type type) {
+		if (type instanceof Class) {
+			sb.append(jodd.asm7.Type.getDescriptor((Class) type));
+		}
+		else if (type instanceof ParameterizedType) {
+			final ParameterizedType parameterizedType = (ParameterizedType) type;
+			final Class rawType = (Class) parameterizedType.getRawType();
+			final Type ownerType = parameterizedType.getOwnerType();
+
+			if (ownerType instanceof ParameterizedType) {
+				appendSignature(sb, ownerType);
+				sb.setCharAt(sb.length() - 1, '.');
+				sb.append(rawType.getSimpleName());
+			} else {
+				sb.append('L').append(jodd.asm7.Type.getInternalName(rawType));
+			}
+
+			sb.append('<');
+			for (final Type typeArgument : parameterizedType.getActualTypeArguments()) {
+				appendSignature(sb, typeArgument);
+			}
+			sb.append(">;");
+		}
+		else if (type instanceof WildcardType) {
+			final WildcardType wildcardType = (WildcardType) type;
+			final Type[] lowerBounds = wildcardType.getLowerBounds();
+			final Type[] upperBounds = wildcardType.getUpperBounds();
+
+			if (lowerBounds.length != 0) {
+				sb.append('-');
+				appendSignature(sb, lowerBounds[0]);
+			}
+			else if (upperBounds.length == 0 || upperBounds[0] == Object.class) {
+				sb.append('*');
+			}
+			else {
+				sb.append('+');
+				appendSignature(sb, upperBounds[0]);
+			}
+		}
+		else if (type instanceof TypeVariable) {
+			sb.append('T').append(((TypeVariable) type).getName()).append(';');
+		}
+		else if (type instanceof GenericArrayType) {
+			sb.append('[');
+			appendSignature(sb, ((GenericArrayType) type).getGenericComponentType());
+		}
+		else {
+			throw new ParamoException("Unsupported type: " + type);
+		}
+	}
+
+	/**
+	 * Returns cached parameters of all methods of a class, reading
+	 * the class bytecode on the first call. Bytecode is read outside
+	 * of the cache lock; concurrent first calls may read it more then once.
+	 */
+	static ClassParameters resolveClassParameters(final Class declaringClass) {
+		ClassParameters classParameters = classParametersCache.get(declaringClass);
+
+		if (classParameters == null) {
+			classParameters = readClassParameters(declaringClass);
+			classParametersCache.put(declaringClass, classParameters);
+		}
+		return classParameters;
+	}
+
+	/**
+	 * Reads parameters of all methods from the class bytecode.
+	 */
+	private static ClassParameters readClassParameters(final Class declaringClass) {
 		final InputStream stream;
 		try {
 			stream = ClassLoaderUtil.getClassAsStream(declaringClass);
@@ -86,9 +214,9 @@ public class Paramo {
 
 		try {
 			final ClassReader reader = new ClassReader(stream);
-			final MethodFinder visitor = new MethodFinder(declaringClass, name, paramTypes, parameters);
-			reader.accept(visitor, 0);
-			return visitor.getResolvedParameters();
+			final ClassParameters classParameters = new ClassParameters(declaringClass.getName());
+			reader.accept(classParameters, ClassReader.SKIP_FRAMES);
+			return classParameters;
 		}
 		catch (final IOException ioex) {
 			throw new ParamoException(ioex);
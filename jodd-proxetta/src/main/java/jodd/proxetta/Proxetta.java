@@ -94,6 +94,7 @@ public abstract class Proxetta<T extends Proxetta, A> {
 	protected ClassLoader classLoader;
 	protected boolean variableClassName;
 	protected String classNameSuffix;
+	protected boolean pregenerated;
 	protected File debugFolder;
 	protected final List<A> proxyAspectList = new ArrayList<>();
 
@@ -180,6 +181,24 @@ public abstract class Proxetta<T extends Proxetta, A> {
 		return classNameSuffix;
 	}
 
+	/**
+	 * Specifies if proxy classes may be generated ahead of time, using
+	 * {@link ProxettaGenerator}. When enabled, the factory first tries to load
+	 * the proxy class by its name, and generates it only if it is not found.
+	 * Pregenerated proxy is used only if its fingerprint matches the target
+	 * class and the aspects; otherwise the proxy is generated again.
+	 * Proxies must be generated with the same naming options.
+	 * Ignored for variable class names.
+	 */
+	public T setPregenerated(final boolean pregenerated) {
+		this.pregenerated = pregenerated;
+		return _this();
+	}
+
+	public boolean isPregenerated() {
+		return pregenerated;
+	}
+
 	/**
 	 * Specifies the debug folder where all created classes will be
 	 * written to, for debugging purposes.
@@ -25,8 +25,10 @@
 
 package jodd.proxetta;
 
+import jodd.asm.EmptyClassVisitor;
 import jodd.asm7.ClassReader;
 import jodd.asm7.ClassWriter;
+import jodd.asm7.FieldVisitor;
 import jodd.io.FileUtil;
 import jodd.io.StreamUtil;
 import jodd.log.Logger;
@@ -38,9 +40,12 @@ import jodd.util.ClassUtil;
 import jodd.util.DefineClass;
 import jodd.util.StringUtil;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
 
 /**
  * Proxetta builder. While {@link Proxetta} only holds aspects and
@@ -261,9 +266,15 @@ public abstract class ProxettaFactory<T extends ProxettaFactory, P extends Proxe
 	}
 
 	/**
-	 * Defines class.
+	 * Defines class. When {@link Proxetta#isPregenerated() pregenerated}
+	 * proxy class is available, it is loaded instead.
 	 */
 	public Class define() {
+		final Class pregeneratedClass = loadPregenerated();
+		if (pregeneratedClass != null) {
+			return pregeneratedClass;
+		}
+
 		process();
 
 		if ((!proxetta.isForced()) && (!isProxyApplied())) {
@@ -289,26 +300,178 @@ public abstract class ProxettaFactory<T extends ProxettaFactory, P extends Proxe
 		}
 
 		try {
-			ClassLoader classLoader = proxetta.getClassLoader();
-
-			if (classLoader == null) {
-				classLoader = ClassLoaderUtil.getDefaultClassLoader();
-
-				if ((classLoader == null) && (targetClass != null)) {
-					classLoader = targetClass.getClassLoader();
-				}
-			}
-
 			final byte[] bytes = toByteArray();
 
 			dumpClassInDebugFolder(bytes);
 
-			return DefineClass.of(getProxyClassName(), bytes, classLoader);
+			return DefineClass.of(getProxyClassName(), bytes, resolveClassLoader());
 		} catch (final Exception ex) {
 			throw new ProxettaException("Class definition failed", ex);
 		}
 	}
 
+	/**
+	 * Resolves class loader for created classes.
+	 */
+	protected ClassLoader resolveClassLoader() {
+		ClassLoader classLoader = proxetta.getClassLoader();
+
+		if (classLoader == null) {
+			classLoader = ClassLoaderUtil.getDefaultClassLoader();
+
+			if ((classLoader == null) && (targetClass != null)) {
+				classLoader = targetClass.getClassLoader();
+			}
+		}
+		return classLoader;
+	}
+
+	/**
+	 * Loads pregenerated proxy class, if enabled and available.
+	 * Returns <code>null</code> when proxy class has to be generated.
+	 */
+	protected Class loadPregenerated() {
+		if (!proxetta.isPregenerated() || proxetta.isVariableClassName() || targetClassName == null) {
+			return null;
+		}
+
+		final String name = WorkData.resolveProxyName(
+			targetClassName.replace('.', '/'), proxetta.getClassNameSuffix(), requestedProxyClassName).replace('/', '.');
+
+		if (name.equals(targetClassName)) {
+			return null;
+		}
+
+		// lambdas can not be told apart, so pregenerated proxy can not be verified
+		if (hasLambdaAspects()) {
+			return null;
+		}
+
+		final ClassLoader classLoader = resolveClassLoader();
+
+		// check the proxy bytecode before loading, so the outdated
+		// proxy may still be replaced with the generated one
+		final String proxyFingerprint;
+		try (InputStream proxyInputStream = ClassLoaderUtil.getClassAsStream(name, classLoader)) {
+			if (proxyInputStream == null) {
+				return null;
+			}
+			proxyFingerprint = readFingerprint(proxyInputStream);
+		}
+		catch (final IOException ioex) {
+			throw new ProxettaException("Error reading pregenerated proxy: " + name, ioex);
+		}
+
+		final byte[] targetBytes;
+		try {
+			targetBytes = StreamUtil.readBytes(targetInputStream);
+		}
+		catch (final IOException ioex) {
+			throw new ProxettaException("Error reading class input stream", ioex);
+		}
+		finally {
+			StreamUtil.close(targetInputStream);
+		}
+
+		if (!fingerprint(targetBytes).equals(proxyFingerprint)) {
+			log.warn("Pregenerated proxy is outdated: " + name);
+			targetInputStream = new ByteArrayInputStream(targetBytes);
+			return null;
+		}
+
+		final Class proxyClass;
+		try {
+			proxyClass = ClassLoaderUtil.loadClass(name, classLoader);
+		}
+		catch (final ClassNotFoundException cnfex) {
+			throw new ProxettaException("Pregenerated proxy not loaded: " + name, cnfex);
+		}
+
+		if (log.isDebugEnabled()) {
+			log.debug("Proxy loaded: " + name);
+		}
+
+		proxyClassName = name;
+		proxyApplied = true;
+		return proxyClass;
+	}
+
+	/**
+	 * Returns fingerprint of the target class bytecode and the aspects,
+	 * stored in the pregenerated proxy. Returns <code>null</code> if
+	 * {@link #hasLambdaAspects() aspects use lambdas}.
+	 */
+	protected String fingerprint(final byte[] targetBytes) {
+		if (hasLambdaAspects()) {
+			return null;
+		}
+
+		final StringBuilder aspects = new StringBuilder(proxetta.getClass().getName());
+
+		for (final Object aspect : proxetta.proxyAspectList) {
+			aspects.append(';');
+			if (aspect instanceof ProxyAspect) {
+				final ProxyAspect proxyAspect = (ProxyAspect) aspect;
+				aspects.append(proxyAspect.advice().getName())
+					.append('@').append(proxyAspect.pointcut().getClass().getName());
+			} else {
+				aspects.append(aspect.getClass().getName());
+			}
+		}
+
+		final CRC32 crc = new CRC32();
+		crc.update(targetBytes);
+		final long targetCrc = crc.getValue();
+
+		crc.reset();
+		crc.update(aspects.toString().getBytes(StandardCharsets.UTF_8));
+
+		return Long.toHexString(targetCrc) + '-' + Long.toHexString(crc.getValue());
+	}
+
+	/**
+	 * Returns <code>true</code> if some aspect or pointcut is a lambda.
+	 * Lambda classes are generated at runtime, their names are not stable
+	 * and different lambdas can not be told apart, so such proxies
+	 * can not be pregenerated.
+	 */
+	protected boolean hasLambdaAspects() {
+		for (final Object aspect : proxetta.proxyAspectList) {
+			if (isLambda(aspect)) {
+				return true;
+			}
+			if (aspect instanceof ProxyAspect && isLambda(((ProxyAspect) aspect).pointcut())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isLambda(final Object object) {
+		final Class type = object.getClass();
+		return type.isSynthetic() || type.getName().contains("$$Lambda");
+	}
+
+	/**
+	 * Reads fingerprint of the pregenerated proxy from its bytecode.
+	 * Returns <code>null</code> if proxy does not have it.
+	 */
+	protected static String readFingerprint(final InputStream proxyInputStream) throws IOException {
+		final String[] fingerprint = new String[1];
+
+		new ClassReader(proxyInputStream).accept(new EmptyClassVisitor() {
+			@Override
+			public FieldVisitor visitField(final int access, final String name, final String descriptor, final String signature, final Object value) {
+				if (name.equals(ProxettaNames.fingerprintFieldName) && value instanceof String) {
+					fingerprint[0] = (String) value;
+				}
+				return null;
+			}
+		}, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+		return fingerprint[0];
+	}
+
 	/**
 	 * Creates new instance of created class.
 	 * Assumes default no-arg constructor.
@@ -359,7 +522,7 @@ public abstract class ProxettaFactory<T extends ProxettaFactory, P extends Proxe
 	 * Checks if proxy is created and throws an exception if not.
 	 */
 	protected void assertProxyIsCreated() {
-		if (destClassWriter == null) {
+		if (proxyClassName == null) {
 			throw new ProxettaException("Target not accepted yet!");
 		}
 	}
@@ -369,6 +532,9 @@ public abstract class ProxettaFactory<T extends ProxettaFactory, P extends Proxe
 	 */
 	protected byte[] toByteArray() {
 		assertProxyIsCreated();
+		if (destClassWriter == null) {
+			throw new ProxettaException("Pregenerated proxy loaded, bytecode not available");
+		}
 		return destClassWriter.toByteArray();
 	}
 
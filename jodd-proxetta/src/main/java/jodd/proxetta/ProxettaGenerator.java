@@ -0,0 +1,264 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.proxetta;
+
+import jodd.asm7.ClassReader;
+import jodd.asm7.ClassVisitor;
+import jodd.asm7.ClassWriter;
+import jodd.asm7.Opcodes;
+import jodd.io.FileUtil;
+import jodd.io.findfile.FindFile;
+import jodd.io.findfile.WildcardFindFile;
+import jodd.log.Logger;
+import jodd.log.LoggerFactory;
+import jodd.util.ClassLoaderUtil;
+import jodd.util.ClassUtil;
+import jodd.util.StringUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Ahead-of-time proxy generator. Applies {@link Proxetta} aspects to the
+ * compiled classes and writes proxy classes next to them (or to the
+ * output folder), so the application does not have to generate proxies
+ * on every start. At runtime, enable {@link Proxetta#setPregenerated(boolean)}
+ * on the very same Proxetta configuration.
+ * <p>
+ * May be run as a main class, i.e. from a build tool after the compilation:
+ * <pre>
+ * java jodd.proxetta.ProxettaGenerator &lt;proxetta-supplier&gt; &lt;classes-dir&gt; [&lt;output-dir&gt;]
+ * </pre>
+ * where <code>proxetta-supplier</code> is a class name of a
+ * <code>Supplier&lt;Proxetta&gt;</code> with the default constructor.
+ */
+public class ProxettaGenerator {
+
+	private static final Logger log = LoggerFactory.getLogger(ProxettaGenerator.class);
+
+	protected final Proxetta proxetta;
+	protected File outputDir;
+	protected Predicate<String> classNameFilter = className -> true;
+
+	public ProxettaGenerator(final Proxetta proxetta) {
+		if (proxetta.isVariableClassName()) {
+			throw new ProxettaException("Variable class names can not be pregenerated");
+		}
+		this.proxetta = proxetta;
+	}
+
+	/**
+	 * Sets output folder. By default, proxies are written
+	 * to the folder of the target classes.
+	 */
+	public ProxettaGenerator setOutputDir(final File outputDir) {
+		this.outputDir = outputDir;
+		return this;
+	}
+
+	/**
+	 * Sets the filter of target class names.
+	 */
+	public ProxettaGenerator setClassNameFilter(final Predicate<String> classNameFilter) {
+		this.classNameFilter = classNameFilter;
+		return this;
+	}
+
+	/**
+	 * Generates proxies for all classes in the classes folder.
+	 * Returns names of the generated proxy classes.
+	 */
+	public List<String> generate(final File classesDir) throws IOException {
+		if (proxetta.proxy().hasLambdaAspects()) {
+			throw new ProxettaException("Aspects with lambdas can not be pregenerated");
+		}
+
+		final File output = outputDir != null ? outputDir : classesDir;
+		final List<String> proxyClassNames = new ArrayList<>();
+
+		// target classes are read in the bytecode, but they may
+		// be referenced as supertypes, so they have to be reachable
+		final ClassLoader classLoader = proxetta.getClassLoader();
+		if (classLoader == null) {
+			proxetta.setClassLoader(createClassLoader(classesDir));
+		}
+
+		try {
+			final FindFile ff = new WildcardFindFile()
+				.include("**/*.class")
+				.recursive(true)
+				.includeDirs(false)
+				.searchPath(classesDir);
+
+			File file;
+			while ((file = ff.nextFile()) != null) {
+				final byte[] bytes = FileUtil.readBytes(file);
+
+				final String className = generate(bytes, output);
+				if (className != null) {
+					proxyClassNames.add(className);
+				}
+			}
+		}
+		finally {
+			proxetta.setClassLoader(classLoader);
+		}
+
+		log.info("Pregenerated proxies: " + proxyClassNames.size());
+
+		return proxyClassNames;
+	}
+
+	/**
+	 * Generates proxy for single target class and writes it to the output folder.
+	 * Returns proxy class name, or <code>null</code> if proxy is not applicable.
+	 */
+	protected String generate(final byte[] targetBytes, final File output) throws IOException {
+		final ClassReader classReader = new ClassReader(targetBytes);
+
+		final String className = classReader.getClassName().replace('/', '.');
+		if (!isTarget(className, classReader.getAccess())) {
+			return null;
+		}
+
+		final ProxettaFactory factory = proxetta.proxy();
+		factory.setTarget(new ByteArrayInputStream(targetBytes));
+
+		final byte[] proxyBytes;
+		try {
+			proxyBytes = factory.create();
+		}
+		catch (final ProxettaException pex) {
+			log.warn("Proxy not generated: " + className, pex);
+			return null;
+		}
+
+		if (proxyBytes == null) {
+			return null;
+		}
+
+		final String fingerprint = factory.fingerprint(targetBytes);
+		if (fingerprint == null) {
+			throw new ProxettaException("Aspects with lambdas can not be pregenerated");
+		}
+
+		final String proxyClassName = factory.getProxyClassName();
+		final byte[] bytes = addFingerprint(proxyBytes, fingerprint);
+		FileUtil.writeBytes(new File(output, proxyClassName.replace('.', File.separatorChar) + ".class"), bytes);
+
+		log.debug("Pregenerated: " + proxyClassName);
+		return proxyClassName;
+	}
+
+	/**
+	 * Adds the fingerprint constant to the proxy bytecode. The fingerprint is checked
+	 * before the pregenerated proxy is loaded, so proxies created for different
+	 * target class or aspects are not used.
+	 */
+	protected byte[] addFingerprint(final byte[] proxyBytes, final String fingerprint) {
+		final ClassReader classReader = new ClassReader(proxyBytes);
+		final ClassWriter classWriter = new ClassWriter(classReader, 0);
+
+		classReader.accept(new ClassVisitor(Opcodes.ASM7, classWriter) {
+			@Override
+			public void visitEnd() {
+				cv.visitField(
+					Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC,
+					ProxettaNames.fingerprintFieldName, "Ljava/lang/String;", null, fingerprint).visitEnd();
+				super.visitEnd();
+			}
+		}, 0);
+
+		return classWriter.toByteArray();
+	}
+
+	/**
+	 * Returns <code>true</code> if class can be a proxy target.
+	 */
+	protected boolean isTarget(final String className, final int access) {
+		if ((access & (Opcodes.ACC_INTERFACE | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC)) != 0) {
+			return false;
+		}
+		if (className.endsWith("module-info") || className.endsWith("package-info")) {
+			return false;
+		}
+		final String suffix = proxetta.getClassNameSuffix();
+		if (suffix != null && className.contains(suffix)) {
+			return false;
+		}
+		return classNameFilter.test(className);
+	}
+
+	/**
+	 * Creates class loader for the classes folder.
+	 */
+	protected ClassLoader createClassLoader(final File classesDir) throws MalformedURLException {
+		return new URLClassLoader(new URL[] {classesDir.toURI().toURL()}, ClassLoaderUtil.getDefaultClassLoader());
+	}
+
+	// ---------------------------------------------------------------- main
+
+	/**
+	 * Runs the generator.
+	 */
+	@SuppressWarnings("unchecked")
+	public static void main(final String[] args) throws Exception {
+		if (args.length < 2) {
+			System.out.println("Usage: ProxettaGenerator <proxetta-supplier> <classes-dir> [<output-dir>]");
+			return;
+		}
+
+		final File classesDir = new File(args[1]);
+
+		final ClassLoader classLoader = new URLClassLoader(
+			new URL[] {classesDir.toURI().toURL()}, ClassLoaderUtil.getDefaultClassLoader());
+
+		final Class<?> supplierType = ClassLoaderUtil.loadClass(args[0], classLoader);
+		final Supplier<Proxetta> supplier = (Supplier<Proxetta>) ClassUtil.newInstance(supplierType);
+
+		final Proxetta proxetta = supplier.get();
+		proxetta.setClassLoader(classLoader);
+
+		final ProxettaGenerator generator = new ProxettaGenerator(proxetta);
+		if (args.length > 2) {
+			generator.setOutputDir(new File(args[2]));
+		}
+
+		final List<String> proxies = generator.generate(classesDir);
+
+		System.out.println("Proxetta generated " + proxies.size() + " proxies in " + StringUtil.toSafeString(
+			args.length > 2 ? args[2] : args[1]));
+	}
+}
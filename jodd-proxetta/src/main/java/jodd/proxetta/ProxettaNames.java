@@ -70,6 +70,14 @@ public class ProxettaNames {
 	 * Divider for field names.
 	 */
 	public static String fieldDivider = "$";
+	/**
+	 * Prefix for static fields that hold {@link ProxyTargetMethod} of proxied methods.
+	 */
+	public static String targetMethodFieldName = "$__targetMethod$$";
+	/**
+	 * Name of the static field that holds the fingerprint of pregenerated proxies.
+	 */
+	public static String fingerprintFieldName = "$__fingerprint";
 	/**
 	 * Wrapper target field name.
 	 */
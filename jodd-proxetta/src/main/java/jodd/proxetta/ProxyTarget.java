@@ -75,6 +75,77 @@ public final class ProxyTarget {
 		throw new ProxettaException();
 	}
 
+	// ---------------------------------------------------------------- typed arguments
+
+	/**
+	 * Inserts value of <code>int</code> method argument specified by 1-based index, without boxing.
+	 * Arguments of type <code>byte</code>, <code>short</code> and <code>char</code> are accepted as well.
+	 * Proxy creation fails if argument can not be converted.
+	 */
+	public static int argumentAsInt(final int index) {
+		throw new ProxettaException();
+	}
+
+	/**
+	 * Inserts value of <code>long</code> method argument specified by 1-based index, without boxing.
+	 * Integer arguments are widened.
+	 * @see #argumentAsInt(int)
+	 */
+	public static long argumentAsLong(final int index) {
+		throw new ProxettaException();
+	}
+
+	/**
+	 * Inserts value of <code>float</code> method argument specified by 1-based index, without boxing.
+	 * Integer arguments are widened.
+	 * @see #argumentAsInt(int)
+	 */
+	public static float argumentAsFloat(final int index) {
+		throw new ProxettaException();
+	}
+
+	/**
+	 * Inserts value of <code>double</code> method argument specified by 1-based index, without boxing.
+	 * Integer and <code>float</code> arguments are widened.
+	 * @see #argumentAsInt(int)
+	 */
+	public static double argumentAsDouble(final int index) {
+		throw new ProxettaException();
+	}
+
+	/**
+	 * Inserts value of <code>boolean</code> method argument specified by 1-based index, without boxing.
+	 * @see #argumentAsInt(int)
+	 */
+	public static boolean argumentAsBoolean(final int index) {
+		throw new ProxettaException();
+	}
+
+	/**
+	 * Inserts value of <code>byte</code> method argument specified by 1-based index, without boxing.
+	 * @see #argumentAsInt(int)
+	 */
+	public static byte argumentAsByte(final int index) {
+		throw new ProxettaException();
+	}
+
+	/**
+	 * Inserts value of <code>short</code> method argument specified by 1-based index, without boxing.
+	 * Arguments of type <code>byte</code> are accepted as well.
+	 * @see #argumentAsInt(int)
+	 */
+	public static short argumentAsShort(final int index) {
+		throw new ProxettaException();
+	}
+
+	/**
+	 * Inserts value of <code>char</code> method argument specified by 1-based index, without boxing.
+	 * @see #argumentAsInt(int)
+	 */
+	public static char argumentAsChar(final int index) {
+		throw new ProxettaException();
+	}
+
 	// ---------------------------------------------------------------- arguments array
 
 	/**
@@ -187,4 +258,13 @@ public final class ProxyTarget {
 		throw new ProxettaException();
 	}
 
+	/**
+	 * Inserts {@link jodd.proxetta.ProxyTargetMethod} of the target method. Unlike
+	 * {@link #info()}, nothing is created on invocation, as the instance is
+	 * created once, when proxy class is initialized.
+	 */
+	public static ProxyTargetMethod method() {
+		throw new ProxettaException();
+	}
+
 }
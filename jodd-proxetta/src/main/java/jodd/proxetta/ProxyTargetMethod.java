@@ -0,0 +1,166 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.proxetta;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+/**
+ * Immutable information about the proxied target method. One instance per
+ * proxied method is created when proxy class is initialized and stored
+ * in a static field, so using it in advice does not allocate anything.
+ * @see ProxyTarget#method()
+ */
+public final class ProxyTargetMethod {
+
+	private final Class<?> targetClass;
+	private final String methodName;
+	private final String signature;
+	private final String description;
+	private final Class<?> returnType;
+	private final Class<?>[] argumentTypes;
+	private volatile Method method;
+
+	public ProxyTargetMethod(
+			final Class<?> targetClass,
+			final String methodName,
+			final String signature,
+			final String description,
+			final Class<?> returnType,
+			final Class<?>[] argumentTypes) {
+		this.targetClass = targetClass;
+		this.methodName = methodName;
+		this.signature = signature;
+		this.description = description;
+		this.returnType = returnType;
+		this.argumentTypes = argumentTypes;
+	}
+
+	/**
+	 * Returns target class.
+	 * @see ProxyTarget#targetClass()
+	 */
+	public Class<?> getTargetClass() {
+		return targetClass;
+	}
+
+	/**
+	 * Returns target method name.
+	 * @see ProxyTarget#targetMethodName()
+	 */
+	public String getMethodName() {
+		return methodName;
+	}
+
+	/**
+	 * Returns java-like target method signature, including the method name.
+	 * @see ProxyTarget#targetMethodSignature()
+	 */
+	public String getSignature() {
+		return signature;
+	}
+
+	/**
+	 * Returns bytecode-like target method description.
+	 * @see ProxyTarget#targetMethodDescription()
+	 */
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * Returns return type of target method.
+	 * @see ProxyTarget#returnType()
+	 */
+	public Class<?> getReturnType() {
+		return returnType;
+	}
+
+	/**
+	 * Returns total number of method's arguments.
+	 */
+	public int getArgumentsCount() {
+		return argumentTypes.length;
+	}
+
+	/**
+	 * Returns type of method argument specified by 1-based index.
+	 * @see ProxyTarget#argumentType(int)
+	 */
+	public Class<?> getArgumentType(final int index) {
+		return argumentTypes[index - 1];
+	}
+
+	/**
+	 * Returns copy of arguments types.
+	 */
+	public Class<?>[] getArgumentTypes() {
+		return argumentTypes.clone();
+	}
+
+	/**
+	 * Returns target {@link Method}. It is resolved on the first call,
+	 * either from the target class or from one of its superclasses.
+	 */
+	public Method getMethod() {
+		Method m = method;
+		if (m == null) {
+			m = resolveMethod();
+			method = m;
+		}
+		return m;
+	}
+
+	private Method resolveMethod() {
+		Class<?> type = targetClass;
+		while (type != null) {
+			try {
+				return type.getDeclaredMethod(methodName, argumentTypes);
+			}
+			catch (final NoSuchMethodException ignore) {
+				type = type.getSuperclass();
+			}
+		}
+		try {
+			return targetClass.getMethod(methodName, argumentTypes);
+		}
+		catch (final NoSuchMethodException nsmex) {
+			throw new ProxettaException("Target method not found: " + signature, nsmex);
+		}
+	}
+
+	/**
+	 * Returns target method annotation or <code>null</code> if annotation is not present.
+	 */
+	public <A extends Annotation> A getAnnotation(final Class<A> annotationClass) {
+		return getMethod().getAnnotation(annotationClass);
+	}
+
+	@Override
+	public String toString() {
+		return targetClass.getName() + '#' + signature;
+	}
+}
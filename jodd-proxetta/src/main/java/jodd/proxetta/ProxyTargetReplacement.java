@@ -38,6 +38,13 @@ import java.lang.reflect.Method;
 import static jodd.asm7.Opcodes.AASTORE;
 import static jodd.asm7.Opcodes.ANEWARRAY;
 import static jodd.asm7.Opcodes.DUP;
+import static jodd.asm7.Opcodes.F2D;
+import static jodd.asm7.Opcodes.I2D;
+import static jodd.asm7.Opcodes.I2F;
+import static jodd.asm7.Opcodes.I2L;
+import static jodd.asm7.Opcodes.L2D;
+import static jodd.asm7.Opcodes.L2F;
+import static jodd.asm7.Opcodes.NOP;
 import static jodd.asm7.Opcodes.POP;
 import static jodd.proxetta.asm.ProxettaAsmUtil.checkArgumentIndex;
 import static jodd.proxetta.asm.ProxettaAsmUtil.loadMethodArgumentAsObject;
@@ -50,6 +57,8 @@ import static jodd.proxetta.asm.ProxettaAsmUtil.pushInt;
 public class ProxyTargetReplacement {
 
 	public static final String PROXY_TARGET_INFO = "jodd/proxetta/ProxyTargetInfo";
+	public static final String PROXY_TARGET_METHOD = "jodd/proxetta/ProxyTargetMethod";
+	public static final String L_PROXY_TARGET_METHOD = 'L' + PROXY_TARGET_METHOD + ';';
 
 	/**
 	 * Visits replacement code for {@link ProxyTarget#argumentsCount()}.
@@ -77,6 +86,38 @@ public class ProxyTargetReplacement {
 		loadMethodArgumentAsObject(mv, methodInfo, argIndex);
 	}
 
+	/**
+	 * Visits replacement code for typed argument methods, like {@link ProxyTarget#argumentAsInt(int)}.
+	 * Argument is loaded without boxing; only widening primitive conversions are allowed.
+	 */
+	public static void argumentAs(final MethodVisitor mv, final MethodInfo methodInfo, final int argIndex, final char type) {
+		checkArgumentIndex(methodInfo, argIndex);
+
+		final char argType = methodInfo.getArgument(argIndex).getOpcode();
+		final boolean isInt = argType == 'I' || argType == 'S' || argType == 'B' || argType == 'C';
+		final int conversion;
+
+		switch (type) {
+			case 'I': conversion = isInt ? NOP : -1; break;
+			case 'J': conversion = argType == 'J' ? NOP : isInt ? I2L : -1; break;
+			case 'F': conversion = argType == 'F' ? NOP : isInt ? I2F : argType == 'J' ? L2F : -1; break;
+			case 'D': conversion = argType == 'D' ? NOP : isInt ? I2D : argType == 'J' ? L2D : argType == 'F' ? F2D : -1; break;
+			case 'S': conversion = argType == 'S' || argType == 'B' ? NOP : -1; break;
+			default: conversion = argType == type ? NOP : -1; break;
+		}
+
+		if (conversion == -1) {
+			throw new ProxettaException("Argument " + argIndex + " of " + methodInfo.getClassname() + '#' +
+				methodInfo.getSignature() + " can not be converted to: " + Type.getType(String.valueOf(type)).getClassName());
+		}
+
+		mv.visitInsn(POP);
+		ProxettaAsmUtil.loadMethodArgument(mv, methodInfo, argIndex);
+		if (conversion != NOP) {
+			mv.visitInsn(conversion);
+		}
+	}
+
 	/**
 	 * Visits replacement code for {@link ProxyTarget#createArgumentsArray()}.
 	 */
@@ -200,6 +241,33 @@ public class ProxyTargetReplacement {
 		mv.visitVarInsn(Opcodes.ALOAD, argsOff);
 	}
 
+	/**
+	 * Visits replacement code for {@link ProxyTarget#method()}, i.e. loads
+	 * the static field with {@link ProxyTargetMethod} instance.
+	 */
+	public static void method(final MethodVisitor mv, final String owner, final String fieldName) {
+		mv.visitFieldInsn(Opcodes.GETSTATIC, owner, fieldName, L_PROXY_TARGET_METHOD);
+	}
+
+	/**
+	 * Visits code that creates new {@link ProxyTargetMethod} for given method.
+	 * Used in static initialization block of the proxy.
+	 */
+	public static void createTargetMethod(final MethodVisitor mv, final MethodInfo methodInfo) {
+		mv.visitTypeInsn(Opcodes.NEW, PROXY_TARGET_METHOD);
+		mv.visitInsn(DUP);
+
+		targetClass(mv, methodInfo);
+		targetMethodName(mv, methodInfo);
+		targetMethodSignature(mv, methodInfo);
+		targetMethodDescription(mv, methodInfo);
+		returnType(mv, methodInfo);
+		createArgumentsClassArray(mv, methodInfo);
+
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, PROXY_TARGET_METHOD, "<init>",
+			"(Ljava/lang/Class;Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;Ljava/lang/Class;[Ljava/lang/Class;)V", false);
+	}
+
 	/**
 	 * Visits replacement code for {@link ProxyTarget#targetMethodAnnotation(String, String)}.
 	 */
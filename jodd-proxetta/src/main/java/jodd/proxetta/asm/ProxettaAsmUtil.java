@@ -967,4 +967,41 @@ public class ProxettaAsmUtil {
 		return false;
 	}
 
+	public static boolean isMethodMethod(final String name, final String desc) {
+		if (name.equals("method")) {
+			if (desc.equals("()Ljodd/proxetta/ProxyTargetMethod;")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Detects typed argument methods, like <code>argumentAsInt(int)</code>.
+	 * Returns bytecode type of the argument value or <code>0</code> if method
+	 * is not a typed argument method.
+	 */
+	public static char argumentAsMethodType(final String name, final String desc) {
+		if (!name.startsWith("argumentAs") || desc.length() != 4 || !desc.startsWith("(I)")) {
+			return 0;
+		}
+		final char type = desc.charAt(3);
+		final String typeName;
+		switch (type) {
+			case 'I': typeName = "Int"; break;
+			case 'J': typeName = "Long"; break;
+			case 'F': typeName = "Float"; break;
+			case 'D': typeName = "Double"; break;
+			case 'Z': typeName = "Boolean"; break;
+			case 'B': typeName = "Byte"; break;
+			case 'S': typeName = "Short"; break;
+			case 'C': typeName = "Char"; break;
+			default: return 0;
+		}
+		if (name.length() != 10 + typeName.length() || !name.endsWith(typeName)) {
+			return 0;
+		}
+		return type;
+	}
+
 }
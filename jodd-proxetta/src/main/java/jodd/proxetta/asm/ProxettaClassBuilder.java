@@ -37,6 +37,7 @@ import jodd.asm7.MethodVisitor;
 import jodd.proxetta.ProxettaException;
 import jodd.proxetta.ProxettaNames;
 import jodd.proxetta.ProxyAspect;
+import jodd.proxetta.ProxyTargetReplacement;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -45,6 +46,7 @@ import static jodd.asm7.Opcodes.ACC_ABSTRACT;
 import static jodd.asm7.Opcodes.ALOAD;
 import static jodd.asm7.Opcodes.INVOKESPECIAL;
 import static jodd.asm7.Opcodes.INVOKESTATIC;
+import static jodd.asm7.Opcodes.PUTSTATIC;
 import static jodd.asm7.Opcodes.RETURN;
 import static jodd.proxetta.asm.ProxettaAsmUtil.CLINIT;
 import static jodd.proxetta.asm.ProxettaAsmUtil.DESC_VOID;
@@ -168,29 +170,44 @@ public class ProxettaClassBuilder extends EmptyClassVisitor {
 	 */
 	@Override
 	public void visitEnd() {
-		makeStaticInitBlock();
-
 		makeProxyConstructor();
 
 		processSuperMethods();
 
+		makeStaticInitBlock();
+
 		wd.dest.visitEnd();
 	}
 
 	/**
-	 * Creates static initialization block that simply calls all
-	 * advice static init methods in correct order.
+	 * Creates static initialization block that initializes target method fields
+	 * and calls all advice static init methods in correct order.
+	 * Must be invoked after all methods are proxied.
 	 */
 	protected void makeStaticInitBlock() {
-		if (wd.adviceClinits != null) {
+		if (wd.adviceClinits != null || wd.targetMethodFields != null) {
 			MethodVisitor mv = wd.dest.visitMethod(AsmUtil.ACC_STATIC, CLINIT, DESC_VOID, null, null);
 			mv.visitCode();
-			for (String name : wd.adviceClinits) {
-				mv.visitMethodInsn(
-					INVOKESTATIC,
-					wd.thisReference,
-					name, DESC_VOID,
-					false);
+			if (wd.targetMethodFields != null) {
+				for (int i = 0; i < wd.targetMethodFields.size(); i++) {
+					final String name = wd.targetMethodFields.get(i);
+
+					wd.dest.visitField(
+						AsmUtil.ACC_PRIVATE | AsmUtil.ACC_STATIC | AsmUtil.ACC_FINAL | AsmUtil.ACC_SYNTHETIC,
+						name, ProxyTargetReplacement.L_PROXY_TARGET_METHOD, null, null).visitEnd();
+
+					ProxyTargetReplacement.createTargetMethod(mv, wd.targetMethods.get(i));
+					mv.visitFieldInsn(PUTSTATIC, wd.thisReference, name, ProxyTargetReplacement.L_PROXY_TARGET_METHOD);
+				}
+			}
+			if (wd.adviceClinits != null) {
+				for (String name : wd.adviceClinits) {
+					mv.visitMethodInsn(
+						INVOKESTATIC,
+						wd.thisReference,
+						name, DESC_VOID,
+						false);
+				}
 			}
 			mv.visitInsn(RETURN);
 			mv.visitMaxs(0, 0);
@@ -52,6 +52,7 @@ import static jodd.asm7.Opcodes.POP;
 import static jodd.asm7.Opcodes.POP2;
 import static jodd.proxetta.asm.ProxettaAsmUtil.adviceFieldName;
 import static jodd.proxetta.asm.ProxettaAsmUtil.adviceMethodName;
+import static jodd.proxetta.asm.ProxettaAsmUtil.argumentAsMethodType;
 import static jodd.proxetta.asm.ProxettaAsmUtil.castToReturnType;
 import static jodd.proxetta.asm.ProxettaAsmUtil.checkArgumentIndex;
 import static jodd.proxetta.asm.ProxettaAsmUtil.isArgumentMethod;
@@ -61,6 +62,7 @@ import static jodd.proxetta.asm.ProxettaAsmUtil.isCreateArgumentsArrayMethod;
 import static jodd.proxetta.asm.ProxettaAsmUtil.isCreateArgumentsClassArrayMethod;
 import static jodd.proxetta.asm.ProxettaAsmUtil.isInfoMethod;
 import static jodd.proxetta.asm.ProxettaAsmUtil.isInvokeMethod;
+import static jodd.proxetta.asm.ProxettaAsmUtil.isMethodMethod;
 import static jodd.proxetta.asm.ProxettaAsmUtil.isReturnTypeMethod;
 import static jodd.proxetta.asm.ProxettaAsmUtil.isReturnValueMethod;
 import static jodd.proxetta.asm.ProxettaAsmUtil.isSetArgumentMethod;
@@ -222,6 +224,9 @@ public class ProxettaMethodBuilder extends EmptyMethodVisitor {
 
 				return new HistoryMethodAdapter(mv) {
 
+					int invokeCount;                // number of invoke() calls so far
+					boolean skipReturn;             // invoke() result is already returned
+
 					@Override
 					public void visitFieldInsn(final int opcode, String owner, String name, final String desc) {
 						if (owner.equals(aspectData.adviceReference)) {
@@ -255,6 +260,10 @@ public class ProxettaMethodBuilder extends EmptyMethodVisitor {
 					@Override
 					public void visitInsn(final int opcode) {
 						if (opcode == ARETURN) {
+							if (skipReturn) {
+								skipReturn = false;
+								return;
+							}
 							visitReturn(mv, td.msign, true);
 							return;
 						}
@@ -285,6 +294,8 @@ public class ProxettaMethodBuilder extends EmptyMethodVisitor {
 							if (string.endsWith('/' + TARGET_CLASS_NAME)) {
 
 								if (isInvokeMethod(mname, mdesc)) {           // [R7]
+									final int invokeIndex = invokeCount++;
+
 									if (td.isLastMethodInChain()) {                            // last proxy method just calls super target method
 
 										if (!wd.isWrapper()) {
@@ -313,8 +324,14 @@ public class ProxettaMethodBuilder extends EmptyMethodVisitor {
 											}
 										}
 
-										prepareReturnValue(mv, td.msign, aspectData.maxLocalVarOffset);     // [F4]
-										traceNext = true;
+										if (aspectData.isInvokeReturned(invokeIndex)) {
+											// result is returned as it is, no need for boxing
+											visitReturn(mv, td.msign, false);
+											skipReturn = true;
+										} else {
+											prepareReturnValue(mv, td.msign, aspectData.maxLocalVarOffset);     // [F4]
+											traceNext = true;
+										}
 									} else {                                                    // calls next proxy method
 										loadSpecialMethodArguments(mv, td.msign);
 										mv.visitMethodInsn(INVOKESPECIAL, wd.thisReference, td.nextMethodName(), td.msign.getDescription(), isInterface);
@@ -334,6 +351,13 @@ public class ProxettaMethodBuilder extends EmptyMethodVisitor {
 									return;
 								}
 
+								final char argumentAsType = argumentAsMethodType(mname, mdesc);
+								if (argumentAsType != 0) {
+									int argIndex = this.getArgumentIndex();
+									ProxyTargetReplacement.argumentAs(mv, td.msign, argIndex, argumentAsType);
+									return;
+								}
+
 								if (isArgumentMethod(mname, mdesc)) {           // [R4]
 									int argIndex = this.getArgumentIndex();
 									ProxyTargetReplacement.argument(mv, td.msign, argIndex);
@@ -395,6 +419,11 @@ public class ProxettaMethodBuilder extends EmptyMethodVisitor {
 									return;
 								}
 
+								if (isMethodMethod(mname, mdesc)) {
+									ProxyTargetReplacement.method(mv, wd.thisReference, td.targetMethodFieldName(wd));
+									return;
+								}
+
 								if (isReturnTypeMethod(mname, mdesc)) {        // [R11]
 									ProxyTargetReplacement.returnType(mv, td.msign);
 									return;
@@ -266,10 +266,10 @@ public class ProxettaWrapperClassBuilder extends ProxettaClassBuilder {
 
 	@Override
 	public void visitEnd() {
-		makeStaticInitBlock();
-
 		processSuperMethods();
 
+		makeStaticInitBlock();
+
 		wd.dest.visitEnd();
 
 	}
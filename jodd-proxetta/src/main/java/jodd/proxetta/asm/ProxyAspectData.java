@@ -31,6 +31,7 @@ import jodd.asm.EmptyMethodVisitor;
 import jodd.asm.MethodAdapter;
 import jodd.asm7.ClassReader;
 import jodd.asm7.FieldVisitor;
+import jodd.asm7.Handle;
 import jodd.asm7.Label;
 import jodd.asm7.MethodVisitor;
 import jodd.cache.TypeCache;
@@ -45,8 +46,10 @@ import jodd.util.ClassLoaderUtil;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.BitSet;
 
 import static jodd.asm7.Opcodes.ALOAD;
+import static jodd.asm7.Opcodes.ARETURN;
 import static jodd.asm7.Opcodes.INVOKEINTERFACE;
 import static jodd.asm7.Opcodes.INVOKESPECIAL;
 import static jodd.asm7.Opcodes.INVOKESTATIC;
@@ -56,6 +59,7 @@ import static jodd.proxetta.asm.ProxettaAsmUtil.DESC_VOID;
 import static jodd.proxetta.asm.ProxettaAsmUtil.INIT;
 import static jodd.proxetta.asm.ProxettaAsmUtil.adviceFieldName;
 import static jodd.proxetta.asm.ProxettaAsmUtil.adviceMethodName;
+import static jodd.proxetta.asm.ProxettaAsmUtil.isInvokeMethod;
 import static jodd.proxetta.asm.ProxettaAsmUtil.isStoreOpcode;
 
 /**
@@ -75,6 +79,7 @@ final class ProxyAspectData {
 	String adviceReference;     // advice reference
 	boolean ready;              // is advice ready for manipulation?
 	int maxLocalVarOffset;      // first next local var offset
+	final BitSet returnedInvokes = new BitSet();    // invoke() calls which result is returned immediately
 
 	ProxyAspectData(final WorkData wd, final ProxyAspect aspect, final int aspectIndex) {
 		this.aspect = aspect;
@@ -123,6 +128,15 @@ final class ProxyAspectData {
 		return adviceClassReaderCache.get(advice, this::createAdviceClassReader);
 	}
 
+	/**
+	 * Returns <code>true</code> if the result of n-th <code>invoke()</code>
+	 * call in the advice is immediately returned, with no other instructions
+	 * in between. Then the result does not have to be boxed.
+	 */
+	boolean isInvokeReturned(final int invokeIndex) {
+		return returnedInvokes.get(invokeIndex);
+	}
+
 	/**
 	 * Returns class reader for advice.
 	 */
@@ -323,8 +337,12 @@ final class ProxyAspectData {
 				// Parse EXECUTE method, just to gather some info, real parsing will come later
 				//return new MethodAdapter(new EmptyMethodVisitor()) {		// toask may we replace this with the following code?
 				return new EmptyMethodVisitor() {
+					int invokeCount;
+					int lastInvoke = -1;      // index of invoke() call if it is the previous instruction
+
 					@Override
 					public void visitVarInsn(final int opcode, final int var) {
+						lastInvoke = -1;
 						if (isStoreOpcode(opcode)) {
 							if (var > maxLocalVarOffset) {
 								maxLocalVarOffset = var;          // find max local var offset
@@ -332,6 +350,77 @@ final class ProxyAspectData {
 						}
 						super.visitVarInsn(opcode, var);
 					}
+
+					@Override
+					public void visitMethodInsn(final int opcode, final String owner, final String name, final String desc, final boolean isInterface) {
+						lastInvoke = -1;
+						if (opcode == INVOKESTATIC && owner.endsWith('/' + ProxettaMethodBuilder.TARGET_CLASS_NAME) && isInvokeMethod(name, desc)) {
+							lastInvoke = invokeCount++;
+						}
+					}
+
+					@Override
+					public void visitInsn(final int opcode) {
+						if (opcode == ARETURN && lastInvoke != -1) {
+							returnedInvokes.set(lastInvoke);
+						}
+						lastInvoke = -1;
+					}
+
+					@Override
+					public void visitIntInsn(final int opcode, final int operand) {
+						lastInvoke = -1;
+					}
+
+					@Override
+					public void visitTypeInsn(final int opcode, final String type) {
+						lastInvoke = -1;
+					}
+
+					@Override
+					public void visitFieldInsn(final int opcode, final String owner, final String name, final String descriptor) {
+						lastInvoke = -1;
+					}
+
+					@Override
+					public void visitInvokeDynamicInsn(final String name, final String descriptor, final Handle bootstrapMethodHandle, final Object... bootstrapMethodArguments) {
+						lastInvoke = -1;
+					}
+
+					@Override
+					public void visitJumpInsn(final int opcode, final Label label) {
+						lastInvoke = -1;
+					}
+
+					@Override
+					public void visitLabel(final Label label) {
+						lastInvoke = -1;
+					}
+
+					@Override
+					public void visitLdcInsn(final Object value) {
+						lastInvoke = -1;
+					}
+
+					@Override
+					public void visitIincInsn(final int var, final int increment) {
+						lastInvoke = -1;
+					}
+
+					@Override
+					public void visitTableSwitchInsn(final int min, final int max, final Label dflt, final Label... labels) {
+						lastInvoke = -1;
+					}
+
+					@Override
+					public void visitLookupSwitchInsn(final Label dflt, final int[] keys, final Label[] labels) {
+						lastInvoke = -1;
+					}
+
+					@Override
+					public void visitMultiANewArrayInsn(final String descriptor, final int numDimensions) {
+						lastInvoke = -1;
+					}
 				};
 //					return super.visitMethod(access, name, desc, signature, exceptions);
 			}
@@ -44,6 +44,21 @@ final class TargetMethodData {
 		this.proxyData = aspectList.toArray(new ProxyAspectData[0]);
 	}
 
+	// ---------------------------------------------------------------- target method
+
+	private String targetMethodFieldName;
+
+	/**
+	 * Returns the name of static field with target method information,
+	 * shared by all proxy methods in the chain. Field is registered on first use.
+	 */
+	String targetMethodFieldName(final WorkData wd) {
+		if (targetMethodFieldName == null) {
+			targetMethodFieldName = wd.addTargetMethodField(msign);
+		}
+		return targetMethodFieldName;
+	}
+
 	// ---------------------------------------------------------------- current
 
 	int currentIndex;
@@ -26,6 +26,8 @@
 package jodd.proxetta.asm;
 
 import jodd.asm7.ClassVisitor;
+import jodd.proxetta.MethodInfo;
+import jodd.proxetta.ProxettaNames;
 import jodd.util.StringPool;
 
 import java.util.ArrayList;
@@ -69,19 +71,29 @@ public final class WorkData {
 	/**
 	 * Work data initialization.
 	 */
-	public void init(String name, final String superName, final String suffix, final String reqProxyClassName) {
+	public void init(final String name, final String superName, final String suffix, final String reqProxyClassName) {
 		int lastSlash = name.lastIndexOf('/');
 		this.targetPackage = lastSlash == -1 ? StringPool.EMPTY : name.substring(0, lastSlash).replace('/', '.');
 		this.targetClassname = name.substring(lastSlash + 1);
 		this.nextSupername = superName;
 		this.superName = name;
 
-		// create proxy name
+		this.thisReference = resolveProxyName(name, suffix, reqProxyClassName);
+		this.superReference = this.superName;
+	}
+
+	/**
+	 * Resolves internal name of the proxy class from the internal name of the target
+	 * class, optional suffix and optional requested proxy class name.
+	 */
+	public static String resolveProxyName(String name, final String suffix, final String reqProxyClassName) {
+		int lastSlash = name.lastIndexOf('/');
+
 		if (reqProxyClassName != null) {
 			if (reqProxyClassName.startsWith(DOT)) {
 				name = name.substring(0, lastSlash) + '/' + reqProxyClassName.substring(1);
 			} else if (reqProxyClassName.endsWith(DOT)) {
-				name = reqProxyClassName.replace('.', '/') + this.targetClassname;
+				name = reqProxyClassName.replace('.', '/') + name.substring(lastSlash + 1);
 			} else {
 				name = reqProxyClassName.replace('.', '/');
 			}
@@ -91,8 +103,7 @@ public final class WorkData {
 		if (suffix != null) {
 			name += suffix;
 		}
-		this.thisReference = name;
-		this.superReference = this.superName;
+		return name;
 	}
 
 
@@ -125,4 +136,24 @@ public final class WorkData {
 		adviceInits.add(name);
 	}
 
+	// ---------------------------------------------------------------- target methods
+
+	List<String> targetMethodFields;
+	List<MethodInfo> targetMethods;
+
+	/**
+	 * Registers static field for {@link jodd.proxetta.ProxyTargetMethod} of given method
+	 * and returns its name. Field is created and initialized in the static block.
+	 */
+	String addTargetMethodField(final MethodInfo methodInfo) {
+		if (targetMethodFields == null) {
+			targetMethodFields = new ArrayList<>();
+			targetMethods = new ArrayList<>();
+		}
+		final String name = ProxettaNames.targetMethodFieldName + targetMethodFields.size();
+		targetMethodFields.add(name);
+		targetMethods.add(methodInfo);
+		return name;
+	}
+
 }
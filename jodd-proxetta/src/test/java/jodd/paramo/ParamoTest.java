@@ -26,6 +26,11 @@
 package jodd.paramo;
 
 import jodd.asm.TraceSignatureVisitor;
+import jodd.asm7.ClassReader;
+import jodd.asm7.ClassWriter;
+import jodd.asm7.Label;
+import jodd.asm7.MethodVisitor;
+import jodd.asm7.Opcodes;
 import jodd.asm7.signature.SignatureReader;
 import jodd.paramo.fixtures.Foo;
 import jodd.paramo.fixtures.Generic;
@@ -39,6 +44,8 @@ import java.util.Iterator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class ParamoTest {
 
@@ -222,6 +229,67 @@ class ParamoTest {
 	}
 
 
+	@Test
+	void testParameterSlotReusedByLocalVariable() throws NoSuchMethodException {
+		final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "Gen", null, "java/lang/Object", null);
+
+		final MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "one", "(Ljava/lang/String;)V", null, null);
+		final Label start = new Label();
+		final Label reuse = new Label();
+		final Label end = new Label();
+		mv.visitCode();
+		mv.visitLabel(start);
+		mv.visitInsn(Opcodes.ACONST_NULL);
+		mv.visitVarInsn(Opcodes.ASTORE, 0);
+		mv.visitLabel(reuse);
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitLabel(end);
+		// local variable that reuses the parameter slot comes first
+		mv.visitLocalVariable("local", "Ljava/lang/Object;", null, reuse, end, 0);
+		mv.visitLocalVariable("foo", "Ljava/lang/String;", null, start, reuse, 0);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+		cw.visitEnd();
+
+		final ClassParameters classParameters = new ClassParameters("Gen");
+		new ClassReader(cw.toByteArray()).accept(classParameters, ClassReader.SKIP_FRAMES);
+
+		final MethodParameter[] mps = classParameters.resolve(
+			"one", "(Ljava/lang/String;)V", Foo.class.getMethod("one", String.class).getParameters());
+
+		assertEquals(1, mps.length);
+		assertEquals("foo", mps[0].getName());
+		assertEquals("Ljava/lang/String;", mps[0].getSignature());
+	}
+
+	@Test
+	void testClassParametersCached() {
+		final ClassParameters classParameters = Paramo.resolveClassParameters(Generic.class);
+		assertSame(classParameters, Paramo.resolveClassParameters(Generic.class));
+
+		Paramo.classParametersCache.clear();
+		assertNotSame(classParameters, Paramo.resolveClassParameters(Generic.class));
+	}
+
+	@Test
+	void testBytecodeAndReflectionMatch() {
+		for (final Class type : new Class[] {Foo.class, Generic.class, NonGeneric.class}) {
+			for (final Method m : type.getDeclaredMethods()) {
+				final MethodParameter[] mps = Paramo.resolveParameters(m);
+				final MethodParameter[] bytecodeMps = Paramo.resolveClassParameters(type)
+					.resolve(m.getName(), jodd.asm7.Type.getMethodDescriptor(m), m.getParameters());
+
+				assertEquals(mps.length, bytecodeMps.length, m.getName());
+				for (int i = 0; i < mps.length; i++) {
+					assertEquals(bytecodeMps[i].getName(), mps[i].getName());
+					assertEquals(bytecodeMps[i].getSignature(), mps[i].getSignature());
+					assertSame(m.getParameters()[i].getType(), bytecodeMps[i].getParameter().getType());
+				}
+			}
+		}
+	}
+
 	private String resolveSignature(final String signature) {
 		final SignatureReader signatureReader = new SignatureReader("(" + signature + ")V");
 		final StringBuilder sb = new StringBuilder();
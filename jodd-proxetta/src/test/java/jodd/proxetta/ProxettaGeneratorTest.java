@@ -0,0 +1,209 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.proxetta;
+
+import jodd.io.FileUtil;
+import jodd.io.StreamUtil;
+import jodd.proxetta.fixtures.data.Foo;
+import jodd.proxetta.fixtures.data.StatCounter;
+import jodd.proxetta.fixtures.data.StatCounterAdvice;
+import jodd.proxetta.impl.ProxyProxetta;
+import jodd.proxetta.pointcuts.AllMethodsPointcut;
+import jodd.proxetta.pointcuts.AllTopMethodsPointcut;
+import jodd.util.ClassLoaderUtil;
+import jodd.util.ClassUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProxettaGeneratorTest {
+
+	private File classesDir;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		classesDir = FileUtil.createTempDirectory("jodd", "proxetta");
+
+		final String classFile = Foo.class.getName().replace('.', '/') + ".class";
+		final File file = new File(classesDir, classFile);
+		FileUtil.mkdirs(file.getParentFile());
+		try (InputStream in = ClassLoaderUtil.getClassAsStream(Foo.class)) {
+			FileUtil.writeBytes(file, StreamUtil.readBytes(in));
+		}
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		FileUtil.deleteDir(classesDir);
+	}
+
+	private static final String SUFFIX = "$$Aot";
+
+	private ProxyProxetta createProxetta() {
+		// unique suffix, so proxies defined by other tests are not found in the parent class loader
+		return Proxetta.proxyProxetta()
+			.setClassNameSuffix(SUFFIX)
+			.withAspect(ProxyAspect.of(StatCounterAdvice.class, new AllMethodsPointcut()));
+	}
+
+	@Test
+	void testGenerateAndLoad() throws Exception {
+		final List<String> proxies = new ProxettaGenerator(createProxetta()).generate(classesDir);
+
+		final String proxyClassName = Foo.class.getName() + SUFFIX;
+		assertEquals(1, proxies.size());
+		assertEquals(proxyClassName, proxies.get(0));
+		assertTrue(new File(classesDir, proxyClassName.replace('.', '/') + ".class").exists());
+
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] {classesDir.toURI().toURL()}, Foo.class.getClassLoader())) {
+
+			// pregenerated proxy is loaded
+			final ProxyProxetta proxetta = createProxetta().setPregenerated(true).setClassLoader(classLoader);
+			final ProxettaFactory factory = proxetta.proxy().setTarget(Foo.class);
+			final Class proxyClass = factory.define();
+
+			assertEquals(proxyClassName, proxyClass.getName());
+			assertEquals(proxyClassName, factory.getProxyClassName());
+			assertTrue(factory.isProxyApplied());
+			assertNotNull(proxyClass.getDeclaredField(ProxettaNames.fingerprintFieldName));
+			assertSame(classLoader, proxyClass.getClassLoader());
+			assertSame(proxyClass, proxetta.proxy().setTarget(Foo.class).define());
+
+			StatCounter.counter = 0;
+			final Foo foo = (Foo) ClassUtil.newInstance(proxyClass);
+			assertEquals("in", foo.p1("in"));
+			assertEquals(2, StatCounter.counter);
+
+			// missing proxy is generated
+			final Class otherClass = createProxetta().setClassNameSuffix("$$Other")
+				.setPregenerated(true).setClassLoader(classLoader)
+				.proxy().setTarget(Foo.class).define();
+
+			assertEquals(Foo.class.getName() + "$$Other", otherClass.getName());
+		}
+	}
+
+	@Test
+	void testOutdatedProxyIsNotLoaded() throws Exception {
+		new ProxettaGenerator(createProxetta()).generate(classesDir);
+
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] {classesDir.toURI().toURL()}, Foo.class.getClassLoader())) {
+
+			// different aspects, proxy is generated again
+			final ProxettaFactory factory = Proxetta.proxyProxetta()
+				.setClassNameSuffix(SUFFIX)
+				.withAspect(ProxyAspect.of(StatCounterAdvice.class, new AllTopMethodsPointcut()))
+				.setPregenerated(true)
+				.setClassLoader(classLoader)
+				.proxy().setTarget(Foo.class);
+
+			final Class proxyClass = factory.define();
+
+			assertEquals(Foo.class.getName() + SUFFIX, proxyClass.getName());
+			assertNotNull(factory.toByteArray());
+			assertThrows(NoSuchFieldException.class, () -> proxyClass.getDeclaredField(ProxettaNames.fingerprintFieldName));
+		}
+	}
+
+	@Test
+	void testFingerprint() {
+		final ProxettaFactory factory = createProxetta().proxy();
+		final byte[] target = new byte[] {1, 2, 3};
+
+		assertEquals(factory.fingerprint(target), createProxetta().proxy().fingerprint(target));
+		assertNotEquals(factory.fingerprint(target), factory.fingerprint(new byte[] {1, 2, 4}));
+		assertNotEquals(factory.fingerprint(target), Proxetta.proxyProxetta().setClassNameSuffix(SUFFIX)
+			.withAspect(ProxyAspect.of(StatCounterAdvice.class, new AllTopMethodsPointcut())).proxy().fingerprint(target));
+
+		// lambdas can not be told apart
+		assertNull(createProxetta().withAspect(ProxyAspect.of(StatCounterAdvice.class, methodInfo -> true)).proxy().fingerprint(target));
+	}
+
+	@Test
+	void testLambdaAspectsAreNotPregenerated() throws Exception {
+		final ProxyProxetta lambdaProxetta = Proxetta.proxyProxetta()
+			.setClassNameSuffix(SUFFIX)
+			.withAspect(ProxyAspect.of(StatCounterAdvice.class, methodInfo -> methodInfo.isPublicMethod()));
+
+		assertThrows(ProxettaException.class, () -> new ProxettaGenerator(lambdaProxetta).generate(classesDir));
+
+		new ProxettaGenerator(createProxetta()).generate(classesDir);
+
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] {classesDir.toURI().toURL()}, Foo.class.getClassLoader())) {
+			final ProxettaFactory factory = lambdaProxetta
+				.setPregenerated(true)
+				.setClassLoader(classLoader)
+				.proxy().setTarget(Foo.class);
+
+			final Class proxyClass = factory.define();
+
+			assertNotNull(factory.toByteArray());
+			assertThrows(NoSuchFieldException.class, () -> proxyClass.getDeclaredField(ProxettaNames.fingerprintFieldName));
+		}
+	}
+
+	@Test
+	void testGenerateSkipsProxies() throws Exception {
+		final ProxettaGenerator generator = new ProxettaGenerator(createProxetta());
+		assertEquals(1, generator.generate(classesDir).size());
+
+		// second run does not proxy the proxies
+		assertEquals(1, generator.generate(classesDir).size());
+
+		// filtered out
+		FileUtil.deleteDir(new File(classesDir, "jodd"));
+		try (InputStream in = ClassLoaderUtil.getClassAsStream(Foo.class)) {
+			FileUtil.writeBytes(new File(classesDir, "Foo.class"), StreamUtil.readBytes(in));
+		}
+
+		assertFalse(new ProxettaGenerator(createProxetta())
+			.setClassNameFilter(name -> !name.endsWith("Foo"))
+			.generate(classesDir)
+			.iterator().hasNext());
+	}
+
+	@Test
+	void testVariableClassNames() {
+		assertThrows(ProxettaException.class, () -> new ProxettaGenerator(createProxetta().setVariableClassName(true)));
+	}
+}
@@ -0,0 +1,174 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.proxetta;
+
+import jodd.proxetta.fixtures.data.Calc;
+import jodd.proxetta.fixtures.data.CalcImpl;
+import jodd.proxetta.fixtures.data.InvalidTypedArgumentAdvice;
+import jodd.proxetta.fixtures.data.MethodInfoAdvice;
+import jodd.proxetta.fixtures.data.Prims;
+import jodd.proxetta.fixtures.data.Transaction;
+import jodd.proxetta.fixtures.data.TypedArgs;
+import jodd.proxetta.fixtures.data.TypedArgumentsAdvice;
+import jodd.proxetta.impl.ProxyProxetta;
+import jodd.proxetta.impl.WrapperProxettaFactory;
+import jodd.proxetta.pointcuts.AllTopMethodsPointcut;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProxyTargetMethodTest {
+
+	@BeforeEach
+	void setUp() {
+		TypedArgs.reset();
+	}
+
+	private Prims createPrims(final ProxyAspect... aspects) {
+		final ProxyProxetta proxetta = Proxetta.proxyProxetta().setVariableClassName(true).withAspects(aspects);
+		return (Prims) proxetta.proxy().setTarget(Prims.class).newInstance();
+	}
+
+	@Test
+	void testMethod() throws Exception {
+		final Prims prims = createPrims(new ProxyAspect(MethodInfoAdvice.class, new AllTopMethodsPointcut()));
+
+		assertEquals(10.5, prims.sum(1, 2, 0.5f, 3, (short) 1, (byte) 2, (char) 1, true));
+		assertEquals(0, prims.sum(1, 2, 0.5f, 3, (short) 1, (byte) 2, (char) 1, false));
+		assertEquals(8, prims.twice(4));
+		prims.touch(1);
+		assertEquals("jodd", prims.name("jodd"));
+
+		assertEquals(5, TypedArgs.methods.size());
+		assertSame(TypedArgs.methods.get(0), TypedArgs.methods.get(1));
+
+		final ProxyTargetMethod sum = TypedArgs.methods.get(0);
+		assertEquals(Prims.class, sum.getTargetClass());
+		assertEquals("sum", sum.getMethodName());
+		assertEquals("double sum(int, long, float, double, short, byte, char, boolean)", sum.getSignature());
+		assertEquals("(IJFDSBCZ)D", sum.getDescription());
+		assertEquals(double.class, sum.getReturnType());
+		assertEquals(8, sum.getArgumentsCount());
+		assertEquals(long.class, sum.getArgumentType(2));
+		assertArrayEquals(new Class[] {int.class, long.class, float.class, double.class, short.class, byte.class, char.class, boolean.class}, sum.getArgumentTypes());
+		assertEquals(Prims.class.getMethod("sum", sum.getArgumentTypes()), sum.getMethod());
+		assertFalse(sum.getAnnotation(Transaction.class).readOnly());
+
+		final ProxyTargetMethod touch = TypedArgs.methods.get(3);
+		assertEquals("touch", touch.getMethodName());
+		assertEquals(void.class, touch.getReturnType());
+		assertNull(touch.getAnnotation(Transaction.class));
+
+		// one static field per method
+		final Field[] fields = Arrays.stream(prims.getClass().getDeclaredFields())
+			.filter(f -> f.getName().startsWith(ProxettaNames.targetMethodFieldName))
+			.toArray(Field[]::new);
+		assertEquals(4, fields.length);
+		for (final Field field : fields) {
+			assertTrue(Modifier.isStatic(field.getModifiers()));
+			assertTrue(Modifier.isFinal(field.getModifiers()));
+		}
+	}
+
+	@Test
+	void testMethodSharedInChain() {
+		final Prims prims = createPrims(
+			new ProxyAspect(MethodInfoAdvice.class, new AllTopMethodsPointcut()),
+			new ProxyAspect(MethodInfoAdvice.class, new AllTopMethodsPointcut()));
+
+		assertEquals(8, prims.twice(4));
+		assertEquals(2, TypedArgs.methods.size());
+		assertSame(TypedArgs.methods.get(0), TypedArgs.methods.get(1));
+	}
+
+	@Test
+	void testMethodInWrapper() throws Exception {
+		final WrapperProxettaFactory factory = Proxetta.wrapperProxetta()
+			.withAspect(new ProxyAspect(MethodInfoAdvice.class, methodInfo -> methodInfo.getMethodName().equals("calculate")))
+			.proxy().setTarget(Calc.class).setTargetProxyClassName(".CalcMethodInfo");
+
+		final Calc calc = (Calc) factory.newInstance();
+		factory.injectTargetIntoWrapper(new CalcImpl(), calc);
+
+		assertEquals(10, calc.calculate(3, 7));
+		assertEquals(1, TypedArgs.methods.size());
+		assertEquals(Calc.class, TypedArgs.methods.get(0).getTargetClass());
+		assertEquals(Calc.class.getMethod("calculate", int.class, int.class), TypedArgs.methods.get(0).getMethod());
+	}
+
+	@Test
+	void testTypedArguments() {
+		final Prims prims = createPrims(
+			new ProxyAspect(TypedArgumentsAdvice.class, methodInfo -> methodInfo.getMethodName().equals("sum")));
+
+		assertEquals(Integer.MAX_VALUE + 10L + 1.5f + 2.25 + 7 + 8 + 'x',
+			prims.sum(Integer.MAX_VALUE, 10L, 1.5f, 2.25, (short) 7, (byte) 8, 'x', true));
+
+		assertEquals(Integer.MAX_VALUE, TypedArgs.i);
+		assertEquals(10L, TypedArgs.l);
+		assertEquals(1.5f, TypedArgs.f);
+		assertEquals(2.25, TypedArgs.d);
+		assertEquals(7, TypedArgs.s);
+		assertEquals(8, TypedArgs.b);
+		assertEquals('x', TypedArgs.c);
+		assertTrue(TypedArgs.z);
+		assertEquals(Integer.MAX_VALUE, TypedArgs.widened);
+		assertEquals(1.5, TypedArgs.widenedFloat);
+
+		assertEquals(1, TypedArgs.methods.size());
+		assertNotNull(TypedArgs.methods.get(0));
+
+		// not proxied
+		assertEquals(8, prims.twice(4));
+		assertEquals(1, TypedArgs.methods.size());
+	}
+
+	@Test
+	void testTypedArgumentInvalidConversion() {
+		final ProxettaException pex = assertThrows(ProxettaException.class, () ->
+			createPrims(new ProxyAspect(InvalidTypedArgumentAdvice.class, methodInfo -> methodInfo.getMethodName().equals("name"))));
+		assertTrue(pex.getMessage().contains("can not be converted to: int"));
+
+		assertThrows(ProxettaException.class, () ->
+			createPrims(new ProxyAspect(InvalidTypedArgumentAdvice.class, methodInfo -> methodInfo.getMethodName().equals("twice"))));
+
+		assertEquals(8, createPrims(new ProxyAspect(InvalidTypedArgumentAdvice.class, methodInfo -> methodInfo.getMethodName().equals("touch")))
+			.twice(4));
+	}
+
+}
@@ -0,0 +1,49 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.proxetta.fixtures.data;
+
+import jodd.proxetta.ProxyAdvice;
+import jodd.proxetta.ProxyTarget;
+
+public class TypedArgumentsAdvice implements ProxyAdvice {
+
+	public Object execute() {
+		TypedArgs.i = ProxyTarget.argumentAsInt(1);
+		TypedArgs.l = ProxyTarget.argumentAsLong(2);
+		TypedArgs.f = ProxyTarget.argumentAsFloat(3);
+		TypedArgs.d = ProxyTarget.argumentAsDouble(4);
+		TypedArgs.s = ProxyTarget.argumentAsShort(5);
+		TypedArgs.b = ProxyTarget.argumentAsByte(6);
+		TypedArgs.c = ProxyTarget.argumentAsChar(7);
+		TypedArgs.z = ProxyTarget.argumentAsBoolean(8);
+		TypedArgs.widened = ProxyTarget.argumentAsLong(1);
+		TypedArgs.widenedFloat = ProxyTarget.argumentAsDouble(3);
+
+		final Object result = ProxyTarget.invoke();
+		TypedArgs.methods.add(ProxyTarget.method());
+		return result;
+	}
+}
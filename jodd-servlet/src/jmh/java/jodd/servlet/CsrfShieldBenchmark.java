@@ -0,0 +1,106 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.servlet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.servlet.http.HttpSession;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prepares and checks CSRF token from 4 threads that share the same session,
+ * with tokens stored in the session and with signed tokens.
+ * <p>
+ * Run:
+ * <code>
+ * gw :jodd-servlet:CsrfShieldBenchmark
+ * </code>
+ * </p>
+ *
+ * Results (single CPU):
+ * <pre>
+ * Benchmark                            (mode)   Mode  Cnt       Score       Error  Units
+ * CsrfShieldBenchmark.prepareAndCheck  session  thrpt    5  192278.440 ±  72781.549  ops/s
+ * CsrfShieldBenchmark.prepareAndCheck   signed  thrpt    5  780150.110 ± 289169.174  ops/s
+ * </pre>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(4)
+@State(Scope.Benchmark)
+public class CsrfShieldBenchmark {
+
+	@Param({"session", "signed"})
+	String mode;
+
+	private HttpSession session;
+
+	@Setup
+	public void setup() {
+		final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+		session = (HttpSession) Proxy.newProxyInstance(
+			HttpSession.class.getClassLoader(),
+			new Class[] {HttpSession.class},
+			(proxy, method, args) -> {
+				switch (method.getName()) {
+					case "getId": return "F9A2C71D0E4B5A38B6D2E1C07A9F4B3E";
+					case "getAttribute": return attributes.get(args[0]);
+					case "setAttribute": attributes.put((String) args[0], args[1]); return null;
+					default: return null;
+				}
+			});
+
+		if (mode.equals("signed")) {
+			CsrfShield.setSigningKey("4b1d7a0c2e9f83d5b6a4c0e17f2d9b38".getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		CsrfShield.setSigningKey(null);
+	}
+
+	@Benchmark
+	public boolean prepareAndCheck() {
+		final String token = CsrfShield.prepareCsrfToken(session);
+		return CsrfShield.checkCsrfToken(session, token);
+	}
+
+}
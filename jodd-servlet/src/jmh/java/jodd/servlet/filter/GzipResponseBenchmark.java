@@ -0,0 +1,132 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.servlet.filter;
+
+import jodd.cache.LRUCache;
+import jodd.util.StringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compression of 64 KB HTML response, on the fly and from the cache.
+ * <p>
+ * Run:
+ * <code>
+ * gw :jodd-servlet:GzipResponseBenchmark
+ * </code>
+ * </p>
+ *
+ * Results:
+ * <pre>
+ * Benchmark                       (level)   Mode  Cnt      Score       Error  Units
+ * GzipResponseBenchmark.cached          1  thrpt    5  65368.105 ± 12111.013  ops/s
+ * GzipResponseBenchmark.cached          6  thrpt    5  99915.592 ± 52140.089  ops/s
+ * GzipResponseBenchmark.cached          9  thrpt    5  85164.741 ± 29141.706  ops/s
+ * GzipResponseBenchmark.compress        1  thrpt    5   4183.520 ±  2513.005  ops/s
+ * GzipResponseBenchmark.compress        6  thrpt    5    797.700 ±    94.360  ops/s
+ * GzipResponseBenchmark.compress        9  thrpt    5     69.540 ±     8.116  ops/s
+ * </pre>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class GzipResponseBenchmark {
+
+	@Param({"1", "6", "9"})
+	int level;
+
+	private byte[] content;
+	private HttpServletResponse response;
+	private LRUCache<String, byte[]> cache;
+	private FastByteArrayServletOutputStream out;
+
+	@Setup
+	public void setup() throws IOException {
+		final StringBuilder html = new StringBuilder();
+		int i = 0;
+		while (html.length() < 64 * 1024) {
+			html.append("<tr><td class=\"id\">").append(i).append("</td><td>")
+				.append(StringUtil.repeat("item-" + (i * 7919 % 1000) + ' ', 3)).append("</td></tr>\n");
+			i++;
+		}
+		content = html.toString().getBytes(StandardCharsets.UTF_8);
+		out = new FastByteArrayServletOutputStream();
+
+		response = (HttpServletResponse) Proxy.newProxyInstance(
+			HttpServletResponse.class.getClassLoader(),
+			new Class[] {HttpServletResponse.class},
+			(proxy, method, args) -> {
+				switch (method.getName()) {
+					case "getOutputStream": return out;
+					case "getStatus": return 200;
+					case "getHeader": return "ETag".equals(args[0]) ? "\"1\"" : null;
+					case "isCommitted": return false;
+					default: return null;
+				}
+			});
+
+		cache = new LRUCache<>(10);
+		gzip(cache);
+	}
+
+	private int gzip(final LRUCache<String, byte[]> cache) throws IOException {
+		out.reset();
+
+		final GzipResponseWrapper wrapper = new GzipResponseWrapper(response);
+		wrapper.setCompressionThreshold(128);
+		wrapper.setCompressionLevel(level);
+		if (cache != null) {
+			wrapper.setCache(cache, "/index.html", 256 * 1024);
+		}
+		wrapper.getOutputStream().write(content);
+		wrapper.finishResponse();
+
+		return out.getByteArrayStream().size();
+	}
+
+	@Benchmark
+	public int compress() throws IOException {
+		return gzip(null);
+	}
+
+	@Benchmark
+	public int cached() throws IOException {
+		return gzip(cache);
+	}
+
+}
@@ -27,16 +27,29 @@ package jodd.servlet;
 
 import jodd.util.RandomString;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
 import javax.servlet.jsp.PageContext;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 
 /**
  * Shields against CSRF attacks.
+ * <p>
+ * By default, generated tokens are stored in the session and each token
+ * may be used only once. When {@link #setSigningKey(byte[]) signing key}
+ * is set, tokens are signed instead: token contains its expiration time and
+ * HMAC of it and the session id. Signed tokens are verified without accessing
+ * session attributes, so nothing is written to the session, but they may be
+ * used more than once until they expire.
  */
 public class CsrfShield {
 
@@ -45,6 +58,8 @@ public class CsrfShield {
 
 	protected static int timeToLive = 600;
 	protected static int maxTokensPerSession = 20;
+	protected static int tokenBucket = 60;
+	protected static volatile Signer signer;
 
 	/**
 	 * Sets time to live for tokens in seconds.
@@ -63,6 +78,24 @@ public class CsrfShield {
 		CsrfShield.maxTokensPerSession = maxTokensPerSession;
 	}
 
+	/**
+	 * Sets the secret key for signed tokens. Setting <code>null</code>
+	 * turns back to tokens stored in the session. All nodes of the cluster
+	 * must use the same key.
+	 */
+	public static void setSigningKey(final byte[] key) {
+		signer = key == null ? null : new Signer(key);
+	}
+
+	/**
+	 * Sets the time bucket of signed tokens in seconds. Expiration time is
+	 * rounded up to the bucket, so all tokens generated for the session in the
+	 * same bucket are equal. Token lives at most time-to-live plus one bucket.
+	 */
+	public static void setTokenBucket(final int periodInSeconds) {
+		tokenBucket = periodInSeconds;
+	}
+
 	// ---------------------------------------------------------------- prepare
 
 	/**
@@ -84,6 +117,11 @@ public class CsrfShield {
 	 */
 	@SuppressWarnings({"unchecked"})
 	public static String prepareCsrfToken(final HttpSession session, final int timeToLive) {
+		final Signer signer = CsrfShield.signer;
+		if (signer != null) {
+			return signer.sign(session.getId(), timeToLive);
+		}
+
 		Set<Token> tokenSet = (Set<Token>) session.getAttribute(CSRF_TOKEN_SET);
 		if (tokenSet == null) {
 			tokenSet = new HashSet<>();
@@ -91,11 +129,13 @@ public class CsrfShield {
 		}
 		String value;
 		boolean unique;
-		do {
-			value = RandomString.get().randomAlphaNumeric(32);
-			assureSize(tokenSet);
-			unique = tokenSet.add(new Token(value, timeToLive));
-		} while (!unique);
+		synchronized (tokenSet) {
+			do {
+				value = RandomString.get().randomAlphaNumeric(32);
+				assureSize(tokenSet);
+				unique = tokenSet.add(new Token(value, timeToLive));
+			} while (!unique);
+		}
 		return value;
 	}
 
@@ -149,10 +189,16 @@ public class CsrfShield {
 	}
 
 	/**
-	 * Checks token value.
-C	 */
+	 * Checks token value. Signed token is checked against the session id,
+	 * and, as there is no state, missing signed token is never valid.
+	 */
 	@SuppressWarnings({"unchecked"})
 	public static boolean checkCsrfToken(final HttpSession session, final String tokenValue) {
+		final Signer signer = CsrfShield.signer;
+		if (signer != null) {
+			return (tokenValue != null) && signer.verify(session.getId(), tokenValue);
+		}
+
 		Set<Token> tokenSet = (Set<Token>) session.getAttribute(CSRF_TOKEN_SET);
 		if ((tokenSet == null) && (tokenValue == null)) {
 			return true;
@@ -161,21 +207,104 @@ C	 */
 			return false;
 		}
 		boolean found = false;
-		Iterator<Token> it = tokenSet.iterator();
-		while (it.hasNext()) {
-			Token t = it.next();
-			if (t.isExpired()) {
-				it.remove();
-				continue;
-			}
-			if (t.getValue().equals(tokenValue)) {
-				it.remove();
-				found = true;
+		synchronized (tokenSet) {
+			Iterator<Token> it = tokenSet.iterator();
+			while (it.hasNext()) {
+				Token t = it.next();
+				if (t.isExpired()) {
+					it.remove();
+					continue;
+				}
+				if (t.getValue().equals(tokenValue)) {
+					it.remove();
+					found = true;
+				}
 			}
 		}
 		return found;
 	}
 
+	/**
+	 * Signs and verifies stateless tokens with HMAC-SHA256. Token is
+	 * expiration time in seconds (0 for tokens that never expire)
+	 * in radix 36, dot, and URL-safe Base64 of the signature.
+	 */
+	protected static class Signer {
+
+		private static final String ALGORITHM = "HmacSHA256";
+
+		private final SecretKeySpec key;
+		private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::createMac);
+
+		public Signer(final byte[] key) {
+			this.key = new SecretKeySpec(key, ALGORITHM);
+			createMac();
+		}
+
+		private Mac createMac() {
+			try {
+				final Mac mac = Mac.getInstance(ALGORITHM);
+				mac.init(key);
+				return mac;
+			}
+			catch (GeneralSecurityException gsex) {
+				throw new IllegalArgumentException("Invalid CSRF signing key", gsex);
+			}
+		}
+
+		/**
+		 * Creates token for the session that expires after given number of seconds.
+		 */
+		public String sign(final String sessionId, final int timeToLive) {
+			final long expires;
+			if (timeToLive <= 0) {
+				expires = 0;
+			} else {
+				final long bucket = tokenBucket <= 0 ? 1 : tokenBucket;
+				final long time = System.currentTimeMillis() / 1000 + timeToLive;
+				expires = (time + bucket - 1) / bucket * bucket;
+			}
+			final String expiresString = Long.toString(expires, 36);
+
+			return expiresString + '.' + Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(signature(sessionId, expiresString));
+		}
+
+		/**
+		 * Verifies the token for the session. Signature is compared in constant time.
+		 */
+		public boolean verify(final String sessionId, final String token) {
+			final int dotNdx = token.indexOf('.');
+			if (dotNdx <= 0) {
+				return false;
+			}
+			final String expiresString = token.substring(0, dotNdx);
+
+			final long expires;
+			final byte[] tokenSignature;
+			try {
+				expires = Long.parseLong(expiresString, 36);
+				tokenSignature = Base64.getUrlDecoder().decode(token.substring(dotNdx + 1));
+			}
+			catch (IllegalArgumentException ignore) {
+				return false;
+			}
+
+			if (expires < 0 || (expires != 0 && expires < System.currentTimeMillis() / 1000)) {
+				return false;
+			}
+			return MessageDigest.isEqual(signature(sessionId, expiresString), tokenSignature);
+		}
+
+		private byte[] signature(final String sessionId, final String expires) {
+			final Mac mac = macs.get();
+			mac.update(sessionId.getBytes(StandardCharsets.UTF_8));
+			mac.update((byte) '.');
+			mac.update(expires.getBytes(StandardCharsets.ISO_8859_1));
+			return mac.doFinal();
+		}
+	}
+
 	/**
 	 * CSRF Token.
 	 */
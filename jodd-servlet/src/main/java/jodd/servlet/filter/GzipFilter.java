@@ -25,6 +25,8 @@
 
 package jodd.servlet.filter;
 
+import jodd.cache.Cache;
+import jodd.cache.LRUCache;
 import jodd.io.FileNameUtil;
 import jodd.servlet.ServletUtil;
 import jodd.typeconverter.Converter;
@@ -36,12 +38,15 @@ import jodd.util.Wildcard;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.File;
 import java.io.IOException;
+import java.util.zip.Deflater;
 
 /**
  * Compresses output with GZIP, for browsers that supports it.
@@ -73,6 +78,26 @@ import java.io.IOException;
  * Default value is <code>gzip</code>. Set it to an empty string to turn this feature off.
  * </li>
  *
+ * <li><code>level</code> - compression level, from 0 (no compression) to 9 (best compression).
+ * By default the deflater's default level is used.</li>
+ *
+ * <li><code>bufferSize</code> - size of the gzip output buffer. By default 8192.</li>
+ *
+ * <li><code>cacheSize</code> - number of compressed responses to cache, or 0 (default)
+ * for no caching. Only responses with <code>ETag</code> or <code>Last-Modified</code> header
+ * are cached, and the cached content is used while these validators stay the same.
+ * Use it only for resources whose validators change with the content,
+ * like static files.</li>
+ *
+ * <li><code>cacheMaxEntrySize</code> - max size of compressed response to be cached.
+ * By default 256 KB.</li>
+ *
+ * <li><code>precompressed</code> - when <code>true</code>, precompressed <code>.br</code>
+ * or <code>.gz</code> file next to the requested static file is served instead of it,
+ * if exists and is not older than the static file. Request still goes through the filter
+ * chain, and the file is served only for successful responses. Range requests
+ * are not served from precompressed files. By default <code>false</code>.</li>
+ *
  * </ul>
  *
  * All matching is done in lowercase. You can override this class for finer control.
@@ -101,8 +126,29 @@ public class GzipFilter implements Filter {
 			return;
 		}
 
+		if (precompressed) {
+			final File file = resolvePrecompressedFile(req);
+
+			if (file != null) {
+				final PrecompressedResponseWrapper wrappedResponse = new PrecompressedResponseWrapper(req, res, file);
+				chain.doFilter(request, wrappedResponse);
+
+				final long size = wrappedResponse.finishResponse();
+				if (wrappedResponse.isReplaced()) {
+					stats.precompressedResponse(size);
+				}
+				return;
+			}
+		}
+
 		GzipResponseWrapper wrappedResponse = new GzipResponseWrapper(res);
 		wrappedResponse.setCompressionThreshold(threshold);
+		wrappedResponse.setCompressionLevel(level);
+		wrappedResponse.setBufferSize(bufferSize);
+		wrappedResponse.setStats(stats);
+		if (cache != null) {
+			wrappedResponse.setCache(cache, resolveCacheKey(req), cacheMaxEntrySize);
+		}
 
 		try {
 			chain.doFilter(request, wrappedResponse);
@@ -117,12 +163,26 @@ public class GzipFilter implements Filter {
 	protected boolean wildcards;
 	protected String requestParameterName;
 	protected String[] extensions;
+	protected int level = Deflater.DEFAULT_COMPRESSION;
+	protected int bufferSize = 8192;
+	protected Cache<String, byte[]> cache;
+	protected int cacheMaxEntrySize = 256 * 1024;
+	protected boolean precompressed;
+	protected ServletContext servletContext;
+	protected final GzipStats stats = new GzipStats();
+
+	/**
+	 * Returns statistics of this filter.
+	 */
+	public GzipStats getStats() {
+		return stats;
+	}
 
 	/**
 	 * Filter initialization.
 	 */
 	@Override
-	public void init(final FilterConfig config) {
+	public void init(final FilterConfig config) throws ServletException {
 
 		try {
 			wildcards = Converter.get().toBooleanValue(config.getInitParameter("wildcards"), false);
@@ -180,10 +240,125 @@ public class GzipFilter implements Filter {
 			extensions = new String[] {"html", "htm", "js", "css"};
 		}
 
+		// compression
+
+		try {
+			level = Converter.get().toIntValue(config.getInitParameter("level"), Deflater.DEFAULT_COMPRESSION);
+		} catch (TypeConversionException ignore) {
+			level = Deflater.DEFAULT_COMPRESSION;
+		}
+
+		try {
+			bufferSize = Converter.get().toIntValue(config.getInitParameter("bufferSize"), 8192);
+		} catch (TypeConversionException ignore) {
+			bufferSize = 8192;
+		}
+
+		if ((level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) && level != Deflater.DEFAULT_COMPRESSION) {
+			throw new ServletException("Invalid compression level: " + level);
+		}
+		if (bufferSize <= 0) {
+			throw new ServletException("Invalid buffer size: " + bufferSize);
+		}
+
+		// cache
+
+		int cacheSize;
+		try {
+			cacheSize = Converter.get().toIntValue(config.getInitParameter("cacheSize"), 0);
+		} catch (TypeConversionException ignore) {
+			cacheSize = 0;
+		}
+
+		cache = cacheSize > 0 ? new LRUCache<>(cacheSize) : null;
+
+		try {
+			cacheMaxEntrySize = Converter.get().toIntValue(config.getInitParameter("cacheMaxEntrySize"), 256 * 1024);
+		} catch (TypeConversionException ignore) {
+			cacheMaxEntrySize = 256 * 1024;
+		}
+
+		// precompressed
+
+		try {
+			precompressed = Converter.get().toBooleanValue(config.getInitParameter("precompressed"), false);
+		} catch (TypeConversionException ignore) {
+			precompressed = false;
+		}
+
+		servletContext = config.getServletContext();
 	}
 
 	@Override
 	public void destroy() {
+		if (cache != null) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * Returns the cache key of requested resource. Response validators
+	 * are appended to it before the cache lookup.
+	 */
+	protected String resolveCacheKey(final HttpServletRequest request) {
+		final String query = request.getQueryString();
+		if (query == null) {
+			return request.getRequestURI();
+		}
+		return request.getRequestURI() + '?' + query;
+	}
+
+	/**
+	 * Resolves precompressed sibling of the requested static file. Brotli
+	 * file (<code>.br</code>) is used when browser supports it, otherwise
+	 * gzip file (<code>.gz</code>). Returns <code>null</code> if there is
+	 * no static file, no precompressed file or if it is older than the static file.
+	 * Range requests are not served from precompressed files.
+	 */
+	protected File resolvePrecompressedFile(final HttpServletRequest request) {
+		final String method = request.getMethod();
+
+		if (!"GET".equals(method) && !"HEAD".equals(method)) {
+			return null;
+		}
+		if (request.getHeader("Range") != null) {
+			return null;
+		}
+
+		String path = request.getServletPath();
+		if (request.getPathInfo() != null) {
+			path += request.getPathInfo();
+		}
+
+		final String realPath = servletContext.getRealPath(path);
+		if (realPath == null) {
+			return null;
+		}
+		final File original = new File(realPath);
+		if (!original.isFile()) {
+			return null;
+		}
+
+		final String browserEncodings = request.getHeader("Accept-Encoding");
+		if (browserEncodings != null && browserEncodings.contains("br")) {
+			final File file = new File(realPath + ".br");
+			if (isFresh(file, original)) {
+				return file;
+			}
+		}
+
+		final File file = new File(realPath + ".gz");
+		if (isFresh(file, original)) {
+			return file;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns <code>true</code> if precompressed file exists and is not older than the original.
+	 */
+	protected boolean isFresh(final File file, final File original) {
+		return file.isFile() && file.lastModified() >= original.lastModified();
 	}
 
 	/**
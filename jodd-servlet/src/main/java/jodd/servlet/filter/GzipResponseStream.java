@@ -25,14 +25,25 @@
 
 package jodd.servlet.filter;
 
+import jodd.cache.Cache;
+import jodd.io.FastByteArrayOutputStream;
+
 import javax.servlet.ServletOutputStream;
 import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPOutputStream;
 
 /**
- * GZIP response stream.
+ * GZIP response stream. Output is buffered until the compression threshold
+ * is reached; after that it is compressed and streamed to the client.
+ * <p>
+ * When cache is set, compressed output of responses that have <code>ETag</code>
+ * or <code>Last-Modified</code> header is stored in it. Next response with the
+ * same validators is not compressed again: its output is discarded and the
+ * cached content is sent instead.
  */
 public class GzipResponseStream extends ServletOutputStream {
 
@@ -87,6 +98,46 @@ public class GzipResponseStream extends ServletOutputStream {
 	 */
 	protected ServletOutputStream output;
 
+	/**
+	 * Compression level, from 0 to 9, or -1 for the default level.
+	 */
+	protected int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+	/**
+	 * Size of the gzip output buffer.
+	 */
+	protected int gzipBufferSize = 8192;
+
+	/**
+	 * Statistics, may be <code>null</code>.
+	 */
+	protected GzipStats stats;
+
+	/**
+	 * Cache of compressed content, may be <code>null</code>.
+	 */
+	protected Cache<String, byte[]> cache;
+
+	/**
+	 * Cache key of the resource, validators are appended to it.
+	 */
+	protected String cacheKey;
+
+	/**
+	 * Max size of compressed content that is cached.
+	 */
+	protected int cacheMaxEntrySize;
+
+	/**
+	 * Cached content that is sent instead of the output.
+	 */
+	protected byte[] cachedContent;
+
+	/**
+	 * Collects compressed output for the cache.
+	 */
+	protected FastByteArrayOutputStream cacheOutput;
+
 
 	/**
 	 * Sets the compressionThreshold number and create buffer for this size.
@@ -96,6 +147,36 @@ public class GzipResponseStream extends ServletOutputStream {
 		buffer = new byte[compressionThreshold];
 	}
 
+	/**
+	 * Sets the compression level.
+	 */
+	protected void setCompressionLevel(final int compressionLevel) {
+		this.compressionLevel = compressionLevel;
+	}
+
+	/**
+	 * Sets the size of gzip output buffer.
+	 */
+	protected void setGzipBufferSize(final int gzipBufferSize) {
+		this.gzipBufferSize = gzipBufferSize;
+	}
+
+	/**
+	 * Sets statistics to be updated.
+	 */
+	protected void setStats(final GzipStats stats) {
+		this.stats = stats;
+	}
+
+	/**
+	 * Sets the cache of compressed content for the resource with given key.
+	 */
+	protected void setCache(final Cache<String, byte[]> cache, final String cacheKey, final int cacheMaxEntrySize) {
+		this.cache = cache;
+		this.cacheKey = cacheKey;
+		this.cacheMaxEntrySize = cacheMaxEntrySize;
+	}
+
 	@Override
 	public boolean isReady() {
 		return output.isReady();
@@ -115,10 +196,29 @@ public class GzipResponseStream extends ServletOutputStream {
 		if (closed) {
 			return;
 		}
-		if (gzipstream != null) {
+		if (cachedContent != null) {
+			bufferCount = 0;
+			if (!response.isCommitted()) {
+				response.setContentLength(cachedContent.length);
+			}
+			output.write(cachedContent);
+			if (stats != null) {
+				stats.cachedResponse(cachedContent.length);
+			}
+			cachedContent = null;
+		} else if (gzipstream != null) {
 			flushToGZip();
+			final long start = System.nanoTime();
 			gzipstream.close();
 			gzipstream = null;
+			if (stats != null) {
+				stats.compressed(0, System.nanoTime() - start);
+				stats.compressedResponse();
+			}
+			if (cacheOutput != null) {
+				cache.put(cacheKey, cacheOutput.toByteArray());
+				cacheOutput = null;
+			}
 		} else {
 			if (bufferCount > 0) {
 				output.write(buffer, 0, bufferCount);
@@ -225,11 +325,99 @@ public class GzipResponseStream extends ServletOutputStream {
 	 */
 	public void writeToGZip(final byte[] b, final int off, final int len) throws IOException {
 		if (gzipstream == null) {
-			gzipstream = new GZIPOutputStream(output);
+			if (cachedContent != null) {
+				return;
+			}
 			response.setHeader("Content-Encoding", "gzip");
+
+			if (cache != null) {
+				final String key = resolveCacheKey();
+				if (key != null) {
+					cachedContent = cache.get(key);
+					if (cachedContent != null) {
+						return;
+					}
+					cacheKey = key;
+					cacheOutput = new FastByteArrayOutputStream();
+				}
+			}
+			gzipstream = createGZipStream(new CompressedOutputStream());
+		}
+
+		if (stats == null) {
+			gzipstream.write(b, off, len);
+			return;
 		}
+		final long start = System.nanoTime();
 		gzipstream.write(b, off, len);
+		stats.compressed(len, System.nanoTime() - start);
+	}
+
+	/**
+	 * Creates <code>GZIPOutputStream</code> with configured level and buffer size.
+	 */
+	protected GZIPOutputStream createGZipStream(final OutputStream out) throws IOException {
+		return new LevelGZIPOutputStream(out, gzipBufferSize, compressionLevel);
+	}
+
+	/**
+	 * Resolves cache key from the validators of successful response.
+	 * Returns <code>null</code> if response can not be cached.
+	 */
+	protected String resolveCacheKey() {
+		if (response.getStatus() != HttpServletResponse.SC_OK) {
+			return null;
+		}
+		final String etag = response.getHeader("ETag");
+		final String lastModified = response.getHeader("Last-Modified");
+
+		if (etag == null && lastModified == null) {
+			return null;
+		}
+		return cacheKey + '|' + etag + '|' + lastModified;
+	}
+
+	/**
+	 * Output of the gzip stream. Counts compressed bytes and
+	 * collects them for the cache, up to the max entry size.
+	 */
+	protected class CompressedOutputStream extends OutputStream {
+
+		@Override
+		public void write(final int b) throws IOException {
+			write(new byte[] {(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) throws IOException {
+			output.write(b, off, len);
 
+			if (stats != null) {
+				stats.written(len);
+			}
+			if (cacheOutput != null) {
+				if (cacheOutput.size() + len > cacheMaxEntrySize) {
+					cacheOutput = null;
+				} else {
+					cacheOutput.write(b, off, len);
+				}
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			output.flush();
+		}
+	}
+
+	/**
+	 * <code>GZIPOutputStream</code> with compression level.
+	 */
+	protected static class LevelGZIPOutputStream extends GZIPOutputStream {
+		public LevelGZIPOutputStream(final OutputStream out, final int size, final int level) throws IOException {
+			super(out, size);
+			def.setLevel(level);
+		}
 	}
 
 	/**
@@ -25,6 +25,7 @@
 
 package jodd.servlet.filter;
 
+import jodd.cache.Cache;
 import jodd.io.StreamUtil;
 
 import javax.servlet.ServletOutputStream;
@@ -33,6 +34,7 @@ import javax.servlet.http.HttpServletResponseWrapper;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.util.zip.Deflater;
 
 /**
  * Implementation of <b>HttpServletResponseWrapper</b> that works with
@@ -73,6 +75,28 @@ public class GzipResponseWrapper extends HttpServletResponseWrapper {
 	 */
 	protected int threshold;
 
+	/**
+	 * Compression level.
+	 */
+	protected int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+	/**
+	 * Size of gzip output buffer.
+	 */
+	protected int bufferSize = 8192;
+
+	/**
+	 * Statistics.
+	 */
+	protected GzipStats stats;
+
+	/**
+	 * Cache of compressed content.
+	 */
+	protected Cache<String, byte[]> cache;
+	protected String cacheKey;
+	protected int cacheMaxEntrySize;
+
 	/**
 	 * Content type.
 	 */
@@ -96,6 +120,36 @@ public class GzipResponseWrapper extends HttpServletResponseWrapper {
 		this.threshold = threshold;
 	}
 
+	/**
+	 * Sets compression level.
+	 */
+	public void setCompressionLevel(final int compressionLevel) {
+		this.compressionLevel = compressionLevel;
+	}
+
+	/**
+	 * Sets size of gzip output buffer.
+	 */
+	public void setBufferSize(final int bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Sets statistics to be updated.
+	 */
+	public void setStats(final GzipStats stats) {
+		this.stats = stats;
+	}
+
+	/**
+	 * Sets the cache of compressed content for the resource with given key.
+	 */
+	public void setCache(final Cache<String, byte[]> cache, final String cacheKey, final int cacheMaxEntrySize) {
+		this.cache = cache;
+		this.cacheKey = cacheKey;
+		this.cacheMaxEntrySize = cacheMaxEntrySize;
+	}
+
 	/**
 	 * Creates and returns a ServletOutputStream to write the content associated
 	 * with this Response.
@@ -103,6 +157,12 @@ public class GzipResponseWrapper extends HttpServletResponseWrapper {
 	public ServletOutputStream createOutputStream() throws IOException {
 		GzipResponseStream gzstream = new GzipResponseStream(origResponse);
 		gzstream.setBuffer(threshold);
+		gzstream.setCompressionLevel(compressionLevel);
+		gzstream.setGzipBufferSize(bufferSize);
+		gzstream.setStats(stats);
+		if (cache != null) {
+			gzstream.setCache(cache, cacheKey, cacheMaxEntrySize);
+		}
 		return gzstream;
 	}
 
@@ -0,0 +1,132 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.servlet.filter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of the {@link GzipFilter}. Counters are updated
+ * concurrently by all requests and may be read at any time.
+ */
+public class GzipStats {
+
+	private final LongAdder compressedResponses = new LongAdder();
+	private final LongAdder cachedResponses = new LongAdder();
+	private final LongAdder precompressedResponses = new LongAdder();
+	private final LongAdder bytesIn = new LongAdder();
+	private final LongAdder bytesOut = new LongAdder();
+	private final LongAdder compressionTime = new LongAdder();
+
+	void compressed(final long in, final long nanos) {
+		bytesIn.add(in);
+		compressionTime.add(nanos);
+	}
+
+	void written(final long out) {
+		bytesOut.add(out);
+	}
+
+	void compressedResponse() {
+		compressedResponses.increment();
+	}
+
+	void cachedResponse(final long out) {
+		cachedResponses.increment();
+		bytesOut.add(out);
+	}
+
+	void precompressedResponse(final long out) {
+		precompressedResponses.increment();
+		bytesOut.add(out);
+	}
+
+	/**
+	 * Returns number of responses compressed on the fly.
+	 */
+	public long getCompressedResponses() {
+		return compressedResponses.sum();
+	}
+
+	/**
+	 * Returns number of compressed responses served from the cache.
+	 */
+	public long getCachedResponses() {
+		return cachedResponses.sum();
+	}
+
+	/**
+	 * Returns number of responses served from precompressed files.
+	 */
+	public long getPrecompressedResponses() {
+		return precompressedResponses.sum();
+	}
+
+	/**
+	 * Returns number of uncompressed bytes that were compressed.
+	 */
+	public long getBytesIn() {
+		return bytesIn.sum();
+	}
+
+	/**
+	 * Returns number of compressed bytes sent to clients,
+	 * including cached and precompressed content.
+	 */
+	public long getBytesOut() {
+		return bytesOut.sum();
+	}
+
+	/**
+	 * Returns total time spent in compression, in nanoseconds.
+	 */
+	public long getCompressionTime() {
+		return compressionTime.sum();
+	}
+
+	/**
+	 * Resets all counters.
+	 */
+	public void reset() {
+		compressedResponses.reset();
+		cachedResponses.reset();
+		precompressedResponses.reset();
+		bytesIn.reset();
+		bytesOut.reset();
+		compressionTime.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "GzipStats{" +
+			"compressed=" + getCompressedResponses() +
+			", cached=" + getCachedResponses() +
+			", precompressed=" + getPrecompressedResponses() +
+			", bytesIn=" + getBytesIn() +
+			", bytesOut=" + getBytesOut() +
+			", compressionTime=" + getCompressionTime() +
+			'}';
+	}
+}
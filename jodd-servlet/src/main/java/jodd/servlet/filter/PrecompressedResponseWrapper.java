@@ -0,0 +1,278 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+
+package jodd.servlet.filter;
+
+import jodd.io.StreamUtil;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Response wrapper that replaces the static resource with its precompressed
+ * file. Filter chain is invoked as usual, so other filters (like security
+ * filters) are applied. Only when the chain starts writing successful and
+ * not encoded response, the resource output is discarded, headers are set
+ * for the precompressed file and the file is sent in {@link #finishResponse()}.
+ */
+public class PrecompressedResponseWrapper extends HttpServletResponseWrapper {
+
+	protected final HttpServletRequest request;
+	protected final File file;
+	protected final String encoding;
+
+	protected int status = SC_OK;
+	protected boolean encoded;
+	protected boolean replaced;
+	protected boolean notModified;
+	protected ServletOutputStream stream;
+	protected PrintWriter writer;
+
+	/**
+	 * Wraps the response of static resource with given precompressed file.
+	 * Content encoding is resolved from the file extension.
+	 */
+	public PrecompressedResponseWrapper(final HttpServletRequest request, final HttpServletResponse response, final File file) {
+		super(response);
+		this.request = request;
+		this.file = file;
+		this.encoding = file.getName().endsWith(".br") ? "br" : "gzip";
+	}
+
+	// ---------------------------------------------------------------- status
+
+	@Override
+	public void setStatus(final int sc) {
+		status = sc;
+		super.setStatus(sc);
+	}
+
+	@Override
+	public void sendError(final int sc) throws IOException {
+		status = sc;
+		super.sendError(sc);
+	}
+
+	@Override
+	public void sendError(final int sc, final String msg) throws IOException {
+		status = sc;
+		super.sendError(sc, msg);
+	}
+
+	@Override
+	public void sendRedirect(final String location) throws IOException {
+		status = SC_FOUND;
+		super.sendRedirect(location);
+	}
+
+	// ---------------------------------------------------------------- headers
+
+	/**
+	 * Returns <code>true</code> for headers that are set for precompressed file.
+	 */
+	protected boolean isReplacedHeader(final String name) {
+		return "Content-Length".equalsIgnoreCase(name)
+			|| "Content-Encoding".equalsIgnoreCase(name)
+			|| "ETag".equalsIgnoreCase(name)
+			|| "Last-Modified".equalsIgnoreCase(name)
+			|| "Accept-Ranges".equalsIgnoreCase(name);
+	}
+
+	@Override
+	public void setHeader(final String name, final String value) {
+		if (replaced && isReplacedHeader(name)) {
+			return;
+		}
+		if ("Content-Encoding".equalsIgnoreCase(name)) {
+			encoded = true;
+		}
+		super.setHeader(name, value);
+	}
+
+	@Override
+	public void addHeader(final String name, final String value) {
+		if (replaced && isReplacedHeader(name)) {
+			return;
+		}
+		if ("Content-Encoding".equalsIgnoreCase(name)) {
+			encoded = true;
+		}
+		super.addHeader(name, value);
+	}
+
+	@Override
+	public void setDateHeader(final String name, final long date) {
+		if (replaced && isReplacedHeader(name)) {
+			return;
+		}
+		super.setDateHeader(name, date);
+	}
+
+	@Override
+	public void setContentLength(final int len) {
+		if (!replaced) {
+			super.setContentLength(len);
+		}
+	}
+
+	@Override
+	public void setContentLengthLong(final long len) {
+		if (!replaced) {
+			super.setContentLengthLong(len);
+		}
+	}
+
+	// ---------------------------------------------------------------- output
+
+	@Override
+	public ServletOutputStream getOutputStream() throws IOException {
+		if (writer != null) {
+			throw new IllegalStateException("getWriter() has already been called");
+		}
+		if (stream == null) {
+			stream = replace() ? new DiscardingServletOutputStream() : super.getOutputStream();
+		}
+		return stream;
+	}
+
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		if (stream != null) {
+			throw new IllegalStateException("getOutputStream() has already been called");
+		}
+		if (writer == null) {
+			if (replace()) {
+				writer = new PrintWriter(new OutputStreamWriter(new DiscardingServletOutputStream(), getCharacterEncoding()));
+			} else {
+				writer = super.getWriter();
+			}
+		}
+		return writer;
+	}
+
+	/**
+	 * Replaces the resource with precompressed file, when response is successful
+	 * and not already encoded. Sets the headers of precompressed file and
+	 * handles conditional request using its validators.
+	 */
+	protected boolean replace() {
+		if (status != SC_OK || encoded) {
+			return false;
+		}
+
+		// HTTP dates have seconds precision
+		final long lastModified = file.lastModified() / 1000 * 1000;
+		final long length = file.length();
+		final String etag = '"' + encoding + '-' + Long.toHexString(lastModified) + '-' + Long.toHexString(length) + '"';
+
+		super.setHeader("Vary", "Accept-Encoding");
+		super.setHeader("Content-Encoding", encoding);
+		super.setHeader("ETag", etag);
+		super.setDateHeader("Last-Modified", lastModified);
+		super.setHeader("Accept-Ranges", "none");
+
+		if (isNotModified(etag, lastModified)) {
+			notModified = true;
+			super.setStatus(SC_NOT_MODIFIED);
+			super.setContentLength(-1);
+		} else {
+			super.setContentLengthLong(length);
+		}
+		replaced = true;
+		return true;
+	}
+
+	/**
+	 * Returns <code>true</code> if conditional request matches validators of precompressed file.
+	 */
+	protected boolean isNotModified(final String etag, final long lastModified) {
+		final String ifNoneMatch = request.getHeader("If-None-Match");
+		if (ifNoneMatch != null) {
+			return ifNoneMatch.equals("*") || ifNoneMatch.contains(etag);
+		}
+
+		long ifModifiedSince;
+		try {
+			ifModifiedSince = request.getDateHeader("If-Modified-Since");
+		} catch (IllegalArgumentException ignore) {
+			ifModifiedSince = -1;
+		}
+		return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+	}
+
+	/**
+	 * Returns <code>true</code> if resource was replaced with precompressed file.
+	 */
+	public boolean isReplaced() {
+		return replaced;
+	}
+
+	/**
+	 * Sends precompressed file, if resource was replaced. Returns
+	 * number of sent bytes.
+	 */
+	public long finishResponse() throws IOException {
+		if (!replaced || notModified || "HEAD".equals(request.getMethod())) {
+			return 0;
+		}
+		try (InputStream in = new FileInputStream(file)) {
+			StreamUtil.copy(in, super.getOutputStream());
+		}
+		return file.length();
+	}
+
+	/**
+	 * Output of the replaced resource.
+	 */
+	protected static class DiscardingServletOutputStream extends ServletOutputStream {
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setWriteListener(final WriteListener writeListener) {
+		}
+
+		@Override
+		public void write(final int b) {
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) {
+		}
+	}
+}
@@ -163,7 +163,7 @@ public class FormProcessorVisitor extends TagWriter {
 				tag.setAttribute(CHECKED, null);
 			}
 		}
-		else if (tagType.equals(RADIO)) {
+		else if (tagTypeName.equals(RADIO)) {
 			CharSequence tagValue = tag.getAttributeValue(VALUE);
 			if (tagValue != null) {
 				tagValue = tagValue.toString();
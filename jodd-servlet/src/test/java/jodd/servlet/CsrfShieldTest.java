@@ -0,0 +1,141 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.servlet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.HttpSession;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CsrfShieldTest {
+
+	private static HttpSession mockSession(final String id) {
+		Map<String, Object> attributes = new HashMap<>();
+		HttpSession session = mock(HttpSession.class);
+		when(session.getId()).thenReturn(id);
+		when(session.getAttribute(anyString())).thenAnswer(i -> attributes.get(i.<String>getArgument(0)));
+		doAnswer(i -> attributes.put(i.getArgument(0), i.getArgument(1))).when(session).setAttribute(anyString(), any());
+		return session;
+	}
+
+	@AfterEach
+	void tearDown() {
+		CsrfShield.setSigningKey(null);
+		CsrfShield.setTokenBucket(60);
+	}
+
+	@Test
+	void testSessionTokens() {
+		HttpSession session = mockSession("s1");
+
+		assertTrue(CsrfShield.checkCsrfToken(session, null));
+
+		String token = CsrfShield.prepareCsrfToken(session);
+		assertFalse(CsrfShield.checkCsrfToken(session, "foo"));
+		assertTrue(CsrfShield.checkCsrfToken(session, token));
+
+		// used only once
+		assertFalse(CsrfShield.checkCsrfToken(session, token));
+	}
+
+	@Test
+	void testSignedTokens() {
+		CsrfShield.setSigningKey("secret".getBytes(StandardCharsets.UTF_8));
+
+		HttpSession session = mockSession("s1");
+		HttpSession other = mockSession("s2");
+
+		String token = CsrfShield.prepareCsrfToken(session);
+		assertTrue(CsrfShield.checkCsrfToken(session, token));
+		assertTrue(CsrfShield.checkCsrfToken(session, token));
+		assertEquals(token, CsrfShield.prepareCsrfToken(session));
+
+		// other session
+		assertFalse(CsrfShield.checkCsrfToken(other, token));
+		assertNotEquals(token, CsrfShield.prepareCsrfToken(other));
+
+		// tampered
+		assertFalse(CsrfShield.checkCsrfToken(session, null));
+		assertFalse(CsrfShield.checkCsrfToken(session, ""));
+		assertFalse(CsrfShield.checkCsrfToken(session, "foo"));
+		assertFalse(CsrfShield.checkCsrfToken(session, "zzzzzz" + token.substring(token.indexOf('.'))));
+		assertFalse(CsrfShield.checkCsrfToken(session, token.substring(0, token.length() - 2)));
+		assertFalse(CsrfShield.checkCsrfToken(session, token + "!"));
+
+		// other key
+		CsrfShield.setSigningKey("other".getBytes(StandardCharsets.UTF_8));
+		assertFalse(CsrfShield.checkCsrfToken(session, token));
+
+		// session is not used
+		verify(session, never()).setAttribute(anyString(), any());
+		verify(session, never()).getAttribute(anyString());
+	}
+
+	@Test
+	void testSignedTokensExpiration() throws Exception {
+		CsrfShield.setSigningKey("secret".getBytes(StandardCharsets.UTF_8));
+		CsrfShield.setTokenBucket(1);
+
+		HttpSession session = mockSession("s1");
+
+		assertTrue(CsrfShield.prepareCsrfToken(session, 0).startsWith("0."));
+		assertTrue(CsrfShield.checkCsrfToken(session, CsrfShield.prepareCsrfToken(session, 0)));
+		assertTrue(CsrfShield.checkCsrfToken(session, CsrfShield.prepareCsrfToken(session, 10)));
+
+		// correctly signed, but expired
+		String expires = Long.toString(System.currentTimeMillis() / 1000 - 10, 36);
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec("secret".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+		String signature = Base64.getUrlEncoder().withoutPadding()
+			.encodeToString(mac.doFinal(("s1." + expires).getBytes(StandardCharsets.UTF_8)));
+
+		assertFalse(CsrfShield.checkCsrfToken(session, expires + '.' + signature));
+
+		expires = Long.toString(System.currentTimeMillis() / 1000 + 10, 36);
+		signature = Base64.getUrlEncoder().withoutPadding()
+			.encodeToString(mac.doFinal(("s1." + expires).getBytes(StandardCharsets.UTF_8)));
+
+		assertTrue(CsrfShield.checkCsrfToken(session, expires + '.' + signature));
+	}
+}
@@ -25,13 +25,37 @@
 
 package jodd.servlet.filter;
 
+import jodd.cache.LRUCache;
+import jodd.io.FileUtil;
+import jodd.io.StreamUtil;
+import jodd.io.ZipUtil;
+import jodd.util.StringUtil;
 import org.junit.jupiter.api.Test;
 
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class GzipFilterTest {
@@ -137,4 +161,238 @@ class GzipFilterTest {
 		when(servletRequest.getRequestURI()).thenReturn("/hello/foo/img.jpg");
 		assertFalse(gzipFilter.isGzipEligible(servletRequest));
 	}
+
+	// ---------------------------------------------------------------- compression
+
+	private static final String CONTENT = StringUtil.repeat("<p>Hello Jodd</p>", 1000);
+
+	private static byte[] gunzip(final byte[] bytes) throws IOException {
+		return StreamUtil.readBytes(new GZIPInputStream(new ByteArrayInputStream(bytes)));
+	}
+
+	private static HttpServletResponse mockResponse(final FastByteArrayServletOutputStream out, final String etag) throws IOException {
+		HttpServletResponse response = mock(HttpServletResponse.class);
+		when(response.getOutputStream()).thenReturn(out);
+		when(response.getStatus()).thenReturn(200);
+		when(response.getHeader("ETag")).thenReturn(etag);
+		return response;
+	}
+
+	private static byte[] compress(final int level, final LRUCache<String, byte[]> cache, final String etag, final GzipStats stats, final String content) throws IOException {
+		FastByteArrayServletOutputStream out = new FastByteArrayServletOutputStream();
+
+		GzipResponseWrapper wrapper = new GzipResponseWrapper(mockResponse(out, etag));
+		wrapper.setCompressionThreshold(128);
+		wrapper.setCompressionLevel(level);
+		wrapper.setBufferSize(1024);
+		wrapper.setStats(stats);
+		if (cache != null) {
+			wrapper.setCache(cache, "/hello.html", 64 * 1024);
+		}
+
+		wrapper.getWriter().write(content);
+		wrapper.finishResponse();
+
+		return out.getByteArrayStream().toByteArray();
+	}
+
+	@Test
+	void testCompressionLevel() throws IOException {
+		GzipStats stats = new GzipStats();
+
+		byte[] fast = compress(0, null, null, stats, CONTENT);
+		byte[] best = compress(9, null, null, stats, CONTENT);
+
+		assertEquals(CONTENT, new String(gunzip(fast), StandardCharsets.ISO_8859_1));
+		assertEquals(CONTENT, new String(gunzip(best), StandardCharsets.ISO_8859_1));
+		assertTrue(fast.length > best.length);
+
+		assertEquals(2, stats.getCompressedResponses());
+		assertEquals(2 * CONTENT.length(), stats.getBytesIn());
+		assertEquals(fast.length + best.length, stats.getBytesOut());
+		assertTrue(stats.getCompressionTime() > 0);
+	}
+
+	@Test
+	void testCache() throws IOException {
+		GzipStats stats = new GzipStats();
+		LRUCache<String, byte[]> cache = new LRUCache<>(10);
+
+		// no validators, not cached
+		compress(6, cache, null, stats, CONTENT);
+		assertEquals(0, cache.size());
+
+		byte[] first = compress(6, cache, "\"1\"", stats, CONTENT);
+		assertEquals(1, cache.size());
+		assertEquals(2, stats.getCompressedResponses());
+
+		// same validator, content is not compressed again
+		byte[] second = compress(6, cache, "\"1\"", stats, CONTENT + "ignored");
+		assertArrayEquals(first, second);
+		assertEquals(2, stats.getCompressedResponses());
+		assertEquals(1, stats.getCachedResponses());
+
+		// new validator
+		byte[] third = compress(6, cache, "\"2\"", stats, CONTENT + "!");
+		assertEquals(CONTENT + "!", new String(gunzip(third), StandardCharsets.ISO_8859_1));
+		assertEquals(3, stats.getCompressedResponses());
+		assertEquals(2, cache.size());
+	}
+
+	private static GzipFilter precompressedFilter(final File dir) throws ServletException {
+		ServletContext servletContext = mock(ServletContext.class);
+		when(servletContext.getRealPath("/app.js")).thenReturn(new File(dir, "app.js").getAbsolutePath());
+
+		FilterConfig config = mock(FilterConfig.class);
+		when(config.getInitParameter("threshold")).thenReturn("128");
+		when(config.getInitParameter("precompressed")).thenReturn("true");
+		when(config.getServletContext()).thenReturn(servletContext);
+
+		GzipFilter gzipFilter = new GzipFilter();
+		gzipFilter.init(config);
+		return gzipFilter;
+	}
+
+	private static HttpServletRequest mockRequest(final String acceptEncoding) {
+		HttpServletRequest request = mock(HttpServletRequest.class);
+		when(request.getMethod()).thenReturn("GET");
+		when(request.getRequestURI()).thenReturn("/app.js");
+		when(request.getServletPath()).thenReturn("/app.js");
+		when(request.getHeader("Accept-Encoding")).thenReturn(acceptEncoding);
+		when(request.getDateHeader("If-Modified-Since")).thenReturn(-1L);
+		return request;
+	}
+
+	/**
+	 * Chain that serves the static file, like the default servlet.
+	 */
+	private static void serveStatic(final ServletRequest request, final ServletResponse response) throws IOException {
+		HttpServletResponse res = (HttpServletResponse) response;
+		byte[] bytes = CONTENT.getBytes(StandardCharsets.ISO_8859_1);
+		res.setHeader("ETag", "\"static\"");
+		res.setContentLength(bytes.length);
+		res.getOutputStream().write(bytes);
+	}
+
+	@Test
+	void testPrecompressed() throws Exception {
+		File dir = FileUtil.createTempDirectory("jodd", "gzip");
+		try {
+			File js = new File(dir, "app.js");
+			FileUtil.writeString(js, CONTENT);
+			File gz = ZipUtil.gzip(js);
+
+			GzipFilter gzipFilter = precompressedFilter(dir);
+
+			// gzip
+			HttpServletRequest request = mockRequest("gzip, deflate");
+			FastByteArrayServletOutputStream out = new FastByteArrayServletOutputStream();
+			HttpServletResponse response = mockResponse(out, null);
+
+			gzipFilter.doFilter(request, response, GzipFilterTest::serveStatic);
+
+			assertArrayEquals(FileUtil.readBytes(gz), out.getByteArrayStream().toByteArray());
+			verify(response).setHeader("Content-Encoding", "gzip");
+			verify(response).setContentLengthLong(gz.length());
+			verify(response).setHeader(eq("ETag"), startsWith("\"gzip-"));
+			assertEquals(1, gzipFilter.getStats().getPrecompressedResponses());
+
+			// brotli
+			File br = new File(dir, "app.js.br");
+			FileUtil.writeString(br, "brotli");
+
+			request = mockRequest("gzip, deflate, br");
+			out = new FastByteArrayServletOutputStream();
+			response = mockResponse(out, null);
+
+			gzipFilter.doFilter(request, response, GzipFilterTest::serveStatic);
+
+			assertEquals("brotli", new String(out.getByteArrayStream().toByteArray(), StandardCharsets.ISO_8859_1));
+			verify(response).setHeader("Content-Encoding", "br");
+			assertEquals(2, gzipFilter.getStats().getPrecompressedResponses());
+
+			// not modified
+			when(request.getDateHeader("If-Modified-Since")).thenReturn(br.lastModified());
+			out = new FastByteArrayServletOutputStream();
+			response = mockResponse(out, null);
+
+			gzipFilter.doFilter(request, response, GzipFilterTest::serveStatic);
+
+			verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			assertEquals(0, out.getByteArrayStream().size());
+		}
+		finally {
+			FileUtil.deleteDir(dir);
+		}
+	}
+
+	@Test
+	void testPrecompressedProtectedPath() throws Exception {
+		File dir = FileUtil.createTempDirectory("jodd", "gzip");
+		try {
+			File js = new File(dir, "app.js");
+			FileUtil.writeString(js, CONTENT);
+			ZipUtil.gzip(js);
+
+			GzipFilter gzipFilter = precompressedFilter(dir);
+
+			HttpServletRequest request = mockRequest("gzip, deflate");
+			FastByteArrayServletOutputStream out = new FastByteArrayServletOutputStream();
+			HttpServletResponse response = mockResponse(out, null);
+
+			// security filter in the chain rejects the request
+			gzipFilter.doFilter(request, response, (req, res) -> ((HttpServletResponse) res).sendError(HttpServletResponse.SC_FORBIDDEN));
+
+			verify(response).sendError(HttpServletResponse.SC_FORBIDDEN);
+			verify(response, never()).setHeader(eq("Content-Encoding"), anyString());
+			assertEquals(0, out.getByteArrayStream().size());
+			assertEquals(0, gzipFilter.getStats().getPrecompressedResponses());
+		}
+		finally {
+			FileUtil.deleteDir(dir);
+		}
+	}
+
+	@Test
+	void testPrecompressedNotUsed() throws Exception {
+		File dir = FileUtil.createTempDirectory("jodd", "gzip");
+		try {
+			File js = new File(dir, "app.js");
+			FileUtil.writeString(js, CONTENT);
+			File gz = ZipUtil.gzip(js);
+
+			GzipFilter gzipFilter = precompressedFilter(dir);
+
+			// range request
+			HttpServletRequest request = mockRequest("gzip, deflate");
+			when(request.getHeader("Range")).thenReturn("bytes=0-10");
+			FastByteArrayServletOutputStream out = new FastByteArrayServletOutputStream();
+
+			gzipFilter.doFilter(request, mockResponse(out, null), GzipFilterTest::serveStatic);
+
+			assertEquals(CONTENT, new String(gunzip(out.getByteArrayStream().toByteArray()), StandardCharsets.ISO_8859_1));
+			assertEquals(0, gzipFilter.getStats().getPrecompressedResponses());
+
+			// outdated precompressed file
+			assertTrue(gz.setLastModified(js.lastModified() - 10_000));
+			request = mockRequest("gzip, deflate");
+			out = new FastByteArrayServletOutputStream();
+
+			gzipFilter.doFilter(request, mockResponse(out, null), GzipFilterTest::serveStatic);
+
+			assertEquals(CONTENT, new String(gunzip(out.getByteArrayStream().toByteArray()), StandardCharsets.ISO_8859_1));
+			assertEquals(0, gzipFilter.getStats().getPrecompressedResponses());
+		}
+		finally {
+			FileUtil.deleteDir(dir);
+		}
+	}
+
+	@Test
+	void testInvalidLevel() {
+		FilterConfig config = mock(FilterConfig.class);
+		when(config.getInitParameter("level")).thenReturn("12");
+
+		assertThrows(ServletException.class, () -> new GzipFilter().init(config));
+	}
 }
@@ -0,0 +1,130 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.vtor;
+
+import jodd.bean.BeanUtil;
+import jodd.vtor.fixture.ImportRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of 1M imported rows, every tenth row is invalid.
+ * <code>perPropertyLookup</code> is the validation of each row as it was
+ * done without compiled plans and shared contexts.
+ * <p>
+ * Run:
+ * <code>
+ * gw :jodd-vtor:VtorBenchmark
+ * </code>
+ * </p>
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class VtorBenchmark {
+
+	private static final int SIZE = 1_000_000;
+
+	private List<ImportRow> rows;
+
+	@Setup
+	public void setup() {
+		rows = new ArrayList<>(SIZE);
+		for (int i = 0; i < SIZE; i++) {
+			if (i % 10 == 0) {
+				rows.add(new ImportRow("c", "", -i));
+			} else {
+				rows.add(new ImportRow("code" + i, "name", i % 1000));
+			}
+		}
+	}
+
+	@Benchmark
+	public List<Violation> perPropertyLookup() {
+		final Vtor vtor = new Vtor();
+		for (final ImportRow row : rows) {
+			final ValidationContext ctx = ValidationContext.resolveFor(row.getClass());
+			for (final Map.Entry<String, List<Check>> entry : ctx.map.entrySet()) {
+				final String name = entry.getKey();
+				final Object value = BeanUtil.declaredSilent.getProperty(row, name);
+				final ValidationConstraintContext vcc = new ValidationConstraintContext(vtor, row, name);
+				for (final Check check : entry.getValue()) {
+					if (!vtor.matchProfiles(check.getProfiles())) {
+						continue;
+					}
+					if (check.getSeverity() < vtor.severity) {
+						continue;
+					}
+					if (!check.getConstraint().isValid(vcc, value)) {
+						vtor.addViolation(new Violation(name, row, value, check));
+					}
+				}
+			}
+		}
+		return vtor.getViolations();
+	}
+
+	@Benchmark
+	public List<Violation> validate() {
+		final Vtor vtor = new Vtor();
+		for (final ImportRow row : rows) {
+			vtor.validate(row);
+		}
+		return vtor.getViolations();
+	}
+
+	@Benchmark
+	public List<Violation> validate_failFast() {
+		final Vtor vtor = new Vtor();
+		vtor.setFailFast(true);
+		for (final ImportRow row : rows) {
+			vtor.validate(row);
+		}
+		return vtor.getViolations();
+	}
+
+	@Benchmark
+	public List<Violation> validateAll() {
+		return new Vtor().validateAll(rows);
+	}
+
+}
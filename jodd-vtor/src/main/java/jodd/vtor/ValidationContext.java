@@ -40,6 +40,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Validation context is set of all checks that can be applied on one target.
@@ -62,6 +63,7 @@ public class ValidationContext {
 		final String name = check.getName();
 		final List<Check> list = map.computeIfAbsent(name, k -> new ArrayList<>());
 		list.add(check);
+		plans.clear();
 	}
 
 	/**
@@ -74,10 +76,44 @@ public class ValidationContext {
 	}
 
 
+	// ---------------------------------------------------------------- plans
+
+	protected final Map<String, ValidationPlan> plans = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns {@link ValidationPlan validation plan} for the profiles and severity
+	 * of provided validator. Plans are compiled once and reset when new check is added.
+	 */
+	public ValidationPlan plan(final Vtor vtor) {
+		return plans.computeIfAbsent(vtor.planKey(), key -> ValidationPlan.compile(this, vtor));
+	}
+
 	// ---------------------------------------------------------------- annotation resolver
 
 	public static TypeCache<List<Check>> cache = TypeCache.createDefault();
 
+	/**
+	 * Shared contexts, used internally by {@link Vtor#validate(Object)} and nested validation.
+	 */
+	private static final TypeCache<ValidationContext> contextCache =
+		TypeCache.<ValidationContext>create().threadsafe(true).get();
+
+	/**
+	 * Returns shared validation context for provided target class. Shared context
+	 * keeps its compiled plans between validations and is never exposed to users,
+	 * as it must not be modified. Context is not resolved inside the cache, since
+	 * resolving may recursively lookup contexts of nested targets.
+	 * @see #resolveFor(Class)
+	 */
+	static ValidationContext sharedFor(final Class<?> target) {
+		ValidationContext vc = contextCache.get(target);
+		if (vc == null) {
+			vc = resolveFor(target);
+			contextCache.put(target, vc);
+		}
+		return vc;
+	}
+
 	/**
 	 * Resolve validation context for provided target class.
 	 * @see #addClassChecks(Class)
@@ -171,7 +207,7 @@ public class ValidationContext {
 	 * Create new constraint. The following rules are used:
 	 * <ul>
 	 * <li>use default constructor if exist.</li>
-	 * <li>otherwise, use constructor with ValidationContext parameter.</li>
+	 * <li>otherwise, use constructor with shared ValidationContext of the target type.</li>
 	 * </ul>
 	 */
 	protected <V extends ValidationConstraint> V newConstraint(final Class<V> constraint, final Class targetType) throws Exception {
@@ -181,7 +217,7 @@ public class ValidationContext {
 			return ctor.newInstance();
 		} catch (final NoSuchMethodException ignore) {
 			ctor = constraint.getConstructor(ValidationContext.class);
-			return ctor.newInstance(resolveFor(targetType));
+			return ctor.newInstance(sharedFor(targetType));
 		}
 	}
 
@@ -205,5 +241,6 @@ public class ValidationContext {
 	 */
 	protected void clearCache() {
 		cache.clear();
+		contextCache.clear();
 	}
 }
@@ -0,0 +1,200 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.vtor;
+
+import jodd.bean.BeanUtil;
+import jodd.introspector.ClassDescriptor;
+import jodd.introspector.ClassIntrospector;
+import jodd.introspector.Getter;
+import jodd.introspector.PropertyDescriptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validation plan is a flat list of checks of some {@link ValidationContext validation context}
+ * that are active for a given set of profiles and severity. Plans are compiled once and
+ * cached in the context, so profiles are not matched on each validation. Property values
+ * are read with the cached getters of the target type.
+ */
+public class ValidationPlan {
+
+	protected final Step[] steps;
+
+	protected ValidationPlan(final Step[] steps) {
+		this.steps = steps;
+	}
+
+	/**
+	 * Compiles validation plan for all checks of the context that are
+	 * enabled in provided validator.
+	 */
+	public static ValidationPlan compile(final ValidationContext ctx, final Vtor vtor) {
+		final List<Step> steps = new ArrayList<>(ctx.map.size());
+
+		for (final Map.Entry<String, List<Check>> entry : ctx.map.entrySet()) {
+			final List<Check> checks = new ArrayList<>(entry.getValue().size());
+
+			for (final Check check : entry.getValue()) {
+				if (!vtor.matchProfiles(check.getProfiles())) {
+					continue;
+				}
+				if (check.getSeverity() < vtor.severity) {
+					continue;
+				}
+				checks.add(check);
+			}
+
+			if (!checks.isEmpty()) {
+				steps.add(new Step(entry.getKey(), checks.toArray(new Check[0])));
+			}
+		}
+
+		return new ValidationPlan(steps.toArray(new Step[0]));
+	}
+
+	/**
+	 * Returns <code>true</code> if there is nothing to validate.
+	 */
+	public boolean isEmpty() {
+		return steps.length == 0;
+	}
+
+	/**
+	 * Validates the target and appends violations to provided validator.
+	 * In {@link Vtor#setFailFast(boolean) fail-fast} mode, validation
+	 * stops on the first violation.
+	 */
+	public void validate(final Vtor vtor, final Object target, final String targetName) {
+		final int count = vtor.violations == null ? 0 : vtor.violations.size();
+
+		for (final Step step : steps) {
+			final Object value = step.value(target);
+			final String valueName = targetName != null ? (targetName + '.' + step.name) : step.name;
+			final ValidationConstraintContext vcc = new ValidationConstraintContext(vtor, target, valueName);
+
+			for (final Check check : step.checks) {
+				final ValidationConstraint constraint = check.getConstraint();
+				if (!constraint.isValid(vcc, value)) {
+					vtor.addViolation(new Violation(valueName, target, value, check));
+				}
+				if (vtor.failFast && vtor.violations != null && vtor.violations.size() > count) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks of a single property.
+	 */
+	protected static class Step {
+		protected final String name;
+		protected final Check[] checks;
+		protected volatile Accessor[] accessors = new Accessor[0];
+
+		protected Step(final String name, final Check[] checks) {
+			this.name = name;
+			this.checks = checks;
+		}
+
+		/**
+		 * Reads property value. Getter is resolved once for each type of target,
+		 * so the plan may be used for targets of different subclasses.
+		 */
+		protected Object value(final Object target) {
+			if (target == null) {
+				return null;
+			}
+			final Accessor accessor = accessor(target.getClass());
+
+			if (accessor.getter == null) {
+				return BeanUtil.declaredSilent.getProperty(target, name);
+			}
+			try {
+				return accessor.getter.invokeGetter(target);
+			}
+			catch (final Exception ignore) {
+				return null;
+			}
+		}
+
+		/**
+		 * Returns accessor for provided type. Accessors are kept in a
+		 * copy-on-write array, as there are just a few types per step.
+		 */
+		protected Accessor accessor(final Class type) {
+			Accessor[] accessors = this.accessors;
+
+			for (final Accessor accessor : accessors) {
+				if (accessor.type == type) {
+					return accessor;
+				}
+			}
+
+			final Accessor accessor = new Accessor(type, name);
+
+			synchronized (this) {
+				accessors = this.accessors;
+				final Accessor[] newAccessors = new Accessor[accessors.length + 1];
+				System.arraycopy(accessors, 0, newAccessors, 0, accessors.length);
+				newAccessors[accessors.length] = accessor;
+				this.accessors = newAccessors;
+			}
+			return accessor;
+		}
+	}
+
+	/**
+	 * Property getter of some type. When getter is not available,
+	 * i.e. for nested properties or maps, value is read using {@link BeanUtil}.
+	 */
+	protected static class Accessor {
+		protected final Class type;
+		protected final Getter getter;
+
+		protected Accessor(final Class type, final String name) {
+			this.type = type;
+			this.getter = resolveGetter(type, name);
+		}
+
+		private static Getter resolveGetter(final Class type, final String name) {
+			if (name.indexOf('.') != -1 || name.indexOf('[') != -1) {
+				return null;
+			}
+			final ClassDescriptor cd = ClassIntrospector.get().lookup(type);
+			if (cd.isMap() || cd.isSupplier()) {
+				return null;
+			}
+			final PropertyDescriptor pd = cd.getPropertyDescriptor(name, true);
+			if (pd == null) {
+				return null;
+			}
+			return pd.getGetter(true);
+		}
+	}
+}
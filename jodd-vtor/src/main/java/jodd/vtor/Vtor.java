@@ -25,14 +25,19 @@
 
 package jodd.vtor;
 
-import jodd.bean.BeanUtil;
 import jodd.util.StringUtil;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Vtor validator.
@@ -78,9 +83,10 @@ public class Vtor {
 
 	/**
 	 * Validate object using context from the annotations.
+	 * Context of the target type and its compiled plans are cached.
 	 */
 	public List<Violation> validate(final Object target) {
-		return validate(ValidationContext.resolveFor(target.getClass()), target);
+		return validate(ValidationContext.sharedFor(target.getClass()), target);
 	}
 
 	/**
@@ -92,32 +98,144 @@ public class Vtor {
 
 	/**
 	 * Performs validation of provided validation context and appends violations.
+	 * @see ValidationContext#plan(Vtor)
 	 */
 	public List<Violation> validate(final ValidationContext ctx, final Object target, final String targetName) {
-		for (Map.Entry<String, List<Check>> entry : ctx.map.entrySet()) {
-			String name = entry.getKey();
-			Object value = BeanUtil.declaredSilent.getProperty(target, name);
-			String valueName = targetName != null ? (targetName + '.' + name) : name;		// move up
-			ValidationConstraintContext vcc = new ValidationConstraintContext(this, target, valueName);
-			
-			for (Check check : entry.getValue()) {
-				String[] checkProfiles = check.getProfiles();
-				if (!matchProfiles(checkProfiles)) {
-					continue;
-				}
-				if (check.getSeverity() < severity) {
-					continue;
+		ctx.plan(this).validate(this, target, targetName);
+
+		return getViolations();
+	}
+
+	/**
+	 * Validates all targets using context from the annotations and appends violations
+	 * in the order of targets. Targets are validated in the calling thread, unless
+	 * an {@link #setExecutor(Executor) executor} is set: then large collections are
+	 * validated in parallel, each chunk of targets by its own {@link #fork() fork}
+	 * of this validator. In {@link #setFailFast(boolean) fail-fast} mode, each
+	 * target is validated until its first violation.
+	 * @see #setParallelThreshold(int)
+	 */
+	public List<Violation> validateAll(final Collection<?> targets) {
+		final Object[] array = targets.toArray();
+
+		// plans are resolved upfront, once per type
+		final ValidationPlan[] plans = new ValidationPlan[array.length];
+		final Map<Class, ValidationPlan> planMap = new IdentityHashMap<>();
+		for (int i = 0; i < array.length; i++) {
+			final Object target = array[i];
+			if (target == null) {
+				continue;
+			}
+			plans[i] = planMap.computeIfAbsent(target.getClass(), type -> ValidationContext.sharedFor(type).plan(this));
+		}
+
+		if (executor == null || array.length < parallelThreshold) {
+			for (int i = 0; i < array.length; i++) {
+				if (plans[i] != null) {
+					plans[i].validate(this, array[i], null);
 				}
-				ValidationConstraint constraint = check.getConstraint();
-				if (!constraint.isValid(vcc, value)) {
-					addViolation(new Violation(valueName, target, value, check));
+			}
+			return getViolations();
+		}
+
+		final int chunkSize = Math.max(parallelThreshold / 4, 1);
+		final int chunks = (array.length + chunkSize - 1) / chunkSize;
+		final Vtor[] forks = new Vtor[chunks];
+		final CompletableFuture<?>[] futures = new CompletableFuture[chunks];
+
+		for (int c = 0; c < chunks; c++) {
+			final int chunk = c;
+			futures[chunk] = CompletableFuture.runAsync(() -> {
+				final Vtor fork = fork();
+				final int end = Math.min(array.length, (chunk + 1) * chunkSize);
+				for (int i = chunk * chunkSize; i < end; i++) {
+					if (plans[i] != null) {
+						plans[i].validate(fork, array[i], null);
+					}
 				}
+				forks[chunk] = fork;
+			}, executor);
+		}
+
+		try {
+			CompletableFuture.allOf(futures).join();
+		}
+		catch (final CompletionException cex) {
+			if (cex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) cex.getCause();
 			}
+			throw cex;
 		}
 
+		for (final Vtor fork : forks) {
+			if (fork.violations != null) {
+				for (final Violation violation : fork.violations) {
+					addViolation(violation);
+				}
+			}
+		}
 		return getViolations();
 	}
 
+	/**
+	 * Creates new validator with the same settings and no violations.
+	 * Used for parallel validation.
+	 */
+	protected Vtor fork() {
+		final Vtor vtor = new Vtor();
+		vtor.severity = severity;
+		vtor.enabledProfiles = enabledProfiles;
+		vtor.validateAllProfilesByDefault = validateAllProfilesByDefault;
+		vtor.failFast = failFast;
+		vtor.parallelThreshold = parallelThreshold;
+		vtor.executor = executor;
+		vtor.planKey = planKey;
+		return vtor;
+	}
+
+	// ---------------------------------------------------------------- modes
+
+	protected boolean failFast;
+	protected int parallelThreshold = 4096;
+	protected Executor executor;
+
+	public boolean isFailFast() {
+		return failFast;
+	}
+
+	/**
+	 * Specifies if validation of a target stops on the first violation.
+	 */
+	public void setFailFast(final boolean failFast) {
+		this.failFast = failFast;
+	}
+
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Sets the minimal number of targets that are {@link #validateAll(Collection) validated}
+	 * in parallel, when {@link #setExecutor(Executor) executor} is set.
+	 * Smaller collections are validated in the calling thread.
+	 */
+	public void setParallelThreshold(final int parallelThreshold) {
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Sets the executor for parallel {@link #validateAll(Collection) validation}
+	 * of large collections. By default, it is <code>null</code> and all targets
+	 * are validated in the calling thread.
+	 */
+	public void setExecutor(final Executor executor) {
+		this.executor = executor;
+	}
+
 	// ---------------------------------------------------------------- severity
 
 	protected int severity;
@@ -128,6 +246,7 @@ public class Vtor {
 	 */
 	public void setSeverity(final int severity) {
 		this.severity = severity;
+		this.planKey = null;
 	}
 
 	// ---------------------------------------------------------------- profiles
@@ -147,6 +266,7 @@ public class Vtor {
 	 */
 	public void setValidateAllProfilesByDefault(final boolean validateAllProfilesByDefault) {
 		this.validateAllProfilesByDefault = validateAllProfilesByDefault;
+		this.planKey = null;
 	}
 
 	/**
@@ -160,6 +280,7 @@ public class Vtor {
 			this.enabledProfiles = new HashSet<>();
 		}
 		this.enabledProfiles.add(profile);
+		this.planKey = null;
 	}
 
 	/**
@@ -173,6 +294,7 @@ public class Vtor {
 			this.enabledProfiles = new HashSet<>();
 		}
 		Collections.addAll(this.enabledProfiles, enabledProfiles);
+		this.planKey = null;
 	}
 
 	/**
@@ -182,6 +304,27 @@ public class Vtor {
 	 */
 	public void resetProfiles() {
 		enabledProfiles = null;
+		planKey = null;
+	}
+
+	protected String planKey;
+
+	/**
+	 * Returns the key of enabled profiles and severity, used for
+	 * caching of {@link ValidationPlan validation plans}.
+	 */
+	protected String planKey() {
+		if (planKey == null) {
+			final StringBuilder sb = new StringBuilder();
+			sb.append(severity).append(':').append(validateAllProfilesByDefault);
+			if (enabledProfiles != null) {
+				for (final String profile : new TreeSet<>(enabledProfiles)) {
+					sb.append(':').append(profile);
+				}
+			}
+			planKey = sb.toString();
+		}
+		return planKey;
 	}
 
 
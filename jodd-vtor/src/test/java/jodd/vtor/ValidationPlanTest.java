@@ -0,0 +1,157 @@
+// Copyright (c) 2003-present, Jodd Team (http://jodd.org)
+// All rights reserved.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright
+// notice, this list of conditions and the following disclaimer in the
+// documentation and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package jodd.vtor;
+
+import jodd.vtor.constraint.MinLengthConstraint;
+import jodd.vtor.fixtures.Woo;
+import jodd.vtor.fixtures.Zoo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValidationPlanTest {
+
+	@Test
+	void testPlanCache() {
+		final ValidationContext ctx = ValidationContext.resolveFor(Zoo.class);
+		final Vtor vtor = new Vtor();
+
+		final ValidationPlan plan = ctx.plan(vtor);
+		assertSame(plan, ctx.plan(vtor));
+		assertSame(plan, ctx.plan(new Vtor()));
+		assertEquals(1, plan.steps.length);
+
+		vtor.useProfile("p1");
+		final ValidationPlan planP1 = ctx.plan(vtor);
+		assertNotSame(plan, planP1);
+		assertEquals(2, planP1.steps.length);
+
+		vtor.setSeverity(10);
+		assertTrue(ctx.plan(vtor).isEmpty());
+
+		// new check resets plans
+		ctx.add(new Check("ddd", new MinLengthConstraint(5)));
+		assertNotSame(plan, ctx.plan(new Vtor()));
+		assertEquals(2, ctx.plan(new Vtor()).steps.length);
+	}
+
+	@Test
+	void testSharedContext() {
+		assertSame(ValidationContext.sharedFor(Zoo.class), ValidationContext.sharedFor(Zoo.class));
+	}
+
+	@Test
+	void testMixedTypes() {
+		final Vtor vtor = new Vtor();
+		final ValidationPlan plan = ValidationContext.resolveFor(Zoo.class).plan(vtor);
+
+		final Zoo zoo = new Zoo();
+		final Ccc ccc = new Ccc();
+
+		for (int i = 0; i < 3; i++) {
+			plan.validate(vtor, zoo, null);
+			plan.validate(vtor, ccc, null);
+		}
+
+		assertEquals(6, vtor.getViolations().size());
+		assertEquals(2, plan.steps[0].accessors.length);
+	}
+
+	@Test
+	void testFailFast() {
+		final Vtor vtor = new Vtor();
+		vtor.setValidateAllProfilesByDefault(true);
+
+		assertEquals(3, vtor.validate(new Zoo()).size());
+
+		vtor.resetViolations();
+		vtor.setFailFast(true);
+		assertEquals(1, vtor.validate(new Zoo()).size());
+
+		// each target fails on its own
+		assertEquals(2, vtor.validate(new Zoo()).size());
+	}
+
+	@Test
+	void testValidateAll() {
+		final List<Object> targets = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			targets.add(new Zoo());
+			targets.add(i % 2 == 0 ? new Woo() : null);
+		}
+
+		final Vtor sequential = new Vtor();
+		sequential.setValidateAllProfilesByDefault(true);
+		sequential.setParallelThreshold(Integer.MAX_VALUE);
+		final List<Violation> expected = sequential.validateAll(targets);
+		assertEquals(1000 * 3 + 500 * 3, expected.size());
+
+		// no executor, no parallel validation
+		final Vtor noExecutor = new Vtor();
+		noExecutor.setValidateAllProfilesByDefault(true);
+		noExecutor.setParallelThreshold(10);
+		assertEquals(expected.size(), noExecutor.validateAll(targets).size());
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		final Vtor parallel = new Vtor();
+		parallel.setValidateAllProfilesByDefault(true);
+		parallel.setParallelThreshold(10);
+		parallel.setExecutor(executor);
+		final List<Violation> violations = parallel.validateAll(targets);
+
+		assertEquals(expected.size(), violations.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertSame(expected.get(i).getValidatedObject(), violations.get(i).getValidatedObject());
+			assertEquals(expected.get(i).getName(), violations.get(i).getName());
+		}
+
+		parallel.resetViolations();
+		parallel.setFailFast(true);
+		assertEquals(1500, parallel.validateAll(targets).size());
+
+		executor.shutdown();
+	}
+
+	@Test
+	void testValidateAllEmpty() {
+		assertNull(new Vtor().validateAll(new ArrayList<>()));
+	}
+
+	public static class Ccc {
+		public String getCcc() {
+			return "c";
+		}
+	}
+}